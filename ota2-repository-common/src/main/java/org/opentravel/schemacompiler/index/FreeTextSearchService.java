@@ -71,6 +71,8 @@ public abstract class FreeTextSearchService implements IndexingTerms {
 	
 	private static final String ERROR_RELEASING_INDEX_SEARCHER = "Error releasing index searcher.";
 	private static final String WHERE_USED_QUERY_ERROR = "Error executing where-used query for entity: ";
+	private static final String CURSOR_SEPARATOR = ":";
+	private static final int QUERY_PAGE_SIZE = 100;
 	
 	private static final Set<String> nonContentAttrs = new HashSet<>( Arrays.asList(
 			IDENTITY_FIELD, ENTITY_TYPE_FIELD, ENTITY_NAME_FIELD, ENTITY_NAMESPACE_FIELD,
@@ -394,6 +396,89 @@ public abstract class FreeTextSearchService implements IndexingTerms {
      */
     public List<SearchResult<?>> search(String freeText, TLLibraryStatus includeStatus,
     		boolean latestVersionsOnly, boolean resolveContent) throws RepositoryException {
+		Query searchQuery = newFreeTextQuery( freeText, includeStatus, latestVersionsOnly );
+		List<SearchResult<?>> searchResults = new ArrayList<>();
+		List<Document> queryResults = executeQuery( searchQuery, resolveContent ? null : nonContentAttrs );
+		
+		for (Document doc : queryResults) {
+			searchResults.add( newSearchResult( doc ) );
+		}
+		return searchResults;
+    }
+    
+    /**
+     * Performs a free-text search of the repository index and returns a single page of the results.  Pages
+     * are retrieved using the cursor returned with the previous page, so the index hits that precede the
+     * page are never loaded.  Cursors identify a position within the current state of the search index;
+     * if the index is modified between requests, subsequent pages may omit or repeat some results.
+     * 
+     * @param freeText  the free-text search criteria / keywords
+     * @param includeStatus  indicates the latest library status to include in the results (null = all statuses)
+     * @param latestVersionsOnly  flag indicating whether only the latest versions of a library or entity should
+     *							  be returned in the search results
+     * @param resolveContent  flag indicating whether the content DETAILS should be pre-resolved; if false, content
+     *						  is still available in the search results, but it will be initialized in a lazy fashion
+     * @param cursor  the cursor returned with the previous page of results (null for the first page)
+     * @param pageSize  the maximum number of results to return on the page
+     * @return SearchResultPage
+     * @throws RepositoryException  thrown if an error occurs while performing the search
+     */
+    public SearchResultPage search(String freeText, TLLibraryStatus includeStatus, boolean latestVersionsOnly,
+    		boolean resolveContent, String cursor, int pageSize) throws RepositoryException {
+		Query searchQuery = newFreeTextQuery( freeText, includeStatus, latestVersionsOnly );
+		Set<String> fieldSet = resolveContent ? null : nonContentAttrs;
+		ScoreDoc after = parseCursor( cursor );
+        IndexSearcher searcher = null;
+        
+        if (pageSize <= 0) {
+        	throw new IllegalArgumentException("The page size must be a positive value.");
+        }
+        try {
+        	searchLock.readLock().lock();
+            searcher = searchManager.acquire();
+            
+            // Request one extra hit to determine whether another page is available
+            TopDocs queryResults = searcher.searchAfter( after, searchQuery, pageSize + 1 );
+            ScoreDoc[] scoreDocs = queryResults.scoreDocs;
+            int resultCount = Math.min( scoreDocs.length, pageSize );
+        	List<SearchResult<?>> searchResults = new ArrayList<>();
+            
+            for (int i = 0; i < resultCount; i++) {
+            	Document doc = (fieldSet == null) ?
+            			searcher.doc( scoreDocs[i].doc ) : searcher.doc( scoreDocs[i].doc, fieldSet );
+            	
+            	searchResults.add( newSearchResult( doc ) );
+            }
+            return new SearchResultPage( searchResults,
+            		(scoreDocs.length > pageSize) ? formatCursor( scoreDocs[pageSize - 1] ) : null );
+            
+        } catch (Exception e) {
+            throw new RepositoryException(
+            		"Error executing search index query: \"" + searchQuery.toString() + "\"", e);
+
+        } finally {
+            try {
+                if (searcher != null) searchManager.release(searcher);
+
+            } catch (Exception e) {
+                log.error(ERROR_RELEASING_INDEX_SEARCHER, e);
+            }
+        	searchLock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Constructs the index query for a free-text search of the repository.
+     * 
+     * @param freeText  the free-text search criteria / keywords
+     * @param includeStatus  indicates the latest library status to include in the results (null = all statuses)
+     * @param latestVersionsOnly  flag indicating whether only the latest versions of a library or entity should
+     *							  be returned in the search results
+     * @return Query
+     * @throws RepositoryException  thrown if the free-text search criteria cannot be parsed
+     */
+    private Query newFreeTextQuery(String freeText, TLLibraryStatus includeStatus, boolean latestVersionsOnly)
+    		throws RepositoryException {
     	try {
 			Query keywordQuery = new QueryParser( KEYWORDS_FIELD, new StandardAnalyzer()).parse( freeText + "~" );
 			BooleanQuery statusQuery = null;
@@ -461,29 +546,75 @@ public abstract class FreeTextSearchService implements IndexingTerms {
 			if (latestVersionQuery != null) {
 				masterQuery.add( new BooleanClause( latestVersionQuery, Occur.MUST ) );
 			}
-			
-			// Execute the query and assemble the search results
-			List<SearchResult<?>> searchResults = new ArrayList<>();
-			List<Document> queryResults = executeQuery( masterQuery, resolveContent ? null : nonContentAttrs );
-			
-			for (Document doc : queryResults) {
-				if (TLLibrary.class.getName().equals( doc.get( ENTITY_TYPE_FIELD ) )) {
-					searchResults.add( new LibrarySearchResult( doc, repositoryManager, this ) );
-					
-				} else if (Release.class.getName().equals( doc.get( ENTITY_TYPE_FIELD ) )) {
-					searchResults.add( new ReleaseSearchResult( doc, this ) );
-					
-				} else {
-					searchResults.add( new EntitySearchResult( doc, this ) );
-				}
-			}
-	    		return searchResults;
+			return masterQuery;
 	    	
 		} catch (ParseException e) {
 			throw new RepositoryException("Error in free-text search query.", e);
 		}
     }
     
+    /**
+     * Returns the library, release, or entity search result for the given index document.
+     * 
+     * @param doc  the search index document for which to create a result
+     * @return SearchResult<?>
+     */
+    private SearchResult<?> newSearchResult(Document doc) {
+    	SearchResult<?> result;
+    	
+		if (TLLibrary.class.getName().equals( doc.get( ENTITY_TYPE_FIELD ) )) {
+			result = new LibrarySearchResult( doc, repositoryManager, this );
+			
+		} else if (Release.class.getName().equals( doc.get( ENTITY_TYPE_FIELD ) )) {
+			result = new ReleaseSearchResult( doc, this );
+			
+		} else {
+			result = new EntitySearchResult( doc, this );
+		}
+		return result;
+    }
+    
+    /**
+     * Returns the string representation of a paging cursor that identifies the given index hit.
+     * 
+     * @param scoreDoc  the last index hit on the current page of results
+     * @return String
+     */
+    private String formatCursor(ScoreDoc scoreDoc) {
+    	return Integer.toHexString( scoreDoc.doc ) + CURSOR_SEPARATOR
+    			+ Integer.toHexString( Float.floatToIntBits( scoreDoc.score ) );
+    }
+    
+    /**
+     * Returns the index hit that is identified by the given paging cursor.
+     * 
+     * @param cursor  the paging cursor to parse (may be null)
+     * @return ScoreDoc
+     * @throws RepositoryException  thrown if the cursor is not valid
+     */
+    private ScoreDoc parseCursor(String cursor) throws RepositoryException {
+    	ScoreDoc scoreDoc = null;
+    	
+    	if ((cursor != null) && (cursor.length() > 0)) {
+    		int separatorIdx = cursor.indexOf( CURSOR_SEPARATOR );
+    		
+    		try {
+    			if (separatorIdx <= 0) {
+    				throw new NumberFormatException();
+    			}
+    			int doc = Integer.parseUnsignedInt( cursor.substring( 0, separatorIdx ), 16 );
+    			float score = Float.intBitsToFloat(
+    					Integer.parseUnsignedInt( cursor.substring( separatorIdx + 1 ), 16 ) );
+    			
+    			scoreDoc = new ScoreDoc( doc, score );
+    			
+    		} catch (NumberFormatException e) {
+    			throw new RepositoryException("Invalid search cursor: " + cursor);
+    		}
+    	}
+    	return scoreDoc;
+    }
+    
     /**
      * Returns the library with the specified search index ID.
      * 
@@ -1237,7 +1368,9 @@ public abstract class FreeTextSearchService implements IndexingTerms {
     }
     
     /**
-     * Executes the given query and returns the resulting list of search index documents.
+     * Executes the given query and returns the resulting list of search index documents.  The
+     * query results are collected one page at a time, so that the hit queue for each search is
+     * bounded by the page size instead of the number of documents in the index.
      * 
      * @param searcher  the searcher to use for the query operation
      * @param query  the search index query to execute
@@ -1248,20 +1381,25 @@ public abstract class FreeTextSearchService implements IndexingTerms {
     protected List<Document> executeQuery(IndexSearcher searcher, Query query, Set<String> fieldSet) throws RepositoryException {
         try {
         	List<Document> docList = new ArrayList<>();
-    		TopDocs queryResults;
+    		ScoreDoc[] scoreDocs;
+    		ScoreDoc after = null;
     		
     		if (log.isDebugEnabled()) {
     			log.debug("Executing Query - " + query.toString());
     		}
     		
-            queryResults = searcher.search( query, Integer.MAX_VALUE );
-        	
-            for (ScoreDoc queryDoc : queryResults.scoreDocs) {
-            	Document doc = (fieldSet == null) ?
-            			searcher.doc( queryDoc.doc ) : searcher.doc( queryDoc.doc, fieldSet );
+    		do {
+                scoreDocs = searcher.searchAfter( after, query, QUERY_PAGE_SIZE ).scoreDocs;
             	
-            	docList.add( doc );
-            }
+                for (ScoreDoc queryDoc : scoreDocs) {
+                	Document doc = (fieldSet == null) ?
+                			searcher.doc( queryDoc.doc ) : searcher.doc( queryDoc.doc, fieldSet );
+                	
+                	docList.add( doc );
+                	after = queryDoc;
+                }
+    		} while (scoreDocs.length == QUERY_PAGE_SIZE);
+    		
             return docList;
             
         } catch (Exception e) {
@@ -0,0 +1,58 @@
+/**
+ * Copyright (C) 2014 OpenTravel Alliance (info@opentravel.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opentravel.schemacompiler.index;
+
+import java.util.List;
+
+/**
+ * Single page of results from a free-text search, along with the cursor that can be used to
+ * retrieve the next page.
+ */
+public class SearchResultPage {
+	
+	private List<SearchResult<?>> results;
+	private String nextCursor;
+	
+	/**
+	 * Constructor that specifies the contents of the page.
+	 * 
+	 * @param results  the search results on this page
+	 * @param nextCursor  the cursor for the next page of results (null if this is the last page)
+	 */
+	public SearchResultPage(List<SearchResult<?>> results, String nextCursor) {
+		this.results = results;
+		this.nextCursor = nextCursor;
+	}
+	
+	/**
+	 * Returns the search results on this page.
+	 *
+	 * @return List<SearchResult<?>>
+	 */
+	public List<SearchResult<?>> getResults() {
+		return results;
+	}
+	
+	/**
+	 * Returns the cursor for the next page of results, or null if this is the last page.
+	 *
+	 * @return String
+	 */
+	public String getNextCursor() {
+		return nextCursor;
+	}
+	
+}
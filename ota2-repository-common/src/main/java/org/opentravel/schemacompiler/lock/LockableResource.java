@@ -24,6 +24,7 @@ public class LockableResource {
 
     private String namespace;
     private String resourceName;
+    private long acquiredTime;
 
     /**
      * Full constructor that assigns the namespace and local name of the resource.
@@ -58,6 +59,25 @@ public class LockableResource {
         return resourceName;
     }
 
+    /**
+     * Returns the system time (in nanoseconds) at which the lock for this resource was acquired.
+     * 
+     * @return long
+     */
+    long getAcquiredTime() {
+        return acquiredTime;
+    }
+
+    /**
+     * Assigns the system time (in nanoseconds) at which the lock for this resource was acquired.
+     * 
+     * @param acquiredTime
+     *            the time at which the lock was acquired
+     */
+    void setAcquiredTime(long acquiredTime) {
+        this.acquiredTime = acquiredTime;
+    }
+
     /**
      * @see java.lang.Object#equals(java.lang.Object)
      */
@@ -15,18 +15,28 @@
  */
 package org.opentravel.schemacompiler.lock;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.opentravel.schemacompiler.repository.RepositoryException;
 
 /**
  * Maintains a central registry of read and write locks for named resources in a multi-threaded
  * environment.
  * 
+ * <p>
+ * Locks are held in a concurrent table, so requests for different resources do not contend
+ * with one another. Each entry in the table is reference-counted by the threads that hold or
+ * are waiting for its lock, and the entry is removed as soon as the last of those threads
+ * releases it. Lock-wait and hold-time metrics are available from <code>getStatistics()</code>.
+ * 
  * @author S. Livezey
  */
 public class RepositoryLockManager {
@@ -36,10 +46,21 @@ public class RepositoryLockManager {
      */
     public static final long DEFAULT_TIMEOUT = 5000;
 
+    private static final String READ_LOCK = "read";
+    private static final String WRITE_LOCK = "write";
+
+    private static Log log = LogFactory.getLog(RepositoryLockManager.class);
     private static RepositoryLockManager defaultInstance = new RepositoryLockManager();
     private static long timeout = DEFAULT_TIMEOUT;
 
-    private Map<LockableResource,ReentrantReadWriteLock> lockRegistry = new HashMap<>();
+    private Map<LockableResource,LockEntry> lockTable = new ConcurrentHashMap<>();
+    private LongAdder acquiredCount = new LongAdder();
+    private LongAdder timeoutCount = new LongAdder();
+    private LongAdder totalWaitTime = new LongAdder();
+    private AtomicLong maxWaitTime = new AtomicLong();
+    private LongAdder releasedCount = new LongAdder();
+    private LongAdder totalHoldTime = new LongAdder();
+    private AtomicLong maxHoldTime = new AtomicLong();
 
     /**
      * Default constructor (private - use singleton instance instead).
@@ -90,18 +111,7 @@ public class RepositoryLockManager {
      */
     public LockableResource acquireReadLock(String namespace, String resourceName)
             throws RepositoryException {
-        LockableResource resource = new LockableResource(namespace, resourceName);
-        try {
-            ReadWriteLock lock = getReadWriteLock(resource);
-
-            lock.readLock().tryLock(timeout, TimeUnit.MILLISECONDS);
-            return resource;
-
-        } catch (InterruptedException e) {
-        	Thread.currentThread().interrupt();
-            throw new RepositoryException("Timed out waiting for read lock for resource: "
-                    + resourceName, e);
-        }
+        return acquireLock(new LockableResource(namespace, resourceName), false);
     }
 
     /**
@@ -113,11 +123,7 @@ public class RepositoryLockManager {
      *             thrown if the current thread does not own a read lock on the resource
      */
     public void releaseReadLock(LockableResource resource) throws RepositoryException {
-		ReadWriteLock lock = getReadWriteLock( resource );
-		
-		synchronized (lock) {
-			lock.readLock().unlock();
-		}
+        releaseLock(resource, false);
     }
 
     /**
@@ -134,18 +140,7 @@ public class RepositoryLockManager {
      */
     public LockableResource acquireWriteLock(String namespace, String resourceName)
             throws RepositoryException {
-        LockableResource resource = new LockableResource(namespace, resourceName);
-        try {
-            ReadWriteLock lock = getReadWriteLock(resource);
-
-            lock.writeLock().tryLock(timeout, TimeUnit.MILLISECONDS);
-            return resource;
-
-        } catch (InterruptedException e) {
-        	Thread.currentThread().interrupt();
-            throw new RepositoryException("Timed out waiting for write lock for resource: "
-                    + resourceName, e);
-        }
+        return acquireLock(new LockableResource(namespace, resourceName), true);
     }
 
     /**
@@ -157,26 +152,171 @@ public class RepositoryLockManager {
      *             thrown if the current thread does not own a read lock on the resource
      */
     public void releaseWriteLock(LockableResource resource) throws RepositoryException {
-    		ReadWriteLock lock = getReadWriteLock( resource );
-    		
-    		synchronized (lock) {
-    			lock.writeLock().unlock();
-    		}
+        releaseLock(resource, true);
+    }
+
+    /**
+     * Returns a snapshot of the lock-wait and hold-time metrics that have been collected since
+     * the lock manager was initialized.
+     * 
+     * @return RepositoryLockStatistics
+     */
+    public RepositoryLockStatistics getStatistics() {
+        return new RepositoryLockStatistics(acquiredCount.sum(), timeoutCount.sum(),
+                toMillis(totalWaitTime.sum()), toMillis(maxWaitTime.get()), releasedCount.sum(),
+                toMillis(totalHoldTime.sum()), toMillis(maxHoldTime.get()), lockTable.size());
+    }
+
+    /**
+     * Acquires a read or write lock on the given resource.
+     * 
+     * @param resource
+     *            the resource to be locked
+     * @param writeLock
+     *            flag indicating whether a write lock (true) or a read lock (false) is required
+     * @return LockableResource
+     * @throws RepositoryException
+     *             thrown if the timeout expires before the lock can be established
+     */
+    private LockableResource acquireLock(LockableResource resource, boolean writeLock)
+            throws RepositoryException {
+        String lockType = writeLock ? WRITE_LOCK : READ_LOCK;
+        Lock lock = getLock(addReference(resource), writeLock);
+        long startTime = System.nanoTime();
+        boolean acquired = false;
+
+        try {
+            acquired = lock.tryLock(timeout, TimeUnit.MILLISECONDS);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RepositoryException("Interrupted while waiting for " + lockType
+                    + " lock for resource: " + resource.getResourceName(), e);
+
+        } finally {
+            long waitTime = System.nanoTime() - startTime;
+
+            totalWaitTime.add(waitTime);
+            maxWaitTime.accumulateAndGet(waitTime, Math::max);
+
+            if (!acquired) {
+                removeReference(resource);
+            }
+        }
+
+        if (!acquired) {
+            timeoutCount.increment();
+            log.warn("Timed out waiting for " + lockType + " lock for resource: "
+                    + resource.getNamespace() + " : " + resource.getResourceName());
+            throw new RepositoryException("Timed out waiting for " + lockType
+                    + " lock for resource: " + resource.getResourceName());
+        }
+        resource.setAcquiredTime(System.nanoTime());
+        acquiredCount.increment();
+        return resource;
     }
 
     /**
-     * Obtains a read/write lock from the registry. If a lock instance for the resource does not
-     * already exist, it is created automatically.
+     * Releases a read or write lock that was previously acquired for the given resource.
      * 
      * @param resource
-     *            the resource for which the lock should be retrieved
-     * @return ReadWriteLock
+     *            the resource whose lock is to be released
+     * @param writeLock
+     *            flag indicating whether a write lock (true) or a read lock (false) is to be
+     *            released
+     * @throws RepositoryException
+     *             thrown if the current thread does not own the lock on the resource
      */
-    private ReadWriteLock getReadWriteLock(LockableResource resource) {
-        synchronized (lockRegistry) {
-            lockRegistry.computeIfAbsent( resource, r -> lockRegistry.put( r, new ReentrantReadWriteLock( true ) ) );
-            return lockRegistry.get(resource);
+    private void releaseLock(LockableResource resource, boolean writeLock)
+            throws RepositoryException {
+        String lockType = writeLock ? WRITE_LOCK : READ_LOCK;
+        LockEntry entry = lockTable.get(resource);
+
+        if (entry == null) {
+            throw new RepositoryException("No " + lockType + " lock is held for resource: "
+                    + resource.getResourceName());
+        }
+        try {
+            getLock(entry, writeLock).unlock();
+
+        } catch (IllegalMonitorStateException e) {
+            throw new RepositoryException("The current thread does not own a " + lockType
+                    + " lock for resource: " + resource.getResourceName(), e);
         }
+        removeReference(resource);
+        releasedCount.increment();
+
+        if (resource.getAcquiredTime() != 0) {
+            long holdTime = System.nanoTime() - resource.getAcquiredTime();
+
+            totalHoldTime.add(holdTime);
+            maxHoldTime.accumulateAndGet(holdTime, Math::max);
+            resource.setAcquiredTime(0);
+        }
+    }
+
+    /**
+     * Returns the table entry for the given resource after incrementing its reference count. If
+     * an entry for the resource does not already exist, it is created automatically.
+     * 
+     * @param resource
+     *            the resource for which the entry should be retrieved
+     * @return LockEntry
+     */
+    private LockEntry addReference(LockableResource resource) {
+        return lockTable.compute(resource, (r, entry) -> {
+            LockEntry lockEntry = (entry == null) ? new LockEntry() : entry;
+
+            lockEntry.references++;
+            return lockEntry;
+        });
+    }
+
+    /**
+     * Decrements the reference count of the table entry for the given resource, removing the
+     * entry from the table when it is no longer referenced.
+     * 
+     * @param resource
+     *            the resource whose entry is no longer referenced by the current thread
+     */
+    private void removeReference(LockableResource resource) {
+        lockTable.computeIfPresent(resource, (r, entry) -> (--entry.references == 0) ? null : entry);
+    }
+
+    /**
+     * Returns the read or write lock from the given table entry.
+     * 
+     * @param entry
+     *            the lock table entry
+     * @param writeLock
+     *            flag indicating whether the write lock (true) or the read lock (false) is required
+     * @return Lock
+     */
+    private Lock getLock(LockEntry entry, boolean writeLock) {
+        return writeLock ? entry.lock.writeLock() : entry.lock.readLock();
+    }
+
+    /**
+     * Converts the given number of nanoseconds to milliseconds.
+     * 
+     * @param nanos
+     *            the number of nanoseconds to convert
+     * @return long
+     */
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    /**
+     * Entry in the lock table that tracks the number of threads that hold or are waiting for the
+     * lock of a resource. The reference count is only modified while the entry's mapping in the
+     * table is being computed.
+     */
+    private static class LockEntry {
+
+        private ReentrantReadWriteLock lock = new ReentrantReadWriteLock(true);
+        private int references;
+
     }
 
 }
@@ -0,0 +1,141 @@
+/**
+ * Copyright (C) 2014 OpenTravel Alliance (info@opentravel.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opentravel.schemacompiler.lock;
+
+/**
+ * Snapshot of the lock-wait and hold-time metrics that have been collected by the
+ * <code>RepositoryLockManager</code>.
+ *
+ * @author S. Livezey
+ */
+public class RepositoryLockStatistics {
+
+    private long acquiredCount;
+    private long timeoutCount;
+    private long totalWaitTime;
+    private long maxWaitTime;
+    private long releasedCount;
+    private long totalHoldTime;
+    private long maxHoldTime;
+    private int activeResourceCount;
+
+    /**
+     * Full constructor.
+     *
+     * @param acquiredCount
+     *            the number of locks that have been acquired
+     * @param timeoutCount
+     *            the number of lock requests that timed out
+     * @param totalWaitTime
+     *            the total time (in milliseconds) spent waiting for locks
+     * @param maxWaitTime
+     *            the longest time (in milliseconds) spent waiting for a lock
+     * @param releasedCount
+     *            the number of locks that have been released
+     * @param totalHoldTime
+     *            the total time (in milliseconds) that released locks were held
+     * @param maxHoldTime
+     *            the longest time (in milliseconds) that a released lock was held
+     * @param activeResourceCount
+     *            the number of resources that are currently locked or awaiting a lock
+     */
+    RepositoryLockStatistics(long acquiredCount, long timeoutCount, long totalWaitTime,
+            long maxWaitTime, long releasedCount, long totalHoldTime, long maxHoldTime,
+            int activeResourceCount) {
+        this.acquiredCount = acquiredCount;
+        this.timeoutCount = timeoutCount;
+        this.totalWaitTime = totalWaitTime;
+        this.maxWaitTime = maxWaitTime;
+        this.releasedCount = releasedCount;
+        this.totalHoldTime = totalHoldTime;
+        this.maxHoldTime = maxHoldTime;
+        this.activeResourceCount = activeResourceCount;
+    }
+
+    /**
+     * Returns the number of locks that have been acquired.
+     *
+     * @return long
+     */
+    public long getAcquiredCount() {
+        return acquiredCount;
+    }
+
+    /**
+     * Returns the number of lock requests that timed out.
+     *
+     * @return long
+     */
+    public long getTimeoutCount() {
+        return timeoutCount;
+    }
+
+    /**
+     * Returns the total time (in milliseconds) that all requests have spent waiting for locks,
+     * including requests that timed out.
+     *
+     * @return long
+     */
+    public long getTotalWaitTime() {
+        return totalWaitTime;
+    }
+
+    /**
+     * Returns the longest time (in milliseconds) that a request has spent waiting for a lock.
+     *
+     * @return long
+     */
+    public long getMaxWaitTime() {
+        return maxWaitTime;
+    }
+
+    /**
+     * Returns the number of locks that have been released.
+     *
+     * @return long
+     */
+    public long getReleasedCount() {
+        return releasedCount;
+    }
+
+    /**
+     * Returns the total time (in milliseconds) that released locks were held.
+     *
+     * @return long
+     */
+    public long getTotalHoldTime() {
+        return totalHoldTime;
+    }
+
+    /**
+     * Returns the longest time (in milliseconds) that a released lock was held.
+     *
+     * @return long
+     */
+    public long getMaxHoldTime() {
+        return maxHoldTime;
+    }
+
+    /**
+     * Returns the number of resources that are currently locked or awaiting a lock.
+     *
+     * @return int
+     */
+    public int getActiveResourceCount() {
+        return activeResourceCount;
+    }
+
+}
@@ -20,8 +20,12 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
@@ -53,12 +57,23 @@ import org.tmatesoft.svn.core.wc.SVNWCUtil;
  * repository. Likewise, all of the files in change sets that are rolled back are reverted to their
  * previous state.
  * 
+ * <p>
+ * By default, each change set is committed to Subversion as soon as it is received. If a group
+ * commit latency is assigned (either by the 'ota2.repository.svnGroupCommitLatency' system property
+ * or the <code>setGroupCommitLatency()</code> method), change sets that are received within that
+ * number of milliseconds of one another are merged into a single Subversion commit. If the merged
+ * commit fails, each of its change sets is committed on its own so that the failure is only
+ * reported to the users whose change sets could not be committed.
+ * 
  * @author S. Livezey
  */
 public class SVNRepositoryFileManager extends RepositoryFileManager {
 
     private static final String INITIALIZATION_COMMIT_MESSAGE = "New content detected during repository initialization.";
     private static final String USER_COMMIT_MESSAGE = "Committed by repository user: {0}.";
+    private static final String GROUP_COMMIT_MESSAGE = "Committed by repository users: {0}.";
+
+    public static final String GROUP_COMMIT_LATENCY_PROPERTY = "ota2.repository.svnGroupCommitLatency";
 
     private static Object svnCommitLock = new Object();
     private static Log log = LogFactory.getLog(SVNRepositoryFileManager.class);
@@ -66,6 +81,9 @@ public class SVNRepositoryFileManager extends RepositoryFileManager {
     private ThreadLocal<Set<File>> svnChangeSet = ThreadLocal.withInitial( HashSet::new );
 
     private SVNClientManager svnClient;
+    private long groupCommitLatency = Long.getLong(GROUP_COMMIT_LATENCY_PROPERTY, 0L);
+    private List<PendingCommit> pendingCommits = new ArrayList<>();
+    private boolean groupCommitScheduled = false;
 
     /**
      * Constructor that initializes the OTA2.0 repository folder for use with the Subversion client
@@ -108,33 +126,60 @@ public class SVNRepositoryFileManager extends RepositoryFileManager {
         initializeSVNRepository(repositoryLocation, svnConfigDirectory, svnCredentialsFile);
     }
 
+    /**
+     * Returns the maximum number of milliseconds that a change set will wait for other change sets
+     * to be merged with it in a single SVN commit. A value of zero (the default) indicates that
+     * each change set will be committed on its own.
+     * 
+     * @return long
+     */
+    public long getGroupCommitLatency() {
+        return groupCommitLatency;
+    }
+
+    /**
+     * Assigns the maximum number of milliseconds that a change set will wait for other change sets
+     * to be merged with it in a single SVN commit. A value of zero indicates that each change set
+     * will be committed on its own.
+     * 
+     * @param groupCommitLatency
+     *            the group commit latency to assign (in milliseconds)
+     */
+    public void setGroupCommitLatency(long groupCommitLatency) {
+        this.groupCommitLatency = Math.max(groupCommitLatency, 0L);
+    }
+
     /**
      * @see org.opentravel.schemacompiler.repository.RepositoryFileManager#commitChangeSet(java.util.Set)
      */
     @Override
     protected void commitChangeSet(Set<File> changeSet) throws RepositoryException {
-        synchronized (svnCommitLock) {
-            try {
-                // Add any unmanaged files to SVN version control before committing
-                File[] svnFiles = buildSvnChangeSet(changeSet);
-                
-                // Commit the changes from the change set
-                if (svnFiles.length > 0) {
-                    SVNCommitClient commitClient = svnClient.getCommitClient();
-                    SVNCommitPacket commitPacket = commitClient.doCollectCommitItems(svnFiles, false,
-                            false, SVNDepth.INFINITY, null);
-
-                    if (commitPacket.getCommitItems().length > 0) {
-                        String userId = getCurrentUserId();
-
-                        commitClient.doCommit(commitPacket, false, MessageFormat.format(
-                                USER_COMMIT_MESSAGE, (userId == null) ? "Unknown" : userId));
-                    }
-                }
-            } catch (SVNException e) {
-                throw new RepositoryException("SVN error while committing change set: "
-                        + e.getMessage(), e);
+        PendingCommit commit = new PendingCommit(changeSet, getCurrentUserId());
+
+        if (groupCommitLatency > 0) {
+            boolean isGroupLeader;
+
+            synchronized (pendingCommits) {
+                pendingCommits.add(commit);
+                isGroupLeader = !groupCommitScheduled;
+                groupCommitScheduled = true;
             }
+
+            // The first thread to arrive waits for others to join the group and commits the
+            // change sets on their behalf; all other threads wait for the result of the group
+            if (isGroupLeader) {
+                commitPendingChangeSets();
+            }
+            commit.awaitResult();
+
+        } else {
+            synchronized (svnCommitLock) {
+                commitChangeSets(Collections.singletonList(commit));
+            }
+        }
+
+        if (commit.error != null) {
+            throw commit.error;
         }
     }
 
@@ -166,6 +211,109 @@ public class SVNRepositoryFileManager extends RepositoryFileManager {
         }
     }
 
+    /**
+     * Waits for the group commit latency to expire, and then commits all of the change sets that
+     * were received in the meantime. Each of the pending commits is notified of its result before
+     * this method returns.
+     */
+    private void commitPendingChangeSets() {
+        boolean interrupted = false;
+        List<PendingCommit> commitGroup;
+
+        try {
+            Thread.sleep(groupCommitLatency);
+
+        } catch (InterruptedException e) {
+            // The other members of the group are waiting, so the commit must proceed
+            interrupted = true;
+        }
+
+        synchronized (pendingCommits) {
+            commitGroup = new ArrayList<>(pendingCommits);
+            pendingCommits.clear();
+            groupCommitScheduled = false;
+        }
+
+        try {
+            synchronized (svnCommitLock) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Committing group of " + commitGroup.size() + " change set(s).");
+                }
+                if (commitGroup.size() > 1) {
+                    commitChangeSets(commitGroup);
+
+                    // If the merged commit failed, commit each change set on its own so that
+                    // only the change sets that are actually in error will fail
+                    if (commitGroup.get(0).error != null) {
+                        log.warn("Group commit failed - committing change sets individually.",
+                                commitGroup.get(0).error);
+
+                        for (PendingCommit commit : commitGroup) {
+                            commitChangeSets(Collections.singletonList(commit));
+                        }
+                    }
+
+                } else {
+                    commitChangeSets(commitGroup);
+                }
+            }
+
+        } finally {
+            for (PendingCommit commit : commitGroup) {
+                commit.complete();
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Commits the change sets of the given pending commits to SVN as a single revision. If the
+     * commit fails, the resulting error is assigned to each of the pending commits; otherwise,
+     * their errors are cleared.
+     * 
+     * @param commitGroup
+     *            the pending commits whose change sets are to be committed
+     */
+    private void commitChangeSets(List<PendingCommit> commitGroup) {
+        Set<File> changeSet = new HashSet<>();
+        Set<String> userIds = new LinkedHashSet<>();
+        RepositoryException error = null;
+
+        for (PendingCommit commit : commitGroup) {
+            changeSet.addAll(commit.changeSet);
+            userIds.add((commit.userId == null) ? "Unknown" : commit.userId);
+        }
+
+        try {
+            // Add any unmanaged files to SVN version control before committing
+            File[] svnFiles = buildSvnChangeSet(changeSet);
+
+            // Commit the changes from the change set
+            if (svnFiles.length > 0) {
+                SVNCommitClient commitClient = svnClient.getCommitClient();
+                SVNCommitPacket commitPacket = commitClient.doCollectCommitItems(svnFiles, false,
+                        false, SVNDepth.INFINITY, null);
+
+                if (commitPacket.getCommitItems().length > 0) {
+                    String commitMessage = (userIds.size() == 1) ? USER_COMMIT_MESSAGE
+                            : GROUP_COMMIT_MESSAGE;
+
+                    commitClient.doCommit(commitPacket, false, MessageFormat.format(commitMessage,
+                            String.join(", ", userIds)));
+                }
+            }
+        } catch (SVNException e) {
+            error = new RepositoryException("SVN error while committing change set: "
+                    + e.getMessage(), e);
+        }
+
+        for (PendingCommit commit : commitGroup) {
+            commit.error = error;
+        }
+    }
+
     /**
      * Initializes the OTA2.0 repository file system for use with the Subversion client. Prior to
      * returning, this method updates the contents of the entire repository from the SVN server.
@@ -333,6 +481,62 @@ public class SVNRepositoryFileManager extends RepositoryFileManager {
         return threadLocalChangeSet.toArray(new File[threadLocalChangeSet.size()]);
     }
 
+    /**
+     * Change set that is waiting to be committed to SVN, along with the result of the commit once
+     * it has been attempted.
+     */
+    private static class PendingCommit {
+
+        private Set<File> changeSet;
+        private String userId;
+        private RepositoryException error;
+        private boolean completed = false;
+
+        /**
+         * Constructor that specifies the change set to be committed and the ID of the user who
+         * created it.
+         * 
+         * @param changeSet
+         *            the files in the change set to be committed
+         * @param userId
+         *            the ID of the user who created the change set (may be null)
+         */
+        public PendingCommit(Set<File> changeSet, String userId) {
+            this.changeSet = new HashSet<>(changeSet);
+            this.userId = userId;
+        }
+
+        /**
+         * Marks this commit as completed and releases the thread that is waiting for its result.
+         */
+        public synchronized void complete() {
+            completed = true;
+            notifyAll();
+        }
+
+        /**
+         * Blocks the current thread until this commit has been completed. The commit must be
+         * allowed to finish, so the thread's interrupt status is restored (instead of returning
+         * early) if it is interrupted while waiting.
+         */
+        public synchronized void awaitResult() {
+            boolean interrupted = false;
+
+            while (!completed) {
+                try {
+                    wait();
+
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+    }
+
     /**
      * Event handler for processing status checks on repository files to determine which items have
      * been added, modified, and deleted on the local working copy. Any changes are added to the
@@ -0,0 +1,49 @@
+/**
+ * Copyright (C) 2014 OpenTravel Alliance (info@opentravel.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opentravel.schemacompiler.providers;
+
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.ext.Provider;
+
+import org.opentravel.schemacompiler.repository.impl.RemoteRepositoryConnectionManager;
+
+/**
+ * Advertises the content encodings that the repository service is able to decode for request
+ * entities. Remote repository clients only compress the requests they send to a service that
+ * returns this header, since a compressed response alone may have been produced by a proxy.
+ *
+ * @author S. Livezey
+ */
+@Provider
+public final class RequestEncodingFilter implements ContainerResponseFilter {
+
+    public static final String SUPPORTED_REQUEST_ENCODINGS = "gzip, deflate";
+
+    /**
+     * @see javax.ws.rs.container.ContainerResponseFilter#filter(javax.ws.rs.container.ContainerRequestContext,
+     *      javax.ws.rs.container.ContainerResponseContext)
+     */
+    @Override
+    public void filter(ContainerRequestContext requestContext,
+            ContainerResponseContext responseContext) {
+        responseContext.getHeaders().putSingle(
+                RemoteRepositoryConnectionManager.REQUEST_ENCODING_HEADER,
+                SUPPORTED_REQUEST_ENCODINGS);
+    }
+
+}
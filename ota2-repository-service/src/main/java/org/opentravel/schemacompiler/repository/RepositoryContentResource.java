@@ -18,6 +18,8 @@ package org.opentravel.schemacompiler.repository;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
 import java.util.Collections;
 import java.util.EnumMap;
 import java.util.HashMap;
@@ -25,6 +27,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DefaultValue;
@@ -35,16 +39,22 @@ import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.ResponseBuilder;
+import javax.ws.rs.core.StreamingOutput;
 import javax.xml.bind.JAXBElement;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.glassfish.jersey.media.multipart.FormDataContentDisposition;
 import org.glassfish.jersey.media.multipart.FormDataParam;
 import org.glassfish.jersey.server.ResourceConfig;
+import org.opentravel.ns.ota2.repositoryinfo_v01_00.DownloadItemType;
+import org.opentravel.ns.ota2.repositoryinfo_v01_00.DownloadItemsRQType;
 import org.opentravel.ns.ota2.repositoryinfo_v01_00.EntityInfoListType;
 import org.opentravel.ns.ota2.repositoryinfo_v01_00.EntityInfoType;
 import org.opentravel.ns.ota2.repositoryinfo_v01_00.LibraryHistoryType;
@@ -65,9 +75,11 @@ import org.opentravel.schemacompiler.index.FreeTextSearchServiceFactory;
 import org.opentravel.schemacompiler.index.LibrarySearchResult;
 import org.opentravel.schemacompiler.index.ReleaseSearchResult;
 import org.opentravel.schemacompiler.index.SearchResult;
+import org.opentravel.schemacompiler.index.SearchResultPage;
 import org.opentravel.schemacompiler.lock.LockableResource;
 import org.opentravel.schemacompiler.lock.RepositoryLockManager;
 import org.opentravel.schemacompiler.model.TLLibraryStatus;
+import org.opentravel.schemacompiler.repository.impl.ContentCrcInputStream;
 import org.opentravel.schemacompiler.repository.impl.RepositoryItemImpl;
 import org.opentravel.schemacompiler.repository.impl.RepositoryUtils;
 import org.opentravel.schemacompiler.security.RepositorySecurityManager;
@@ -85,6 +97,7 @@ import org.opentravel.schemacompiler.version.VersionSchemeFactory;
 public class RepositoryContentResource {
 
 	private static final String USER_NOT_AUTHORIZED = "The user does not have permission to access the requested resource.";
+	private static final char LIST_CURSOR_SEPARATOR = '|';
 	
 	private static ObjectFactory objectFactory = new ObjectFactory();
     static Log log = LogFactory.getLog(RepositoryContentResource.class);
@@ -264,9 +277,20 @@ public class RepositoryContentResource {
      * Returns a list of the latest version of each <code>RepositoryItem</code>'s meta-data record
      * in the repository.
      * 
+     * <p>
+     * If a positive page size is specified, only a single page of items is returned. The
+     * 'nextCursor' attribute of the response identifies the position of the following page, and
+     * is omitted when the last page has been returned.
+     * 
      * @param listItemsRQ
      *            the request object that specifies which base namespace and items are to be
      *            returned
+     * @param itemTypeStr
+     *            the type of repository items to be returned (null = all item types)
+     * @param pageSize
+     *            the maximum number of items to return (zero or less = all items)
+     * @param cursor
+     *            the cursor returned with the previous page of items (null for the first page)
      * @param authorizationHeader
      *            the value of the HTTP "Authorization" header
      * @return JAXBElement<LibraryInfoListType>
@@ -280,16 +304,27 @@ public class RepositoryContentResource {
     public JAXBElement<LibraryInfoListType> listItemsForNamespace2(
             JAXBElement<ListItems2RQType> listItemsRQ,
             @QueryParam("itemType") String itemTypeStr,
+            @QueryParam("pageSize") int pageSize,
+            @QueryParam("cursor") String cursor,
             @HeaderParam("Authorization") String authorizationHeader) throws RepositoryException {
 
         Map<String,Map<TLLibraryStatus,Boolean>> accessibleItemCache = new HashMap<>();
         RepositoryItemType itemType = getItemType( itemTypeStr );
+        String baseNamespace = listItemsRQ.getValue().getNamespace();
+        
+        // Request one extra item to determine whether another page follows this one
         List<RepositoryItem> namespaceItems = repositoryManager.listItems(
-        		listItemsRQ.getValue().getNamespace(), getStatus( listItemsRQ.getValue().getIncludeStatus().toString() ),
-        		listItemsRQ.getValue().isLatestVersionOnly(), itemType );
+        		baseNamespace, getStatus( listItemsRQ.getValue().getIncludeStatus().toString() ),
+        		listItemsRQ.getValue().isLatestVersionOnly(), itemType,
+        		getListCursor( cursor, baseNamespace ), (pageSize > 0) ? (pageSize + 1) : 0 );
         UserPrincipal user = securityManager.authenticateUser(authorizationHeader);
         LibraryInfoListType metadataList = new LibraryInfoListType();
+        boolean hasNextPage = (pageSize > 0) && (namespaceItems.size() > pageSize);
         
+        if (hasNextPage) {
+        	namespaceItems = namespaceItems.subList( 0, pageSize );
+        	metadataList.setNextCursor( newListCursor( namespaceItems.get( pageSize - 1 ) ) );
+        }
 
         for (RepositoryItem item : namespaceItems) {
             if (isReadable(item, user, accessibleItemCache)) {
@@ -356,6 +391,13 @@ public class RepositoryContentResource {
      * @param includeStatusStr
      *            string representation of the library status that indicating the latest status to
      *            include in the results (null = all statuses)
+     * @param itemTypeStr
+     *            the type of repository items to be returned (null = all item types)
+     * @param pageSize
+     *            the maximum number of index hits to examine for the page of results that is
+     *            returned (zero or less = return all results)
+     * @param cursor
+     *            the cursor returned with the previous page of results (null for the first page)
      * @param authorizationHeader
      *            the value of the HTTP "Authorization" header
      * @return JAXBElement<LibraryInfoListType>
@@ -369,13 +411,27 @@ public class RepositoryContentResource {
             @QueryParam("latestVersion") boolean latestVersionsOnly,
             @QueryParam("includeStatus") String includeStatusStr,
             @QueryParam("itemType") String itemTypeStr,
+            @QueryParam("pageSize") int pageSize,
+            @QueryParam("cursor") String cursor,
             @HeaderParam("Authorization") String authorizationHeader) throws RepositoryException {
 
         Map<String,Map<TLLibraryStatus,Boolean>> accessibleItemCache = new HashMap<>();
         TLLibraryStatus searchStatus = getStatus( includeStatusStr );
         RepositoryItemType itemType = getItemType( itemTypeStr );
-        List<SearchResult<?>> searchResults = FreeTextSearchServiceFactory.getInstance().search(
-                freeTextQuery, searchStatus, latestVersionsOnly, false );
+        List<SearchResult<?>> searchResults;
+        String nextCursor = null;
+        
+        if (pageSize > 0) {
+        	SearchResultPage resultPage = FreeTextSearchServiceFactory.getInstance().search(
+        			freeTextQuery, searchStatus, latestVersionsOnly, false, cursor, pageSize );
+        	
+        	searchResults = resultPage.getResults();
+        	nextCursor = resultPage.getNextCursor();
+        	
+        } else {
+            searchResults = FreeTextSearchServiceFactory.getInstance().search(
+                    freeTextQuery, searchStatus, latestVersionsOnly, false );
+        }
         UserPrincipal user = securityManager.authenticateUser(authorizationHeader);
         SearchResultsListType resultsList = new SearchResultsListType();
         Set<String> referencedLibraryIds = new HashSet<>();
@@ -442,6 +498,7 @@ public class RepositoryContentResource {
         		}
         	}
         }
+        resultsList.setNextCursor( nextCursor );
         return objectFactory.createSearchResultsList( resultsList );
     }
     
@@ -828,6 +885,8 @@ public class RepositoryContentResource {
      *            the version scheme of the item to be published (may be null)
      * @param initialStatus
      *            the initial status (e.g. draft/final) of the library being published
+     * @param contentCrc
+     *            the hexadecimal CRC-32 checksum of the file content (may be null)
      * @param authorizationHeader
      *            the value of the HTTP "Authorization" header
      * @return Response
@@ -845,6 +904,7 @@ public class RepositoryContentResource {
     		@FormDataParam("version") String versionIdentifier,
     		@FormDataParam("versionScheme") String versionScheme,
     		@FormDataParam("status") String initialStatus,
+    		@FormDataParam("contentCrc") String contentCrc,
             @HeaderParam("Authorization") String authorizationHeader) throws RepositoryException {
 
         // Attempt to obtain a lock on the resource we are about to create. If we cannot calculate
@@ -869,7 +929,8 @@ public class RepositoryContentResource {
 
             if (securityManager.isAuthorized(user, namespace, RepositoryPermission.WRITE)) {
                 repositoryManager.getFileManager().setCurrentUserId(user.getUserId());
-                RepositoryItem publishedItem = repositoryManager.publish(contentStream,
+                RepositoryItem publishedItem = repositoryManager.publish(
+                		newContentCrcStream(contentStream, contentCrc),
                         contentDetail.getFileName(), libraryName, namespace, versionIdentifier,
                         versionScheme, TLLibraryStatus.valueOf(initialStatus.toUpperCase()));
                 Response response = Response.status(Response.Status.OK).build();
@@ -896,6 +957,8 @@ public class RepositoryContentResource {
      *            the XML element that identifies the repository item to be committed
      * @param contentStream
      *            provides access to the raw content of the file being committed
+     * @param contentCrc
+     *            the hexadecimal CRC-32 checksum of the file content (may be null)
      * @param authorizationHeader
      *            the value of the HTTP "Authorization" header
      * @return Response
@@ -909,6 +972,7 @@ public class RepositoryContentResource {
     		@FormDataParam("item") JAXBElement<RepositoryItemIdentityType> identityElement,
     		@FormDataParam("fileContent") InputStream contentStream,
     		@FormDataParam("remarks") String remarks,
+    		@FormDataParam("contentCrc") String contentCrc,
             @HeaderParam("Authorization") String authorizationHeader) throws RepositoryException {
 
         RepositoryItemIdentityType itemIdentity = identityElement.getValue();
@@ -924,7 +988,7 @@ public class RepositoryContentResource {
             if (securityManager.isWriteAuthorized(user, item)) {
                 repositoryManager.getFileManager().setCurrentUserId(user.getUserId());
 
-                repositoryManager.commit(item, contentStream, remarks);
+                repositoryManager.commit(item, newContentCrcStream(contentStream, contentCrc), remarks);
                 indexRepositoryItem(item);
                 return Response.status(200).build();
 
@@ -998,6 +1062,8 @@ public class RepositoryContentResource {
      *            the XML element that identifies the repository item to be unlocked
      * @param contentStream
      *            provides access to the raw content of the file being unlocked (may be null)
+     * @param contentCrc
+     *            the hexadecimal CRC-32 checksum of the file content (may be null)
      * @param authorizationHeader
      *            the value of the HTTP "Authorization" header
      * @return JAXBElement<LibraryInfoType>
@@ -1012,6 +1078,7 @@ public class RepositoryContentResource {
     		@FormDataParam("item") JAXBElement<RepositoryItemIdentityType> identityElement,
     		@FormDataParam("fileContent") InputStream contentStream,
     		@FormDataParam("remarks") String remarks,
+    		@FormDataParam("contentCrc") String contentCrc,
             @HeaderParam("Authorization") String authorizationHeader) throws RepositoryException {
 
         RepositoryItemIdentityType itemIdentity = identityElement.getValue();
@@ -1029,7 +1096,7 @@ public class RepositoryContentResource {
 
                 // Release the lock in the local repository
                 item.setLockedByUser(user.getUserId());
-                repositoryManager.unlock(item, contentStream, remarks);
+                repositoryManager.unlock(item, newContentCrcStream(contentStream, contentCrc), remarks);
                 indexRepositoryItem(item);
 
                 // Refresh the item's meta-data and return it to the caller
@@ -1320,13 +1387,17 @@ public class RepositoryContentResource {
     }
 
     /**
-     * Returns the meta-data information for a single item in the OTA2.0 repository.
+     * Returns the meta-data information for a single item in the OTA2.0 repository.  If the
+     * entity tag provided by the caller matches the current revision of the item, a 304 (not
+     * modified) response is returned without any content.
      * 
      * @param identityElement
      *            the XML element that identifies the repository item to download
+     * @param ifNoneMatchHeader
+     *            the value of the HTTP "If-None-Match" header (may be null)
      * @param authorizationHeader
      *            the value of the HTTP "Authorization" header
-     * @return JAXBElement<RepositoryInfoType>
+     * @return Response
      * @throws RepositoryException
      *             thrown if the request cannot be processed
      */
@@ -1334,8 +1405,9 @@ public class RepositoryContentResource {
     @Path("metadata")
     @Consumes(MediaType.TEXT_XML)
     @Produces(MediaType.TEXT_XML)
-    public JAXBElement<LibraryInfoType> getRepositoryItemMetadata(
+    public Response getRepositoryItemMetadata(
             JAXBElement<RepositoryItemIdentityType> identityElement,
+            @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatchHeader,
             @HeaderParam("Authorization") String authorizationHeader) throws RepositoryException {
 
         RepositoryItemIdentityType itemIdentity = identityElement.getValue();
@@ -1349,7 +1421,17 @@ public class RepositoryContentResource {
             UserPrincipal user = securityManager.authenticateUser(authorizationHeader);
 
             if (securityManager.isReadAuthorized(user, item)) {
-                return objectFactory.createLibraryInfo(itemMetadata);
+                String itemETag = RepositoryUtils.createItemETag(itemMetadata);
+                ResponseBuilder response;
+
+                if (itemETag.equals(ifNoneMatchHeader)) {
+                    response = Response.notModified();
+
+                } else {
+                    response = Response.ok(objectFactory.createLibraryInfo(itemMetadata));
+                }
+                response.header(HttpHeaders.ETAG, itemETag);
+                return response.build();
 
             } else {
                 throw new RepositorySecurityException(
@@ -1408,6 +1490,131 @@ public class RepositoryContentResource {
         }
     }
 
+    /**
+     * Called by remote clients to download the meta-data and content of multiple items from the
+     * OTA2.0 repository in a single request. The response is a zip archive whose entries are
+     * named using the position of each item in the request (e.g. "0/metadata" and "0/content").
+     * If the entity tag provided for an item matches its current revision, a single "not-modified"
+     * entry is returned in place of the item's meta-data and content. Items that do not exist, or
+     * that the user is not authorized to read, are omitted from the archive. Requests for more than
+     * {@link RepositoryUtils#MAX_DOWNLOAD_ITEMS} items are rejected.
+     * 
+     * @param requestElement
+     *            the XML element that identifies the repository items to download
+     * @param authorizationHeader
+     *            the value of the HTTP "Authorization" header
+     * @return Response
+     * @throws RepositoryException
+     *             thrown if the request cannot be processed
+     */
+    @POST
+    @Path("download-items")
+    @Consumes(MediaType.TEXT_XML)
+    @Produces("application/zip")
+    public Response downloadItems(JAXBElement<DownloadItemsRQType> requestElement,
+            @HeaderParam("Authorization") String authorizationHeader) throws RepositoryException {
+        List<DownloadItemType> downloadItems = requestElement.getValue().getDownloadItem();
+
+        if (downloadItems.size() > RepositoryUtils.MAX_DOWNLOAD_ITEMS) {
+            throw new RepositoryException("A maximum of " + RepositoryUtils.MAX_DOWNLOAD_ITEMS
+                    + " items may be downloaded with a single request.");
+        }
+        UserPrincipal user = securityManager.authenticateUser(authorizationHeader);
+        StreamingOutput zipContent = out -> writeDownloadItems(downloadItems, user, out);
+
+        return Response.ok(zipContent).build();
+    }
+
+    /**
+     * Writes the zip archive for a multi-item download request to the given output stream.
+     * 
+     * @param downloadItems
+     *            the list of items to be downloaded
+     * @param user
+     *            the user who submitted the download request
+     * @param out
+     *            the output stream to which the zip archive should be written
+     * @throws IOException
+     *             thrown if the archive cannot be written
+     */
+    private void writeDownloadItems(List<DownloadItemType> downloadItems, UserPrincipal user,
+            OutputStream out) throws IOException {
+        try (ZipOutputStream zipOut = new ZipOutputStream(out)) {
+            Marshaller marshaller = RepositoryFileManager.getSharedJaxbContext().createMarshaller();
+
+            for (int i = 0; i < downloadItems.size(); i++) {
+                DownloadItemType downloadItem = downloadItems.get(i);
+
+                try {
+                    writeDownloadItem(downloadItem, i + "/", user, marshaller, zipOut);
+
+                } catch (RepositoryException e) {
+                    log.warn("Unable to download repository item: " + downloadItem.getFilename()
+                            + " - " + e.getMessage());
+                }
+            }
+
+        } catch (JAXBException e) {
+            throw new IOException("Error writing repository item meta-data.", e);
+        }
+    }
+
+    /**
+     * Writes the zip entries for a single item of a multi-item download request.
+     * 
+     * @param downloadItem
+     *            the item to be downloaded
+     * @param entryPrefix
+     *            the prefix to apply to the names of the item's zip entries
+     * @param user
+     *            the user who submitted the download request
+     * @param marshaller
+     *            the marshaller to use when writing the item's meta-data
+     * @param zipOut
+     *            the zip archive to which the entries should be written
+     * @throws RepositoryException
+     *             thrown if the item's meta-data cannot be loaded
+     * @throws JAXBException
+     *             thrown if the item's meta-data cannot be written
+     * @throws IOException
+     *             thrown if the item's content cannot be written
+     */
+    private void writeDownloadItem(DownloadItemType downloadItem, String entryPrefix,
+            UserPrincipal user, Marshaller marshaller, ZipOutputStream zipOut)
+            throws RepositoryException, JAXBException, IOException {
+        LockableResource lockedResource = RepositoryLockManager.getInstance().acquireReadLock(
+                downloadItem.getBaseNamespace(), downloadItem.getFilename());
+        try {
+            LibraryInfoType itemMetadata = repositoryManager.getFileManager().loadLibraryMetadata(
+                    downloadItem.getBaseNamespace(), downloadItem.getFilename(),
+                    downloadItem.getVersion());
+            RepositoryItemImpl item = RepositoryUtils.createRepositoryItem(repositoryManager, itemMetadata);
+
+            if (securityManager.isReadAuthorized(user, item)) {
+                if (RepositoryUtils.createItemETag(itemMetadata).equals(downloadItem.getEtag())) {
+                    zipOut.putNextEntry(new ZipEntry(entryPrefix + RepositoryUtils.DOWNLOAD_NOT_MODIFIED_ENTRY));
+                    zipOut.closeEntry();
+
+                } else {
+                    File contentFile = repositoryManager.getFileManager().getLibraryContentLocation(
+                            downloadItem.getBaseNamespace(), downloadItem.getFilename(),
+                            downloadItem.getVersion());
+
+                    zipOut.putNextEntry(new ZipEntry(entryPrefix + RepositoryUtils.DOWNLOAD_METADATA_ENTRY));
+                    marshaller.marshal(objectFactory.createLibraryInfo(itemMetadata), zipOut);
+                    zipOut.closeEntry();
+
+                    zipOut.putNextEntry(new ZipEntry(entryPrefix + RepositoryUtils.DOWNLOAD_CONTENT_ENTRY));
+                    Files.copy(contentFile.toPath(), zipOut);
+                    zipOut.closeEntry();
+                }
+            }
+
+        } finally {
+            RepositoryLockManager.getInstance().releaseReadLock(lockedResource);
+        }
+    }
+
     /**
      * Called by remote clients to download historical library/schema content from
      * the OTA2.0 repository.
@@ -1579,6 +1786,29 @@ public class RepositoryContentResource {
     	return result;
     }
     
+    /**
+     * Wraps the given content stream so that its CRC-32 checksum is verified as the content is
+     * streamed into the temporary file that the repository file manager renames over the stored
+     * content.  The checksum is verified at the end of the stream, so a mismatch fails the write
+     * before the stored content is replaced, and the change set is rolled back.  Content from
+     * clients that do not provide a checksum is not verified.
+     * 
+     * @param contentStream  the uploaded content stream (may be null)
+     * @param contentCrc  the hexadecimal checksum provided by the client (may be null)
+     * @return InputStream
+     * @throws RepositoryException  thrown if the checksum value is not valid
+     */
+    private InputStream newContentCrcStream(InputStream contentStream, String contentCrc)
+    		throws RepositoryException {
+    	try {
+    		return (contentStream == null) ? null :
+    				new ContentCrcInputStream( contentStream, ContentCrcInputStream.parseCrc( contentCrc ) );
+    		
+    	} catch (IOException e) {
+    		throw new RepositoryException( e.getMessage(), e );
+    	}
+    }
+    
     /**
      * Returns the status enumeration from the given string value, or null if the string
      * is null or empty.
@@ -1619,6 +1849,46 @@ public class RepositoryContentResource {
     	}
     }
     
+    /**
+     * Returns a list-items cursor that identifies the given item as the last one of a page. The
+     * cursor is composed of the item's library name, namespace, version and filename.
+     * 
+     * @param item  the last item of the page
+     * @return String
+     */
+    private String newListCursor(RepositoryItem item) {
+    	return item.getLibraryName() + LIST_CURSOR_SEPARATOR + item.getNamespace()
+    			+ LIST_CURSOR_SEPARATOR + item.getVersion() + LIST_CURSOR_SEPARATOR + item.getFilename();
+    }
+    
+    /**
+     * Returns the item identified by the given list-items cursor, or null if the cursor is null
+     * or empty.
+     * 
+     * @param cursor  the list-items cursor to parse
+     * @param baseNamespace  the base namespace of the items being listed
+     * @return RepositoryItem
+     * @throws RepositoryException  thrown if the cursor value is not valid
+     */
+    private RepositoryItem getListCursor(String cursor, String baseNamespace) throws RepositoryException {
+    	RepositoryItemImpl item = null;
+    	
+    	if ((cursor != null) && (cursor.length() > 0)) {
+        	String[] cursorParts = cursor.split( "\\" + LIST_CURSOR_SEPARATOR, 4 );
+        	
+        	if (cursorParts.length < 4) {
+        		throw new RepositoryException("Invalid list-items cursor: " + cursor);
+        	}
+        	item = new RepositoryItemImpl();
+        	item.setLibraryName( cursorParts[0] );
+        	item.setNamespace( cursorParts[1] );
+        	item.setBaseNamespace( baseNamespace );
+        	item.setVersion( cursorParts[2] );
+        	item.setFilename( cursorParts[3] );
+    	}
+    	return item;
+    }
+    
     /**
      * Creates a new meta-data record using information from the given entity search result.
      * 
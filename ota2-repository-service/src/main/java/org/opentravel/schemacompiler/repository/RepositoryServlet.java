@@ -22,7 +22,10 @@ import javax.servlet.ServletException;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.glassfish.jersey.media.multipart.MultiPartFeature;
+import org.glassfish.jersey.message.DeflateEncoder;
+import org.glassfish.jersey.message.GZipEncoder;
 import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.server.filter.EncodingFilter;
 import org.glassfish.jersey.servlet.ServletContainer;
 import org.opentravel.schemacompiler.index.FreeTextSearchServiceFactory;
 import org.opentravel.schemacompiler.notification.NotificationServiceFactory;
@@ -48,7 +51,9 @@ public class RepositoryServlet extends ServletContainer {
     }
 
 	/**
-     * Constructor that initializes the servlet using the resource configuration provided.
+     * Constructor that initializes the servlet using the resource configuration provided.  In
+     * addition to multi-part request support, gzip and deflate encoding of request and response
+     * entities is enabled for clients that negotiate it.
      * 
      * @param app
      *            the JAX-RS application instance
@@ -56,6 +61,7 @@ public class RepositoryServlet extends ServletContainer {
     public RepositoryServlet(ResourceConfig resourceConfig) {
 		super(resourceConfig);
 		resourceConfig.register( MultiPartFeature.class );
+		EncodingFilter.enableFor( resourceConfig, GZipEncoder.class, DeflateEncoder.class );
 	}
 
     /**
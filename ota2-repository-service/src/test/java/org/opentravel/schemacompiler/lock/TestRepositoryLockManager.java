@@ -0,0 +1,112 @@
+/**
+ * Copyright (C) 2014 OpenTravel Alliance (info@opentravel.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opentravel.schemacompiler.lock;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+import org.opentravel.schemacompiler.repository.RepositoryException;
+
+/**
+ * Verifies the lock acquisition, timeout and eviction behavior of the
+ * <code>RepositoryLockManager</code>.
+ */
+public class TestRepositoryLockManager {
+
+    private static final String TEST_NAMESPACE = "http://www.OpenTravel.org/ns/OTA2/lock-test";
+
+    @Test
+    public void testLockTableEviction() throws Exception {
+        RepositoryLockManager lockManager = RepositoryLockManager.getInstance();
+        int initialCount = lockManager.getStatistics().getActiveResourceCount();
+
+        LockableResource readLock1 = lockManager.acquireReadLock(TEST_NAMESPACE, "Eviction_Test.otm");
+        LockableResource readLock2 = lockManager.acquireReadLock(TEST_NAMESPACE, "Eviction_Test.otm");
+
+        assertEquals(initialCount + 1, lockManager.getStatistics().getActiveResourceCount());
+        lockManager.releaseReadLock(readLock1);
+        assertEquals(initialCount + 1, lockManager.getStatistics().getActiveResourceCount());
+        lockManager.releaseReadLock(readLock2);
+        assertEquals(initialCount, lockManager.getStatistics().getActiveResourceCount());
+
+        LockableResource writeLock = lockManager.acquireWriteLock(TEST_NAMESPACE, "Eviction_Test.otm");
+
+        assertEquals(initialCount + 1, lockManager.getStatistics().getActiveResourceCount());
+        lockManager.releaseWriteLock(writeLock);
+        assertEquals(initialCount, lockManager.getStatistics().getActiveResourceCount());
+    }
+
+    @Test
+    public void testLockTimeout() throws Exception {
+        RepositoryLockManager lockManager = RepositoryLockManager.getInstance();
+        CountDownLatch lockAcquired = new CountDownLatch(1);
+        CountDownLatch testComplete = new CountDownLatch(1);
+        AtomicReference<Exception> ownerError = new AtomicReference<>();
+        long initialTimeouts = lockManager.getStatistics().getTimeoutCount();
+        long originalTimeout = RepositoryLockManager.getTimeout();
+        Thread lockOwner = new Thread(() -> {
+            try {
+                LockableResource resource = lockManager.acquireWriteLock(TEST_NAMESPACE, "Timeout_Test.otm");
+
+                lockAcquired.countDown();
+                testComplete.await();
+                lockManager.releaseWriteLock(resource);
+
+            } catch (Exception e) {
+                ownerError.set(e);
+
+            } finally {
+                lockAcquired.countDown();
+            }
+        });
+
+        lockOwner.start();
+        lockAcquired.await();
+        assertNull(ownerError.get());
+
+        try {
+            RepositoryLockManager.setTimeout(100);
+            lockManager.acquireReadLock(TEST_NAMESPACE, "Timeout_Test.otm");
+            fail("Expected exception not thrown for lock timeout.");
+
+        } catch (RepositoryException e) {
+            assertTrue(e.getMessage().startsWith("Timed out"));
+
+        } finally {
+            RepositoryLockManager.setTimeout(originalTimeout);
+            testComplete.countDown();
+            lockOwner.join();
+        }
+        assertNull(ownerError.get());
+        assertEquals(initialTimeouts + 1, lockManager.getStatistics().getTimeoutCount());
+    }
+
+    @Test(expected = RepositoryException.class)
+    public void testReleaseUnownedLock() throws Exception {
+        RepositoryLockManager lockManager = RepositoryLockManager.getInstance();
+        LockableResource resource = lockManager.acquireReadLock(TEST_NAMESPACE, "Release_Test.otm");
+
+        lockManager.releaseReadLock(resource);
+        lockManager.releaseReadLock(resource);
+    }
+
+}
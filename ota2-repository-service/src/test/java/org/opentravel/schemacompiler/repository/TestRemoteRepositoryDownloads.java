@@ -0,0 +1,244 @@
+/**
+ * Copyright (C) 2014 OpenTravel Alliance (info@opentravel.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opentravel.schemacompiler.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import javax.xml.bind.Marshaller;
+
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.util.EntityUtils;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opentravel.ns.ota2.repositoryinfo_v01_00.DownloadItemType;
+import org.opentravel.ns.ota2.repositoryinfo_v01_00.DownloadItemsRQType;
+import org.opentravel.ns.ota2.repositoryinfo_v01_00.LibraryInfoType;
+import org.opentravel.ns.ota2.repositoryinfo_v01_00.ObjectFactory;
+import org.opentravel.ns.ota2.repositoryinfo_v01_00.RepositoryItemIdentityType;
+import org.opentravel.schemacompiler.repository.impl.RemoteRepositoryClient;
+import org.opentravel.schemacompiler.repository.impl.RepositoryUtils;
+
+/**
+ * Verifies the conditional and multi-item download services of the remote repository.
+ *
+ * @author S. Livezey
+ */
+public class TestRemoteRepositoryDownloads extends RepositoryTestBase {
+
+    private static final String BASE_NAMESPACE = "http://www.OpenTravel.org/ns/OTA2/SchemaCompiler/version-test";
+    private static final String FILENAME = "Version_Test_1_0_0.otm";
+    private static final String VERSION = "1.0.0";
+
+    @BeforeClass
+    public static void setupTests() throws Exception {
+        setupWorkInProcessArea(TestRemoteRepositoryDownloads.class);
+        startTestServer("versions-repository", 9294, TestRemoteRepositoryDownloads.class);
+    }
+
+    @AfterClass
+    public static void tearDownTests() throws Exception {
+        shutdownTestServer();
+    }
+
+    @Test
+    public void testConditionalMetadataRequest() throws Exception {
+        RepositoryItem item = testRepository.get().getRepositoryItem(BASE_NAMESPACE, FILENAME, VERSION);
+        LibraryInfoType localMetadata = repositoryManager.get().getFileManager().loadLibraryMetadata(
+                item.getBaseNamespace(), item.getFilename(), item.getVersion());
+        String localETag = RepositoryUtils.createItemETag(localMetadata);
+
+        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
+            // A request without a tag (or with an out-of-date tag) returns the meta-data
+            try (CloseableHttpResponse response = httpClient.execute(newMetadataRequest(null))) {
+                assertEquals(HttpStatus.SC_OK, response.getStatusLine().getStatusCode());
+                assertEquals(localETag, response.getFirstHeader(HttpHeaders.ETAG).getValue());
+                assertNotNull(EntityUtils.toString(response.getEntity()));
+            }
+            try (CloseableHttpResponse response = httpClient.execute(newMetadataRequest("\"0-0\""))) {
+                assertEquals(HttpStatus.SC_OK, response.getStatusLine().getStatusCode());
+                assertEquals(localETag, response.getFirstHeader(HttpHeaders.ETAG).getValue());
+                EntityUtils.consume(response.getEntity());
+            }
+
+            // A request with the tag of the current local copy does not return any content
+            try (CloseableHttpResponse response = httpClient.execute(newMetadataRequest(localETag))) {
+                assertEquals(HttpStatus.SC_NOT_MODIFIED, response.getStatusLine().getStatusCode());
+                assertEquals(localETag, response.getFirstHeader(HttpHeaders.ETAG).getValue());
+                assertNull(response.getEntity());
+            }
+        }
+
+        // A forced refresh of the current local copy should not report any changes
+        assertFalse(((RemoteRepositoryClient) testRepository.get()).downloadContent(item, true));
+        assertEquals(localETag, RepositoryUtils.createItemETag(repositoryManager.get()
+                .getFileManager().loadLibraryMetadata(BASE_NAMESPACE, FILENAME, VERSION)));
+    }
+
+    @Test
+    public void testDownloadItems() throws Exception {
+        testRepository.get().getRepositoryItem(BASE_NAMESPACE, FILENAME, VERSION);
+        LibraryInfoType currentMetadata = repositoryManager.get().getFileManager().loadLibraryMetadata(
+                BASE_NAMESPACE, FILENAME, VERSION);
+        DownloadItemsRQType downloadRQ = new DownloadItemsRQType();
+        Set<String> entryNames = new HashSet<>();
+
+        downloadRQ.getDownloadItem().add(newDownloadItem(FILENAME, VERSION,
+                RepositoryUtils.createItemETag(currentMetadata)));
+        downloadRQ.getDownloadItem().add(newDownloadItem("Version_Test_1_1_0.otm", "1.1.0", null));
+        downloadRQ.getDownloadItem().add(newDownloadItem("Unknown_Library_1_0_0.otm", VERSION, null));
+
+        try (CloseableHttpClient httpClient = HttpClients.createDefault();
+                CloseableHttpResponse response = httpClient.execute(newDownloadRequest(downloadRQ));
+                ZipInputStream zipIn = new ZipInputStream(response.getEntity().getContent())) {
+            ZipEntry zipEntry;
+
+            assertEquals(HttpStatus.SC_OK, response.getStatusLine().getStatusCode());
+
+            while ((zipEntry = zipIn.getNextEntry()) != null) {
+                entryNames.add(zipEntry.getName());
+            }
+        }
+        assertEquals(new HashSet<>(Arrays.asList("0/" + RepositoryUtils.DOWNLOAD_NOT_MODIFIED_ENTRY,
+                "1/" + RepositoryUtils.DOWNLOAD_METADATA_ENTRY, "1/" + RepositoryUtils.DOWNLOAD_CONTENT_ENTRY)),
+                entryNames);
+    }
+
+    @Test
+    public void testDownloadItemsLimit() throws Exception {
+        DownloadItemsRQType downloadRQ = new DownloadItemsRQType();
+
+        for (int i = 0; i <= RepositoryUtils.MAX_DOWNLOAD_ITEMS; i++) {
+            downloadRQ.getDownloadItem().add(newDownloadItem(FILENAME, VERSION, null));
+        }
+        try (CloseableHttpClient httpClient = HttpClients.createDefault();
+                CloseableHttpResponse response = httpClient.execute(newDownloadRequest(downloadRQ))) {
+            assertNotEquals(HttpStatus.SC_OK, response.getStatusLine().getStatusCode());
+        }
+    }
+
+    @Test
+    public void testClientDownloadItems() throws Exception {
+        RemoteRepositoryClient repository = (RemoteRepositoryClient) testRepository.get();
+        File metadataFile = repositoryManager.get().getFileManager().getLibraryMetadataLocation(
+                BASE_NAMESPACE, "Version_Test_1_1_1.otm", "1.1.1");
+        File contentFile = repositoryManager.get().getFileManager().getLibraryContentLocation(
+                BASE_NAMESPACE, "Version_Test_1_1_1.otm", "1.1.1");
+
+        // A request that includes an item that is not returned by the repository is abandoned
+        repository.downloadContent(Arrays.asList(newItemIdentity("Version_Test_1_1_1.otm", "1.1.1"),
+                newItemIdentity("Unknown_Library_1_0_0.otm", VERSION)), true);
+        assertFalse(metadataFile.exists());
+        assertFalse(contentFile.exists());
+
+        repository.downloadContent(Arrays.asList(newItemIdentity("Version_Test_1_1_1.otm", "1.1.1")), true);
+        assertTrue(metadataFile.exists());
+    }
+
+    /**
+     * Returns a multi-item download request for the given list of items.
+     */
+    private HttpPost newDownloadRequest(DownloadItemsRQType downloadRQ) throws Exception {
+        HttpPost request = newPostRequest("/service/download-items");
+        Marshaller marshaller = RepositoryFileManager.getSharedJaxbContext().createMarshaller();
+        StringWriter xmlWriter = new StringWriter();
+
+        marshaller.marshal(new ObjectFactory().createDownloadItemsRQ(downloadRQ), xmlWriter);
+        request.setEntity(new StringEntity(xmlWriter.toString(), ContentType.TEXT_XML));
+        return request;
+    }
+
+    /**
+     * Returns a multi-item download entry for the given item of the test namespace.
+     */
+    private DownloadItemType newDownloadItem(String filename, String version, String etag) {
+        DownloadItemType downloadItem = new DownloadItemType();
+
+        downloadItem.setBaseNamespace(BASE_NAMESPACE);
+        downloadItem.setFilename(filename);
+        downloadItem.setVersion(version);
+        downloadItem.setEtag(etag);
+        return downloadItem;
+    }
+
+    /**
+     * Returns the identity of the given item of the test namespace.
+     */
+    private RepositoryItemIdentityType newItemIdentity(String filename, String version) {
+        RepositoryItemIdentityType itemIdentity = new RepositoryItemIdentityType();
+
+        itemIdentity.setBaseNamespace(BASE_NAMESPACE);
+        itemIdentity.setFilename(filename);
+        itemIdentity.setVersion(version);
+        return itemIdentity;
+    }
+
+    /**
+     * Returns a meta-data request for the test item, including the given "If-None-Match" tag
+     * (if one is provided).
+     */
+    private HttpPost newMetadataRequest(String ifNoneMatch) throws Exception {
+        HttpPost request = newPostRequest("/service/metadata");
+        Marshaller marshaller = RepositoryFileManager.getSharedJaxbContext().createMarshaller();
+        StringWriter xmlWriter = new StringWriter();
+
+        marshaller.marshal(new ObjectFactory().createRepositoryItemIdentity(
+                newItemIdentity(FILENAME, VERSION)), xmlWriter);
+        request.setEntity(new StringEntity(xmlWriter.toString(), ContentType.TEXT_XML));
+
+        if (ifNoneMatch != null) {
+            request.setHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return request;
+    }
+
+    /**
+     * Returns a new POST request for the given service path that includes the credentials of
+     * the test user.
+     */
+    private HttpPost newPostRequest(String servicePath) {
+        HttpPost request = new HttpPost(((RemoteRepository) testRepository.get()).getEndpointUrl()
+                + servicePath);
+        String credentials = Base64.getEncoder().encodeToString(
+                "testuser:password".getBytes(StandardCharsets.UTF_8));
+
+        request.setHeader(HttpHeaders.AUTHORIZATION, "Basic " + credentials);
+        return request;
+    }
+
+}
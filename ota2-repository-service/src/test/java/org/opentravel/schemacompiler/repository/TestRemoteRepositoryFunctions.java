@@ -16,20 +16,25 @@
 package org.opentravel.schemacompiler.repository;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
 
 import javax.ws.rs.core.Response;
 
+import org.apache.http.Header;
 import org.apache.http.client.ClientProtocolException;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.impl.client.HttpClients;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.opentravel.ns.ota2.repositoryinfo_v01_00.RepositoryPermission;
 import org.opentravel.schemacompiler.repository.RemoteRepository;
+import org.opentravel.schemacompiler.repository.impl.RemoteRepositoryConnectionManager;
 
 /**
  * Verifies the operation of items published to a remote repository.
@@ -79,6 +84,29 @@ public class TestRemoteRepositoryFunctions extends TestRepositoryFunctions {
                 .getStatusCode());
     }
 
+    @Test
+    public void testCompressedTransport() throws Exception {
+        String endpointUrl = ((RemoteRepository) testRepository.get()).getEndpointUrl();
+        HttpGet get = new HttpGet(endpointUrl + "/service/all-namespaces");
+
+        get.setHeader("Accept-Encoding", "gzip");
+
+        try (CloseableHttpResponse response = HttpClientBuilder.create()
+                .disableContentCompression().build().execute(get)) {
+            Header contentEncoding = response.getEntity().getContentEncoding();
+
+            assertEquals(Response.Status.OK.getStatusCode(), response.getStatusLine().getStatusCode());
+            assertNotNull(contentEncoding);
+            assertEquals("gzip", contentEncoding.getValue());
+            assertNotNull(response.getFirstHeader(
+                    RemoteRepositoryConnectionManager.REQUEST_ENCODING_HEADER));
+        }
+
+        // The repository client should detect that compressed uploads are advertised
+        testRepository.get().listAllNamespaces();
+        assertTrue(RemoteRepositoryConnectionManager.isCompressionSupported(endpointUrl));
+    }
+
     private CloseableHttpResponse doGet(String url) throws ClientProtocolException, IOException {
         HttpGet get = new HttpGet(url);
         return HttpClients.createDefault().execute(get);
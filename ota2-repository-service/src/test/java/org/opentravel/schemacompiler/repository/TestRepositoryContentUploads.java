@@ -0,0 +1,178 @@
+/**
+ * Copyright (C) 2014 OpenTravel Alliance (info@opentravel.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opentravel.schemacompiler.repository;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.CRC32;
+
+import javax.xml.bind.Marshaller;
+
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.entity.mime.MultipartEntityBuilder;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.util.EntityUtils;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opentravel.ns.ota2.repositoryinfo_v01_00.ObjectFactory;
+import org.opentravel.ns.ota2.repositoryinfo_v01_00.RepositoryItemIdentityType;
+import org.opentravel.schemacompiler.repository.impl.ContentCrcInputStream;
+
+/**
+ * Verifies that content uploaded to the remote repository is rejected without modifying the
+ * repository when its checksum does not match.
+ *
+ * @author S. Livezey
+ */
+public class TestRepositoryContentUploads extends RepositoryTestBase {
+
+    private static final String BASE_NAMESPACE = "http://www.OpenTravel.org/ns/OTA2/SchemaCompiler/version-test";
+    private static final String FILENAME = "Version_Test_1_0_0.otm";
+    private static final String VERSION = "1.0.0";
+
+    @BeforeClass
+    public static void setupTests() throws Exception {
+        setupWorkInProcessArea(TestRepositoryContentUploads.class);
+        startTestServer("versions-repository", 9295, TestRepositoryContentUploads.class);
+    }
+
+    @AfterClass
+    public static void tearDownTests() throws Exception {
+        shutdownTestServer();
+    }
+
+    @Test
+    public void testCommitWithInvalidCrc() throws Exception {
+        RepositoryItem item = testRepository.get().getRepositoryItem(BASE_NAMESPACE, FILENAME, VERSION);
+        byte[] originalContent = downloadContent();
+        byte[] uploadContent = "<Library/>".getBytes(StandardCharsets.UTF_8);
+
+        testRepository.get().lock(item);
+
+        try {
+            assertNotEquals(HttpStatus.SC_OK, commitContent(uploadContent, getCrc(uploadContent) + 1));
+
+        } finally {
+            testRepository.get().unlock(item, false, null);
+        }
+        assertArrayEquals(originalContent, downloadContent());
+    }
+
+    @Test
+    public void testCommitWithValidCrc() throws Exception {
+        RepositoryItem item = testRepository.get().getRepositoryItem(BASE_NAMESPACE, FILENAME, VERSION);
+        byte[] originalContent = downloadContent();
+        byte[] uploadContent = new String(originalContent, StandardCharsets.UTF_8)
+                .replace("</Library>", "<!-- Updated --></Library>").getBytes(StandardCharsets.UTF_8);
+
+        testRepository.get().lock(item);
+
+        try {
+            assertEquals(HttpStatus.SC_OK, commitContent(uploadContent, getCrc(uploadContent)));
+
+        } finally {
+            testRepository.get().unlock(item, false, null);
+        }
+        assertArrayEquals(uploadContent, downloadContent());
+    }
+
+    /**
+     * Commits the given content for the test item, returning the HTTP status of the response.
+     */
+    private int commitContent(byte[] content, long contentCrc) throws Exception {
+        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
+            HttpPost request = newPostRequest("/service/commit");
+            MultipartEntityBuilder mpEntity = MultipartEntityBuilder.create();
+
+            mpEntity.addTextBody("item", marshalItemIdentity(), ContentType.TEXT_XML);
+            mpEntity.addBinaryBody("fileContent", content, ContentType.DEFAULT_BINARY, FILENAME);
+            mpEntity.addTextBody("contentCrc", ContentCrcInputStream.formatCrc(contentCrc));
+            request.setEntity(mpEntity.build());
+
+            try (CloseableHttpResponse response = httpClient.execute(request)) {
+                EntityUtils.consume(response.getEntity());
+                return response.getStatusLine().getStatusCode();
+            }
+        }
+    }
+
+    /**
+     * Returns the CRC-32 checksum of the given content.
+     */
+    private long getCrc(byte[] content) {
+        CRC32 crc = new CRC32();
+
+        crc.update(content);
+        return crc.getValue();
+    }
+
+    /**
+     * Returns the content of the test item that is currently stored in the remote repository.
+     */
+    private byte[] downloadContent() throws Exception {
+        HttpPost request = newPostRequest("/service/content");
+
+        request.setEntity(new StringEntity(marshalItemIdentity(), ContentType.TEXT_XML));
+
+        try (CloseableHttpClient httpClient = HttpClients.createDefault();
+                CloseableHttpResponse response = httpClient.execute(request)) {
+            assertEquals(HttpStatus.SC_OK, response.getStatusLine().getStatusCode());
+            return EntityUtils.toByteArray(response.getEntity());
+        }
+    }
+
+    /**
+     * Returns the XML identity of the test item.
+     */
+    private String marshalItemIdentity() throws Exception {
+        Marshaller marshaller = RepositoryFileManager.getSharedJaxbContext().createMarshaller();
+        RepositoryItemIdentityType itemIdentity = new RepositoryItemIdentityType();
+        StringWriter xmlWriter = new StringWriter();
+
+        itemIdentity.setBaseNamespace(BASE_NAMESPACE);
+        itemIdentity.setFilename(FILENAME);
+        itemIdentity.setVersion(VERSION);
+        marshaller.marshal(new ObjectFactory().createRepositoryItemIdentity(itemIdentity), xmlWriter);
+        return xmlWriter.toString();
+    }
+
+    /**
+     * Returns a new POST request for the given service path that includes the credentials of
+     * the test user.
+     */
+    private HttpPost newPostRequest(String servicePath) {
+        HttpPost request = new HttpPost(((RemoteRepository) testRepository.get()).getEndpointUrl()
+                + servicePath);
+        String credentials = Base64.getEncoder().encodeToString(
+                "testuser:password".getBytes(StandardCharsets.UTF_8));
+
+        request.setHeader(HttpHeaders.AUTHORIZATION, "Basic " + credentials);
+        return request;
+    }
+
+}
@@ -16,17 +16,42 @@
 package org.opentravel.schemacompiler.repository;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.xml.bind.JAXBElement;
 
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.opentravel.ns.ota2.repositoryinfo_v01_00.LibraryInfoListType;
+import org.opentravel.ns.ota2.repositoryinfo_v01_00.LibraryInfoType;
+import org.opentravel.ns.ota2.repositoryinfo_v01_00.ListItems2RQType;
+import org.opentravel.ns.ota2.repositoryinfo_v01_00.ObjectFactory;
+import org.opentravel.ns.ota2.repositoryinfo_v01_00.RepositoryInfoType;
 import org.opentravel.schemacompiler.model.TLLibraryStatus;
+import org.opentravel.schemacompiler.repository.impl.RemoteRepositoryClient;
 import org.opentravel.schemacompiler.repository.impl.RepositoryUtils;
 
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
 /**
  * Verifies the operation of the repository's search functions.
  * 
@@ -276,6 +301,218 @@ public class TestRepositorySearch extends RepositoryTestBase {
         assertEquals(0, itemFilenames.size());
     }
 
+    @Test
+    public void testFederatedSearch_repositoryStatus() throws Exception {
+        FederatedResults<RepositorySearchResult> results = repositoryManager.get()
+                .searchRemoteRepositories("red", TLLibraryStatus.DRAFT, false, RepositoryItemType.LIBRARY);
+        List<RepositoryItem> items = new ArrayList<>();
+
+        for (RepositorySearchResult result : results.getResults()) {
+            items.add(result.getRepositoryItem());
+        }
+        List<String> itemFilenames = getFilenames(items);
+
+        assertTrue(results.isComplete());
+        assertEquals(1, results.getRepositoryStatus().size());
+        assertEquals(RemoteRepositoryStatus.AVAILABLE, results.getRepositoryStatus("test-repository"));
+        assertTrue(itemFilenames.contains("Version_Test_1_0_0.otm"));
+        assertTrue(itemFilenames.contains("Version_Test_1_1_0.otm"));
+        assertTrue(itemFilenames.contains("Version_Test_1_1_1.otm"));
+    }
+
+    @Test
+    public void testFederatedSearch_repositoryTimedOut() throws Exception {
+        CountDownLatch releaseSignal = new CountDownLatch(1);
+        HttpServer server = startStubRepository("slow-repository", exchange -> {
+            try {
+                releaseSignal.await();
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(HttpURLConnection.HTTP_UNAVAILABLE, -1);
+            exchange.close();
+        });
+        RemoteRepository slowRepository = null;
+
+        try {
+            System.setProperty(RepositoryManager.REMOTE_REQUEST_TIMEOUT_PROPERTY + ".slow-repository",
+                    "1000");
+            slowRepository = repositoryManager.get().addRemoteRepository(
+                    "http://localhost:" + server.getAddress().getPort());
+            FederatedResults<RepositorySearchResult> results = repositoryManager.get()
+                    .searchRemoteRepositories("red", TLLibraryStatus.DRAFT, false, RepositoryItemType.LIBRARY);
+
+            // The deadline of the slow repository does not affect the results of the other one
+            assertFalse(results.isComplete());
+            assertEquals(2, results.getRepositoryStatus().size());
+            assertEquals(RemoteRepositoryStatus.AVAILABLE, results.getRepositoryStatus("test-repository"));
+            assertEquals(RemoteRepositoryStatus.TIMED_OUT, results.getRepositoryStatus("slow-repository"));
+            assertFalse(results.getResults().isEmpty());
+
+        } finally {
+            System.clearProperty(RepositoryManager.REMOTE_REQUEST_TIMEOUT_PROPERTY + ".slow-repository");
+            releaseSignal.countDown();
+            removeStubRepository(slowRepository, server);
+        }
+    }
+
+    @Test
+    public void testFederatedSearch_repositoryUnavailable() throws Exception {
+        HttpServer server = startStubRepository("failing-repository", exchange -> {
+            exchange.sendResponseHeaders(HttpURLConnection.HTTP_INTERNAL_ERROR, -1);
+            exchange.close();
+        });
+        RemoteRepository failingRepository = null;
+
+        try {
+            failingRepository = repositoryManager.get().addRemoteRepository(
+                    "http://localhost:" + server.getAddress().getPort());
+            FederatedResults<RepositorySearchResult> results = repositoryManager.get()
+                    .searchRemoteRepositories("red", TLLibraryStatus.DRAFT, false, RepositoryItemType.LIBRARY);
+
+            assertFalse(results.isComplete());
+            assertEquals(2, results.getRepositoryStatus().size());
+            assertEquals(RemoteRepositoryStatus.AVAILABLE, results.getRepositoryStatus("test-repository"));
+            assertEquals(RemoteRepositoryStatus.UNAVAILABLE, results.getRepositoryStatus("failing-repository"));
+            assertFalse(results.getResults().isEmpty());
+
+        } finally {
+            removeStubRepository(failingRepository, server);
+        }
+    }
+
+    /**
+     * Starts a stub remote repository that returns its meta-data with the given ID and handles
+     * all other service requests using the handler provided.
+     */
+    private HttpServer startStubRepository(String repositoryId, HttpHandler serviceHandler)
+            throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        RepositoryInfoType repositoryInfo = new RepositoryInfoType();
+        StringWriter xmlWriter = new StringWriter();
+
+        repositoryInfo.setID(repositoryId);
+        repositoryInfo.setDisplayName(repositoryId);
+        repositoryInfo.getRootNamespace().add("http://www.example.com/" + repositoryId);
+        RepositoryFileManager.getSharedJaxbContext().createMarshaller().marshal(
+                new ObjectFactory().createRepositoryInfo(repositoryInfo), xmlWriter);
+        byte[] metadata = xmlWriter.toString().getBytes(StandardCharsets.UTF_8);
+
+        server.createContext("/service", serviceHandler);
+        server.createContext("/service/repository-metadata", exchange -> {
+            exchange.getResponseHeaders().set("Content-Type", "text/xml");
+            exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, metadata.length);
+
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(metadata);
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        return server;
+    }
+
+    /**
+     * Removes the given stub repository from the repository manager and stops its server.
+     */
+    private void removeStubRepository(RemoteRepository repository, HttpServer server)
+            throws Exception {
+        try {
+            if (repository != null) {
+                repositoryManager.get().removeRemoteRepository(repository);
+            }
+        } finally {
+            server.stop(0);
+            ((ExecutorService) server.getExecutor()).shutdownNow();
+        }
+    }
+
+    @Test
+    public void testPagedListItemsAndSearch() throws Exception {
+        RemoteRepositoryClient testRepository = (RemoteRepositoryClient) repositoryManager.get()
+                .getRepository("test-repository");
+        String baseNamespace = "http://www.OpenTravel.org/ns/OTA2/SchemaCompiler/version-test";
+        List<RepositoryItem> pagedItems = new ArrayList<>();
+        List<RepositoryItem> pagedResultItems = new ArrayList<>();
+        List<RepositoryItem> resultItems = new ArrayList<>();
+
+        // Retrieve the items one page at a time and compare with the complete list
+        RepositoryResultIterator<RepositoryItem> itemIterator = testRepository.listItemsIterator(
+                baseNamespace, TLLibraryStatus.DRAFT, false, null, 1);
+
+        while (itemIterator.hasNext()) {
+            pagedItems.add(itemIterator.next());
+        }
+        assertEquals(getFilenames(testRepository.listItems(baseNamespace, TLLibraryStatus.DRAFT, false, null)),
+                getFilenames(pagedItems));
+        assertEquals(4, pagedItems.size());
+
+        // Paging of the latest versions returns each library only once
+        itemIterator = testRepository.listItemsIterator(baseNamespace, TLLibraryStatus.DRAFT, true, null, 1);
+        pagedItems.clear();
+
+        while (itemIterator.hasNext()) {
+            pagedItems.add(itemIterator.next());
+        }
+        assertEquals(getFilenames(testRepository.listItems(baseNamespace, TLLibraryStatus.DRAFT, true, null)),
+                getFilenames(pagedItems));
+
+        // Retrieve the search results one page at a time and compare with the complete list
+        RepositoryResultIterator<RepositorySearchResult> searchIterator = testRepository.searchIterator(
+                "red", TLLibraryStatus.DRAFT, false, RepositoryItemType.LIBRARY, 1);
+
+        while (searchIterator.hasNext()) {
+            pagedResultItems.add(searchIterator.next().getRepositoryItem());
+        }
+        for (RepositorySearchResult result : testRepository.search(
+                "red", TLLibraryStatus.DRAFT, false, RepositoryItemType.LIBRARY)) {
+            resultItems.add(result.getRepositoryItem());
+        }
+        assertEquals(getFilenames(resultItems), getFilenames(pagedResultItems));
+        assertTrue(getFilenames(pagedResultItems).contains("Version_Test_1_0_0.otm"));
+    }
+
+    @Test
+    public void testPagedListItems_cursorItemDeleted() throws Exception {
+        String endpointUrl = ((RemoteRepository) repositoryManager.get().getRepository("test-repository"))
+                .getEndpointUrl();
+        String cursor = "Version_Test|http://www.OpenTravel.org/ns/OTA2/SchemaCompiler/version-test/v01_00"
+                + "|1.0.5|Version_Test_1_0_5.otm";
+        URL listItemsUrl = new URL(endpointUrl + "/service/list-items2?pageSize=10&cursor="
+                + URLEncoder.encode(cursor, "UTF-8"));
+        HttpURLConnection connection = (HttpURLConnection) listItemsUrl.openConnection();
+        ListItems2RQType listItemsRQ = new ListItems2RQType();
+        StringWriter xmlWriter = new StringWriter();
+        List<String> itemFilenames = new ArrayList<>();
+
+        listItemsRQ.setNamespace("http://www.OpenTravel.org/ns/OTA2/SchemaCompiler/version-test");
+        listItemsRQ.setIncludeStatus(TLLibraryStatus.DRAFT.toRepositoryStatus());
+        RepositoryFileManager.getSharedJaxbContext().createMarshaller().marshal(
+                new ObjectFactory().createListItems2RQ(listItemsRQ), xmlWriter);
+        connection.setDoOutput(true);
+        connection.setRequestMethod("POST");
+        connection.setRequestProperty("Content-Type", "text/xml");
+        connection.setRequestProperty("Authorization", "Basic " + Base64.getEncoder().encodeToString(
+                "testuser:password".getBytes(StandardCharsets.UTF_8)));
+
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(xmlWriter.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        assertEquals(HttpURLConnection.HTTP_OK, connection.getResponseCode());
+
+        // The page starts with the first version that follows the deleted item
+        try (InputStream in = connection.getInputStream()) {
+            JAXBElement<?> response = (JAXBElement<?>) RepositoryFileManager.getSharedJaxbContext()
+                    .createUnmarshaller().unmarshal(in);
+
+            for (LibraryInfoType itemMetadata : ((LibraryInfoListType) response.getValue()).getLibraryInfo()) {
+                itemFilenames.add(itemMetadata.getFilename());
+            }
+        }
+        assertEquals(Arrays.asList("Version_Test_1_0_0.otm"), itemFilenames);
+    }
+
     @SuppressWarnings("deprecation")
 	@Test
     public void testFreeTextSearch_allVersions_finalOnly() throws Exception {
@@ -0,0 +1,212 @@
+/**
+ * Copyright (C) 2014 OpenTravel Alliance (info@opentravel.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opentravel.schemacompiler.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.tmatesoft.svn.core.SVNDepth;
+import org.tmatesoft.svn.core.SVNURL;
+import org.tmatesoft.svn.core.io.SVNRepositoryFactory;
+import org.tmatesoft.svn.core.wc.SVNClientManager;
+import org.tmatesoft.svn.core.wc.SVNRevision;
+import org.tmatesoft.svn.core.wc.SVNStatusType;
+import org.tmatesoft.svn.core.wc.SVNWCUtil;
+
+/**
+ * Verifies the group commit mode of the <code>SVNRepositoryFileManager</code> using a local
+ * (file://) Subversion repository.
+ */
+public class TestSVNRepositoryFileManager {
+
+    private static final long GROUP_COMMIT_LATENCY = 1000L;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private SVNClientManager svnClient;
+    private SVNURL svnUrl;
+    private File svnConfigFolder;
+
+    @Before
+    public void setUp() throws Exception {
+        svnConfigFolder = folder.newFolder("svn-config");
+        svnUrl = SVNRepositoryFactory.createLocalRepository(folder.newFolder("svn-repository"),
+                true, false);
+        svnClient = SVNClientManager.newInstance(
+                SVNWCUtil.createDefaultOptions(svnConfigFolder, true));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        svnClient.dispose();
+    }
+
+    @Test
+    public void testGroupCommit() throws Exception {
+        File workingCopy = checkout("repository");
+        SVNRepositoryFileManager fileManager = new SVNRepositoryFileManager(workingCopy,
+                svnConfigFolder);
+        long startRevision = getHeadRevision();
+        List<File> files = new ArrayList<>();
+
+        for (int i = 0; i < 4; i++) {
+            files.add(new File(workingCopy, "file-" + i + ".txt"));
+        }
+        fileManager.setGroupCommitLatency(GROUP_COMMIT_LATENCY);
+        List<CommitTask> tasks = commitConcurrently(fileManager, files);
+
+        for (CommitTask task : tasks) {
+            assertNull(task.error);
+        }
+        for (File file : files) {
+            assertEquals(SVNStatusType.STATUS_NORMAL, svnClient.getStatusClient()
+                    .doStatus(file, false).getNodeStatus());
+        }
+        assertTrue((getHeadRevision() - startRevision) < files.size());
+    }
+
+    @Test
+    public void testGroupCommitWithFailure() throws Exception {
+        File workingCopy = checkout("repository");
+        File otherWorkingCopy = checkout("other-repository");
+        File conflictFile = writeFile(new File(workingCopy, "conflict.txt"), "original");
+
+        SVNRepositoryFileManager fileManager = new SVNRepositoryFileManager(workingCopy,
+                svnConfigFolder);
+
+        // Commit a change from another working copy so that the first one is out of date
+        svnClient.getUpdateClient().doUpdate(otherWorkingCopy, SVNRevision.HEAD,
+                SVNDepth.INFINITY, false, false);
+        writeFile(new File(otherWorkingCopy, "conflict.txt"), "other");
+        svnClient.getCommitClient().doCommit(new File[] { otherWorkingCopy }, false,
+                "Conflicting change", null, null, false, false, SVNDepth.INFINITY);
+
+        List<File> files = new ArrayList<>();
+
+        files.add(conflictFile);
+        files.add(new File(workingCopy, "file-1.txt"));
+        files.add(new File(workingCopy, "file-2.txt"));
+        fileManager.setGroupCommitLatency(GROUP_COMMIT_LATENCY);
+        List<CommitTask> tasks = commitConcurrently(fileManager, files);
+
+        // Only the change set with the out-of-date file should fail
+        assertNotNull(tasks.get(0).error);
+        assertNull(tasks.get(1).error);
+        assertNull(tasks.get(2).error);
+        assertEquals(SVNStatusType.STATUS_NORMAL, svnClient.getStatusClient()
+                .doStatus(files.get(1), false).getNodeStatus());
+        assertEquals(SVNStatusType.STATUS_NORMAL, svnClient.getStatusClient()
+                .doStatus(files.get(2), false).getNodeStatus());
+    }
+
+    /**
+     * Commits one change set for each of the given files (each on its own thread) and returns
+     * the tasks once all of the commits have completed.
+     */
+    private List<CommitTask> commitConcurrently(SVNRepositoryFileManager fileManager,
+            List<File> files) throws InterruptedException {
+        CountDownLatch startSignal = new CountDownLatch(1);
+        List<CommitTask> tasks = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+
+        for (int i = 0; i < files.size(); i++) {
+            CommitTask task = new CommitTask(fileManager, files.get(i), "user" + i, startSignal);
+            Thread thread = new Thread(task);
+
+            tasks.add(task);
+            threads.add(thread);
+            thread.start();
+        }
+        startSignal.countDown();
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return tasks;
+    }
+
+    private File checkout(String folderName) throws Exception {
+        File workingCopy = folder.newFolder(folderName);
+
+        svnClient.getUpdateClient().doCheckout(svnUrl, workingCopy, SVNRevision.HEAD,
+                SVNRevision.HEAD, SVNDepth.INFINITY, false);
+        return workingCopy;
+    }
+
+    private long getHeadRevision() throws Exception {
+        return svnClient.getWCClient().doInfo(svnUrl, SVNRevision.HEAD, SVNRevision.HEAD)
+                .getRevision().getNumber();
+    }
+
+    private static File writeFile(File file, String content) throws IOException {
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    /**
+     * Writes a single file and commits it as a change set once the start signal is received.
+     */
+    private static class CommitTask implements Runnable {
+
+        private SVNRepositoryFileManager fileManager;
+        private File file;
+        private String userId;
+        private CountDownLatch startSignal;
+        private Exception error;
+
+        public CommitTask(SVNRepositoryFileManager fileManager, File file, String userId,
+                CountDownLatch startSignal) {
+            this.fileManager = fileManager;
+            this.file = file;
+            this.userId = userId;
+            this.startSignal = startSignal;
+        }
+
+        @Override
+        public void run() {
+            try {
+                startSignal.await();
+                fileManager.setCurrentUserId(userId);
+                fileManager.startChangeSet();
+                fileManager.addToChangeSet(file);
+                writeFile(file, "Content for " + userId);
+                fileManager.commitChangeSet();
+
+            } catch (Exception e) {
+                error = e;
+                fileManager.startChangeSet();
+            }
+        }
+
+    }
+
+}
@@ -174,6 +174,13 @@ public class OTA2SchemaCompilerMojo extends AbstractMojo implements CompileAllTa
 	@Parameter( defaultValue = "true" )
     protected boolean suppressOptionalFields;
 
+    /**
+     * The number of worker threads used to generate the output formats (schemas, JSON, services,
+     * Swagger and documentation) concurrently.  By default, all formats are generated serially.
+     */
+	@Parameter( defaultValue = "1" )
+    protected int compilerThreads;
+
     /**
      * Flag used for debugging that causes this Mojo's configuration settings to be displayed prior
      * to execution.
@@ -185,89 +192,95 @@ public class OTA2SchemaCompilerMojo extends AbstractMojo implements CompileAllTa
      * @see org.apache.maven.plugin.Mojo#execute()
      */
 	public void execute() throws MojoExecutionException, MojoFailureException {
-		synchronized (OTA2SchemaCompilerMojo.class) {
-			try {
-				if (debug) displayOptions();
-				
-				// Validate the source file or managed release and the output folder
-				RepositoryItem releaseItem = null;
+		try {
+			if (debug) displayOptions();
+			
+			// Validate the source file or managed release and the output folder
+			RepositoryItem releaseItem = null;
+			
+			if (libraryFile != null) {
+				if (!libraryFile.exists()) {
+					throw new FileNotFoundException("Source file not found: " + libraryFile.getAbsolutePath());
+				}
 				
-				if (libraryFile != null) {
-					if (!libraryFile.exists()) {
-						throw new FileNotFoundException("Source file not found: " + libraryFile.getAbsolutePath());
-					}
+			} else if (release != null) {
+				try {
+					releaseItem = RepositoryManager.getDefault().getRepositoryItem(release.getBaseNamespace(),
+							release.getFilename(), release.getVersion());
 					
-				} else if (release != null) {
-					try {
-						releaseItem = RepositoryManager.getDefault().getRepositoryItem(release.getBaseNamespace(),
-								release.getFilename(), release.getVersion());
-						
-						if (!RepositoryItemType.RELEASE.isItemType(releaseItem.getFilename())) {
-							throw new RepositoryException("The specified repository item is not an OTM release: "
-									+ releaseItem.getFilename());
-						}
-						
-					} catch (RepositoryException e) {
-						throw new MojoFailureException(
-								"The specified repository item does not exist or is not an OTM release.", e);
-						
-					} catch (Exception e) {
-						throw new MojoExecutionException("Unknown error while accessing the OTM repository", e);
+					if (!RepositoryItemType.RELEASE.isItemType(releaseItem.getFilename())) {
+						throw new RepositoryException("The specified repository item is not an OTM release: "
+								+ releaseItem.getFilename());
 					}
 					
-				} else {
-					throw new MojoFailureException("Either a libraryFile or a release must be specified.");
-				}
-				
-				if (!outputFolder.exists() && !outputFolder.mkdirs()) {
-					throw new IOException("Unable to create ouput folder: " + outputFolder.getAbsolutePath());
-				}
-				
-				// Select the user-specified schema compiler extension
-				if (bindingStyle != null) {
-					if (CompilerExtensionRegistry.getAvailableExtensionIds().contains(bindingStyle)) {
-						CompilerExtensionRegistry.setActiveExtension(bindingStyle);
-						
-					} else {
-						throw new MojoFailureException("Invalid binding style specified: " + bindingStyle);
-					}
+				} catch (RepositoryException e) {
+					throw new MojoFailureException(
+							"The specified repository item does not exist or is not an OTM release.", e);
+					
+				} catch (Exception e) {
+					throw new MojoExecutionException("Unknown error while accessing the OTM repository", e);
 				}
 				
-				// Execute the compilation and return
-				CompileAllCompilerTask compilerTask = TaskFactory.getTask(CompileAllCompilerTask.class);
-				ValidationFindings findings = null;
-				Log log = getLog();
-				
-				if (libraryFile != null) {
-					log.info("Compiling OTA2 Library: " + libraryFile.getName());
-					compilerTask.applyTaskOptions(this);
-					findings = compilerTask.compileOutput(libraryFile);
+			} else {
+				throw new MojoFailureException("Either a libraryFile or a release must be specified.");
+			}
+			
+			if (!outputFolder.exists() && !outputFolder.mkdirs()) {
+				throw new IOException("Unable to create ouput folder: " + outputFolder.getAbsolutePath());
+			}
+			
+			// Select the user-specified schema compiler extension for this thread only so that
+			// concurrent executions of this mojo do not interfere with one another
+			if (bindingStyle != null) {
+				if (CompilerExtensionRegistry.getAvailableExtensionIds().contains(bindingStyle)) {
+					CompilerExtensionRegistry.setThreadExtension(bindingStyle);
 					
-				} else if (releaseItem != null) {
-					log.info("Compiling OTA2 Release: " + releaseItem.getFilename());
-					findings = compilerTask.compileOutput(releaseItem);
+				} else {
+					throw new MojoFailureException("Invalid binding style specified: " + bindingStyle);
 				}
+			} else {
+				CompilerExtensionRegistry.setThreadExtension(CompilerExtensionRegistry.getActiveExtension());
+			}
+			
+			// Execute the compilation and return
+			CompileAllCompilerTask compilerTask = TaskFactory.getTask(CompileAllCompilerTask.class);
+			ValidationFindings findings = null;
+			Log log = getLog();
+			
+			compilerTask.setCompilerThreads(compilerThreads);
+			
+			if (libraryFile != null) {
+				log.info("Compiling OTA2 Library: " + libraryFile.getName());
+				compilerTask.applyTaskOptions(this);
+				findings = compilerTask.compileOutput(libraryFile);
 				
-				if (findings != null) {
-					if (findings.hasFinding()) {
-						String[] messages = findings.getAllValidationMessages(FindingMessageFormat.IDENTIFIED_FORMAT);
-						
-						log.info("Errors/warnings detected during compilation:");
-						for (String message : messages) {
-							log.info(message);
-						}
-					}
+			} else if (releaseItem != null) {
+				log.info("Compiling OTA2 Release: " + releaseItem.getFilename());
+				findings = compilerTask.compileOutput(releaseItem);
+			}
+			
+			if (findings != null) {
+				if (findings.hasFinding()) {
+					String[] messages = findings.getAllValidationMessages(FindingMessageFormat.IDENTIFIED_FORMAT);
 					
-					if (!findings.hasFinding(FindingType.ERROR)) {
-						log.info("Library compilation completed successfully.");
-					} else {
-						throw new MojoFailureException("Schema compilation aborted due to errors.");
+					log.info("Errors/warnings detected during compilation:");
+					for (String message : messages) {
+						log.info(message);
 					}
 				}
 				
-			} catch (Exception e) {
-				throw new MojoExecutionException("Error during OTA2 library compilation.", e);
+				if (!findings.hasFinding(FindingType.ERROR)) {
+					log.info("Library compilation completed successfully.");
+				} else {
+					throw new MojoFailureException("Schema compilation aborted due to errors.");
+				}
 			}
+			
+		} catch (Exception e) {
+			throw new MojoExecutionException("Error during OTA2 library compilation.", e);
+			
+		} finally {
+			CompilerExtensionRegistry.setThreadExtension(null);
 		}
 	}
 	
@@ -293,6 +306,7 @@ public class OTA2SchemaCompilerMojo extends AbstractMojo implements CompileAllTa
         log.info("exampleMaxRepeat              = " + exampleMaxRepeat);
         log.info("exampleMaxDepth               = " + exampleMaxDepth);
         log.info("suppressOptionalFields        = " + suppressOptionalFields);
+        log.info("compilerThreads               = " + compilerThreads);
     }
 
     /**
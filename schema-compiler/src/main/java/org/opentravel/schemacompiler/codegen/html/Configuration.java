@@ -99,7 +99,7 @@ public class Configuration {
 	 */
 	public static final String CONSTANTS_FILE_NAME = "constant-values.html";
 
-	private static Configuration instance = new Configuration();
+	private static final ThreadLocal<Configuration> instance = ThreadLocal.withInitial(Configuration::new);
 
 	/**
 	 * Argument for command line option "-doctitle".
@@ -217,16 +217,24 @@ public class Configuration {
 	}
 
 	/**
-	 * Reset to a fresh new Configuration, to allow multiple invocations of
-	 * javadoc within a single VM. It would be better not to be using static
-	 * fields at all, but .... (sigh).
+	 * Discards the configuration (and documentation builders) of the current
+	 * thread, to allow multiple invocations of javadoc within a single VM.
+	 * Configurations are maintained separately for each thread, so this method
+	 * must be called when each generation completes to avoid leaking settings
+	 * into later tasks that run on the same (pooled) thread.
 	 */
 	public static void reset() {
-		instance = new Configuration();
+		instance.remove();
+		DocumentationBuilderFactory.reset();
 	}
 
+	/**
+	 * Returns the configuration instance for the current thread.
+	 * 
+	 * @return Configuration
+	 */
 	public static Configuration getInstance() {
-		return instance;
+		return instance.get();
 	}
 
 	/**
@@ -34,7 +34,7 @@ import org.opentravel.schemacompiler.transform.SymbolTable;
  */
 public class DocumentationBuilderFactory {
 
-	private static SymbolTable table = new SymbolTable();
+	private static final ThreadLocal<SymbolTable> table = ThreadLocal.withInitial(SymbolTable::new);
 
 	private DocumentationBuilderFactory() {
 	}
@@ -43,6 +43,14 @@ public class DocumentationBuilderFactory {
 		return DocumentationManagerSingleton.INSTANCE;
 	}
 
+	/**
+	 * Discards all of the documentation builders that were registered by the
+	 * current thread.
+	 */
+	public static void reset() {
+		table.remove();
+	}
+
 	private static class DocumentationManagerSingleton {
 		private static final DocumentationBuilderFactory INSTANCE = new DocumentationBuilderFactory();
 	}
@@ -52,7 +60,7 @@ public class DocumentationBuilderFactory {
 			final NamedEntity element) {
 		String namespace = element.getNamespace();
 		String localName = element.getLocalName();
-		DocumentationBuilder builder = (DocumentationBuilder) table.getEntity(
+		DocumentationBuilder builder = (DocumentationBuilder) table.get().getEntity(
 				namespace, localName);
 		if (null == builder) {
 			if (element instanceof TLValueWithAttributes) {
@@ -119,17 +127,17 @@ public class DocumentationBuilderFactory {
 		if (lib != null) {
 			String name = lib.getName();
 			String namespace = lib.getNamespace();
-			builder = (DocumentationBuilder) table.getEntity(namespace, name);
+			builder = (DocumentationBuilder) table.get().getEntity(namespace, name);
 			if (null == builder) {
 				builder = new LibraryDocumentationBuilder(lib);
-				table.addEntity(namespace, name, builder);
+				table.get().addEntity(namespace, name, builder);
 			}
 		}
 		return builder;
 	}
 	
 	public static void addDocumentationBuilder(DocumentationBuilder builder, String namespace, String localName){
-		table.addEntity(namespace, localName, builder);
+		table.get().addEntity(namespace, localName, builder);
 	}
 
 }
@@ -47,21 +47,27 @@ public class DocumentationGenerator implements CodeGenerator<TLModel> {
 	public Collection<File> generateOutput(TLModel model,
 			CodeGenerationContext context) throws ValidationException,
 			CodeGenerationException {
-		Configuration config = Configuration.getInstance();
-		File destination = new File(context
-				.getValue(CodeGenerationContext.CK_OUTPUT_FOLDER));
-		if(!destination.exists()){
-			destination.mkdirs();
-		}
-		config.setDestDirName(destination.getPath() + File.separator);
-		String title = context
-				.getValue(CodeGenerationContext.CK_PROJECT_FILENAME);
-		if (title != null) {
-			config.setWindowtitle(title);
-			config.setDoctitle(title);
+		try {
+			Configuration config = Configuration.getInstance();
+			File destination = new File(context
+					.getValue(CodeGenerationContext.CK_OUTPUT_FOLDER));
+			if(!destination.exists()){
+				destination.mkdirs();
+			}
+			config.setDestDirName(destination.getPath() + File.separator);
+			String title = context
+					.getValue(CodeGenerationContext.CK_PROJECT_FILENAME);
+			if (title != null) {
+				config.setWindowtitle(title);
+				config.setDoctitle(title);
+			}
+			config.setModel(model);
+			HtmlDoclet.start(model);
+
+		} finally {
+			// Discard the settings of this thread, even if the generation fails
+			Configuration.reset();
 		}
-		config.setModel(model);
-		HtmlDoclet.start(model);
 		return Collections.emptyList();
 	}
 
@@ -43,7 +43,6 @@ import org.opentravel.schemacompiler.xml.PrettyPrintLineBreakProcessor;
 import org.opentravel.schemacompiler.xml.XMLPrettyPrinter;
 import org.springframework.context.ApplicationContext;
 import org.w3._2001.xmlschema.Schema;
-import org.w3c.dom.Document;
 import org.xmlsoap.schemas.wsdl.TDefinitions;
 import org.xmlsoap.schemas.wsdl.TDocumented;
 import org.xmlsoap.schemas.wsdl.TTypes;
@@ -75,10 +74,8 @@ public abstract class AbstractJaxbCodeGenerator<S extends ModelElement> extends
         try (OutputStream out = new FileOutputStream(outputFile)){
             Object jaxbObject = transformSourceObjectToJaxb(source, context);
             Marshaller marshaller = getMarshaller(source, getJaxbSchema(jaxbObject));
-            Document domDocument = XMLPrettyPrinter.newDocument();
 
-            marshaller.marshal(jaxbObject, domDocument);
-            new XMLPrettyPrinter(getLineBreakProcessor()).formatDocument(domDocument, out);
+            new XMLPrettyPrinter(getLineBreakProcessor()).formatJaxbContent(marshaller, jaxbObject, out);
 
             // Finish up by copying any dependencies that were identified during code generation
             if (context.getBooleanValue(CodeGenerationContext.CK_COPY_COMPILE_TIME_DEPENDENCIES)) {
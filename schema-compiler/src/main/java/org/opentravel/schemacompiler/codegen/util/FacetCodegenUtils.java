@@ -17,13 +17,13 @@ package org.opentravel.schemacompiler.codegen.util;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
+import org.opentravel.schemacompiler.codegen.util.ModelInheritanceCache.ViewType;
 import org.opentravel.schemacompiler.codegen.xsd.facet.FacetCodegenDelegateFactory;
+import org.opentravel.schemacompiler.ic.ModelExtensionRegistry;
 import org.opentravel.schemacompiler.model.NamedEntity;
 import org.opentravel.schemacompiler.model.OperationType;
 import org.opentravel.schemacompiler.model.TLActionFacet;
@@ -42,9 +42,6 @@ import org.opentravel.schemacompiler.model.TLLibrary;
 import org.opentravel.schemacompiler.model.TLModel;
 import org.opentravel.schemacompiler.model.TLOperation;
 import org.opentravel.schemacompiler.model.TLResource;
-import org.opentravel.schemacompiler.visitor.ModelElementVisitor;
-import org.opentravel.schemacompiler.visitor.ModelElementVisitorAdapter;
-import org.opentravel.schemacompiler.visitor.ModelNavigator;
 
 /**
  * Static utility methods used during the generation of code output for facets.
@@ -399,17 +396,19 @@ public class FacetCodegenUtils {
      * summary, and detail facets from the original facet's owner. The hierarchy that is returned is
      * sorted from the highest level of the inheritance hierarchy to the lowest. At a minimum, the
      * facet that is passed to this method is guranteed to be a member (and the last element of) of
-     * the resulting list.
+     * the resulting list. The list that is returned is unmodifiable.
      * 
      * @param facet
      *            the facet instance for which to return the hierarchy
      * @return List<TLFacet>
      */
     public static List<TLFacet> getLocalFacetHierarchy(TLFacet facet) {
-        List<TLFacet> localHierarchy = new ArrayList<>();
-        
-        getLocalFacetHierarchy( facet, localHierarchy, new HashSet<TLFacet>() );
-        return localHierarchy;
+        return ModelInheritanceCache.getView( facet, ViewType.LOCAL_FACET_HIERARCHY, () -> {
+            List<TLFacet> localHierarchy = new ArrayList<>();
+            
+            getLocalFacetHierarchy( facet, localHierarchy, new HashSet<TLFacet>() );
+            return localHierarchy;
+        } );
     }
 
     /**
@@ -648,15 +647,18 @@ public class FacetCodegenUtils {
             if (declaredFacet == null) {
             	TLContextualFacet ghostFacet = new TLContextualFacet();
             	
+                // The owning library is assigned last so that no model events are published
+                // while the ghost facet is being initialized
+                ghostFacet.setFacetType(facetType);
+                ghostFacet.setName(inheritedFacet.getName());
+                ghostFacet.setOwningEntity(facetOwner);
+                
             	if (inheritedFacet.isLocalFacet()) {
                     ghostFacet.setOwningLibrary(facetOwner.getOwningLibrary());
             		
             	} else {
                     ghostFacet.setOwningLibrary(inheritedFacet.getOwningLibrary());
             	}
-                ghostFacet.setFacetType(facetType);
-                ghostFacet.setName(inheritedFacet.getName());
-                ghostFacet.setOwningEntity(facetOwner);
                 ghostFacets.add(ghostFacet);
             }
         }
@@ -714,12 +716,14 @@ public class FacetCodegenUtils {
             if (declaredFacet == null) {
             	TLActionFacet ghostFacet = new TLActionFacet();
 
-                ghostFacet.setOwningResource(resource);
+                // The owning resource is assigned last so that no model events are published
+                // while the ghost facet is being initialized
                 ghostFacet.setName(inheritedFacet.getName());
                 ghostFacet.setReferenceType(inheritedFacet.getReferenceType());
                 ghostFacet.setReferenceRepeat(inheritedFacet.getReferenceRepeat());
                 ghostFacet.setReferenceFacetName(inheritedFacet.getReferenceFacetName());
                 ghostFacet.setBasePayload(inheritedFacet.getBasePayload());
+                ghostFacet.setOwningResource(resource);
                 ghostFacets.add(ghostFacet);
             }
         }
@@ -737,7 +741,7 @@ public class FacetCodegenUtils {
     public static List<TLContextualFacet> findNonLocalGhostFacets(TLLibrary library) {
     	List<TLContextualFacet> nonLocalFacets = new ArrayList<>();
     	List<TLFacetOwner> topLevelOwners = new ArrayList<>();
-    	Map<TLFacetOwner,List<TLFacetOwner>> extensionRegistry;
+    	TLModel model = library.getOwningModel();
     	
     	// Construct the collection top-level facet owners
     	for (TLContextualFacet facet : library.getContextualFacetTypes()) {
@@ -749,13 +753,14 @@ public class FacetCodegenUtils {
     			}
     		}
     	}
-    	extensionRegistry = buildExtensionRegistry( library.getOwningModel() );
     	
     	// Navigate through all of the extending entities to search for ghost facets
     	// that should be generated in our starting library
-    	for (TLFacetOwner originalOwner : topLevelOwners) {
-    		findNonLocalGhostFacets( originalOwner, library, nonLocalFacets,
-    				extensionRegistry, new HashSet<TLFacetOwner>() );
+    	if (model != null) {
+        	for (TLFacetOwner originalOwner : topLevelOwners) {
+        		findNonLocalGhostFacets( originalOwner, library, nonLocalFacets,
+        				model.getExtensionRegistry(), new HashSet<TLFacetOwner>() );
+        	}
     	}
     	return nonLocalFacets;
     }
@@ -767,22 +772,22 @@ public class FacetCodegenUtils {
      * @param owner  the facet owner for which to navigate the extension hierarchy
      * @param originalLibrary  the original library for which non-local ghost facets should be identified
      * @param nonLocalFacets  the list of non-local facets that have been collected
-     * @param extensionRegistry  the registry of extended-to-extending entities
+     * @param extensionRegistry  the registry of extension relationships for the model
      * @param visitedOwners  the list of visited owners (protection against circular references)
      */
     private static void findNonLocalGhostFacets(TLFacetOwner owner, TLLibrary originalLibrary,
-    		List<TLContextualFacet> nonLocalFacets, Map<TLFacetOwner,List<TLFacetOwner>> extensionRegistry,
+    		List<TLContextualFacet> nonLocalFacets, ModelExtensionRegistry extensionRegistry,
     		Set<TLFacetOwner> visitedOwners) {
     	if (!visitedOwners.contains( owner )) {
-    		List<TLFacetOwner> extendingOwners = extensionRegistry.get( owner );
-    		
     		visitedOwners.add( owner );
     		
-    		if (extendingOwners != null) {
-        		for (TLFacetOwner extendingOwner : extendingOwners) {
+    		for (TLExtensionOwner extendingEntity : extensionRegistry.getExtendingEntities( owner )) {
+    			if (extendingEntity instanceof TLFacetOwner) {
+    				TLFacetOwner extendingOwner = (TLFacetOwner) extendingEntity;
+    				
                 	findNonLocalGhostFacets( extendingOwner, originalLibrary, nonLocalFacets );
                 	findNonLocalGhostFacets( extendingOwner, originalLibrary, nonLocalFacets, extensionRegistry, visitedOwners );
-        		}
+    			}
     		}
     	}
     }
@@ -838,32 +843,6 @@ public class FacetCodegenUtils {
     	return typeList;
     }
     
-    /**
-     * Constructs a map of all extension relationships within the given OTM model.  The
-     * values in the resulting map represent all entities which extend the facet-owner key.
-     * 
-     * @param model  the model for which to build the extension registry
-     * @return Map<TLFacetOwner,List<TLFacetOwner>>
-     */
-    private static Map<TLFacetOwner,List<TLFacetOwner>> buildExtensionRegistry(TLModel model) {
-    	final Map<TLFacetOwner,List<TLFacetOwner>> registry = new HashMap<>();
-    	ModelElementVisitor visitor = new ModelElementVisitorAdapter() {
-    		@Override public boolean visitExtension(TLExtension extension) {
-				TLExtensionOwner extendingEntity = extension.getOwner();
-				NamedEntity extendedEntity = extension.getExtendsEntity();
-				
-				if ((extendingEntity instanceof TLFacetOwner) && (extendedEntity instanceof TLFacetOwner)) {
-					registry.computeIfAbsent( (TLFacetOwner) extendedEntity, e -> registry.put( e, new ArrayList<>() ) );
-					registry.get( extendedEntity ).add( (TLFacetOwner) extendingEntity );
-				}
-				return true;
-			}
-		};
-		
-		ModelNavigator.navigate( model, visitor );
-    	return registry;
-    }
-    
     /**
      * Returns the type of operation based on the configuration of the request, response,
      * and/or notification facets.
@@ -0,0 +1,445 @@
+/**
+ * Copyright (C) 2014 OpenTravel Alliance (info@opentravel.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opentravel.schemacompiler.codegen.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.function.Supplier;
+
+import org.opentravel.schemacompiler.event.ModelEvent;
+import org.opentravel.schemacompiler.event.ModelEventType;
+import org.opentravel.schemacompiler.event.OwnershipEvent;
+import org.opentravel.schemacompiler.model.LibraryMember;
+import org.opentravel.schemacompiler.model.TLAbstractFacet;
+import org.opentravel.schemacompiler.model.TLAttribute;
+import org.opentravel.schemacompiler.model.TLExtension;
+import org.opentravel.schemacompiler.model.TLExtensionOwner;
+import org.opentravel.schemacompiler.model.TLFacetOwner;
+import org.opentravel.schemacompiler.model.TLIndicator;
+import org.opentravel.schemacompiler.model.TLModel;
+import org.opentravel.schemacompiler.model.TLModelElement;
+import org.opentravel.schemacompiler.model.TLProperty;
+import org.opentravel.schemacompiler.model.TLValueWithAttributes;
+
+/**
+ * Cache of the inheritance views (inherited attributes, properties, indicators, and local facet
+ * hierarchies) that are computed by <code>PropertyCodegenUtils</code> and
+ * <code>FacetCodegenUtils</code> for the members of a <code>TLModel</code>. Each view is computed
+ * once and returned as an immutable list on subsequent requests.
+ *
+ * <p>
+ * Each cached view belongs to the inheritance root of its element (the business object, core
+ * object, choice object, or VWA that ultimately owns it). When the owning model publishes an
+ * event, only the views whose roots depend upon the root of the modified element (through their
+ * extensions, VWA parent types, or VWA attribute types) are discarded. Changes to extensions or
+ * parent types, and events whose source cannot be associated with a root, discard the entire
+ * cache. Events from elements that are not members of the model are ignored. Cached views are
+ * indexed by their roots, and each root by the roots it depends upon, so that an event only
+ * touches the entries that are affected by it. Cache entries are weakly referenced so that
+ * transient elements (e.g. ghost facets) that are created during code generation do not accumulate
+ * in memory.
+ *
+ * <p>
+ * While the model's listeners are disabled (e.g. during bulk loading or re-assignment operations),
+ * the cache is suspended: events are not processed and views are constructed without being cached.
+ * The entire cache is discarded once when the listeners are re-enabled.
+ *
+ * @author S. Livezey
+ */
+public class ModelInheritanceCache {
+
+    /**
+     * Enumeration of the types of inheritance views that are maintained by the cache.
+     */
+    enum ViewType {
+        LOCAL_FACET_HIERARCHY,
+        ATTRIBUTES,
+        INDICATORS,
+        PROPERTIES,
+        FACET_ATTRIBUTES,
+        FACET_INDICATORS,
+        FACET_PROPERTIES,
+        VWA_ATTRIBUTES,
+        VWA_ATTRIBUTES_WITH_DUPLICATES,
+        VWA_INDICATORS
+    }
+
+    private TLModel model;
+    private Map<TLModelElement,Map<ViewType,List<?>>> viewCache = new WeakHashMap<>();
+    private Map<Object,Set<TLModelElement>> rootElements = new WeakHashMap<>();
+    private Map<Object,Set<Object>> rootDependencies = new WeakHashMap<>();
+    private Map<Object,Set<Object>> dependentRoots = new WeakHashMap<>();
+    private Set<TLModelElement> unrootedElements = newWeakSet();
+    private boolean suspended;
+    private long generation;
+
+    /**
+     * Constructor that specifies the model whose inheritance views are to be cached.
+     *
+     * @param model
+     *            the model whose inheritance views are to be cached
+     */
+    public ModelInheritanceCache(TLModel model) {
+        this.model = model;
+    }
+
+    /**
+     * Returns the cached view of the requested type for the given model element. If no such view
+     * has been cached, it is constructed by the builder provided and cached for subsequent
+     * requests. Views are never cached for elements that are not members of a model, or while the
+     * cache of the owning model is suspended.
+     *
+     * @param element
+     *            the model element for which to return the inheritance view
+     * @param viewType
+     *            the type of inheritance view to return
+     * @param viewBuilder
+     *            the builder that will construct the view if it is not already cached
+     * @return List<T>
+     */
+    static <T> List<T> getView(TLModelElement element, ViewType viewType,
+            Supplier<List<T>> viewBuilder) {
+        TLModel model = element.getOwningModel();
+        List<T> view;
+
+        if (model == null) {
+            view = Collections.unmodifiableList(viewBuilder.get());
+
+        } else {
+            view = model.getInheritanceCache().getCachedView(element, viewType, viewBuilder);
+        }
+        return view;
+    }
+
+    /**
+     * Returns the cached view of the requested type for the given model element, constructing and
+     * caching it if necessary.
+     *
+     * @param element
+     *            the model element for which to return the inheritance view
+     * @param viewType
+     *            the type of inheritance view to return
+     * @param viewBuilder
+     *            the builder that will construct the view if it is not already cached
+     * @return List<T>
+     */
+    @SuppressWarnings("unchecked")
+    private <T> List<T> getCachedView(TLModelElement element, ViewType viewType,
+            Supplier<List<T>> viewBuilder) {
+        List<T> view;
+        long viewGeneration;
+
+        synchronized (this) {
+            Map<ViewType,List<?>> elementViews = suspended ? null : viewCache.get(element);
+
+            view = (elementViews == null) ? null : (List<T>) elementViews.get(viewType);
+            viewGeneration = generation;
+        }
+
+        if (view == null) {
+            // Views are constructed outside of the lock because builders typically request other
+            // views from the cache (e.g. the local facet hierarchy)
+            view = Collections.unmodifiableList(new ArrayList<>(viewBuilder.get()));
+
+            synchronized (this) {
+                // Do not cache the view if the model was modified while it was being constructed
+                if (!suspended && (viewGeneration == generation)) {
+                    Map<ViewType,List<?>> elementViews = viewCache.get(element);
+
+                    if (elementViews == null) {
+                        elementViews = new EnumMap<>(ViewType.class);
+                        viewCache.put(element, elementViews);
+                        indexElement(element);
+                    }
+                    elementViews.put(viewType, view);
+                }
+            }
+        }
+        return view;
+    }
+
+    /**
+     * Adds the given element to the index of its inheritance root. The dependencies of the root
+     * are indexed when the first view of any of its elements is cached.
+     *
+     * @param element
+     *            the model element whose view is being cached
+     */
+    private void indexElement(TLModelElement element) {
+        Object root = getInheritanceRoot(element);
+
+        if (root == null) {
+            unrootedElements.add(element);
+            return;
+        }
+        Set<TLModelElement> elements = rootElements.get(root);
+
+        if (elements == null) {
+            elements = newWeakSet();
+            rootElements.put(root, elements);
+        }
+        elements.add(element);
+
+        if (!rootDependencies.containsKey(root)) {
+            Set<Object> dependencies = newWeakSet();
+
+            dependencies.addAll(getDependencies(root));
+            rootDependencies.put(root, dependencies);
+
+            for (Object dependency : dependencies) {
+                Set<Object> roots = dependentRoots.get(dependency);
+
+                if (roots == null) {
+                    roots = newWeakSet();
+                    dependentRoots.put(dependency, roots);
+                }
+                roots.add(root);
+            }
+        }
+    }
+
+    /**
+     * Discards the cached views that are affected by the given model event. Events are ignored
+     * while the cache is suspended.
+     *
+     * @param event
+     *            the model event that was published by the owning model
+     */
+    public void processModelEvent(ModelEvent<?> event) {
+        Object source = (event == null) ? null : event.getSource();
+
+        if (isSuspended() || (source == null) || ((source instanceof TLModelElement)
+                && (((TLModelElement) source).getOwningModel() != model))) {
+            return; // ignore events from elements that are not members of the model
+        }
+        Object affectedRoot = isStructuralChange(event) ? null : getInheritanceRoot(source);
+
+        if (affectedRoot == null) {
+            reset();
+
+        } else {
+            invalidate(affectedRoot);
+        }
+    }
+
+    /**
+     * Discards the cached views whose inheritance roots depend upon the given root entity.
+     *
+     * @param affectedRoot
+     *            the inheritance root that was modified
+     */
+    private synchronized void invalidate(Object affectedRoot) {
+        Set<Object> roots = dependentRoots.get(affectedRoot);
+
+        if (roots != null) {
+            for (Object root : new ArrayList<>(roots)) {
+                discardRoot(root);
+            }
+        }
+        for (TLModelElement element : unrootedElements) {
+            viewCache.remove(element);
+        }
+        unrootedElements.clear();
+        generation++;
+    }
+
+    /**
+     * Discards the cached views of the given inheritance root's elements and removes the root from
+     * the dependency index.
+     *
+     * @param root
+     *            the inheritance root whose views are to be discarded
+     */
+    private void discardRoot(Object root) {
+        Set<TLModelElement> elements = rootElements.remove(root);
+        Set<Object> dependencies = rootDependencies.remove(root);
+
+        if (elements != null) {
+            for (TLModelElement element : elements) {
+                viewCache.remove(element);
+            }
+        }
+        if (dependencies != null) {
+            for (Object dependency : dependencies) {
+                Set<Object> roots = dependentRoots.get(dependency);
+
+                if (roots != null) {
+                    roots.remove(root);
+
+                    if (roots.isEmpty()) {
+                        dependentRoots.remove(dependency);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns true if the given event modifies the inheritance structure of the model in a way
+     * that can affect views throughout the model (e.g. a modified extension or parent type).
+     *
+     * @param event
+     *            the model event to analyze
+     * @return boolean
+     */
+    private static boolean isStructuralChange(ModelEvent<?> event) {
+        ModelEventType eventType = event.getType();
+        Object source = event.getSource();
+
+        return (source instanceof TLExtension)
+                || ((event instanceof OwnershipEvent)
+                        && (((OwnershipEvent<?,?>) event).getAffectedItem() instanceof TLExtension))
+                || (eventType == ModelEventType.EXTENDS_ENTITY_MODIFIED)
+                || (eventType == ModelEventType.FACET_OWNER_MODIFIED)
+                || ((eventType == ModelEventType.TYPE_ASSIGNMENT_MODIFIED)
+                        && (source instanceof LibraryMember));
+    }
+
+    /**
+     * Returns the inheritance root of the given element: the business object, core object, choice
+     * object, or VWA that ultimately owns it. Contextual facets are resolved to the root of their
+     * owning entity. If the element cannot be associated with a root, this method returns null.
+     *
+     * @param element
+     *            the element for which to return the inheritance root
+     * @return Object
+     */
+    private static Object getInheritanceRoot(Object element) {
+        Set<Object> visitedElements = new HashSet<>();
+        Object owner = element;
+
+        while ((owner != null) && visitedElements.add(owner)) {
+            if (owner instanceof TLAttribute) {
+                owner = ((TLAttribute) owner).getOwner();
+
+            } else if (owner instanceof TLProperty) {
+                owner = ((TLProperty) owner).getOwner();
+
+            } else if (owner instanceof TLIndicator) {
+                owner = ((TLIndicator) owner).getOwner();
+
+            } else if (owner instanceof TLAbstractFacet) {
+                owner = ((TLAbstractFacet) owner).getOwningEntity();
+
+            } else if ((owner instanceof TLFacetOwner) || (owner instanceof TLValueWithAttributes)) {
+                return owner;
+
+            } else {
+                break;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the inheritance roots upon which the views of the given root depend, including the
+     * root itself.
+     *
+     * @param root
+     *            the inheritance root whose dependencies are to be returned
+     * @return Set<Object>
+     */
+    private static Set<Object> getDependencies(Object root) {
+        Set<Object> dependencies = new HashSet<>();
+
+        collectDependencies(root, dependencies);
+        return dependencies;
+    }
+
+    /**
+     * Recursive method that adds the given entity and the entities it inherits from (extended
+     * entities, VWA parent types, and VWA attribute types) to the set of dependencies.
+     *
+     * @param entity
+     *            the entity to add to the set of dependencies
+     * @param dependencies
+     *            the set of dependencies being constructed
+     */
+    private static void collectDependencies(Object entity, Set<Object> dependencies) {
+        if ((entity == null) || !dependencies.add(entity)) {
+            return;
+        }
+        if (entity instanceof TLExtensionOwner) {
+            TLExtension extension = ((TLExtensionOwner) entity).getExtension();
+
+            collectDependencies((extension == null) ? null : extension.getExtendsEntity(),
+                    dependencies);
+        }
+        if (entity instanceof TLValueWithAttributes) {
+            TLValueWithAttributes vwa = (TLValueWithAttributes) entity;
+
+            collectDependencies(vwa.getParentType(), dependencies);
+
+            for (TLAttribute attribute : vwa.getAttributes()) {
+                if (attribute.getType() instanceof TLValueWithAttributes) {
+                    collectDependencies(attribute.getType(), dependencies);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns a new set whose members are weakly referenced.
+     *
+     * @return Set<T>
+     */
+    private static <T> Set<T> newWeakSet() {
+        return Collections.newSetFromMap(new WeakHashMap<T,Boolean>());
+    }
+
+    /**
+     * Returns true if the cache is currently suspended.
+     *
+     * @return boolean
+     */
+    public synchronized boolean isSuspended() {
+        return suspended;
+    }
+
+    /**
+     * Suspends or resumes the cache. While suspended, model events are ignored and views are
+     * constructed without being cached. When the cache is resumed, all views that were cached
+     * prior to the suspension are discarded.
+     *
+     * @param suspended
+     *            flag indicating whether the cache is to be suspended or resumed
+     */
+    public synchronized void setSuspended(boolean suspended) {
+        if (this.suspended && !suspended) {
+            reset();
+        }
+        this.suspended = suspended;
+    }
+
+    /**
+     * Discards all views that are currently cached.
+     */
+    public synchronized void reset() {
+        viewCache.clear();
+        rootElements.clear();
+        rootDependencies.clear();
+        dependentRoots.clear();
+        unrootedElements.clear();
+        generation++;
+    }
+
+}
@@ -27,6 +27,7 @@ import java.util.Set;
 import javax.xml.XMLConstants;
 import javax.xml.namespace.QName;
 
+import org.opentravel.schemacompiler.codegen.util.ModelInheritanceCache.ViewType;
 import org.opentravel.schemacompiler.codegen.xsd.facet.FacetCodegenDelegate;
 import org.opentravel.schemacompiler.codegen.xsd.facet.FacetCodegenDelegateFactory;
 import org.opentravel.schemacompiler.ioc.SchemaDependency;
@@ -63,6 +64,10 @@ import org.opentravel.schemacompiler.version.Versioned;
 /**
  * Shared static methods used during the code generation for <code>TLProperty</code> elements.
  * 
+ * <p>
+ * The lists of inherited attributes, properties, and indicators that are returned by this class
+ * are cached by the <code>ModelInheritanceCache</code> of the owning model and are unmodifiable.
+ * 
  * @author S. Livezey
  */
 public class PropertyCodegenUtils {
@@ -257,11 +262,16 @@ public class PropertyCodegenUtils {
      */
     public static List<TLAttribute> getInheritedAttributes(TLValueWithAttributes vwa,
             boolean includeDuplicateNames) {
-        List<TLAttribute> attributeList = new ArrayList<>();
+        ViewType viewType = includeDuplicateNames ? ViewType.VWA_ATTRIBUTES_WITH_DUPLICATES
+                : ViewType.VWA_ATTRIBUTES;
 
-        findInheritedAttributes(vwa, includeDuplicateNames, attributeList,
-                new HashSet<TLValueWithAttributes>());
-        return attributeList;
+        return ModelInheritanceCache.getView(vwa, viewType, () -> {
+            List<TLAttribute> attributeList = new ArrayList<>();
+
+            findInheritedAttributes(vwa, includeDuplicateNames, attributeList,
+                    new HashSet<String>(), new HashSet<TLValueWithAttributes>());
+            return attributeList;
+        });
     }
 
     /**
@@ -275,33 +285,30 @@ public class PropertyCodegenUtils {
      *            results
      * @param attributeList
      *            the list of attributes being constructed
+     * @param attributeNames
+     *            the names of the attributes that have been added to the list
      * @param visitedVWAs
      *            the collection of VWA's that have already been visited (used to prevent infinite
      *            loops)
      */
     private static void findInheritedAttributes(TLValueWithAttributes vwa,
             boolean includeDuplicateNames, List<TLAttribute> attributeList,
-            Collection<TLValueWithAttributes> visitedVWAs) {
+            Set<String> attributeNames, Collection<TLValueWithAttributes> visitedVWAs) {
         if (!visitedVWAs.contains(vwa)) {
 
             visitedVWAs.add(vwa);
 
             for (TLAttribute attribute : vwa.getAttributes()) {
-                boolean canAdd = true;
-
-                if (!includeDuplicateNames) {
-                    String attributeName = attribute.getName();
+                String attributeName = attribute.getName();
+                boolean canAdd = includeDuplicateNames || (attributeName == null)
+                        || !attributeNames.contains(attributeName);
 
-                    for (TLAttribute existingAttribute : attributeList) {
-                        if ((attributeName != null)
-                                && attributeName.equals(existingAttribute.getName())) {
-                            canAdd = false;
-                            break;
-                        }
-                    }
-                }
                 if (canAdd) {
                     attributeList.add(attribute);
+
+                    if (attributeName != null) {
+                        attributeNames.add(attributeName);
+                    }
                 }
             }
 
@@ -309,14 +316,14 @@ public class PropertyCodegenUtils {
             for (TLAttribute attribute : vwa.getAttributes()) {
                 if (attribute.getType() instanceof TLValueWithAttributes) {
                     findInheritedAttributes((TLValueWithAttributes) attribute.getType(),
-                            includeDuplicateNames, attributeList, visitedVWAs);
+                            includeDuplicateNames, attributeList, attributeNames, visitedVWAs);
                 }
             }
 
             // Recurse into the parent type to find inherited items
             if (vwa.getParentType() instanceof TLValueWithAttributes) {
                 findInheritedAttributes((TLValueWithAttributes) vwa.getParentType(),
-                        includeDuplicateNames, attributeList, visitedVWAs);
+                        includeDuplicateNames, attributeList, attributeNames, visitedVWAs);
             }
         }
     }
@@ -331,10 +338,12 @@ public class PropertyCodegenUtils {
      * @return List<TLIndicator>
      */
     public static List<TLIndicator> getInheritedIndicators(TLValueWithAttributes vwa) {
-        List<TLIndicator> indicatorList = new ArrayList<>();
+        return ModelInheritanceCache.getView(vwa, ViewType.VWA_INDICATORS, () -> {
+            List<TLIndicator> indicatorList = new ArrayList<>();
 
-        findInheritedIndicators(vwa, indicatorList, new HashSet<TLValueWithAttributes>());
-        return indicatorList;
+            findInheritedIndicators(vwa, indicatorList, new HashSet<TLValueWithAttributes>());
+            return indicatorList;
+        });
     }
 
     /**
@@ -379,13 +388,15 @@ public class PropertyCodegenUtils {
      * @return List<TLAttribute>
      */
     public static List<TLAttribute> getInheritedAttributes(TLFacet facet) {
-        List<TLFacet> localFacetHierarchy = FacetCodegenUtils.getLocalFacetHierarchy(facet);
-        List<TLAttribute> attributeList = new ArrayList<>();
+        return ModelInheritanceCache.getView(facet, ViewType.ATTRIBUTES, () -> {
+            List<TLFacet> localFacetHierarchy = FacetCodegenUtils.getLocalFacetHierarchy(facet);
+            List<TLAttribute> attributeList = new ArrayList<>();
 
-        for (TLFacet aFacet : localFacetHierarchy) {
-            attributeList.addAll(getInheritedFacetAttributes(aFacet));
-        }
-        return attributeList;
+            for (TLFacet aFacet : localFacetHierarchy) {
+                attributeList.addAll(getInheritedFacetAttributes(aFacet));
+            }
+            return attributeList;
+        });
     }
 
     /**
@@ -398,6 +409,19 @@ public class PropertyCodegenUtils {
      * @return List<TLAttribute>
      */
     public static List<TLAttribute> getInheritedFacetAttributes(TLFacet facet) {
+        return ModelInheritanceCache.getView(facet, ViewType.FACET_ATTRIBUTES,
+                () -> buildInheritedFacetAttributes(facet));
+    }
+
+    /**
+     * Constructs the list of attributes that were declared by the given facet or inherited from
+     * facets of the same type.
+     * 
+     * @param facet
+     *            the facet for which to construct the list of inherited attributes
+     * @return List<TLAttribute>
+     */
+    private static List<TLAttribute> buildInheritedFacetAttributes(TLFacet facet) {
         Collection<TLFacetOwner> visitedOwners = new HashSet<>();
         Map<String,Set<NamedEntity>> inheritanceRoots = new HashMap<>();
         List<TLAttribute> attributeList = new ArrayList<>();
@@ -414,9 +438,9 @@ public class PropertyCodegenUtils {
                 List<TLAttribute> localAttributes = new ArrayList<>(
                         aFacet.getAttributes());
 
-                // We are traversing upward in the inheritance hierarchy, so we must pre-pend
-                // attributes onto the list in the reverse order of their declarations in order
-                // to preserve the intended order of occurrance.
+                // We are traversing upward in the inheritance hierarchy, so we collect the
+                // attributes in the reverse order of their declarations; the list is reversed
+                // once the traversal is complete to preserve the intended order of occurrance.
                 Collections.reverse(localAttributes);
 
                 for (TLAttribute attribute : localAttributes) {
@@ -436,7 +460,7 @@ public class PropertyCodegenUtils {
                         if (inheritanceRoot != null) {
                         	attrInheritanceRoots.add(inheritanceRoot);
                         }
-                        attributeList.add(0, attribute);
+                        attributeList.add(attribute);
                     }
                 }
             }
@@ -445,6 +469,7 @@ public class PropertyCodegenUtils {
             aFacet = (facetOwner == null) ? null :
             	FacetCodegenUtils.getFacetOfType(facetOwner, facet.getFacetType(), facetName);
         }
+        Collections.reverse(attributeList);
         return attributeList;
     }
 
@@ -458,13 +483,15 @@ public class PropertyCodegenUtils {
      * @return List<TLIndicator>
      */
     public static List<TLIndicator> getInheritedIndicators(TLFacet facet) {
-        List<TLFacet> localFacetHierarchy = FacetCodegenUtils.getLocalFacetHierarchy(facet);
-        List<TLIndicator> indicatorList = new ArrayList<>();
+        return ModelInheritanceCache.getView(facet, ViewType.INDICATORS, () -> {
+            List<TLFacet> localFacetHierarchy = FacetCodegenUtils.getLocalFacetHierarchy(facet);
+            List<TLIndicator> indicatorList = new ArrayList<>();
 
-        for (TLFacet aFacet : localFacetHierarchy) {
-            indicatorList.addAll(getInheritedFacetIndicators(aFacet));
-        }
-        return indicatorList;
+            for (TLFacet aFacet : localFacetHierarchy) {
+                indicatorList.addAll(getInheritedFacetIndicators(aFacet));
+            }
+            return indicatorList;
+        });
     }
 
     /**
@@ -477,6 +504,19 @@ public class PropertyCodegenUtils {
      * @return List<TLIndicator>
      */
     public static List<TLIndicator> getInheritedFacetIndicators(TLFacet facet) {
+        return ModelInheritanceCache.getView(facet, ViewType.FACET_INDICATORS,
+                () -> buildInheritedFacetIndicators(facet));
+    }
+
+    /**
+     * Constructs the list of indicators that were declared by the given facet or inherited from
+     * facets of the same type.
+     * 
+     * @param facet
+     *            the facet for which to construct the list of inherited indicators
+     * @return List<TLIndicator>
+     */
+    private static List<TLIndicator> buildInheritedFacetIndicators(TLFacet facet) {
         Collection<TLFacetOwner> visitedOwners = new HashSet<>();
         List<TLIndicator> indicatorList = new ArrayList<>();
         TLFacetOwner facetOwner = facet.getOwningEntity();
@@ -492,13 +532,13 @@ public class PropertyCodegenUtils {
                 List<TLIndicator> localIndicators = new ArrayList<>(
                         aFacet.getIndicators());
 
-                // We are traversing upward in the inheritance hierarchy, so we must pre-pend
-                // indicators onto the list in the reverse order of their declarations in order
-                // to preserve the intended order of occurrance.
+                // We are traversing upward in the inheritance hierarchy, so we collect the
+                // indicators in the reverse order of their declarations; the list is reversed
+                // once the traversal is complete to preserve the intended order of occurrance.
                 Collections.reverse(localIndicators);
 
                 for (TLIndicator indicator : localIndicators) {
-                    indicatorList.add(0, indicator);
+                    indicatorList.add(indicator);
                 }
             }
             visitedOwners.add(facetOwner);
@@ -506,6 +546,7 @@ public class PropertyCodegenUtils {
             aFacet = (facetOwner == null) ? null :
             	FacetCodegenUtils.getFacetOfType(facetOwner, facet.getFacetType(), facetName);
         }
+        Collections.reverse(indicatorList);
         return indicatorList;
     }
 
@@ -519,13 +560,15 @@ public class PropertyCodegenUtils {
      * @return List<TLProperty>
      */
     public static List<TLProperty> getInheritedProperties(TLFacet facet) {
-        List<TLFacet> localFacetHierarchy = FacetCodegenUtils.getLocalFacetHierarchy(facet);
-        List<TLProperty> propertyList = new ArrayList<>();
+        return ModelInheritanceCache.getView(facet, ViewType.PROPERTIES, () -> {
+            List<TLFacet> localFacetHierarchy = FacetCodegenUtils.getLocalFacetHierarchy(facet);
+            List<TLProperty> propertyList = new ArrayList<>();
 
-        for (TLFacet aFacet : localFacetHierarchy) {
-            propertyList.addAll(getInheritedFacetProperties(aFacet));
-        }
-        return propertyList;
+            for (TLFacet aFacet : localFacetHierarchy) {
+                propertyList.addAll(getInheritedFacetProperties(aFacet));
+            }
+            return propertyList;
+        });
     }
 
     /**
@@ -538,6 +581,19 @@ public class PropertyCodegenUtils {
      * @return List<TLProperty>
      */
     public static List<TLProperty> getInheritedFacetProperties(TLFacet facet) {
+        return ModelInheritanceCache.getView(facet, ViewType.FACET_PROPERTIES,
+                () -> buildInheritedFacetProperties(facet));
+    }
+
+    /**
+     * Constructs the list of properties that were declared by the given facet or inherited from
+     * facets of the same type.
+     * 
+     * @param facet
+     *            the facet for which to construct the list of inherited properties
+     * @return List<TLProperty>
+     */
+    private static List<TLProperty> buildInheritedFacetProperties(TLFacet facet) {
         Collection<TLFacetOwner> visitedOwners = new HashSet<>();
         Set<NamedEntity> complexInheritanceRoots = new HashSet<>();
         Map<String,Set<NamedEntity>> simpleInheritanceRoots = new HashMap<>();
@@ -554,14 +610,14 @@ public class PropertyCodegenUtils {
             if (aFacet != null) {
                 List<TLProperty> localProperties = new ArrayList<>(aFacet.getElements());
 
-                // We are traversing upward in the inheritance hierarchy, so we must pre-pend
-                // properties onto the list in the reverse order of their declarations in order
-                // to preserve the intended order of occurrance.
+                // We are traversing upward in the inheritance hierarchy, so we collect the
+                // properties in the reverse order of their declarations; the list is reversed
+                // once the traversal is complete to preserve the intended order of occurrance.
                 Collections.reverse(localProperties);
 
                 for (TLProperty property : localProperties) {
                 	if (property.isReference()) {
-                        propertyList.add(0, property);
+                        propertyList.add(property);
                 		
                 	} else {
                         TLPropertyType propertyType = resolvePropertyType(property.getType());
@@ -576,7 +632,7 @@ public class PropertyCodegenUtils {
                                 if (inheritanceRoot != null) {
                                 	complexInheritanceRoots.add(inheritanceRoot);
                                 }
-                                propertyList.add(0, property);
+                                propertyList.add(property);
                             }
                             
                         } else if (propertyType != null) {
@@ -595,7 +651,7 @@ public class PropertyCodegenUtils {
                                 if (inheritanceRoot != null) {
                                 	propertyInheritanceRoots.add(inheritanceRoot);
                                 }
-                                propertyList.add(0, property);
+                                propertyList.add(property);
                             }
                         }
                 	}
@@ -606,6 +662,7 @@ public class PropertyCodegenUtils {
             aFacet = (facetOwner == null) ? null :
             	FacetCodegenUtils.getFacetOfType(facetOwner, facet.getFacetType(), facetName);
         }
+        Collections.reverse(propertyList);
         return propertyList;
     }
 
@@ -19,9 +19,9 @@ import java.io.File;
 import java.io.InputStream;
 import java.net.URL;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.xml.XMLConstants;
 import javax.xml.bind.JAXBContext;
@@ -65,8 +65,8 @@ public abstract class AbstractWsdlCodeGenerator<S extends LibraryMember> extends
     private static final String DEFAULT_JAXB_PACKAGES = ":org.xmlsoap.schemas.wsdl"
             + ":org.w3._2001.xmlschema" + ":org.opentravel.ns.ota2.appinfo_v01_00";
 
-    private static Map<String,JAXBContext> contextCache = new HashMap<>();
-    protected static Schema validationSchema;
+    private static final Map<String,JAXBContext> contextCache = new ConcurrentHashMap<>();
+    protected static final Schema validationSchema;
 
     private List<AbstractLibrary> wsdlDependencies = new ArrayList<>();
     private TransformerFactory<CodeGenerationTransformerContext> transformerFactory;
@@ -239,8 +239,7 @@ public abstract class AbstractWsdlCodeGenerator<S extends LibraryMember> extends
         }
         String contextPath = jaxbPackages.toString();
         
-        contextCache.computeIfAbsent( contextPath, p -> contextCache.put( p, newContext( p ) ) );
-        return contextCache.get(contextPath);
+        return contextCache.computeIfAbsent(contextPath, AbstractWsdlCodeGenerator::newContext);
     }
     
     /**
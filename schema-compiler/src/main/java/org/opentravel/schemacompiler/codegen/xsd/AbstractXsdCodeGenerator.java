@@ -59,8 +59,8 @@ public abstract class AbstractXsdCodeGenerator<S extends ModelElement> extends
 
     public static final String SCHEMA_CONTEXT = ":org.w3._2001.xmlschema:org.opentravel.ns.ota2.appinfo_v01_00";
 
-    protected static Schema validationSchema;
-    protected static JAXBContext jaxbContext;
+    protected static final Schema validationSchema;
+    protected static final JAXBContext jaxbContext;
 
     private TransformerFactory<CodeGenerationTransformerContext> transformerFactory;
     private ImportSchemaLocations importSchemaLocations;
@@ -19,6 +19,7 @@ import java.io.File;
 import java.io.InputStream;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -52,13 +53,13 @@ public class ImportSchemaLocations {
 
     public static final String SCHEMA_CONTEXT = ":org.w3._2001.xmlschema";
 
-    protected static Schema validationSchema;
-    protected static JAXBContext jaxbContext;
+    protected static final Schema validationSchema;
+    protected static final JAXBContext jaxbContext;
 
     private Map<String,File> namespaceSchemaLocations = new HashMap<>();
     private Map<String,String> namespacePrefixes = new HashMap<>();
     private Map<String,List<File>> originalSchemaLocations = new HashMap<>();
-    private Set<String> importedNamespaces = new HashSet<>();
+    private Set<String> importedNamespaces = Collections.synchronizedSet(new HashSet<>());
     private File baseOutputFolder;
 
     /**
@@ -15,6 +15,7 @@
  */
 package org.opentravel.schemacompiler.codegen.xsd;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import javax.xml.namespace.QName;
@@ -270,7 +271,7 @@ public class TLActionFacetCodegenTransformer extends AbstractXsdTransformer<TLAc
 		 */
 		@Override
 		public List<TLProperty> getElements() {
-			List<TLProperty> elementList = super.getElements();
+			List<TLProperty> elementList = new ArrayList<>( super.getElements() );
 			
 			elementList.add( 0, ResourceCodegenUtils.createBusinessObjectElement( actionFacet, getSourceFacet() ) );
 			return elementList;
@@ -436,7 +437,7 @@ public class TLActionFacetCodegenTransformer extends AbstractXsdTransformer<TLAc
 		 */
 		@Override
 		public List<TLProperty> getElements() {
-			List<TLProperty> elementList = super.getElements();
+			List<TLProperty> elementList = new ArrayList<>( super.getElements() );
 			
 			elementList.add( 0, ResourceCodegenUtils.createBusinessObjectElement( actionFacet, getSourceFacet() ) );
 			return elementList;
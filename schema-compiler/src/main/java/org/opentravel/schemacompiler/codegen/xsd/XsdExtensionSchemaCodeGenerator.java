@@ -59,7 +59,7 @@ public class XsdExtensionSchemaCodeGenerator extends AbstractXsdCodeGenerator<XS
 
     private static final String SCHEMA_CONTEXT = ":org.w3._2001.xmlschema";
 
-    protected static JAXBContext jaxbContext;
+    protected static final JAXBContext jaxbContext;
 
     private CodeGenerationFilenameBuilder<XSDLibrary> legacySchemaFilenameBuilder = new LibraryFilenameBuilder<>();
 
@@ -73,14 +73,16 @@ public abstract class EntityRemovedIntegrityChecker<S, I> extends
             ModelNavigator.navigate((LibraryElement) removedEntity, collectVisitor);
         }
 
-        // Next, purge any references to those entities we just collected
+        // Next, purge any references to those entities from the user-defined libraries
         Collection<TLModelElement> removedEntities = collectVisitor.getLibraryEntities();
 
-        if (!removedEntities.isEmpty()) {
+        if (!removedEntities.isEmpty() && (model != null)) {
             PurgeEntityVisitor purgeVisitor = new PurgeEntityVisitor(removedEntities);
 
-            for (TLLibrary library : model.getUserDefinedLibraries()) {
-                ModelNavigator.navigate(library, purgeVisitor);
+            for (TLModelElement referrer : model.getReferenceIndex().getReferrers(removedEntities)) {
+                if (((LibraryElement) referrer).getOwningLibrary() instanceof TLLibrary) {
+                    ModelReferenceIndex.visitReferrer(referrer, purgeVisitor);
+                }
             }
         }
     }
@@ -0,0 +1,307 @@
+/**
+ * Copyright (C) 2014 OpenTravel Alliance (info@opentravel.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opentravel.schemacompiler.ic;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.opentravel.schemacompiler.event.ModelEvent;
+import org.opentravel.schemacompiler.event.OwnershipEvent;
+import org.opentravel.schemacompiler.event.ValueChangeEvent;
+import org.opentravel.schemacompiler.model.NamedEntity;
+import org.opentravel.schemacompiler.model.TLExtension;
+import org.opentravel.schemacompiler.model.TLExtensionOwner;
+import org.opentravel.schemacompiler.model.TLModel;
+import org.opentravel.schemacompiler.model.TLModelElement;
+import org.opentravel.schemacompiler.visitor.ModelElementVisitorAdapter;
+import org.opentravel.schemacompiler.visitor.ModelNavigator;
+
+/**
+ * Registry of the extension relationships within a <code>TLModel</code> that maps each extended
+ * entity to the <code>TLExtension</code> elements that reference it. Code generation utilities and
+ * version helpers use the registry to locate the entities that extend a given entity without
+ * navigating the entire model.
+ *
+ * <p>
+ * The registry is built on demand by a single navigation of the model, and is kept current after
+ * that point by the stream of events published by the model. As with the
+ * <code>ModelReferenceIndex</code>, every extension returned by the registry is verified to still
+ * belong to the model and to still extend the requested entity. All access to the registry is
+ * synchronized since it may be shared by multiple code generation threads.
+ *
+ * <p>
+ * Extended entities are indexed by identity, and in the order in which they were first
+ * registered, so that the extensions returned by <code>getAllExtensions()</code> are in a
+ * reproducible order from one run to the next.
+ *
+ * @author S. Livezey
+ */
+public class ModelExtensionRegistry {
+
+    private TLModel model;
+    private Map<EntityKey,Set<TLExtension>> extensionIndex;
+
+    /**
+     * Constructor that specifies the model whose extensions are to be registered.
+     *
+     * @param model
+     *            the model whose extensions are to be registered
+     */
+    public ModelExtensionRegistry(TLModel model) {
+        this.model = model;
+    }
+
+    /**
+     * Returns the entities that currently extend the given entity. Entities are returned in the
+     * order in which their extensions were registered, which is the order of their occurrance in
+     * the model if no extensions have been added since the registry was built.
+     *
+     * @param extendedEntity
+     *            the entity for which to return the extending entities
+     * @return List<TLExtensionOwner>
+     */
+    public synchronized List<TLExtensionOwner> getExtendingEntities(NamedEntity extendedEntity) {
+        List<TLExtensionOwner> extendingEntities = new ArrayList<>();
+
+        buildRegistry();
+
+        if (extendedEntity != null) {
+            for (TLExtension extension : getExtensions(extendedEntity)) {
+                extendingEntities.add(extension.getOwner());
+            }
+        }
+        return extendingEntities;
+    }
+
+    /**
+     * Returns all of the extensions that are currently registered for members of the model.
+     *
+     * @return List<TLExtension>
+     */
+    public synchronized List<TLExtension> getAllExtensions() {
+        List<TLExtension> allExtensions = new ArrayList<>();
+
+        buildRegistry();
+
+        for (EntityKey extendedEntityKey : new ArrayList<>(extensionIndex.keySet())) {
+            allExtensions.addAll(getExtensions(extendedEntityKey.entity));
+        }
+        return allExtensions;
+    }
+
+    /**
+     * Updates the registry to reflect the changes described by the given model event. Events are
+     * ignored until the registry has been built for the first time.
+     *
+     * @param event
+     *            the model event to process
+     */
+    public synchronized void processModelEvent(ModelEvent<?> event) {
+        if ((extensionIndex == null) || (event == null)) {
+            return;
+        }
+        if (event instanceof ValueChangeEvent) {
+            Object source = event.getSource();
+
+            if (source instanceof TLExtension) {
+                Object oldValue = ((ValueChangeEvent<?,?>) event).getOldValue();
+
+                if (oldValue instanceof NamedEntity) {
+                    removeExtension((NamedEntity) oldValue, (TLExtension) source);
+                }
+                addExtension((TLExtension) source);
+            }
+
+        } else if (event instanceof OwnershipEvent) {
+            Object affectedItem = ((OwnershipEvent<?,?>) event).getAffectedItem();
+
+            // Removed extensions are purged when they are discovered during lookups
+            if ((affectedItem instanceof TLModelElement)
+                    && (((TLModelElement) affectedItem).getOwningModel() == model)) {
+                ModelReferenceIndex.navigate((TLModelElement) affectedItem, new RegistryVisitor());
+            }
+        }
+    }
+
+    /**
+     * Discards the current contents of the registry. The registry will be rebuilt the next time
+     * it is accessed.
+     */
+    public synchronized void reset() {
+        extensionIndex = null;
+    }
+
+    /**
+     * Builds the registry with a full navigation of the model if it has not already been built.
+     */
+    private void buildRegistry() {
+        if (extensionIndex == null) {
+            extensionIndex = new LinkedHashMap<>();
+            ModelNavigator.navigate(model, new RegistryVisitor());
+        }
+    }
+
+    /**
+     * Returns the verified extensions of the given entity, purging any stale entries that are
+     * discovered from the registry.
+     *
+     * @param extendedEntity
+     *            the entity for which to return extensions
+     * @return List<TLExtension>
+     */
+    private List<TLExtension> getExtensions(NamedEntity extendedEntity) {
+        EntityKey extendedEntityKey = new EntityKey(extendedEntity);
+        Set<TLExtension> extensions = extensionIndex.get(extendedEntityKey);
+        List<TLExtension> verifiedExtensions = new ArrayList<>();
+
+        if (extensions != null) {
+            Iterator<TLExtension> iterator = extensions.iterator();
+
+            while (iterator.hasNext()) {
+                TLExtension extension = iterator.next();
+
+                if (isCurrentExtension(extension, extendedEntity)) {
+                    verifiedExtensions.add(extension);
+
+                } else {
+                    iterator.remove(); // purge stale entries as they are discovered
+                }
+            }
+            if (extensions.isEmpty()) {
+                extensionIndex.remove(extendedEntityKey);
+            }
+        }
+        return verifiedExtensions;
+    }
+
+    /**
+     * Adds the given extension to the registry if it is a current member of the model.
+     *
+     * @param extension
+     *            the extension to register
+     */
+    private void addExtension(TLExtension extension) {
+        NamedEntity extendedEntity = extension.getExtendsEntity();
+
+        if ((extendedEntity != null) && isCurrentExtension(extension, extendedEntity)) {
+            EntityKey extendedEntityKey = new EntityKey(extendedEntity);
+            Set<TLExtension> extensions = extensionIndex.get(extendedEntityKey);
+
+            if (extensions == null) {
+                extensions = new LinkedHashSet<>();
+                extensionIndex.put(extendedEntityKey, extensions);
+            }
+            extensions.add(extension);
+        }
+    }
+
+    /**
+     * Removes the given extension from the registry entry for the specified entity.
+     *
+     * @param extendedEntity
+     *            the entity that is no longer extended
+     * @param extension
+     *            the extension to remove
+     */
+    private void removeExtension(NamedEntity extendedEntity, TLExtension extension) {
+        EntityKey extendedEntityKey = new EntityKey(extendedEntity);
+        Set<TLExtension> extensions = extensionIndex.get(extendedEntityKey);
+
+        if (extensions != null) {
+            extensions.remove(extension);
+
+            if (extensions.isEmpty()) {
+                extensionIndex.remove(extendedEntityKey);
+            }
+        }
+    }
+
+    /**
+     * Returns true if the given extension is assigned to an owner within the model and currently
+     * extends the specified entity.
+     *
+     * @param extension
+     *            the extension to verify
+     * @param extendedEntity
+     *            the entity that should be extended
+     * @return boolean
+     */
+    private boolean isCurrentExtension(TLExtension extension, NamedEntity extendedEntity) {
+        TLExtensionOwner owner = extension.getOwner();
+
+        return (owner != null) && (owner.getExtension() == extension)
+                && (extension.getExtendsEntity() == extendedEntity)
+                && (extension.getOwningModel() == model);
+    }
+
+    /**
+     * Registry key that compares extended entities by identity, since the equality of some named
+     * entities (e.g. aliases) depends upon values that can change after they are registered.
+     */
+    private static class EntityKey {
+
+        private final NamedEntity entity;
+
+        /**
+         * Constructor that specifies the entity to be used as a registry key.
+         *
+         * @param entity
+         *            the extended entity
+         */
+        public EntityKey(NamedEntity entity) {
+            this.entity = entity;
+        }
+
+        /**
+         * @see java.lang.Object#equals(java.lang.Object)
+         */
+        @Override
+        public boolean equals(Object obj) {
+            return (obj instanceof EntityKey) && (((EntityKey) obj).entity == entity);
+        }
+
+        /**
+         * @see java.lang.Object#hashCode()
+         */
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(entity);
+        }
+
+    }
+
+    /**
+     * Visitor that adds each extension it encounters to the registry.
+     */
+    private class RegistryVisitor extends ModelElementVisitorAdapter {
+
+        /**
+         * @see org.opentravel.schemacompiler.visitor.ModelElementVisitorAdapter#visitExtension(org.opentravel.schemacompiler.model.TLExtension)
+         */
+        @Override
+        public boolean visitExtension(TLExtension extension) {
+            addExtension(extension);
+            return true;
+        }
+
+    }
+
+}
@@ -0,0 +1,604 @@
+/**
+ * Copyright (C) 2014 OpenTravel Alliance (info@opentravel.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opentravel.schemacompiler.ic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.opentravel.schemacompiler.event.ModelEvent;
+import org.opentravel.schemacompiler.event.OwnershipEvent;
+import org.opentravel.schemacompiler.event.ValueChangeEvent;
+import org.opentravel.schemacompiler.model.AbstractLibrary;
+import org.opentravel.schemacompiler.model.LibraryElement;
+import org.opentravel.schemacompiler.model.TLAction;
+import org.opentravel.schemacompiler.model.TLActionRequest;
+import org.opentravel.schemacompiler.model.TLActionResponse;
+import org.opentravel.schemacompiler.model.TLAttribute;
+import org.opentravel.schemacompiler.model.TLContextualFacet;
+import org.opentravel.schemacompiler.model.TLExtension;
+import org.opentravel.schemacompiler.model.TLModel;
+import org.opentravel.schemacompiler.model.TLModelElement;
+import org.opentravel.schemacompiler.model.TLParamGroup;
+import org.opentravel.schemacompiler.model.TLParameter;
+import org.opentravel.schemacompiler.model.TLProperty;
+import org.opentravel.schemacompiler.model.TLResource;
+import org.opentravel.schemacompiler.model.TLResourceParentRef;
+import org.opentravel.schemacompiler.model.TLSimple;
+import org.opentravel.schemacompiler.model.TLSimpleFacet;
+import org.opentravel.schemacompiler.model.TLValueWithAttributes;
+import org.opentravel.schemacompiler.visitor.ModelElementVisitor;
+import org.opentravel.schemacompiler.visitor.ModelElementVisitorAdapter;
+import org.opentravel.schemacompiler.visitor.ModelNavigator;
+
+/**
+ * Reverse-reference (where-used) index that maps each entity of a <code>TLModel</code> to the
+ * model elements that reference it. Integrity checkers use the index to locate the referrers of a
+ * modified or deleted entity without navigating the entire model.
+ *
+ * <p>
+ * The index is built on demand by a single navigation of the model, and is kept current after that
+ * point by the stream of events published by the model. Events are processed regardless of whether
+ * the model's listeners are enabled. Because some model operations can detach elements without
+ * publishing an event, every referrer returned by the index is verified to still belong to the
+ * model and to still reference the requested entity.
+ *
+ * <p>
+ * All access to the index is synchronized, since events can be published by multiple threads
+ * (e.g. during concurrent code generation for the libraries of a model).
+ *
+ * @author S. Livezey
+ */
+public class ModelReferenceIndex {
+
+    private TLModel model;
+    private Map<Object,Set<TLModelElement>> referrerIndex;
+
+    /**
+     * Constructor that specifies the model whose references are to be indexed.
+     *
+     * @param model
+     *            the model whose references are to be indexed
+     */
+    public ModelReferenceIndex(TLModel model) {
+        this.model = model;
+    }
+
+    /**
+     * Returns the model elements that currently reference the given entity.
+     *
+     * @param entity
+     *            the entity for which to return referrers
+     * @return List<TLModelElement>
+     */
+    public List<TLModelElement> getReferrers(Object entity) {
+        return getReferrers(Collections.singletonList(entity));
+    }
+
+    /**
+     * Returns the model elements that currently reference any of the given entities. Each
+     * referrer is included only once in the list that is returned.
+     *
+     * @param entities
+     *            the entities for which to return referrers
+     * @return List<TLModelElement>
+     */
+    public synchronized List<TLModelElement> getReferrers(Collection<?> entities) {
+        Set<TLModelElement> referrerSet = Collections.newSetFromMap(new IdentityHashMap<TLModelElement,Boolean>());
+        List<TLModelElement> referrers = new ArrayList<>();
+
+        buildIndex();
+
+        for (Object entity : entities) {
+            Set<TLModelElement> entityReferrers = (entity == null) ? null : referrerIndex.get(entity);
+
+            if (entityReferrers == null) {
+                continue;
+            }
+            Iterator<TLModelElement> iterator = entityReferrers.iterator();
+
+            while (iterator.hasNext()) {
+                TLModelElement referrer = iterator.next();
+
+                if ((referrer.getOwningModel() != model) || !isReference(referrer, entity)) {
+                    iterator.remove(); // purge stale entries as they are discovered
+
+                } else if (referrerSet.add(referrer)) {
+                    referrers.add(referrer);
+                }
+            }
+            if (entityReferrers.isEmpty()) {
+                referrerIndex.remove(entity);
+            }
+        }
+        return referrers;
+    }
+
+    /**
+     * Visits each model element that currently references any of the given entities.
+     *
+     * @param entities
+     *            the entities whose referrers are to be visited
+     * @param visitor
+     *            the visitor to invoke for each referrer
+     */
+    public void visitReferrers(Collection<?> entities, ModelElementVisitor visitor) {
+        for (TLModelElement referrer : getReferrers(entities)) {
+            visitReferrer(referrer, visitor);
+        }
+    }
+
+    /**
+     * Invokes the visitor method that corresponds to the type of the given referrer.
+     *
+     * @param referrer
+     *            the referring model element to visit
+     * @param visitor
+     *            the visitor to invoke
+     */
+    public static void visitReferrer(TLModelElement referrer, ModelElementVisitor visitor) {
+        if (referrer instanceof TLSimple) {
+            visitor.visitSimple((TLSimple) referrer);
+
+        } else if (referrer instanceof TLValueWithAttributes) {
+            visitor.visitValueWithAttributes((TLValueWithAttributes) referrer);
+
+        } else if (referrer instanceof TLExtension) {
+            visitor.visitExtension((TLExtension) referrer);
+
+        } else if (referrer instanceof TLSimpleFacet) {
+            visitor.visitSimpleFacet((TLSimpleFacet) referrer);
+
+        } else if (referrer instanceof TLContextualFacet) {
+            visitor.visitContextualFacet((TLContextualFacet) referrer);
+
+        } else if (referrer instanceof TLAttribute) {
+            visitor.visitAttribute((TLAttribute) referrer);
+
+        } else if (referrer instanceof TLProperty) {
+            visitor.visitElement((TLProperty) referrer);
+
+        } else if (referrer instanceof TLResource) {
+            visitor.visitResource((TLResource) referrer);
+
+        } else if (referrer instanceof TLResourceParentRef) {
+            visitor.visitResourceParentRef((TLResourceParentRef) referrer);
+
+        } else if (referrer instanceof TLParamGroup) {
+            visitor.visitParamGroup((TLParamGroup) referrer);
+
+        } else if (referrer instanceof TLParameter) {
+            visitor.visitParameter((TLParameter) referrer);
+
+        } else if (referrer instanceof TLActionRequest) {
+            visitor.visitActionRequest((TLActionRequest) referrer);
+
+        } else if (referrer instanceof TLActionResponse) {
+            visitor.visitActionResponse((TLActionResponse) referrer);
+        }
+    }
+
+    /**
+     * Updates the index to reflect the changes described by the given model event. Events are
+     * ignored until the index has been built for the first time. Value changes of elements that
+     * do not belong to the model are also ignored.
+     *
+     * @param event
+     *            the model event to process
+     */
+    public synchronized void processModelEvent(ModelEvent<?> event) {
+        if ((referrerIndex == null) || (event == null)) {
+            return;
+        }
+        if (event instanceof ValueChangeEvent) {
+            Object source = event.getSource();
+
+            if ((source instanceof TLModelElement)
+                    && (((TLModelElement) source).getOwningModel() == model)) {
+                referenceModified((TLModelElement) source,
+                        ((ValueChangeEvent<?,?>) event).getOldValue());
+            }
+
+        } else if (event instanceof OwnershipEvent) {
+            Object affectedItem = ((OwnershipEvent<?,?>) event).getAffectedItem();
+
+            if (affectedItem instanceof TLModelElement) {
+                TLModelElement element = (TLModelElement) affectedItem;
+
+                navigate(element, new IndexVisitor(element.getOwningModel() == model));
+            }
+        }
+    }
+
+    /**
+     * Discards the current contents of the index. The index will be rebuilt the next time it is
+     * accessed.
+     */
+    public synchronized void reset() {
+        referrerIndex = null;
+    }
+
+    /**
+     * Builds the index with a full navigation of the model if it has not already been built.
+     */
+    private void buildIndex() {
+        if (referrerIndex == null) {
+            referrerIndex = new IdentityHashMap<>();
+            ModelNavigator.navigate(model, new IndexVisitor(true));
+        }
+    }
+
+    /**
+     * Called when a value of the given source element has been modified. If the old value is no
+     * longer referenced by the source, the source is removed from its list of referrers. The
+     * current references of the source element are then added to the index.
+     *
+     * @param source
+     *            the model element whose value was modified
+     * @param oldValue
+     *            the original value that was replaced
+     */
+    private void referenceModified(TLModelElement source, Object oldValue) {
+        List<Object> references = getReferences(source);
+
+        if (references.isEmpty() && (oldValue == null)) {
+            return;
+        }
+        if ((oldValue != null) && !containsReference(references, oldValue)) {
+            removeReferrer(oldValue, source);
+        }
+        if (source.getOwningModel() == model) {
+            for (Object reference : references) {
+                addReferrer(reference, source);
+            }
+        }
+    }
+
+    /**
+     * Adds the given referrer to the index entry for the specified entity.
+     *
+     * @param entity
+     *            the referenced entity
+     * @param referrer
+     *            the model element that references the entity
+     */
+    private void addReferrer(Object entity, TLModelElement referrer) {
+        Set<TLModelElement> referrers = referrerIndex.get(entity);
+
+        if (referrers == null) {
+            referrers = Collections.newSetFromMap(new IdentityHashMap<TLModelElement,Boolean>());
+            referrerIndex.put(entity, referrers);
+        }
+        referrers.add(referrer);
+    }
+
+    /**
+     * Removes the given referrer from the index entry for the specified entity.
+     *
+     * @param entity
+     *            the referenced entity
+     * @param referrer
+     *            the model element that no longer references the entity
+     */
+    private void removeReferrer(Object entity, TLModelElement referrer) {
+        Set<TLModelElement> referrers = referrerIndex.get(entity);
+
+        if (referrers != null) {
+            referrers.remove(referrer);
+
+            if (referrers.isEmpty()) {
+                referrerIndex.remove(entity);
+            }
+        }
+    }
+
+    /**
+     * Returns true if the given referrer currently holds a reference to the specified entity.
+     *
+     * @param referrer
+     *            the referring model element to check
+     * @param entity
+     *            the referenced entity
+     * @return boolean
+     */
+    private static boolean isReference(TLModelElement referrer, Object entity) {
+        return containsReference(getReferences(referrer), entity);
+    }
+
+    /**
+     * Returns true if the list contains the given entity instance. Identity comparisons are used
+     * instead of 'equals()' since some model entities override that method.
+     *
+     * @param references
+     *            the list of references to search
+     * @param entity
+     *            the entity to search for
+     * @return boolean
+     */
+    private static boolean containsReference(List<Object> references, Object entity) {
+        for (Object reference : references) {
+            if (reference == entity) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the non-null entity references that are currently held by the given model element.
+     *
+     * @param element
+     *            the model element whose references are to be returned
+     * @return List<Object>
+     */
+    private static List<Object> getReferences(TLModelElement element) {
+        List<Object> references;
+
+        if (element instanceof TLSimple) {
+            references = Arrays.<Object> asList(((TLSimple) element).getParentType());
+
+        } else if (element instanceof TLValueWithAttributes) {
+            references = Arrays.<Object> asList(((TLValueWithAttributes) element).getParentType());
+
+        } else if (element instanceof TLExtension) {
+            references = Arrays.<Object> asList(((TLExtension) element).getExtendsEntity());
+
+        } else if (element instanceof TLSimpleFacet) {
+            references = Arrays.<Object> asList(((TLSimpleFacet) element).getSimpleType());
+
+        } else if (element instanceof TLContextualFacet) {
+            references = Arrays.<Object> asList(((TLContextualFacet) element).getOwningEntity());
+
+        } else if (element instanceof TLAttribute) {
+            references = Arrays.<Object> asList(((TLAttribute) element).getType());
+
+        } else if (element instanceof TLProperty) {
+            references = Arrays.<Object> asList(((TLProperty) element).getType());
+
+        } else if (element instanceof TLResource) {
+            references = Arrays.<Object> asList(((TLResource) element).getBusinessObjectRef());
+
+        } else if (element instanceof TLResourceParentRef) {
+            TLResourceParentRef parentRef = (TLResourceParentRef) element;
+
+            references = Arrays.<Object> asList(parentRef.getParentResource(),
+                    parentRef.getParentParamGroup());
+
+        } else if (element instanceof TLParamGroup) {
+            references = Arrays.<Object> asList(((TLParamGroup) element).getFacetRef());
+
+        } else if (element instanceof TLParameter) {
+            references = Arrays.<Object> asList(((TLParameter) element).getFieldRef());
+
+        } else if (element instanceof TLActionRequest) {
+            TLActionRequest actionRequest = (TLActionRequest) element;
+
+            references = Arrays.<Object> asList(actionRequest.getParamGroup(),
+                    actionRequest.getPayloadType());
+
+        } else if (element instanceof TLActionResponse) {
+            references = Arrays.<Object> asList(((TLActionResponse) element).getPayloadType());
+
+        } else {
+            references = Collections.emptyList();
+        }
+
+        if (references.contains(null)) {
+            List<Object> nonNullReferences = new ArrayList<>(references);
+
+            nonNullReferences.removeAll(Collections.singleton(null));
+            references = nonNullReferences;
+        }
+        return references;
+    }
+
+    /**
+     * Navigates the given model element and all of its children using the visitor provided.
+     *
+     * @param element
+     *            the model element to navigate
+     * @param visitor
+     *            the visitor to invoke for each element encountered
+     */
+    static void navigate(TLModelElement element, ModelElementVisitor visitor) {
+        ModelNavigator navigator = new ModelNavigator(visitor);
+
+        if (element instanceof AbstractLibrary) {
+            navigator.navigateLibrary((AbstractLibrary) element);
+
+        } else if (element instanceof TLContextualFacet) {
+            navigator.navigateContextualFacet((TLContextualFacet) element);
+
+        } else if (element instanceof TLExtension) {
+            navigator.navigateExtension((TLExtension) element);
+
+        } else if (element instanceof TLResourceParentRef) {
+            navigator.navigateResourceParentRef((TLResourceParentRef) element);
+
+        } else if (element instanceof TLParamGroup) {
+            navigator.navigateParamGroup((TLParamGroup) element);
+
+        } else if (element instanceof TLParameter) {
+            navigator.navigateParameter((TLParameter) element);
+
+        } else if (element instanceof TLAction) {
+            navigator.navigateAction((TLAction) element);
+
+        } else if (element instanceof TLActionRequest) {
+            navigator.navigateActionRequest((TLActionRequest) element);
+
+        } else if (element instanceof TLActionResponse) {
+            navigator.navigateActionResponse((TLActionResponse) element);
+
+        } else if (element instanceof LibraryElement) {
+            navigator.navigate((LibraryElement) element);
+        }
+    }
+
+    /**
+     * Visitor that adds or removes the references of each element it encounters to/from the
+     * index.
+     */
+    private class IndexVisitor extends ModelElementVisitorAdapter {
+
+        private boolean addReferences;
+
+        /**
+         * Constructor that indicates whether references should be added or removed from the index.
+         *
+         * @param addReferences
+         *            flag indicating whether references are to be added (true) or removed (false)
+         */
+        public IndexVisitor(boolean addReferences) {
+            this.addReferences = addReferences;
+        }
+
+        /**
+         * Adds or removes the references of the given element to/from the index. Elements that
+         * are still members of the model (e.g. contextual facets of a removed owner that are
+         * declared in another library) are never removed.
+         *
+         * @param element
+         *            the model element whose references are to be indexed
+         * @return boolean
+         */
+        private boolean indexReferences(TLModelElement element) {
+            if (addReferences) {
+                for (Object reference : getReferences(element)) {
+                    addReferrer(reference, element);
+                }
+
+            } else if (element.getOwningModel() != model) {
+                for (Object reference : getReferences(element)) {
+                    removeReferrer(reference, element);
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @see org.opentravel.schemacompiler.visitor.ModelElementVisitorAdapter#visitSimple(org.opentravel.schemacompiler.model.TLSimple)
+         */
+        @Override
+        public boolean visitSimple(TLSimple simple) {
+            return indexReferences(simple);
+        }
+
+        /**
+         * @see org.opentravel.schemacompiler.visitor.ModelElementVisitorAdapter#visitValueWithAttributes(org.opentravel.schemacompiler.model.TLValueWithAttributes)
+         */
+        @Override
+        public boolean visitValueWithAttributes(TLValueWithAttributes valueWithAttributes) {
+            return indexReferences(valueWithAttributes);
+        }
+
+        /**
+         * @see org.opentravel.schemacompiler.visitor.ModelElementVisitorAdapter#visitExtension(org.opentravel.schemacompiler.model.TLExtension)
+         */
+        @Override
+        public boolean visitExtension(TLExtension extension) {
+            return indexReferences(extension);
+        }
+
+        /**
+         * @see org.opentravel.schemacompiler.visitor.ModelElementVisitorAdapter#visitSimpleFacet(org.opentravel.schemacompiler.model.TLSimpleFacet)
+         */
+        @Override
+        public boolean visitSimpleFacet(TLSimpleFacet simpleFacet) {
+            return indexReferences(simpleFacet);
+        }
+
+        /**
+         * @see org.opentravel.schemacompiler.visitor.ModelElementVisitorAdapter#visitContextualFacet(org.opentravel.schemacompiler.model.TLContextualFacet)
+         */
+        @Override
+        public boolean visitContextualFacet(TLContextualFacet facet) {
+            return indexReferences(facet);
+        }
+
+        /**
+         * @see org.opentravel.schemacompiler.visitor.ModelElementVisitorAdapter#visitAttribute(org.opentravel.schemacompiler.model.TLAttribute)
+         */
+        @Override
+        public boolean visitAttribute(TLAttribute attribute) {
+            return indexReferences(attribute);
+        }
+
+        /**
+         * @see org.opentravel.schemacompiler.visitor.ModelElementVisitorAdapter#visitElement(org.opentravel.schemacompiler.model.TLProperty)
+         */
+        @Override
+        public boolean visitElement(TLProperty element) {
+            return indexReferences(element);
+        }
+
+        /**
+         * @see org.opentravel.schemacompiler.visitor.ModelElementVisitorAdapter#visitResource(org.opentravel.schemacompiler.model.TLResource)
+         */
+        @Override
+        public boolean visitResource(TLResource resource) {
+            return indexReferences(resource);
+        }
+
+        /**
+         * @see org.opentravel.schemacompiler.visitor.ModelElementVisitorAdapter#visitResourceParentRef(org.opentravel.schemacompiler.model.TLResourceParentRef)
+         */
+        @Override
+        public boolean visitResourceParentRef(TLResourceParentRef parentRef) {
+            return indexReferences(parentRef);
+        }
+
+        /**
+         * @see org.opentravel.schemacompiler.visitor.ModelElementVisitorAdapter#visitParamGroup(org.opentravel.schemacompiler.model.TLParamGroup)
+         */
+        @Override
+        public boolean visitParamGroup(TLParamGroup paramGroup) {
+            return indexReferences(paramGroup);
+        }
+
+        /**
+         * @see org.opentravel.schemacompiler.visitor.ModelElementVisitorAdapter#visitParameter(org.opentravel.schemacompiler.model.TLParameter)
+         */
+        @Override
+        public boolean visitParameter(TLParameter parameter) {
+            return indexReferences(parameter);
+        }
+
+        /**
+         * @see org.opentravel.schemacompiler.visitor.ModelElementVisitorAdapter#visitActionRequest(org.opentravel.schemacompiler.model.TLActionRequest)
+         */
+        @Override
+        public boolean visitActionRequest(TLActionRequest actionRequest) {
+            return indexReferences(actionRequest);
+        }
+
+        /**
+         * @see org.opentravel.schemacompiler.visitor.ModelElementVisitorAdapter#visitActionResponse(org.opentravel.schemacompiler.model.TLActionResponse)
+         */
+        @Override
+        public boolean visitActionResponse(TLActionResponse actionResponse) {
+            return indexReferences(actionResponse);
+        }
+
+    }
+
+}
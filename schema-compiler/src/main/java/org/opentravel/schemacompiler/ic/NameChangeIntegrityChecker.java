@@ -33,6 +33,7 @@ import org.opentravel.schemacompiler.model.TLContextualFacet;
 import org.opentravel.schemacompiler.model.TLExtension;
 import org.opentravel.schemacompiler.model.TLFacet;
 import org.opentravel.schemacompiler.model.TLMemberField;
+import org.opentravel.schemacompiler.model.TLModel;
 import org.opentravel.schemacompiler.model.TLModelElement;
 import org.opentravel.schemacompiler.model.TLParamGroup;
 import org.opentravel.schemacompiler.model.TLParameter;
@@ -80,7 +81,7 @@ public class NameChangeIntegrityChecker extends
     }
 
     /**
-     * Scans the entire model for references to the given entity and refreshes the type-name
+     * Locates all model references to the given entity and refreshes the type-name
      * assignment (typically a 'prefix:local-name' value) for each occurrance.
      * 
      * @param modifiedEntity
@@ -93,12 +94,12 @@ public class NameChangeIntegrityChecker extends
 
         symbolResolver.setPrefixResolver(new LibraryPrefixResolver(localLibrary));
         symbolResolver.setAnonymousEntityFilter(new ChameleonFilter(localLibrary));
-        ModelNavigator.navigate(modifiedEntity.getOwningModel(), new EntityNameChangeVisitor(
-                affectedEntities, symbolResolver));
+        visitReferrers(modifiedEntity.getOwningModel(), affectedEntities,
+                new EntityNameChangeVisitor(affectedEntities, symbolResolver));
     }
 
     /**
-     * Scans the entire model for references to the given member field and refreshes the name
+     * Locates all model references to the given member field and refreshes the name
      * assignment for each occurrance.
      * 
      * @param modifiedField
@@ -112,12 +113,12 @@ public class NameChangeIntegrityChecker extends
         affectedEntities.add((TLModelElement) modifiedField);
         symbolResolver.setPrefixResolver(new LibraryPrefixResolver(localLibrary));
         symbolResolver.setAnonymousEntityFilter(new ChameleonFilter(localLibrary));
-        ModelNavigator.navigate(localLibrary.getOwningModel(), new EntityNameChangeVisitor(
-                affectedEntities, symbolResolver));
+        visitReferrers(localLibrary.getOwningModel(), affectedEntities,
+                new EntityNameChangeVisitor(affectedEntities, symbolResolver));
     }
     
     /**
-     * Scans the entire model for references to the given parameter group and refreshes the name
+     * Locates all model references to the given parameter group and refreshes the name
      * assignment for each occurrance.
      * 
      * @param modifiedParamGroup
@@ -131,10 +132,28 @@ public class NameChangeIntegrityChecker extends
         affectedEntities.add(modifiedParamGroup);
         symbolResolver.setPrefixResolver(new LibraryPrefixResolver(localLibrary));
         symbolResolver.setAnonymousEntityFilter(new ChameleonFilter(localLibrary));
-        ModelNavigator.navigate(localLibrary.getOwningModel(), new EntityNameChangeVisitor(
-                affectedEntities, symbolResolver));
+        visitReferrers(localLibrary.getOwningModel(), affectedEntities,
+                new EntityNameChangeVisitor(affectedEntities, symbolResolver));
     }
     
+    /**
+     * Visits each element of the model that references one of the affected entities. Referrers
+     * are obtained from the model's reference index instead of navigating the entire model.
+     * 
+     * @param model
+     *            the model that contains the affected entities
+     * @param affectedEntities
+     *            the entities whose referrers are to be visited
+     * @param visitor
+     *            the visitor that will update each referrer
+     */
+    private static void visitReferrers(TLModel model, List<TLModelElement> affectedEntities,
+            EntityNameChangeVisitor visitor) {
+        if (model != null) {
+            model.getReferenceIndex().visitReferrers(affectedEntities, visitor);
+        }
+    }
+
     /**
      * Returns the list of model entities that were affected by the name-change event.
      * 
@@ -18,7 +18,9 @@ package org.opentravel.schemacompiler.ioc;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.ServiceLoader;
 
 import org.opentravel.schemacompiler.extension.CompilerExtension;
@@ -26,6 +28,7 @@ import org.opentravel.schemacompiler.extension.CompilerExtensionProvider;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.BeanDefinitionStoreException;
 import org.springframework.beans.factory.xml.XmlBeanDefinitionReader;
+import org.springframework.context.ApplicationContext;
 import org.springframework.context.support.GenericApplicationContext;
 import org.springframework.core.io.InputStreamResource;
 
@@ -33,12 +36,24 @@ import org.springframework.core.io.InputStreamResource;
  * Provides information about all of the OTA2 compiler extensions that are registered with the
  * application <u>and</u> available at run-time.
  * 
+ * <p>
+ * By default, the active extension is shared by all threads of the application. Components that
+ * run several compilations concurrently (e.g. parallel Maven builds) can assign an extension for
+ * the current thread only by calling {@link #setThreadExtension(String)}. While a thread-specific
+ * extension is assigned, calls to {@link #setActiveExtension(String)} from that thread only modify
+ * the thread's extension. The application context of each extension is loaded only once and is
+ * shared by all threads that activate it.
+ * 
  * @author S. Livezey
  */
 public class CompilerExtensionRegistry {
 
     public static final String APPLICATION_CONTEXT_LOCATION = "/ota2-context/applicationContext.xml";
 
+    private static final Map<String,ApplicationContext> extensionContexts = new HashMap<>();
+    private static final Map<String,CompilerExtensionProvider> extensionProviders = new HashMap<>();
+    private static final ThreadLocal<String> threadExtensionId = new ThreadLocal<>();
+
     private static String activeExtensionId;
     private static CompilerExtensionProvider activeProvider;
     
@@ -63,22 +78,110 @@ public class CompilerExtensionRegistry {
     }
 
     /**
-     * Returns the ID of the OTA2 compiler extension that is currently active.
+     * Returns the ID of the OTA2 compiler extension that is currently active. If an extension has
+     * been assigned for the current thread, that extension ID will be returned.
      * 
      * @return String
      */
-    public static synchronized String getActiveExtension() {
-        return activeExtensionId;
+    public static String getActiveExtension() {
+        String extensionId = threadExtensionId.get();
+
+        if (extensionId == null) {
+            synchronized (CompilerExtensionRegistry.class) {
+                extensionId = activeExtensionId;
+            }
+        }
+        return extensionId;
+    }
+
+    /**
+     * Returns the ID of the OTA2 compiler extension that should be active. If an extension has
+     * been assigned for the current thread, only the thread's extension will be modified.
+     * 
+     * @param extensionId
+     *            the extension ID to activate
+     */
+    public static void setActiveExtension(String extensionId) {
+        if (threadExtensionId.get() != null) {
+            if (extensionId != null) {
+                setThreadExtension(extensionId);
+            }
+        } else {
+            setGlobalExtension(extensionId);
+        }
+    }
+
+    /**
+     * Returns the ID of the OTA2 compiler extension that has been assigned for the current thread,
+     * or null if no thread-specific extension has been assigned.
+     * 
+     * @return String
+     */
+    public static String getThreadExtension() {
+        return threadExtensionId.get();
+    }
+
+    /**
+     * Assigns the OTA2 compiler extension that should be active for the current thread only. A
+     * null value removes the thread's assignment, restoring the globally active extension for the
+     * thread.
+     * 
+     * @param extensionId
+     *            the extension ID to activate for the current thread (may be null)
+     */
+    public static void setThreadExtension(String extensionId) {
+        if (extensionId == null) {
+            threadExtensionId.remove();
+
+        } else {
+            getExtensionContext(extensionId);
+            threadExtensionId.set(extensionId);
+        }
+    }
+
+    /**
+     * Returns the application context of the extension that has been assigned for the current
+     * thread, or null if no thread-specific extension has been assigned.
+     * 
+     * @return ApplicationContext
+     */
+    static ApplicationContext getThreadApplicationContext() {
+        String extensionId = threadExtensionId.get();
+
+        return (extensionId == null) ? null : getExtensionContext(extensionId);
     }
 
     /**
-     * Returns the ID of the OTA2 compiler extension that should be active.
+     * Activates the specified extension for all threads that have not been assigned a
+     * thread-specific extension.
      * 
      * @param extensionId
      *            the extension ID to activate
      */
-    public static synchronized void setActiveExtension(String extensionId) {
+    private static synchronized void setGlobalExtension(String extensionId) {
         if ((extensionId != null) && !extensionId.equals(activeExtensionId)) {
+            ApplicationContext context = getExtensionContext(extensionId);
+
+            SchemaCompilerApplicationContext.setActiveContext(context);
+            activeExtensionId = extensionId;
+            activeProvider = extensionProviders.get(extensionId);
+        }
+    }
+
+    /**
+     * Returns the application context for the specified extension, loading it from the extension's
+     * provider if necessary.
+     * 
+     * @param extensionId
+     *            the ID of the extension whose application context is to be returned
+     * @return ApplicationContext
+     * @throws IllegalArgumentException
+     *             thrown if the extension ID is not recognized
+     */
+    private static synchronized ApplicationContext getExtensionContext(String extensionId) {
+        ApplicationContext context = extensionContexts.get(extensionId);
+
+        if (context == null) {
             CompilerExtensionProvider provider = null;
 
             for (CompilerExtensionProvider p : ServiceLoader.load(CompilerExtensionProvider.class)) {
@@ -90,9 +193,22 @@ public class CompilerExtensionRegistry {
                 throw new IllegalArgumentException("Unrecognized OTA2.0 compiler extension: "
                         + extensionId);
             }
-            loadApplicationContext(extensionId, provider);
-            activeProvider = provider;
+            context = loadApplicationContext(extensionId, provider);
+            extensionContexts.put(extensionId, context);
+            extensionProviders.put(extensionId, provider);
         }
+        return context;
+    }
+
+    /**
+     * Returns the provider of the extension that is active for the current thread.
+     * 
+     * @return CompilerExtensionProvider
+     */
+    private static synchronized CompilerExtensionProvider getActiveProvider() {
+        String extensionId = threadExtensionId.get();
+
+        return (extensionId == null) ? activeProvider : extensionProviders.get(extensionId);
     }
 
     /**
@@ -110,6 +226,7 @@ public class CompilerExtensionRegistry {
      * @return InputStream
      */
     public static InputStream loadResource(String resourcePath) {
+        CompilerExtensionProvider activeProvider = getActiveProvider();
         InputStream is = null;
 
         if (activeProvider != null) {
@@ -141,8 +258,9 @@ public class CompilerExtensionRegistry {
      *            the extension ID whose application context will be loaded
      * @param provider
      *            the provider from which to load the application context
+     * @return ApplicationContext
      */
-    private static void loadApplicationContext(String extensionId,
+    private static ApplicationContext loadApplicationContext(String extensionId,
             CompilerExtensionProvider provider) {
         try {
             GenericApplicationContext context = new GenericApplicationContext();
@@ -157,9 +275,7 @@ public class CompilerExtensionRegistry {
             }
             provider.loadCompilerExtension(context, extensionId);
             context.refresh();
-
-            SchemaCompilerApplicationContext.setActiveContext(context);
-            activeExtensionId = extensionId;
+            return context;
 
         } catch (BeansException e) {
             throw new RuntimeException("Unable to load compiler extension: " + extensionId, e);
@@ -42,14 +42,20 @@ public final class SchemaCompilerApplicationContext implements ApplicationContex
     public static final String PROTECTED_NAMESPACE_REGISTRY = "protectedNamespaceRegistry";
     public static final String LIBRARY_ACCESS_CONTROLLER = "libraryAccessController";
 
-    private static ApplicationContext context;
+    private static volatile ApplicationContext context;
 
     /**
-     * Returns the spring application context for the schema compiler.
+     * Returns the spring application context for the schema compiler. If a compiler extension has
+     * been assigned for the current thread, the application context of that extension is returned.
      * 
      * @return ApplicationContext
      */
     public static ApplicationContext getContext() {
+        ApplicationContext threadContext = CompilerExtensionRegistry.getThreadApplicationContext();
+
+        if (threadContext != null) {
+            return threadContext;
+        }
         if (context == null) {
             CompilerExtensionRegistry
                     .setActiveExtension(OTA2CompilerConstants.OTA2_COMPILER_EXTENSION_ID);
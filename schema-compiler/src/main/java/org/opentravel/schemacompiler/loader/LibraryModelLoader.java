@@ -27,6 +27,11 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.xml.XMLConstants;
 
@@ -78,6 +83,13 @@ import org.w3._2001.xmlschema.TopLevelElement;
  * <code>LibraryNamespaceResolver</code> is a <code>CatalogLibraryNamespaceResolver</code> whose
  * catalog file is expected at the default location.
  * 
+ * <p>
+ * Loads are performed serially unless more than one loader thread is assigned. When parallel
+ * loading is enabled, the dependencies of each module are resolved as soon as that module is
+ * parsed, and the modules themselves are parsed ahead of time on a pool of worker threads. The
+ * walk of the dependency graph (and therefore the ordering of findings and the resulting model
+ * content) is identical to that of a serial load.
+ * 
  * @param <C>
  *            the content type must be returned by the input source used by the module loader
  * @author S. Livezey
@@ -94,7 +106,9 @@ public final class LibraryModelLoader<C> implements LoaderValidationMessageKeys
     private LibraryModuleLoader<C> moduleLoader;
     private LoaderProgressMonitor progressMonitor;
     private boolean resolveModelReferences = true;
+    private int loaderThreads = 1;
     private TLModel libraryModel;
+    private ModuleParseQueue parseQueue;
 
     private ValidationFindings loaderFindings = new ValidationFindings();
     private Map<String, ValidationFinding> importLoaderFindings = new HashMap<>();
@@ -242,6 +256,32 @@ public final class LibraryModelLoader<C> implements LoaderValidationMessageKeys
         this.resolveModelReferences = resolveModelReferences;
     }
 
+    /**
+     * Returns the number of worker threads that will be used to parse library and schema modules.
+     * 
+     * @return int
+     */
+    public int getLoaderThreads() {
+        return loaderThreads;
+    }
+
+    /**
+     * Assigns the number of worker threads that will be used to parse library and schema modules.
+     * By default, this value is set to one and all modules are parsed serially by the calling
+     * thread. Values greater than one enable the parallel parsing of the modules that make up the
+     * dependency graph of the library being loaded.
+     * 
+     * <p>
+     * NOTE: Parallel loading requires the assigned module loader to support concurrent calls to
+     * its 'loadLibrary()' and 'loadSchema()' methods.
+     * 
+     * @param loaderThreads
+     *            the number of loader threads to assign
+     */
+    public void setLoaderThreads(int loaderThreads) {
+        this.loaderThreads = Math.max(loaderThreads, 1);
+    }
+
     /**
      * Loads the library with the specified namespace and all dependent library modules.
      * 
@@ -259,11 +299,13 @@ public final class LibraryModelLoader<C> implements LoaderValidationMessageKeys
             JAXBModelArtifacts jaxbArtifacts = new JAXBModelArtifacts();
 
             libraryModel.setListenersEnabled(false);
+            startParseQueue();
 
             for (LibraryInputSource<C> nsInputSource : namespaceInputSources) {
                 loadModuleAndDependencies(nsInputSource, libraryNamespace.toString(),
                         OperationType.CLIENT_REQUESTED, jaxbArtifacts);
             }
+            stopParseQueue();
             incorporateJaxbSchemas(jaxbArtifacts);
             incorporateJaxbLibraries(jaxbArtifacts);
 
@@ -278,6 +320,7 @@ public final class LibraryModelLoader<C> implements LoaderValidationMessageKeys
             return jaxbArtifacts.getValidationFindings();
 
         } finally {
+            stopParseQueue();
             libraryModel.setListenersEnabled(listenerFlag);
         }
     }
@@ -298,6 +341,7 @@ public final class LibraryModelLoader<C> implements LoaderValidationMessageKeys
             JAXBModelArtifacts jaxbArtifacts = new JAXBModelArtifacts();
 
             libraryModel.setListenersEnabled(false);
+            startParseQueue();
             loadModuleAndDependencies(inputSource, null, OperationType.CLIENT_REQUESTED,
                     jaxbArtifacts);
 
@@ -333,6 +377,8 @@ public final class LibraryModelLoader<C> implements LoaderValidationMessageKeys
                 }
             }
 
+            stopParseQueue();
+
             // Incorporate the JAXB artifacts into the model
             incorporateJaxbSchemas(jaxbArtifacts);
             incorporateJaxbLibraries(jaxbArtifacts);
@@ -348,6 +394,7 @@ public final class LibraryModelLoader<C> implements LoaderValidationMessageKeys
             return jaxbArtifacts.getValidationFindings();
 
         } finally {
+            stopParseQueue();
             libraryModel.setListenersEnabled(listenerFlag);
         }
     }
@@ -437,7 +484,7 @@ public final class LibraryModelLoader<C> implements LoaderValidationMessageKeys
 			OperationType operationType, JAXBModelArtifacts jaxbArtifacts) throws LibraryLoaderException {
 		notifyLoadStarting(inputSource);
 		ValidationFindings moduleFindings = new ValidationFindings();
-		LibraryModuleInfo<Object> libraryInfo = moduleLoader.loadLibrary(inputSource, moduleFindings);
+		LibraryModuleInfo<Object> libraryInfo = parseLibrary(inputSource, moduleFindings);
 		
 		addLoaderFindings(moduleFindings);
 		if (progressMonitor != null)
@@ -467,6 +514,7 @@ public final class LibraryModelLoader<C> implements LoaderValidationMessageKeys
 			}
 			
 			jaxbArtifacts.addLibraryModule(libraryUrl, libraryInfo);
+			prefetchLibraryDependencies(libraryInfo, libraryUrl);
 			
 			// First, resolve includes from the library's local namespace
 			for (String include : libraryInfo.getIncludes()) {
@@ -628,7 +676,7 @@ public final class LibraryModelLoader<C> implements LoaderValidationMessageKeys
             throws LibraryLoaderException {
     	notifyLoadStarting(inputSource);
         ValidationFindings moduleFindings = new ValidationFindings();
-        LibraryModuleInfo<Schema> schemaInfo = moduleLoader.loadSchema(inputSource, moduleFindings);
+        LibraryModuleInfo<Schema> schemaInfo = parseSchema(inputSource, moduleFindings);
 
         addLoaderFindings(moduleFindings);
         if (progressMonitor != null) progressMonitor.libraryLoaded();
@@ -668,6 +716,7 @@ public final class LibraryModelLoader<C> implements LoaderValidationMessageKeys
             }
 
             jaxbArtifacts.addSchemaModule(schemaUrl, schemaInfo);
+            prefetchSchemaDependencies(schemaInfo, schemaUrl);
 
             // First, resolve includes from the schema's local namespace
             for (String include : schemaInfo.getIncludes()) {
@@ -1131,6 +1180,170 @@ public final class LibraryModelLoader<C> implements LoaderValidationMessageKeys
     	}
     }
 
+    /**
+     * Parses the content of the library module from the given input source. If the module was
+     * already parsed ahead of time by the parse queue, the results of that operation are returned
+     * instead of parsing the content again.
+     * 
+     * @param inputSource
+     *            the input source for the library to be parsed
+     * @param moduleFindings
+     *            the validation findings where any parser errors and warnings are to be reported
+     * @return LibraryModuleInfo<Object>
+     * @throws LibraryLoaderException
+     *             thrown if a system-level exception occurs
+     */
+    @SuppressWarnings("unchecked")
+    private LibraryModuleInfo<Object> parseLibrary(LibraryInputSource<C> inputSource,
+            ValidationFindings moduleFindings) throws LibraryLoaderException {
+        ParsedModule parsedModule = (parseQueue == null) ? null : parseQueue.take(inputSource, true);
+        LibraryModuleInfo<Object> libraryInfo;
+
+        if (parsedModule != null) {
+            libraryInfo = (LibraryModuleInfo<Object>) parsedModule.getModuleInfo(moduleFindings);
+        } else {
+            libraryInfo = moduleLoader.loadLibrary(inputSource, moduleFindings);
+        }
+        return libraryInfo;
+    }
+
+    /**
+     * Parses the content of the XML schema from the given input source. If the schema was already
+     * parsed ahead of time by the parse queue, the results of that operation are returned instead
+     * of parsing the content again.
+     * 
+     * @param inputSource
+     *            the input source for the schema to be parsed
+     * @param moduleFindings
+     *            the validation findings where any parser errors and warnings are to be reported
+     * @return LibraryModuleInfo<Schema>
+     * @throws LibraryLoaderException
+     *             thrown if a system-level exception occurs
+     */
+    @SuppressWarnings("unchecked")
+    private LibraryModuleInfo<Schema> parseSchema(LibraryInputSource<C> inputSource,
+            ValidationFindings moduleFindings) throws LibraryLoaderException {
+        ParsedModule parsedModule = (parseQueue == null) ? null : parseQueue.take(inputSource, false);
+        LibraryModuleInfo<Schema> schemaInfo;
+
+        if (parsedModule != null) {
+            schemaInfo = (LibraryModuleInfo<Schema>) parsedModule.getModuleInfo(moduleFindings);
+        } else {
+            schemaInfo = moduleLoader.loadSchema(inputSource, moduleFindings);
+        }
+        return schemaInfo;
+    }
+
+    /**
+     * Resolves the includes and imports of the given library and submits each of the dependent
+     * modules to the parse queue. This method is a no-op if parallel loading is not enabled.
+     * 
+     * <p>
+     * Resolution errors are ignored since they will be reported when the dependencies are
+     * processed by the recursive loading process.
+     * 
+     * @param libraryInfo
+     *            the library whose dependencies are to be parsed ahead of time
+     * @param libraryUrl
+     *            the URL location of the library
+     */
+    private void prefetchLibraryDependencies(LibraryModuleInfo<Object> libraryInfo, URL libraryUrl) {
+        if (parseQueue == null) {
+            return;
+        }
+        for (String include : libraryInfo.getIncludes()) {
+            try {
+                namespaceResolver.setContextLibrary(libraryInfo, libraryUrl);
+                URL includeUrl = namespaceResolver.resovleLibraryInclude(
+                        new URI(libraryInfo.getNamespace()), include);
+
+                if (includeUrl != null) {
+                    parseQueue.submit(moduleLoader.newInputSource(includeUrl));
+                }
+            } catch (Exception e) {
+                // Ignore and continue - the error will be reported by the recursive load
+            }
+        }
+        for (LibraryModuleImport nsImport : libraryInfo.getImports()) {
+            try {
+                if ((nsImport.getNamespace() != null) && (nsImport.getNamespace().length() > 0)
+                        && (!isBuiltInNamespace(nsImport.getNamespace())
+                                || ((nsImport.getFileHints() != null) && !nsImport.getFileHints().isEmpty()))) {
+                    namespaceResolver.setContextLibrary(libraryInfo, libraryUrl);
+
+                    for (LibraryInputSource<C> dlInputSource : getInputSources(
+                            new URI(nsImport.getNamespace()), libraryInfo.getVersionScheme(),
+                            nsImport.getFileHints())) {
+                        parseQueue.submit(dlInputSource);
+                    }
+                }
+            } catch (Exception e) {
+                // Ignore and continue - the error will be reported by the recursive load
+            }
+        }
+    }
+
+    /**
+     * Resolves the includes and imports of the given XML schema and submits each of the dependent
+     * modules to the parse queue. This method is a no-op if parallel loading is not enabled.
+     * 
+     * @param schemaInfo
+     *            the schema whose dependencies are to be parsed ahead of time
+     * @param schemaUrl
+     *            the URL location of the schema
+     */
+    private void prefetchSchemaDependencies(LibraryModuleInfo<Schema> schemaInfo, URL schemaUrl) {
+        if (parseQueue == null) {
+            return;
+        }
+        URL folderUrl = URLUtils.getParentURL(schemaUrl);
+
+        for (String include : schemaInfo.getIncludes()) {
+            try {
+                parseQueue.submit(moduleLoader.newInputSource(
+                        URLUtils.getResolvedURL(include, folderUrl)));
+
+            } catch (Exception e) {
+                // Ignore and continue - the error will be reported by the recursive load
+            }
+        }
+        for (LibraryModuleImport nsImport : schemaInfo.getImports()) {
+            try {
+                if ((nsImport.getNamespace() != null) && (nsImport.getNamespace().length() > 0)
+                        && !isBuiltInNamespace(nsImport.getNamespace())) {
+                    namespaceResolver.setContextSchema(schemaInfo, schemaUrl);
+
+                    for (LibraryInputSource<C> dlInputSource : getInputSources(
+                            new URI(nsImport.getNamespace()), null, nsImport.getFileHints())) {
+                        parseQueue.submit(dlInputSource);
+                    }
+                }
+            } catch (Exception e) {
+                // Ignore and continue - the error will be reported by the recursive load
+            }
+        }
+    }
+
+    /**
+     * Creates the parse queue for a load operation if more than one loader thread has been
+     * assigned.
+     */
+    private void startParseQueue() {
+        if (loaderThreads > 1) {
+            parseQueue = new ModuleParseQueue(loaderThreads);
+        }
+    }
+
+    /**
+     * Discards the current parse queue (if any) along with all of its unclaimed results.
+     */
+    private void stopParseQueue() {
+        if (parseQueue != null) {
+            parseQueue.shutdown();
+            parseQueue = null;
+        }
+    }
+
     /**
      * Initializes the module loader component with a default implementation.
      * 
@@ -1255,4 +1468,160 @@ public final class LibraryModelLoader<C> implements LoaderValidationMessageKeys
 
     }
 
+
+    /**
+     * Queue that parses library and schema modules ahead of time on a pool of worker threads. The
+     * results of each parse operation are held until they are claimed by the (serial) walk of the
+     * dependency graph, so findings are reported in exactly the same order as a serial load.
+     */
+    private class ModuleParseQueue {
+
+        private ExecutorService executor;
+        private Map<String,Future<ParsedModule>> pendingModules = new HashMap<>();
+        private Set<String> submittedUrls = new HashSet<>();
+
+        /**
+         * Constructor that specifies the number of worker threads to use for parsing.
+         * 
+         * @param threadCount
+         *            the number of worker threads
+         */
+        public ModuleParseQueue(int threadCount) {
+            this.executor = Executors.newFixedThreadPool(threadCount);
+        }
+
+        /**
+         * Submits the given input source to be parsed by a worker thread. Modules that are already
+         * part of the model or that have previously been submitted are ignored.
+         * 
+         * @param inputSource
+         *            the input source of the module to be parsed
+         */
+        public void submit(final LibraryInputSource<C> inputSource) {
+            if ((inputSource == null) || (inputSource.getLibraryURL() == null)) {
+                return;
+            }
+            String urlKey = inputSource.getLibraryURL().toExternalForm();
+
+            if (submittedUrls.contains(urlKey) || libraryModel.hasLibrary(inputSource.getLibraryURL())) {
+                return;
+            }
+            final boolean isLibrary = moduleLoader.isLibraryInputSource(inputSource);
+
+            submittedUrls.add(urlKey);
+            pendingModules.put(urlKey, executor.submit(new Callable<ParsedModule>() {
+                public ParsedModule call() throws Exception {
+                    ParsedModule parsedModule = new ParsedModule(isLibrary);
+
+                    try {
+                        if (isLibrary) {
+                            parsedModule.moduleInfo = moduleLoader.loadLibrary(inputSource,
+                                    parsedModule.findings);
+                        } else {
+                            parsedModule.moduleInfo = moduleLoader.loadSchema(inputSource,
+                                    parsedModule.findings);
+                        }
+                    } catch (LibraryLoaderException e) {
+                        parsedModule.error = e;
+                    }
+                    return parsedModule;
+                }
+            }));
+        }
+
+        /**
+         * Claims the results of the parse operation for the given input source, waiting for the
+         * operation to complete if necessary. If the module was not submitted to this queue (or
+         * the results have already been claimed), this method will return null.
+         * 
+         * @param inputSource
+         *            the input source of the module whose parse results are to be returned
+         * @param isLibrary
+         *            flag indicating whether the caller expects a library (true) or schema (false)
+         * @return ParsedModule
+         * @throws LibraryLoaderException
+         *             thrown if the loading thread is interrupted while waiting for the results
+         */
+        public ParsedModule take(LibraryInputSource<C> inputSource, boolean isLibrary)
+                throws LibraryLoaderException {
+            Future<ParsedModule> pendingModule = null;
+            ParsedModule parsedModule = null;
+
+            if ((inputSource != null) && (inputSource.getLibraryURL() != null)) {
+                pendingModule = pendingModules.remove(inputSource.getLibraryURL().toExternalForm());
+            }
+            if (pendingModule != null) {
+                try {
+                    parsedModule = pendingModule.get();
+
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new LibraryLoaderException("Interrupted while waiting for module content.", e);
+
+                } catch (ExecutionException e) {
+                    throw new LibraryLoaderException(e.getCause());
+                }
+                if (parsedModule.isLibrary != isLibrary) {
+                    parsedModule = null; // Not what the caller expected, so let it parse the content
+                }
+            }
+            return parsedModule;
+        }
+
+        /**
+         * Shuts down the worker threads and discards any parse results that were not claimed.
+         */
+        public void shutdown() {
+            for (Future<ParsedModule> pendingModule : pendingModules.values()) {
+                pendingModule.cancel(true);
+            }
+            pendingModules.clear();
+            executor.shutdownNow();
+        }
+
+    }
+
+    /**
+     * Results of a module parse operation that was performed by the <code>ModuleParseQueue</code>.
+     */
+    private static class ParsedModule {
+
+        private boolean isLibrary;
+        private LibraryModuleInfo<?> moduleInfo;
+        private ValidationFindings findings = new ValidationFindings();
+        private LibraryLoaderException error;
+
+        /**
+         * Constructor that indicates whether the module is a library or schema.
+         * 
+         * @param isLibrary
+         *            flag indicating whether the module is a library (true) or schema (false)
+         */
+        public ParsedModule(boolean isLibrary) {
+            this.isLibrary = isLibrary;
+        }
+
+        /**
+         * Returns the module info that was parsed, reporting any parse findings to the collection
+         * provided. If a system-level error occurred during parsing, it is re-thrown by this
+         * method.
+         * 
+         * @param moduleFindings
+         *            the findings collection where parse errors and warnings should be reported
+         * @return LibraryModuleInfo<?>
+         * @throws LibraryLoaderException
+         *             thrown if a system-level exception occurred during parsing
+         */
+        public LibraryModuleInfo<?> getModuleInfo(ValidationFindings moduleFindings)
+                throws LibraryLoaderException {
+            moduleFindings.addAll(findings);
+
+            if (error != null) {
+                throw error;
+            }
+            return moduleInfo;
+        }
+
+    }
+
 }
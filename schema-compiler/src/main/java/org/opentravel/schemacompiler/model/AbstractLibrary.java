@@ -19,7 +19,9 @@ import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.opentravel.schemacompiler.event.ModelEvent;
 import org.opentravel.schemacompiler.event.ModelEventBuilder;
@@ -49,6 +51,8 @@ public abstract class AbstractLibrary extends TLModelElement {
     private IncludeListManager includeManager = new IncludeListManager(this);
     private NamespaceImportListManager namespaceImportManager = new NamespaceImportListManager(this);
     private List<LibraryMember> namedMembers = new ArrayList<>();
+    private List<LibraryMember> derivedNameMembers = new ArrayList<>();
+    private Map<String,List<LibraryMember>> memberIndex;
     protected String versionScheme;
     protected VersionScheme vScheme;
 
@@ -142,10 +146,16 @@ public abstract class AbstractLibrary extends TLModelElement {
         ModelEvent<?> event = new ModelEventBuilder(ModelEventType.URL_MODIFIED, this)
                 .setOldValue(this.libraryUrl).setNewValue(libraryUrl).buildEvent();
 
+        URL oldUrl = this.libraryUrl;
+
         if (getOwningModel() != null) {
             getOwningModel().checkDuplicateLibrary(getNamespace(), getName(), libraryUrl, this);
         }
         this.libraryUrl = libraryUrl;
+
+        if (getOwningModel() != null) {
+            getOwningModel().libraryIdentityModified(this, namespace, oldUrl);
+        }
         publishEvent(event);
     }
 
@@ -208,10 +218,16 @@ public abstract class AbstractLibrary extends TLModelElement {
         ModelEvent<?> event = new ModelEventBuilder(ModelEventType.NAMESPACE_MODIFIED, this)
                 .setOldValue(this.namespace).setNewValue(namespace).buildEvent();
 
+        String oldNamespace = this.namespace;
+
         if (owningModel != null) {
             owningModel.checkDuplicateLibrary(namespace, this.name, this.libraryUrl, this);
         }
         this.namespace = namespace;
+
+        if (owningModel != null) {
+            owningModel.libraryIdentityModified(this, oldNamespace, libraryUrl);
+        }
         publishEvent(event);
     }
 
@@ -489,16 +505,141 @@ public abstract class AbstractLibrary extends TLModelElement {
     	LibraryMember member = null;
 
         if (memberName != null) {
-            for (LibraryMember e : namedMembers) {
-                if (memberName.equals(e.getLocalName())) {
-                    member = e;
-                    break;
+            synchronized (namedMembers) {
+                List<LibraryMember> indexedMembers = getMemberIndex().get(memberName);
+
+                member = (indexedMembers == null) ? null : indexedMembers.get(0);
+
+                // Members whose names are derived from other entities are not indexed, so
+                // they must be searched individually
+                if (member == null) {
+                    for (LibraryMember e : derivedNameMembers) {
+                        if (memberName.equals(e.getLocalName())) {
+                            member = e;
+                            break;
+                        }
+                    }
                 }
             }
         }
         return member;
     }
 
+    /**
+     * Called by a member of this library after its name has been modified. If the member name
+     * index has already been constructed, the member's entry is moved from its old name to its new
+     * one.
+     * 
+     * @param namedMember
+     *            the library member that was renamed
+     * @param oldName
+     *            the name of the member prior to the modification (may be null)
+     */
+    protected void namedMemberRenamed(LibraryMember namedMember, String oldName) {
+        if (hasIndexedName(namedMember)) {
+            synchronized (namedMembers) {
+                Map<String,List<LibraryMember>> index = memberIndex;
+
+                if (index != null) {
+                    removeFromIndex(index, oldName, namedMember);
+                    addToIndex(index, namedMember.getLocalName(), namedMember);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the index of library members whose local names are assigned directly (i.e. are not
+     * derived from other entities). If the index has not yet been constructed, it is built from
+     * the current list of named members. Members with duplicate names are indexed in the order in
+     * which they appear in the list of named members.
+     * 
+     * <p>
+     * NOTE: Callers must hold the lock on the 'namedMembers' list, which guards the index.
+     * 
+     * @return Map<String,List<LibraryMember>>
+     */
+    private Map<String,List<LibraryMember>> getMemberIndex() {
+        if (memberIndex == null) {
+            memberIndex = new HashMap<>();
+
+            for (LibraryMember member : namedMembers) {
+                if (hasIndexedName(member) && (member.getLocalName() != null)) {
+                    memberIndex.computeIfAbsent(member.getLocalName(), n -> new ArrayList<>(1))
+                            .add(member);
+                }
+            }
+        }
+        return memberIndex;
+    }
+
+    /**
+     * Adds the given member to the index under the name provided. If other members with the same
+     * name are already indexed, the member is positioned according to its location in the list of
+     * named members.
+     * 
+     * @param index
+     *            the member name index to update
+     * @param memberName
+     *            the name under which the member is to be indexed (may be null)
+     * @param namedMember
+     *            the library member to add to the index
+     */
+    private void addToIndex(Map<String,List<LibraryMember>> index, String memberName,
+            LibraryMember namedMember) {
+        if (memberName != null) {
+            List<LibraryMember> indexedMembers = index.computeIfAbsent(memberName,
+                    n -> new ArrayList<>(1));
+            int memberPosition = indexedMembers.isEmpty() ? 0 : namedMembers.indexOf(namedMember);
+            int insertIdx = indexedMembers.size();
+
+            // Only duplicate member names require a search of the named member list
+            while ((insertIdx > 0)
+                    && (namedMembers.indexOf(indexedMembers.get(insertIdx - 1)) > memberPosition)) {
+                insertIdx--;
+            }
+            indexedMembers.add(insertIdx, namedMember);
+        }
+    }
+
+    /**
+     * Removes the given member from the index entry for the name provided.
+     * 
+     * @param index
+     *            the member name index to update
+     * @param memberName
+     *            the name under which the member was indexed (may be null)
+     * @param namedMember
+     *            the library member to remove from the index
+     */
+    private void removeFromIndex(Map<String,List<LibraryMember>> index, String memberName,
+            LibraryMember namedMember) {
+        List<LibraryMember> indexedMembers = (memberName == null) ? null : index.get(memberName);
+
+        if ((indexedMembers != null) && indexedMembers.remove(namedMember)
+                && indexedMembers.isEmpty()) {
+            index.remove(memberName);
+        }
+    }
+
+    /**
+     * Returns true if the local name of the given member is assigned directly and can therefore be
+     * maintained in the member index. Members whose names are derived from other entities (e.g.
+     * contextual facets and extension point facets) can change without notice to this library, so
+     * they are excluded from the index.
+     * 
+     * @param namedMember
+     *            the library member to analyze
+     * @return boolean
+     */
+    private static boolean hasIndexedName(LibraryMember namedMember) {
+        return (namedMember instanceof TLSimple) || (namedMember instanceof TLAbstractEnumeration)
+                || (namedMember instanceof TLValueWithAttributes)
+                || (namedMember instanceof TLComplexTypeBase) || (namedMember instanceof TLResource)
+                || (namedMember instanceof XSDSimpleType) || (namedMember instanceof XSDComplexType)
+                || (namedMember instanceof XSDElement);
+    }
+
     /**
      * Adds a <code>LibraryMember</code> member to the list of type and service definitions for this
      * library.
@@ -516,7 +657,17 @@ public abstract class AbstractLibrary extends TLModelElement {
                         + " libraries.");
             }
             namedMember.setOwningLibrary(this);
-            this.namedMembers.add(namedMember);
+
+            synchronized (namedMembers) {
+                this.namedMembers.add(namedMember);
+
+                if (!hasIndexedName(namedMember)) {
+                    derivedNameMembers.add(namedMember);
+
+                } else if (memberIndex != null) {
+                    addToIndex(memberIndex, namedMember.getLocalName(), namedMember);
+                }
+            }
             publishEvent(new ModelEventBuilder(ModelEventType.MEMBER_ADDED, this).setAffectedItem(
                     namedMember).buildEvent());
         }
@@ -532,7 +683,14 @@ public abstract class AbstractLibrary extends TLModelElement {
     public void removeNamedMember(LibraryMember namedMember) {
         if (namedMembers.contains(namedMember)) {
             namedMember.setOwningLibrary(null);
-            this.namedMembers.remove(namedMember);
+
+            synchronized (namedMembers) {
+                if (memberIndex != null) {
+                    removeFromIndex(memberIndex, namedMember.getLocalName(), namedMember);
+                }
+                this.namedMembers.remove(namedMember);
+                this.derivedNameMembers.remove(namedMember);
+            }
             publishEvent(new ModelEventBuilder(ModelEventType.MEMBER_REMOVED, this)
                     .setAffectedItem(namedMember).buildEvent());
         }
@@ -55,7 +55,10 @@ public abstract class TLAbstractEnumeration extends TLLibraryMember implements T
         ModelEvent<?> event = new ModelEventBuilder(ModelEventType.NAME_MODIFIED, this)
                 .setOldValue(this.name).setNewValue(name).buildEvent();
 
+        String oldName = this.name;
+
         this.name = name;
+        nameModified(oldName);
         publishEvent(event);
     }
 
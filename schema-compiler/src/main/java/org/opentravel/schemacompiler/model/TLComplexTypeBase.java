@@ -60,7 +60,10 @@ public abstract class TLComplexTypeBase extends TLLibraryMember implements TLPro
         ModelEvent<?> event = new ModelEventBuilder(ModelEventType.NAME_MODIFIED, this)
                 .setOldValue(this.name).setNewValue(name).buildEvent();
 
+        String oldName = this.name;
+
         this.name = name;
+        nameModified(oldName);
         publishEvent(event);
     }
 
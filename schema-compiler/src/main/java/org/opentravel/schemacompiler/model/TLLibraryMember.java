@@ -54,4 +54,18 @@ public abstract class TLLibraryMember extends TLModelElement implements LibraryM
         return (owningLibrary == null) ? null : owningLibrary.getNamespace();
     }
 
+    /**
+     * Updates the member name index of the owning library after the local name of this member has
+     * been modified. Sub-classes whose names are assigned directly must call this method from
+     * their name setters.
+     * 
+     * @param oldName
+     *            the name of this member prior to the modification
+     */
+    protected void nameModified(String oldName) {
+        if (owningLibrary != null) {
+            owningLibrary.namedMemberRenamed(this, oldName);
+        }
+    }
+
 }
@@ -15,6 +15,7 @@
  */
 package org.opentravel.schemacompiler.model;
 
+import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.ArrayList;
@@ -25,7 +26,9 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.opentravel.schemacompiler.codegen.util.ModelInheritanceCache;
 import org.opentravel.schemacompiler.event.ModelEvent;
 import org.opentravel.schemacompiler.event.ModelEventBuilder;
 import org.opentravel.schemacompiler.event.ModelEventListener;
@@ -33,6 +36,8 @@ import org.opentravel.schemacompiler.event.ModelEventType;
 import org.opentravel.schemacompiler.event.OwnershipEvent;
 import org.opentravel.schemacompiler.event.ValueChangeEvent;
 import org.opentravel.schemacompiler.ic.LibraryMemberChangeIntegrityChecker;
+import org.opentravel.schemacompiler.ic.ModelExtensionRegistry;
+import org.opentravel.schemacompiler.ic.ModelReferenceIndex;
 import org.opentravel.schemacompiler.ic.NameChangeIntegrityChecker;
 import org.opentravel.schemacompiler.loader.BuiltInLibraryFactory;
 import org.opentravel.schemacompiler.transform.AnonymousEntityFilter;
@@ -48,8 +53,14 @@ import org.opentravel.schemacompiler.validate.Validatable;
 public class TLModel implements Validatable {
 
     private List<AbstractLibrary> libraryList = new ArrayList<>();
+    private final Map<String,List<AbstractLibrary>> namespaceIndex = new HashMap<>();
+    private final Map<URI,AbstractLibrary> urlIndex = new HashMap<>();
+    private ModelReferenceIndex referenceIndex = new ModelReferenceIndex(this);
+    private ModelExtensionRegistry extensionRegistry = new ModelExtensionRegistry(this);
+    private ModelInheritanceCache inheritanceCache = new ModelInheritanceCache(this);
     private List<ModelEventListener<?,?>> listeners = new ArrayList<>();
     private boolean listenersEnabled = true;
+    private final AtomicInteger readOnlyCount = new AtomicInteger();
     private int chameleonCounter;
 
     /**
@@ -73,16 +84,13 @@ public class TLModel implements Validatable {
      * @return Collection<String>
      */
     public Collection<String> getNamespaces() {
-        Set<String> namespaceSet = new HashSet<>();
+        Set<String> namespaceSet;
 
-        for (AbstractLibrary library : libraryList) {
-            String namespace = library.getNamespace();
-
-            if ((namespace != null)
-                    && !namespace.equals(AnonymousEntityFilter.ANONYMOUS_PSEUDO_NAMESPACE)) {
-                namespaceSet.add(library.getNamespace());
-            }
+        synchronized (namespaceIndex) {
+            namespaceSet = new HashSet<>(namespaceIndex.keySet());
         }
+        namespaceSet.remove(null);
+        namespaceSet.remove(AnonymousEntityFilter.ANONYMOUS_PSEUDO_NAMESPACE);
         return Collections.unmodifiableCollection(namespaceSet);
     }
 
@@ -94,17 +102,12 @@ public class TLModel implements Validatable {
      * @return boolean
      */
     public boolean hasNamespace(String libraryNamespace) {
-        boolean result = false;
-
-        if (libraryNamespace != null) {
-            for (AbstractLibrary library : libraryList) {
-                if (libraryNamespace.equals(library.getNamespace())) {
-                    result = true;
-                    break;
-                }
-            }
+        if (libraryNamespace == null) {
+            return false;
+        }
+        synchronized (namespaceIndex) {
+            return namespaceIndex.containsKey(libraryNamespace);
         }
-        return result;
     }
 
     /**
@@ -129,18 +132,7 @@ public class TLModel implements Validatable {
      * @return
      */
     public boolean hasLibrary(String libraryNamespace, String libraryName) {
-        boolean result = false;
-
-        if ((libraryNamespace != null) && (libraryName != null)) {
-            for (AbstractLibrary library : libraryList) {
-                if (libraryNamespace.equals(library.getNamespace())
-                        && libraryName.equals(library.getName())) {
-                    result = true;
-                    break;
-                }
-            }
-        }
-        return result;
+        return (getLibrary(libraryNamespace, libraryName) != null);
     }
 
     /**
@@ -148,8 +140,12 @@ public class TLModel implements Validatable {
      * 
      * @param library
      *            the library to add
+     * @throws IllegalStateException
+     *             thrown if a read-only operation is in progress
      */
     public void addLibrary(AbstractLibrary library) {
+        checkWritable();
+
         if ((library != null) && !libraryList.contains(library)) {
             checkDuplicateLibrary(library.getNamespace(), library.getName(),
                     library.getLibraryUrl(), null);
@@ -168,6 +164,7 @@ public class TLModel implements Validatable {
             }
             library.setOwningModel(this);
             libraryList.add(library);
+            addToIndex(library);
             publishEvent(new ModelEventBuilder(ModelEventType.LIBRARY_ADDED, this).setAffectedItem(
                     library).buildEvent());
         }
@@ -178,11 +175,16 @@ public class TLModel implements Validatable {
      * 
      * @param library
      *            the library to remove
+     * @throws IllegalStateException
+     *             thrown if a read-only operation is in progress
      */
     public void removeLibrary(AbstractLibrary library) {
+        checkWritable();
+
         if (libraryList.contains(library)) {
             library.setOwningModel(null);
             libraryList.remove(library);
+            removeFromIndex(library);
             publishEvent(new ModelEventBuilder(ModelEventType.LIBRARY_REMOVED, this)
                     .setAffectedItem(library).buildEvent());
         }
@@ -201,6 +203,8 @@ public class TLModel implements Validatable {
      */
     public void moveToLibrary(LibraryMember member, TLLibrary destLibrary) {
         // Perform validation checks before attempting to perform the move
+        checkWritable();
+
         if (member.getOwningLibrary() == null) {
             throw new IllegalStateException(
                     "Unable to move library member because it is not currently a member of an existing library.");
@@ -258,10 +262,20 @@ public class TLModel implements Validatable {
      * operation.
      */
     public void clearModel() {
+        checkWritable();
+
         boolean listenerFlag = isListenersEnabled();
 
         setListenersEnabled(false);
         libraryList = new ArrayList<>();
+
+        synchronized (namespaceIndex) {
+            namespaceIndex.clear();
+            urlIndex.clear();
+        }
+        referenceIndex.reset();
+        extensionRegistry.reset();
+        inheritanceCache.reset();
         initModel();
         setListenersEnabled(listenerFlag);
     }
@@ -279,8 +293,8 @@ public class TLModel implements Validatable {
         AbstractLibrary library = null;
 
         if ((namespace != null) && (libraryName != null)) {
-            for (AbstractLibrary lib : libraryList) {
-                if (namespace.equals(lib.getNamespace()) && libraryName.equals(lib.getName())) {
+            for (AbstractLibrary lib : getLibrariesForNamespace(namespace)) {
+                if (libraryName.equals(lib.getName())) {
                     library = lib;
                     break;
                 }
@@ -300,13 +314,16 @@ public class TLModel implements Validatable {
         AbstractLibrary library = null;
 
         if (libraryUrl != null) {
-            String urlString = libraryUrl.toExternalForm();
+            AbstractLibrary lib;
 
-            for (AbstractLibrary lib : libraryList) {
-                if (urlString.equals(lib.getLibraryUrl().toExternalForm())) {
-                    library = lib;
-                    break;
-                }
+            synchronized (namespaceIndex) {
+                lib = urlIndex.get(toUrlKey(libraryUrl));
+            }
+
+            // The index is keyed by URI equality, so confirm an exact match of the URL strings
+            if ((lib != null) && (lib.getLibraryUrl() != null)
+                    && libraryUrl.toExternalForm().equals(lib.getLibraryUrl().toExternalForm())) {
+                library = lib;
             }
         }
         return library;
@@ -381,9 +398,11 @@ public class TLModel implements Validatable {
         List<AbstractLibrary> libraries = new ArrayList<>();
 
         if (namespace != null) {
-            for (AbstractLibrary library : libraryList) {
-                if (namespace.equals(library.getNamespace())) {
-                    libraries.add(library);
+            synchronized (namespaceIndex) {
+                List<AbstractLibrary> nsLibraries = namespaceIndex.get(namespace);
+
+                if (nsLibraries != null) {
+                    libraries.addAll(nsLibraries);
                 }
             }
         }
@@ -414,6 +433,36 @@ public class TLModel implements Validatable {
         }
     }
 
+    /**
+     * Returns the index of entity references (where-used) for this model. The index is built the
+     * first time it is accessed and is maintained by the events published by the model.
+     * 
+     * @return ModelReferenceIndex
+     */
+    public ModelReferenceIndex getReferenceIndex() {
+        return referenceIndex;
+    }
+
+    /**
+     * Returns the registry of extension relationships for this model. The registry is built the
+     * first time it is accessed and is maintained by the events published by the model.
+     * 
+     * @return ModelExtensionRegistry
+     */
+    public ModelExtensionRegistry getExtensionRegistry() {
+        return extensionRegistry;
+    }
+
+    /**
+     * Returns the cache of inherited member and facet hierarchy views for this model. Cached views
+     * are discarded whenever the model publishes an event.
+     * 
+     * @return ModelInheritanceCache
+     */
+    public ModelInheritanceCache getInheritanceCache() {
+        return inheritanceCache;
+    }
+
     /**
      * Returns true if registered listeners are to be notified of model events.
      * 
@@ -425,13 +474,57 @@ public class TLModel implements Validatable {
 
     /**
      * Assigns the flag value that indicates whenter registered listeners are to be notified of
-     * model events.
+     * model events. The model's inheritance cache is suspended while listeners are disabled.
      * 
      * @param listenersEnabled
      *            the flag value to assign
      */
     public void setListenersEnabled(boolean listenersEnabled) {
         this.listenersEnabled = listenersEnabled;
+        inheritanceCache.setSuspended(!listenersEnabled);
+    }
+
+    /**
+     * Returns true if the model is currently being accessed by one or more read-only operations
+     * (e.g. code generation tasks that may be running concurrently).
+     * 
+     * @return boolean
+     */
+    public boolean isReadOnly() {
+        return readOnlyCount.get() > 0;
+    }
+
+    /**
+     * Marks the start of a read-only operation on this model. Until each call to this method is
+     * matched by a call to <code>endReadOnlyAccess()</code>, libraries cannot be added to or
+     * removed from the model and all published events are discarded. The only events that can be
+     * published during a read-only operation are those of the transient ("ghost") elements that
+     * code generators attach to model entities, and these must not be recorded in the shared
+     * indexes and caches of the model.
+     */
+    public void beginReadOnlyAccess() {
+        readOnlyCount.incrementAndGet();
+    }
+
+    /**
+     * Marks the end of a read-only operation that was started by a call to
+     * <code>beginReadOnlyAccess()</code>.
+     */
+    public void endReadOnlyAccess() {
+        readOnlyCount.updateAndGet(count -> Math.max(count - 1, 0));
+    }
+
+    /**
+     * Throws an <code>IllegalStateException</code> if the model is currently read-only.
+     * 
+     * @throws IllegalStateException
+     *             thrown if a read-only operation is in progress
+     */
+    private void checkWritable() {
+        if (isReadOnly()) {
+            throw new IllegalStateException(
+                    "The model cannot be modified while a read-only operation is in progress.");
+        }
     }
 
     /**
@@ -455,6 +548,16 @@ public class TLModel implements Validatable {
      */
     @SuppressWarnings("unchecked")
     protected <E extends ModelEvent<?>> void publishEvent(E event) {
+        if (isReadOnly()) {
+            return;
+        }
+
+        // The reference index and extension registry must be kept current even if model
+        // listeners are disabled; the inheritance cache is suspended until they are re-enabled
+        referenceIndex.processModelEvent(event);
+        extensionRegistry.processModelEvent(event);
+        inheritanceCache.processModelEvent(event);
+
         if ((event != null) && listenersEnabled) {
         	List<ModelEventListener<?,?>> tempListeners = new ArrayList<>( listeners );
         	
@@ -491,34 +594,172 @@ public class TLModel implements Validatable {
      */
     protected void checkDuplicateLibrary(String proposedNamespace, String proposedName,
             URL proposedUrl, AbstractLibrary existingLibrary) {
-        for (AbstractLibrary memberLib : libraryList) {
+        List<AbstractLibrary> nsLibraries = new ArrayList<>();
+
+        synchronized (namespaceIndex) {
+            if (namespaceIndex.containsKey(proposedNamespace)) {
+                nsLibraries.addAll(namespaceIndex.get(proposedNamespace));
+            }
+        }
+        for (AbstractLibrary memberLib : nsLibraries) {
             if (existingLibrary == memberLib) {
                 continue;
             }
-            boolean namespaceMatch = (proposedNamespace == null) ? (memberLib.getNamespace() == null)
-                    : proposedNamespace.equals(memberLib.getNamespace());
             boolean nameMatch = (proposedName == null) ? (memberLib.getName() == null)
                     : proposedName.equals(memberLib.getName());
 
-            if (namespaceMatch && nameMatch) {
+            if (nameMatch) {
                 throw new IllegalArgumentException(
                         "A library with the requested name + namespace values already exists in the model.");
+            }
+        }
+        try {
+            URI proposedKey = (proposedUrl == null) ? null : proposedUrl.toURI();
+            AbstractLibrary memberLib;
+            boolean urlIndexed;
+
+            synchronized (namespaceIndex) {
+                memberLib = urlIndex.get(proposedKey);
+                urlIndexed = urlIndex.containsKey(proposedKey);
+            }
+            if (urlIndexed && (memberLib != existingLibrary)) {
+                throw new IllegalArgumentException(
+                        "A library with the requested resource URL location already exists in the model.");
+            }
+
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("Invalid library URL.", e);
+        }
+    }
+
+    /**
+     * Updates the namespace and URL indexes of this model to reflect changes to the namespace
+     * and/or resource URL of the given library. This method should be called after the fields of
+     * the library have been modified.
+     * 
+     * @param library
+     *            the library whose identity was modified
+     * @param oldNamespace
+     *            the namespace of the library prior to the modification
+     * @param oldUrl
+     *            the resource URL of the library prior to the modification
+     */
+    protected void libraryIdentityModified(AbstractLibrary library, String oldNamespace, URL oldUrl) {
+        if (!libraryList.contains(library)) {
+            return;
+        }
+        synchronized (namespaceIndex) {
+            String newNamespace = library.getNamespace();
+            URI oldUrlKey = toUrlKey(oldUrl);
+
+            if ((newNamespace == null) ? (oldNamespace != null) : !newNamespace.equals(oldNamespace)) {
+                List<AbstractLibrary> oldLibraries = namespaceIndex.get(oldNamespace);
+
+                if (oldLibraries != null) {
+                    oldLibraries.remove(library);
+
+                    if (oldLibraries.isEmpty()) {
+                        namespaceIndex.remove(oldNamespace);
+                    }
+                }
+
+                // Rebuild the list for the new namespace so that it matches the order of the
+                // library list
+                List<AbstractLibrary> newLibraries = new ArrayList<>();
+
+                for (AbstractLibrary lib : libraryList) {
+                    if ((newNamespace == null) ? (lib.getNamespace() == null)
+                            : newNamespace.equals(lib.getNamespace())) {
+                        newLibraries.add(lib);
+                    }
+                }
+                namespaceIndex.put(newNamespace, newLibraries);
+            }
+            if (urlIndex.get(oldUrlKey) == library) {
+                urlIndex.remove(oldUrlKey);
+            }
+            indexLibraryUrl(library);
+        }
+    }
+
+    /**
+     * Adds the given library to the namespace and URL indexes of this model.
+     * 
+     * @param library
+     *            the library to be indexed
+     */
+    private void addToIndex(AbstractLibrary library) {
+        synchronized (namespaceIndex) {
+            List<AbstractLibrary> nsLibraries = namespaceIndex.get(library.getNamespace());
+
+            if (nsLibraries == null) {
+                nsLibraries = new ArrayList<>();
+                namespaceIndex.put(library.getNamespace(), nsLibraries);
+            }
+            nsLibraries.add(library);
+            indexLibraryUrl(library);
+        }
+    }
+
+    /**
+     * Adds the resource URL of the given library to the URL index. Libraries whose URL cannot be
+     * converted to a valid URI are not indexed. Callers must hold the lock on the namespace index.
+     * 
+     * @param library
+     *            the library whose URL is to be indexed
+     */
+    private void indexLibraryUrl(AbstractLibrary library) {
+        URI urlKey = toUrlKey(library.getLibraryUrl());
+
+        if ((urlKey != null) || (library.getLibraryUrl() == null)) {
+            urlIndex.put(urlKey, library);
+        }
+    }
+
+    /**
+     * Removes the given library from the namespace and URL indexes of this model.
+     * 
+     * @param library
+     *            the library to be removed from the indexes
+     */
+    private void removeFromIndex(AbstractLibrary library) {
+        synchronized (namespaceIndex) {
+            List<AbstractLibrary> nsLibraries = namespaceIndex.get(library.getNamespace());
+            URI urlKey = toUrlKey(library.getLibraryUrl());
+
+            if (nsLibraries != null) {
+                nsLibraries.remove(library);
+
+                if (nsLibraries.isEmpty()) {
+                    namespaceIndex.remove(library.getNamespace());
+                }
+            }
+            if (urlIndex.get(urlKey) == library) {
+                urlIndex.remove(urlKey);
+            }
+        }
+    }
+
+    /**
+     * Returns the key to use when storing the given library URL in the URL index. Null will be
+     * returned if the URL is null or cannot be converted to a valid URI.
+     * 
+     * @param libraryUrl
+     *            the library URL for which to return a key
+     * @return URI
+     */
+    private static URI toUrlKey(URL libraryUrl) {
+        URI urlKey = null;
+
+        if (libraryUrl != null) {
+            try {
+                urlKey = libraryUrl.toURI();
 
-            } else {
-				try {
-					boolean urlMatch = (proposedUrl == null) ? (memberLib.getLibraryUrl() == null)
-					        : proposedUrl.toURI().equals(memberLib.getLibraryUrl().toURI());
-					
-	                if (urlMatch) {
-	                    throw new IllegalArgumentException(
-	                            "A library with the requested resource URL location already exists in the model.");
-	                }
-	                
-				} catch (URISyntaxException e) {
-					throw new IllegalArgumentException("Invalid library URL.", e);
-				}
+            } catch (URISyntaxException e) {
+                // No action - invalid URLs are not indexed
             }
         }
+        return urlKey;
     }
 
     /**
@@ -153,7 +153,10 @@ public class TLResource extends TLLibraryMember implements TLVersionedExtensionO
         ModelEvent<?> event = new ModelEventBuilder(ModelEventType.NAME_MODIFIED, this)
         		.setOldValue(this.name).setNewValue(name).buildEvent();
 
+		String oldName = this.name;
+
 		this.name = name;
+		nameModified(oldName);
         publishEvent(event);
 	}
 
@@ -149,7 +149,10 @@ public class TLSimple extends TLLibraryMember implements Versioned, TLAttributeT
         ModelEvent<?> event = new ModelEventBuilder(ModelEventType.NAME_MODIFIED, this)
                 .setOldValue(this.name).setNewValue(name).buildEvent();
 
+        String oldName = this.name;
+
         this.name = name;
+        nameModified(oldName);
         publishEvent(event);
     }
 
@@ -144,7 +144,10 @@ public class TLValueWithAttributes extends TLLibraryMember implements Versioned,
         ModelEvent<?> event = new ModelEventBuilder(ModelEventType.NAME_MODIFIED, this)
                 .setOldValue(this.name).setNewValue(name).buildEvent();
 
+        String oldName = this.name;
+
         this.name = name;
+        nameModified(oldName);
         publishEvent(event);
     }
 
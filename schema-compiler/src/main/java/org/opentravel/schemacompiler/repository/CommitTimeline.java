@@ -0,0 +1,141 @@
+/**
+ * Copyright (C) 2014 OpenTravel Alliance (info@opentravel.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opentravel.schemacompiler.repository;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+
+import org.opentravel.ns.ota2.repositoryinfo_v01_00.LibraryHistoryItemType;
+import org.opentravel.schemacompiler.xml.XMLGregorianCalendarConverter;
+
+/**
+ * Immutable, parsed representation of the commits of a single repository item that
+ * supports binary searches by commit number and by effective date.  Each timeline records
+ * the size and modification time of the file from which it was loaded, so that a cached
+ * timeline can be discarded if that file is changed.  A timeline whose file did not exist
+ * is never considered to be current.
+ *
+ * @author S. Livezey
+ */
+class CommitTimeline {
+
+	private File sourceFile;
+	private long sourceLastModified;
+	private long sourceLength;
+	private List<LibraryHistoryItemType> commits;
+	private int[] commitNumbers;
+	private long[] minEffectiveTimes;
+
+	/**
+	 * Constructor that specifies the commits of the timeline and the state of the file from
+	 * which they were loaded.
+	 *
+	 * @param commits  the commits of the repository item (in any order)
+	 * @param sourceFile  the file from which the commits were loaded
+	 * @param sourceLastModified  the modification time of the file before it was read
+	 * @param sourceLength  the length of the file before it was read
+	 */
+	public CommitTimeline(List<LibraryHistoryItemType> commits, File sourceFile,
+			long sourceLastModified, long sourceLength) {
+		List<LibraryHistoryItemType> sortedCommits = new ArrayList<>( commits );
+		int commitCount = sortedCommits.size();
+
+		sortedCommits.sort( Comparator.comparingInt( LibraryHistoryItemType::getCommitNumber ) );
+		this.commits = Collections.unmodifiableList( sortedCommits );
+		this.commitNumbers = new int[ commitCount ];
+		this.minEffectiveTimes = new long[ commitCount ];
+		this.sourceFile = sourceFile;
+		this.sourceLastModified = sourceLastModified;
+		this.sourceLength = sourceLength;
+
+		// Effective dates are not guaranteed to increase with each commit, so the minimum
+		// effective date from each commit onward is used as the search key for dates
+		for (int i = commitCount - 1; i >= 0; i--) {
+			long effectiveTime = XMLGregorianCalendarConverter.toJavaDate(
+					sortedCommits.get( i ).getEffectiveOn() ).getTime();
+
+			commitNumbers[i] = sortedCommits.get( i ).getCommitNumber();
+			minEffectiveTimes[i] = (i == (commitCount - 1)) ?
+					effectiveTime : Math.min( effectiveTime, minEffectiveTimes[i + 1] );
+		}
+	}
+
+	/**
+	 * Returns the commits of the timeline in ascending order of their commit numbers.
+	 *
+	 * @return List<LibraryHistoryItemType>
+	 */
+	public List<LibraryHistoryItemType> getCommits() {
+		return commits;
+	}
+
+	/**
+	 * Returns true if the file from which this timeline was loaded has not been modified.
+	 *
+	 * @return boolean
+	 */
+	public boolean isCurrent() {
+		return (sourceLastModified != 0L) && (sourceFile.lastModified() == sourceLastModified)
+				&& (sourceFile.length() == sourceLength);
+	}
+
+	/**
+	 * Returns the index of the commit with the specified commit number, or -1 if no such
+	 * commit exists.
+	 *
+	 * @param commitNumber  the commit number to search for
+	 * @return int
+	 */
+	public int indexOf(int commitNumber) {
+		int commitIdx = Arrays.binarySearch( commitNumbers, commitNumber );
+
+		return (commitIdx < 0) ? -1 : commitIdx;
+	}
+
+	/**
+	 * Returns the index of the most recent commit (i.e. the highest commit number) whose
+	 * effective date is on or before the date provided, or -1 if no such commit exists.
+	 *
+	 * @param effectiveDate  the effective date to search for
+	 * @return int
+	 */
+	public int indexAt(Date effectiveDate) {
+		long effectiveTime = effectiveDate.getTime();
+		int low = 0;
+		int high = minEffectiveTimes.length - 1;
+		int commitIdx = -1;
+
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+
+			if (minEffectiveTimes[mid] <= effectiveTime) {
+				commitIdx = mid;
+				low = mid + 1;
+
+			} else {
+				high = mid - 1;
+			}
+		}
+		return commitIdx;
+	}
+
+}
@@ -0,0 +1,94 @@
+/**
+ * Copyright (C) 2014 OpenTravel Alliance (info@opentravel.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opentravel.schemacompiler.repository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Container for the combined results of a request that was sent to each of the remote
+ * repositories of a <code>RepositoryManager</code>. Results are merged in the order in which the
+ * remote repositories are configured, regardless of the order in which the repositories responded.
+ * Repositories that failed or did not respond in time contribute no results, but their status is
+ * reported so that callers can distinguish partial results from complete ones.
+ * 
+ * @param <T>  the type of result returned by each remote repository
+ * @author S. Livezey
+ */
+public class FederatedResults<T> {
+
+    private List<T> results = new ArrayList<>();
+    private Map<String,RemoteRepositoryStatus> repositoryStatus = new LinkedHashMap<>();
+
+    /**
+     * Returns the merged results from all of the remote repositories that responded successfully.
+     * 
+     * @return List<T>
+     */
+    public List<T> getResults() {
+        return results;
+    }
+
+    /**
+     * Returns the status of each remote repository, keyed by repository ID and listed in the
+     * order in which the repositories are configured.
+     * 
+     * @return Map<String,RemoteRepositoryStatus>
+     */
+    public Map<String,RemoteRepositoryStatus> getRepositoryStatus() {
+        return Collections.unmodifiableMap( repositoryStatus );
+    }
+
+    /**
+     * Returns the status of the specified remote repository, or null if the repository did not
+     * participate in the request.
+     * 
+     * @param repositoryId  the ID of the remote repository
+     * @return RemoteRepositoryStatus
+     */
+    public RemoteRepositoryStatus getRepositoryStatus(String repositoryId) {
+        return repositoryStatus.get( repositoryId );
+    }
+
+    /**
+     * Returns true if every remote repository responded successfully.
+     * 
+     * @return boolean
+     */
+    public boolean isComplete() {
+        return !repositoryStatus.containsValue( RemoteRepositoryStatus.UNAVAILABLE )
+                && !repositoryStatus.containsValue( RemoteRepositoryStatus.TIMED_OUT );
+    }
+
+    /**
+     * Appends the response of a remote repository to the federated results.
+     * 
+     * @param repositoryId  the ID of the remote repository
+     * @param status  the status of the remote repository's response
+     * @param repositoryResults  the results returned by the remote repository
+     */
+    void addResults(String repositoryId, RemoteRepositoryStatus status, List<T> repositoryResults) {
+        repositoryStatus.put( repositoryId, status );
+        
+        if (repositoryResults != null) {
+            results.addAll( repositoryResults );
+        }
+    }
+
+}
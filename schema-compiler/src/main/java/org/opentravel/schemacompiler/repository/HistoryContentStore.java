@@ -0,0 +1,310 @@
+/**
+ * Copyright (C) 2014 OpenTravel Alliance (info@opentravel.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opentravel.schemacompiler.repository;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Reads and writes the historical content files of repository items.  The content of a
+ * commit is stored either as a compressed snapshot of the item's entire content, or as a
+ * compressed delta that describes how the content of the previous commit was changed.
+ *
+ * <p>Deltas are computed line-by-line.  Each delta is a sequence of instructions that
+ * either copy a range of lines from the previous commit's content or insert new lines.
+ * Uncompressed content files that were created by earlier versions of the repository are
+ * treated as snapshots.
+ *
+ * @author S. Livezey
+ */
+class HistoryContentStore {
+
+	public static final String SNAPSHOT_SUFFIX = ".gz";
+	public static final String DELTA_SUFFIX = ".delta";
+
+	private static final int DELTA_FORMAT_VERSION = 1;
+	private static final int END_INSTRUCTION = 0;
+	private static final int COPY_INSTRUCTION = 1;
+	private static final int INSERT_INSTRUCTION = 2;
+	private static final int MAX_MATCH_CANDIDATES = 8;
+
+	/**
+	 * Private constructor to prevent instantiation.
+	 */
+	private HistoryContentStore() {}
+
+	/**
+	 * Returns true if the given historical content file is a delta against the content of
+	 * the previous commit.
+	 *
+	 * @param hContentFile  the historical content file to check
+	 * @return boolean
+	 */
+	public static boolean isDelta(File hContentFile) {
+		return hContentFile.getName().endsWith( DELTA_SUFFIX );
+	}
+
+	/**
+	 * Returns true if the given historical content file must be decoded before it can be
+	 * used (i.e. it is not an uncompressed snapshot).
+	 *
+	 * @param hContentFile  the historical content file to check
+	 * @return boolean
+	 */
+	public static boolean isEncoded(File hContentFile) {
+		return isDelta( hContentFile ) || hContentFile.getName().endsWith( SNAPSHOT_SUFFIX );
+	}
+
+	/**
+	 * Saves a compressed snapshot of the given content to the specified file.
+	 *
+	 * @param hContentFile  the historical content file to be created
+	 * @param content  the content to be saved
+	 * @throws IOException  thrown if the file cannot be saved
+	 */
+	public static void writeSnapshot(File hContentFile, byte[] content) throws IOException {
+		try (OutputStream out = new GZIPOutputStream( new FileOutputStream( hContentFile ) )) {
+			out.write( content );
+		}
+	}
+
+	/**
+	 * Saves a compressed delta to the specified file that will transform the base content
+	 * into the new content provided.
+	 *
+	 * @param hContentFile  the historical content file to be created
+	 * @param baseContent  the content of the previous commit
+	 * @param content  the content of the new commit
+	 * @throws IOException  thrown if the file cannot be saved
+	 */
+	public static void writeDelta(File hContentFile, byte[] baseContent, byte[] content) throws IOException {
+		List<String> baseLines = toLines( baseContent );
+		List<String> lines = toLines( content );
+		Map<String,List<Integer>> baseIndex = new HashMap<>();
+
+		for (int i = 0; i < baseLines.size(); i++) {
+			baseIndex.computeIfAbsent( baseLines.get( i ), l -> new ArrayList<>() ).add( i );
+		}
+
+		try (DataOutputStream out = new DataOutputStream(
+				new GZIPOutputStream( new FileOutputStream( hContentFile ) ) )) {
+			ByteArrayOutputStream insertedLines = new ByteArrayOutputStream();
+			int expectedLine = 0;
+			int lineIdx = 0;
+
+			out.writeInt( DELTA_FORMAT_VERSION );
+			out.writeInt( baseContent.length );
+
+			while (lineIdx < lines.size()) {
+				String line = lines.get( lineIdx );
+				List<Integer> candidates = new ArrayList<>();
+				int matchStart = -1;
+				int matchLength = 0;
+
+				// Prefer the line that follows the previous match, since most edits are local
+				if ((expectedLine < baseLines.size()) && baseLines.get( expectedLine ).equals( line )) {
+					candidates.add( expectedLine );
+				}
+				for (Integer candidate : baseIndex.getOrDefault( line, Collections.emptyList() )) {
+					if (candidates.size() >= MAX_MATCH_CANDIDATES) break;
+					candidates.add( candidate );
+				}
+				for (int candidate : candidates) {
+					int length = getMatchLength( baseLines, candidate, lines, lineIdx );
+
+					if (length > matchLength) {
+						matchStart = candidate;
+						matchLength = length;
+					}
+				}
+
+				if (matchLength > 0) {
+					writeInsert( out, insertedLines );
+					out.writeByte( COPY_INSTRUCTION );
+					out.writeInt( matchStart );
+					out.writeInt( matchLength );
+					expectedLine = matchStart + matchLength;
+					lineIdx += matchLength;
+
+				} else {
+					byte[] lineBytes = line.getBytes( StandardCharsets.ISO_8859_1 );
+
+					insertedLines.write( lineBytes, 0, lineBytes.length );
+					lineIdx++;
+				}
+			}
+			writeInsert( out, insertedLines );
+			out.writeByte( END_INSTRUCTION );
+		}
+	}
+
+	/**
+	 * Returns the content of the given snapshot file.
+	 *
+	 * @param hContentFile  the historical content file to read
+	 * @return byte[]
+	 * @throws IOException  thrown if the file cannot be read
+	 */
+	public static byte[] readSnapshot(File hContentFile) throws IOException {
+		byte[] content;
+
+		if (isEncoded( hContentFile )) {
+			try (InputStream in = new GZIPInputStream( new FileInputStream( hContentFile ) )) {
+				ByteArrayOutputStream out = new ByteArrayOutputStream();
+				byte[] buffer = new byte[8192];
+				int bytesRead;
+
+				while ((bytesRead = in.read( buffer, 0, buffer.length )) >= 0) {
+					out.write( buffer, 0, bytesRead );
+				}
+				content = out.toByteArray();
+			}
+
+		} else {
+			content = Files.readAllBytes( hContentFile.toPath() );
+		}
+		return content;
+	}
+
+	/**
+	 * Applies the delta from the given file to the base content provided and returns the
+	 * resulting content.
+	 *
+	 * @param hContentFile  the delta file to apply
+	 * @param baseContent  the content of the previous commit
+	 * @return byte[]
+	 * @throws IOException  thrown if the delta cannot be read or does not apply to the base content
+	 */
+	public static byte[] applyDelta(File hContentFile, byte[] baseContent) throws IOException {
+		try (DataInputStream in = new DataInputStream(
+				new GZIPInputStream( new FileInputStream( hContentFile ) ) )) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			List<String> baseLines = toLines( baseContent );
+			int instruction;
+
+			if ((in.readInt() != DELTA_FORMAT_VERSION) || (in.readInt() != baseContent.length)) {
+				throw new IOException("Historical content delta does not apply to the previous commit: "
+						+ hContentFile.getName());
+			}
+			while ((instruction = in.readByte()) != END_INSTRUCTION) {
+				if (instruction == COPY_INSTRUCTION) {
+					int startLine = in.readInt();
+					int endLine = startLine + in.readInt();
+
+					if ((startLine < 0) || (endLine > baseLines.size())) {
+						throw new IOException("Invalid line range in historical content delta: "
+								+ hContentFile.getName());
+					}
+					for (int i = startLine; i < endLine; i++) {
+						byte[] lineBytes = baseLines.get( i ).getBytes( StandardCharsets.ISO_8859_1 );
+
+						out.write( lineBytes, 0, lineBytes.length );
+					}
+
+				} else if (instruction == INSERT_INSTRUCTION) {
+					byte[] insertedBytes = new byte[ in.readInt() ];
+
+					in.readFully( insertedBytes );
+					out.write( insertedBytes, 0, insertedBytes.length );
+
+				} else {
+					throw new IOException("Unrecognized instruction in historical content delta: "
+							+ hContentFile.getName());
+				}
+			}
+			return out.toByteArray();
+		}
+	}
+
+	/**
+	 * Writes an instruction to insert the pending lines (if any), and then clears the buffer
+	 * of pending lines.
+	 *
+	 * @param out  the output stream for the delta
+	 * @param insertedLines  the buffer of lines that are waiting to be inserted
+	 * @throws IOException  thrown if the instruction cannot be written
+	 */
+	private static void writeInsert(DataOutputStream out, ByteArrayOutputStream insertedLines) throws IOException {
+		if (insertedLines.size() > 0) {
+			out.writeByte( INSERT_INSTRUCTION );
+			out.writeInt( insertedLines.size() );
+			insertedLines.writeTo( out );
+			insertedLines.reset();
+		}
+	}
+
+	/**
+	 * Returns the number of consecutive lines that are identical in the two lists, beginning
+	 * at the indexes provided.
+	 *
+	 * @param baseLines  the lines of the base content
+	 * @param baseIdx  the index of the first line of the base content to compare
+	 * @param lines  the lines of the new content
+	 * @param lineIdx  the index of the first line of the new content to compare
+	 * @return int
+	 */
+	private static int getMatchLength(List<String> baseLines, int baseIdx, List<String> lines, int lineIdx) {
+		int length = 0;
+
+		while (((baseIdx + length) < baseLines.size()) && ((lineIdx + length) < lines.size())
+				&& baseLines.get( baseIdx + length ).equals( lines.get( lineIdx + length ) )) {
+			length++;
+		}
+		return length;
+	}
+
+	/**
+	 * Splits the given content into lines.  Each line includes its terminating line-feed
+	 * character (if any) so that the original content can be reproduced exactly.
+	 *
+	 * @param content  the content to split
+	 * @return List<String>
+	 */
+	private static List<String> toLines(byte[] content) {
+		String text = new String( content, StandardCharsets.ISO_8859_1 );
+		List<String> lines = new ArrayList<>();
+		int lineStart = 0;
+
+		while (lineStart < text.length()) {
+			int lineEnd = text.indexOf( '\n', lineStart ) + 1;
+
+			if (lineEnd == 0) {
+				lineEnd = text.length();
+			}
+			lines.add( text.substring( lineStart, lineEnd ) );
+			lineStart = lineEnd;
+		}
+		return lines;
+	}
+
+}
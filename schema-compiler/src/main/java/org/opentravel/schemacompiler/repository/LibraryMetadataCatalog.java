@@ -0,0 +1,338 @@
+/**
+ * Copyright (C) 2014 OpenTravel Alliance (info@opentravel.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opentravel.schemacompiler.repository;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import javax.xml.datatype.XMLGregorianCalendar;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.opentravel.ns.ota2.repositoryinfo_v01_00.LibraryInfoType;
+
+/**
+ * In-memory catalog of the library meta-data records in a repository, organized by base
+ * namespace. The records for a base namespace are read from the repository's meta-data files
+ * the first time they are requested. After that point, the catalog is updated by the file
+ * manager as records are saved and as change sets are committed or rolled back, so that listing
+ * the items of a namespace does not require the meta-data files to be parsed again.
+ *
+ * <p>
+ * Before a cached namespace is returned, the modification times of its folders and meta-data
+ * files are compared with the ones that were recorded when the records were loaded. If any of
+ * them have changed (for example, because another process or a Subversion update has modified
+ * the repository), the records for the namespace are read again from the file system.
+ *
+ * <p>
+ * Records are copied when they are returned by the catalog, so callers are free to modify them
+ * without affecting the contents of the catalog.
+ *
+ * @author S. Livezey
+ */
+class LibraryMetadataCatalog {
+
+    private static Log log = LogFactory.getLog(LibraryMetadataCatalog.class);
+
+    private RepositoryFileManager fileManager;
+    private Map<String,NamespaceRecords> namespaceRecords = new HashMap<>();
+    private Map<File,String> fileNamespaces = new HashMap<>();
+
+    /**
+     * Constructor that specifies the file manager for the repository whose meta-data is to be
+     * cataloged.
+     *
+     * @param fileManager
+     *            the file manager for the repository
+     */
+    public LibraryMetadataCatalog(RepositoryFileManager fileManager) {
+        this.fileManager = fileManager;
+    }
+
+    /**
+     * Returns copies of the meta-data records for all items published to the specified base
+     * namespace.
+     *
+     * @param baseNamespace
+     *            the base namespace (no version identifier) for which to return records
+     * @return List<LibraryInfoType>
+     * @throws RepositoryException
+     *             thrown if the namespace URI provided is not valid
+     */
+    public synchronized List<LibraryInfoType> getMetadataRecords(String baseNamespace)
+            throws RepositoryException {
+        NamespaceRecords records = namespaceRecords.get(baseNamespace);
+        List<LibraryInfoType> metadataList = new ArrayList<>();
+
+        if ((records == null) || records.isModified()) {
+            records = loadNamespace(baseNamespace);
+        }
+        for (LibraryInfoType libraryMetadata : records.metadata.values()) {
+            metadataList.add(copyMetadata(libraryMetadata));
+        }
+        return metadataList;
+    }
+
+    /**
+     * Updates the catalog to reflect the current content of the given files. Files that are not
+     * library meta-data files are ignored.
+     *
+     * @param files
+     *            the repository files that may have been created, modified or deleted
+     */
+    public synchronized void refresh(Collection<File> files) {
+        for (File file : files) {
+            if (fileManager.isLibraryMetadataFile(file)) {
+                File fileKey = getFileKey(file);
+                String previousNamespace = fileNamespaces.remove(fileKey);
+                LibraryInfoType libraryMetadata = file.exists() ? loadMetadata(file) : null;
+
+                if (previousNamespace != null) {
+                    namespaceRecords.get(previousNamespace).remove(fileKey);
+                }
+                if (libraryMetadata != null) {
+                    String baseNamespace = libraryMetadata.getBaseNamespace();
+                    NamespaceRecords records = namespaceRecords.get(baseNamespace);
+
+                    // Namespaces that have not been loaded will be read from disk when requested
+                    if (records != null) {
+                        records.put(fileKey, libraryMetadata);
+                        fileNamespaces.put(fileKey, baseNamespace);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the meta-data records of the specified base namespace from the file system and
+     * replaces any records of the namespace that were previously cached.
+     *
+     * @param baseNamespace
+     *            the base namespace for which to load records
+     * @return NamespaceRecords
+     * @throws RepositoryException
+     *             thrown if the namespace URI provided is not valid
+     */
+    private NamespaceRecords loadNamespace(String baseNamespace) throws RepositoryException {
+        NamespaceRecords previousRecords = namespaceRecords.remove(baseNamespace);
+        File baseFolder = fileManager.getNamespaceFolder(baseNamespace, null);
+        NamespaceRecords records = new NamespaceRecords(getFileKey(baseFolder));
+
+        if (previousRecords != null) {
+            fileNamespaces.keySet().removeAll(previousRecords.metadata.keySet());
+        }
+
+        // Record the folder times before the files are read so that concurrent changes are
+        // detected by the next request
+        records.recordTimestamp(records.baseFolder);
+
+        for (File folderMember : listFiles(baseFolder)) {
+            if (folderMember.isDirectory()) {
+                records.recordTimestamp(getFileKey(folderMember));
+            }
+        }
+        for (File metadataFile : fileManager.findLibraryMetadataFiles(baseNamespace)) {
+            File fileKey = getFileKey(metadataFile);
+            FileTime timestamp = getTimestamp(fileKey);
+            LibraryInfoType libraryMetadata = loadMetadata(metadataFile);
+
+            if ((libraryMetadata != null)
+                    && baseNamespace.equals(libraryMetadata.getBaseNamespace())) {
+                records.metadata.put(fileKey, libraryMetadata);
+                records.timestamps.put(fileKey, timestamp);
+                fileNamespaces.put(fileKey, baseNamespace);
+            }
+        }
+        namespaceRecords.put(baseNamespace, records);
+        return records;
+    }
+
+    /**
+     * Returns the members of the given folder, or an empty array if the folder does not exist.
+     *
+     * @param folder
+     *            the folder whose members are to be returned
+     * @return File[]
+     */
+    private static File[] listFiles(File folder) {
+        File[] folderMembers = folder.listFiles();
+
+        return (folderMembers == null) ? new File[0] : folderMembers;
+    }
+
+    /**
+     * Returns the last-modified time of the given file, or null if the file does not exist.
+     *
+     * @param file
+     *            the file or folder whose modification time is to be returned
+     * @return FileTime
+     */
+    private static FileTime getTimestamp(File file) {
+        FileTime timestamp = null;
+        try {
+            timestamp = Files.getLastModifiedTime(file.toPath());
+
+        } catch (IOException e) {
+            // No action - the file does not exist or cannot be accessed
+        }
+        return timestamp;
+    }
+
+    /**
+     * Loads the meta-data record from the given file, or returns null if the file cannot be read.
+     *
+     * @param metadataFile
+     *            the library meta-data file to load
+     * @return LibraryInfoType
+     */
+    private LibraryInfoType loadMetadata(File metadataFile) {
+        LibraryInfoType libraryMetadata = null;
+        try {
+            libraryMetadata = (LibraryInfoType) fileManager.loadFile(metadataFile);
+
+        } catch (RepositoryException e) {
+            log.warn("Unreadable library meta-data file: " + metadataFile.getAbsolutePath());
+        }
+        return libraryMetadata;
+    }
+
+    /**
+     * Returns a normalized form of the given file that can be used as a key in the catalog.
+     *
+     * @param file
+     *            the file for which to return a key
+     * @return File
+     */
+    private File getFileKey(File file) {
+        return file.toPath().toAbsolutePath().normalize().toFile();
+    }
+
+    /**
+     * Returns a copy of the given library meta-data record.
+     *
+     * @param source
+     *            the meta-data record to copy
+     * @return LibraryInfoType
+     */
+    private LibraryInfoType copyMetadata(LibraryInfoType source) {
+        LibraryInfoType libraryMetadata = new LibraryInfoType();
+        XMLGregorianCalendar lastUpdated = source.getLastUpdated();
+
+        libraryMetadata.setNamespace(source.getNamespace());
+        libraryMetadata.setBaseNamespace(source.getBaseNamespace());
+        libraryMetadata.setFilename(source.getFilename());
+        libraryMetadata.setLibraryName(source.getLibraryName());
+        libraryMetadata.setVersion(source.getVersion());
+        libraryMetadata.setVersionScheme(source.getVersionScheme());
+        libraryMetadata.setStatus(source.getStatus());
+        libraryMetadata.setState(source.getState());
+        libraryMetadata.setLockedBy(source.getLockedBy());
+        libraryMetadata.setLastUpdated((lastUpdated == null) ? null : (XMLGregorianCalendar) lastUpdated.clone());
+        libraryMetadata.setOwningRepository(source.getOwningRepository());
+        return libraryMetadata;
+    }
+
+    /**
+     * The cached meta-data records of a single base namespace, along with the modification
+     * times of the folders and files from which they were loaded.
+     */
+    private static class NamespaceRecords {
+
+        private File baseFolder;
+        private Map<File,LibraryInfoType> metadata = new LinkedHashMap<>();
+        private Map<File,FileTime> timestamps = new HashMap<>();
+
+        /**
+         * Constructor that specifies the base folder of the namespace.
+         *
+         * @param baseFolder
+         *            the folder that contains the version folders of the namespace
+         */
+        public NamespaceRecords(File baseFolder) {
+            this.baseFolder = baseFolder;
+        }
+
+        /**
+         * Returns true if any of the folders or files from which the records were loaded have
+         * been modified, created or deleted since they were last recorded.
+         *
+         * @return boolean
+         */
+        public boolean isModified() {
+            boolean modified = false;
+
+            for (Map.Entry<File,FileTime> entry : timestamps.entrySet()) {
+                if (!Objects.equals(entry.getValue(), getTimestamp(entry.getKey()))) {
+                    modified = true;
+                    break;
+                }
+            }
+            return modified;
+        }
+
+        /**
+         * Adds or replaces the record for the given meta-data file, and records the current
+         * modification times of the file and the folders that contain it.
+         *
+         * @param fileKey
+         *            the normalized location of the meta-data file
+         * @param libraryMetadata
+         *            the meta-data record that was loaded from the file
+         */
+        public void put(File fileKey, LibraryInfoType libraryMetadata) {
+            metadata.put(fileKey, libraryMetadata);
+            recordTimestamp(fileKey);
+            recordTimestamp(fileKey.getParentFile());
+            recordTimestamp(baseFolder);
+        }
+
+        /**
+         * Removes the record for the given meta-data file, and records the current modification
+         * times of the folders that contained it.
+         *
+         * @param fileKey
+         *            the normalized location of the meta-data file
+         */
+        public void remove(File fileKey) {
+            metadata.remove(fileKey);
+            timestamps.remove(fileKey);
+            recordTimestamp(fileKey.getParentFile());
+            recordTimestamp(baseFolder);
+        }
+
+        /**
+         * Records the current modification time of the given file or folder.
+         *
+         * @param file
+         *            the file or folder whose modification time is to be recorded
+         */
+        public void recordTimestamp(File file) {
+            timestamps.put(file, getTimestamp(file));
+        }
+
+    }
+
+}
@@ -42,6 +42,7 @@ import org.opentravel.ns.ota2.project_v01_00.ProjectType;
 import org.opentravel.ns.ota2.project_v01_00.RepositoryRefType;
 import org.opentravel.ns.ota2.project_v01_00.UnmanagedProjectItemType;
 import org.opentravel.ns.ota2.repositoryinfo_v01_00.LibraryInfoType;
+import org.opentravel.ns.ota2.repositoryinfo_v01_00.RepositoryItemIdentityType;
 import org.opentravel.ns.ota2.repositoryinfo_v01_00.RepositoryPermission;
 import org.opentravel.schemacompiler.codegen.CodeGenerationFilter;
 import org.opentravel.schemacompiler.codegen.impl.DependencyFilterBuilder;
@@ -71,6 +72,8 @@ import org.opentravel.schemacompiler.repository.impl.BuiltInProject;
 import org.opentravel.schemacompiler.repository.impl.ProjectFileUtils;
 import org.opentravel.schemacompiler.repository.impl.ProjectItemDependencyNavigator;
 import org.opentravel.schemacompiler.repository.impl.ProjectItemImpl;
+import org.opentravel.schemacompiler.repository.impl.RemoteRepositoryClient;
+import org.opentravel.schemacompiler.repository.impl.RepositoryItemPrefetcher;
 import org.opentravel.schemacompiler.repository.impl.RepositoryUtils;
 import org.opentravel.schemacompiler.saver.LibraryModelSaver;
 import org.opentravel.schemacompiler.saver.LibrarySaveException;
@@ -97,7 +100,8 @@ public final class ProjectManager {
 
     private static Log log = LogFactory.getLog(ProjectManager.class);
 
-    private static Map<TLModel,ProjectManager> instanceMap = new HashMap<>();
+    private static Map<TLModel,ProjectManager> instanceMap =
+            Collections.synchronizedMap(new HashMap<>());
 
     private RepositoryManager repositoryManager;
     private List<Project> projects = new ArrayList<>();
@@ -334,8 +338,10 @@ public final class ProjectManager {
             // Attempt to register any new repositories that are defined in this project file
             registerUnknownRepositories(jaxbProject, projectFile, loaderFindings);
             
-            // Reset the download cache for all remote repositories
+            // Reset the download cache for all remote repositories and download the project's
+            // managed items (and their dependencies) before loading the model
             repositoryManager.resetDownloadCache();
+            prefetchManagedItems(jaxbProject);
             
             // Construct the new project instance and add it to the current list of projects
             project = new Project(this);
@@ -1159,6 +1165,49 @@ public final class ProjectManager {
         return pItems;
     }
 
+    /**
+     * Downloads the managed items of the given project, along with the transitive closure of
+     * the repository items that they import, before the project's model is constructed. Items
+     * are first requested from each remote repository that is explicitly identified by the
+     * project file using a single request. If any of the items are managed by a remote
+     * repository, the project items that were not delivered by those requests are then resolved
+     * concurrently, followed by each level of the items that they import.
+     * 
+     * @param jaxbProject
+     *            the JAXB project whose managed items are to be downloaded
+     */
+    private void prefetchManagedItems(ProjectType jaxbProject) {
+        Map<RemoteRepositoryClient,List<RepositoryItemIdentityType>> remoteItems = new HashMap<>();
+        List<ManagedProjectItemType> projectItems = new ArrayList<>();
+
+        for (JAXBElement<? extends ProjectItemType> jaxbItem : jaxbProject.getProjectItemBase()) {
+            if (jaxbItem.getValue() instanceof ManagedProjectItemType) {
+                ManagedProjectItemType projectItem = (ManagedProjectItemType) jaxbItem.getValue();
+                Repository repository = repositoryManager.getRepository(projectItem.getRepository());
+
+                projectItems.add(projectItem);
+
+                if (repository instanceof RemoteRepositoryClient) {
+                    RepositoryItemIdentityType itemIdentity = new RepositoryItemIdentityType();
+
+                    itemIdentity.setBaseNamespace(projectItem.getBaseNamespace());
+                    itemIdentity.setFilename(projectItem.getFilename());
+                    itemIdentity.setVersion(projectItem.getVersion());
+                    remoteItems.computeIfAbsent((RemoteRepositoryClient) repository,
+                            r -> new ArrayList<>()).add(itemIdentity);
+                }
+            }
+        }
+        List<RepositoryItemIdentityType> deliveredItems = new ArrayList<>();
+
+        for (Map.Entry<RemoteRepositoryClient,List<RepositoryItemIdentityType>> entry : remoteItems.entrySet()) {
+            deliveredItems.addAll(entry.getKey().downloadContent(entry.getValue(), false));
+        }
+        if (!remoteItems.isEmpty()) {
+            new RepositoryItemPrefetcher(repositoryManager).prefetch(projectItems, deliveredItems);
+        }
+    }
+
     /**
      * Creates new <code>ProjectItems</code> to represent each of the managed and unmanaged library
      * resources (.otm or .xsd), and adds them to the contents of the project.
@@ -0,0 +1,41 @@
+/**
+ * Copyright (C) 2014 OpenTravel Alliance (info@opentravel.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opentravel.schemacompiler.repository;
+
+/**
+ * Indicates the outcome of a request that was sent to a remote repository as part of a federated
+ * operation such as a search.
+ * 
+ * @author S. Livezey
+ */
+public enum RemoteRepositoryStatus {
+
+    /**
+     * Indicates that the remote repository responded successfully.
+     */
+    AVAILABLE,
+
+    /**
+     * Indicates that the remote repository returned an error or could not be contacted.
+     */
+    UNAVAILABLE,
+
+    /**
+     * Indicates that the remote repository did not respond before the deadline of the request.
+     */
+    TIMED_OUT
+
+}
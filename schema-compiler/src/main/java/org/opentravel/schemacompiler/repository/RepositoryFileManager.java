@@ -27,6 +27,11 @@ import java.io.OutputStream;
 import java.io.Writer;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
@@ -63,6 +68,11 @@ import com.sun.xml.bind.marshaller.NamespacePrefixMapper;
  * thread. Once a repository operation has been completed, the files in the change set must be
  * committed or rolled back by the repository manager.
  * 
+ * <p>
+ * Files are never rewritten in place by the 'saveFile()' methods. New content is written to a
+ * temporary file in the same folder, forced to disk, and then atomically renamed over the
+ * original file.
+ * 
  * @author S. Livezey
  */
 public abstract class RepositoryFileManager {
@@ -95,6 +105,7 @@ public abstract class RepositoryFileManager {
     private ThreadLocal<String> currentUserId = ThreadLocal.withInitial( () -> null );
     
     private File repositoryLocation;
+    private LibraryMetadataCatalog metadataCatalog = new LibraryMetadataCatalog(this);
 
     /**
      * Constructor that initializes a new instance used for managing and retrieving files in an
@@ -353,7 +364,10 @@ public abstract class RepositoryFileManager {
     }
 
     /**
-     * Returns a list meta-data records for all items published to the specified namespace.
+     * Returns a list meta-data records for all items published to the specified namespace. The
+     * records are maintained in an in-memory catalog, so the repository's meta-data files are only
+     * read the first time a namespace is requested and when they are saved, committed or rolled
+     * back.
      * 
      * @param baseNamespace
      *            the base namespace (no version identifier) to search for published items
@@ -363,7 +377,34 @@ public abstract class RepositoryFileManager {
      */
     public List<LibraryInfoType> loadLibraryMetadataRecords(String baseNamespace)
             throws RepositoryException {
-        List<LibraryInfoType> metadataList = new ArrayList<>();
+        return metadataCatalog.getMetadataRecords(baseNamespace);
+    }
+
+    /**
+     * Updates the meta-data catalog to reflect the current content of the given library
+     * meta-data file. This method only needs to be called when a meta-data file has been created,
+     * modified or deleted outside of a change set.
+     * 
+     * @param metadataFile
+     *            the library meta-data file that was modified
+     */
+    public void refreshLibraryMetadata(File metadataFile) {
+        metadataCatalog.refresh(Collections.singleton(metadataFile));
+    }
+
+    /**
+     * Returns the library meta-data files that may contain records for items published to the
+     * specified namespace.
+     * 
+     * @param baseNamespace
+     *            the base namespace (no version identifier) to search for meta-data files
+     * @return List<File>
+     * @throws RepositoryException
+     *             thrown if the namespace URI provided is not valid
+     */
+    protected List<File> findLibraryMetadataFiles(String baseNamespace)
+            throws RepositoryException {
+        List<File> metadataFiles = new ArrayList<>();
 
         // First, compile the list of possible folders for the specified base namespace
         File baseFolder = getNamespaceFolder(baseNamespace, null);
@@ -379,22 +420,24 @@ public abstract class RepositoryFileManager {
 
             for (File nsFolder : namespaceFolders) {
                 for (File folderMember : nsFolder.listFiles()) {
-                    if (folderMember.isFile() && folderMember.getName().endsWith(METADATA_FILE_SUFFIX)) {
-                        try {
-                            LibraryInfoType libraryMetadata = (LibraryInfoType) loadFile(folderMember);
-
-                            if (baseNamespace.equals(libraryMetadata.getBaseNamespace())) {
-                                metadataList.add(libraryMetadata);
-                            }
-                        } catch (RepositoryException e) {
-                            log.warn("Unreadable library meta-data file: "
-                                    + folderMember.getAbsolutePath());
-                        }
+                    if (folderMember.isFile() && isLibraryMetadataFile(folderMember)) {
+                        metadataFiles.add(folderMember);
                     }
                 }
             }
         }
-        return metadataList;
+        return metadataFiles;
+    }
+
+    /**
+     * Returns true if the given file is a library meta-data file.
+     * 
+     * @param file
+     *            the file to check
+     * @return boolean
+     */
+    protected boolean isLibraryMetadataFile(File file) {
+        return file.getName().endsWith(METADATA_FILE_SUFFIX);
     }
 
     /**
@@ -425,6 +468,7 @@ public abstract class RepositoryFileManager {
         }
         
         saveFile(metadataFile, objectFactory.createLibraryInfo(libraryMetadata), true);
+        metadataCatalog.refresh(Collections.singleton(metadataFile));
         return metadataFile;
     }
 
@@ -740,6 +784,21 @@ public abstract class RepositoryFileManager {
      *             thrown if one or more 'nsid.txt' files cannot be created
      */
     public void createNamespaceIdFiles(String baseNamespace) throws RepositoryException {
+        synchronized (namespaceIdCache) {
+            createNamespaceIdFilesInternal(baseNamespace);
+        }
+    }
+
+    /**
+     * Creates the namespace folders and 'nsid.txt' files for the specified base namespace. The
+     * caller must hold the lock on the namespace ID cache.
+     * 
+     * @param baseNamespace
+     *            the base namespace for which to create namespace ID files
+     * @throws RepositoryException
+     *             thrown if one or more 'nsid.txt' files cannot be created
+     */
+    private void createNamespaceIdFilesInternal(String baseNamespace) throws RepositoryException {
         List<String> rootNamespaces = loadRepositoryMetadata().getRootNamespace();
         String ns = baseNamespace;
 
@@ -962,7 +1021,12 @@ public abstract class RepositoryFileManager {
             if (log.isDebugEnabled()) {
                 log.debug("Committing repository change set: " + Thread.currentThread().getName());
             }
-            commitChangeSet(chgSet);
+            try {
+                commitChangeSet(chgSet);
+
+            } finally {
+                metadataCatalog.refresh(chgSet);
+            }
         }
         chgSet.clear();
 
@@ -994,7 +1058,12 @@ public abstract class RepositoryFileManager {
             if (log.isDebugEnabled()) {
                 log.debug("Rolling back repository change set: " + Thread.currentThread().getName());
             }
-            rollbackChangeSet(chgSet);
+            try {
+                rollbackChangeSet(chgSet);
+
+            } finally {
+                metadataCatalog.refresh(chgSet);
+            }
         }
         chgSet.clear();
 
@@ -1115,12 +1184,16 @@ public abstract class RepositoryFileManager {
                     });
             marshaller.setSchema(repositoryValidationSchema);
 
-            if (addToChangeSet) {
-                addToChangeSet(file);
+            File tempFile = newTempFile(file);
+            try {
+                marshaller.marshal(jaxbElement, tempFile);
+                replaceFile(tempFile, file, addToChangeSet);
+
+            } finally {
+                Files.deleteIfExists(tempFile.toPath());
             }
-            marshaller.marshal(jaxbElement, file);
 
-        } catch (JAXBException e) {
+        } catch (JAXBException | IOException e) {
             throw new RepositoryException("Unknown error while repository file: " + file.getName(),
                     e);
         }
@@ -1143,9 +1216,8 @@ public abstract class RepositoryFileManager {
     
     /**
      * Saves the content from the given <code>InputStream</code> to the specified file. If a file
-     * already exists at the specified location, it will be overwritten by the content that is
-     * passed to this method. The file that is saved is automatically added to the current change
-     * set.
+     * already exists at the specified location, it will be replaced by the content that is passed
+     * to this method. The file that is saved is automatically added to the current change set.
      * 
      * @param repositoryFile
      *            the file location where the content is to be saved
@@ -1155,21 +1227,91 @@ public abstract class RepositoryFileManager {
      *             thrown if the content cannot be saved
      */
     public void saveFile(File file, InputStream fileContent) throws RepositoryException {
-        try (OutputStream out = new FileOutputStream(file)) {
-            addToChangeSet(file);
-            byte[] buffer = new byte[1024];
-            int bytesRead;
+        try {
+            File tempFile = newTempFile(file);
+            try {
+                try (OutputStream out = new FileOutputStream(tempFile)) {
+                    byte[] buffer = new byte[8192];
+                    int bytesRead;
+
+                    while ((bytesRead = fileContent.read(buffer)) >= 0) {
+                        out.write(buffer, 0, bytesRead);
+                    }
+                    fileContent.close();
+                }
+                replaceFile(tempFile, file, true);
 
-            while ((bytesRead = fileContent.read(buffer)) >= 0) {
-                out.write(buffer, 0, bytesRead);
+            } finally {
+                Files.deleteIfExists(tempFile.toPath());
             }
-            fileContent.close();
 
         } catch (IOException e) {
             throw new RepositoryException("Error saving file: " + file.getName(), e);
         }
     }
 
+    /**
+     * Creates a new temporary file in the same folder as the given file, so that it can be renamed
+     * over the file once its content has been written.
+     * 
+     * @param file
+     *            the file whose content is to be replaced
+     * @return File
+     * @throws IOException
+     *             thrown if the temporary file cannot be created
+     */
+    private File newTempFile(File file) throws IOException {
+        return File.createTempFile(file.getName() + "-", ".tmp", file.getAbsoluteFile().getParentFile());
+    }
+
+    /**
+     * Forces the content of the given temporary file to disk and atomically renames it over the
+     * target file. If requested, the target file is recorded in the current change set before it
+     * is replaced.
+     * 
+     * @param tempFile
+     *            the temporary file that contains the new content
+     * @param file
+     *            the file to be replaced
+     * @param addToChangeSet
+     *            flag indicating whether the replaced file should be added to the current change set
+     * @throws RepositoryException
+     *             thrown if the file cannot be added to the change set
+     * @throws IOException
+     *             thrown if the file cannot be replaced
+     */
+    private void replaceFile(File tempFile, File file, boolean addToChangeSet)
+            throws RepositoryException, IOException {
+        try (FileChannel channel = FileChannel.open(tempFile.toPath(), StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        if (addToChangeSet) {
+            addReplacedFileToChangeSet(file);
+        }
+        try {
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Adds a file to the current change set immediately before it is replaced by the 'saveFile()'
+     * methods. Unlike the files that are passed to <code>addToChangeSet()</code>, the existing
+     * content of a replaced file is never modified in place. By default, this method simply calls
+     * <code>addToChangeSet()</code>.
+     * 
+     * @param file
+     *            the file that is about to be replaced
+     * @throws RepositoryException
+     *             thrown if the file cannot be added to the change set
+     */
+    protected void addReplacedFileToChangeSet(File file) throws RepositoryException {
+        addToChangeSet(file);
+    }
+
     /**
      * Initializes the location of the repository home folder.
      */
@@ -17,16 +17,29 @@
 package org.opentravel.schemacompiler.repository;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
 
+import javax.xml.datatype.XMLGregorianCalendar;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.opentravel.ns.ota2.repositoryinfo_v01_00.LibraryHistoryItemType;
 import org.opentravel.ns.ota2.repositoryinfo_v01_00.LibraryHistoryType;
-import org.opentravel.ns.ota2.repositoryinfo_v01_00.ObjectFactory;
 import org.opentravel.ns.ota2.repositoryinfo_v01_00.RepositoryItemIdentityType;
 import org.opentravel.schemacompiler.util.FileUtils;
 import org.opentravel.schemacompiler.xml.XMLGregorianCalendarConverter;
@@ -35,13 +48,61 @@ import org.opentravel.schemacompiler.xml.XMLGregorianCalendarConverter;
  * Maintains a persistent history of all commits to managed <code>RepositoryItem</code>s
  * within an OTM repository.
  * 
+ * <p>The commits of each item are recorded in an append-only commit log.  The content of
+ * each commit is stored as a compressed delta against the content of the previous commit,
+ * except for every Nth commit, which is stored as a compressed snapshot of the item's full
+ * content.  The snapshot interval can be configured using the
+ * <code>ota2.repository.historySnapshotInterval</code> system property (default: 10).
+ * When the content of a commit is requested, it is rebuilt from the nearest snapshot and
+ * cached outside of the repository (so that it is never mistaken for repository content by
+ * version control) in the folder identified by the <code>ota2.repository.historyCacheFolder</code>
+ * system property (default: <code>.ota2/history-cache</code> in the system's temp folder).
+ * The size of that folder is limited by the <code>ota2.repository.historyCacheLimit</code>
+ * system property (in bytes, default: 256 MB).  When the limit is exceeded, the least
+ * recently used copies are deleted until the folder is back under three quarters of the
+ * limit.  Copies that were used within the last minute are never deleted.
+ * 
+ * <p>The parsed commits of recently accessed items are cached in memory, so that the commit
+ * in effect on a given date can be found with a binary search instead of re-reading the
+ * item's commit log.  The number of items in the cache can be configured using the
+ * <code>ota2.repository.historyCacheSize</code> system property (default: 256).
+ * 
+ * <p>Histories that were created by earlier versions of the repository (an XML history
+ * file along with an uncompressed copy of the content for every commit) remain readable,
+ * and are converted to a commit log when the next commit is added.
+ * 
  * @author S. Livezey
  */
 public class RepositoryHistoryManager {
 	
-	private static ObjectFactory objFactory = new ObjectFactory();
+	public static final String SNAPSHOT_INTERVAL_PROPERTY = "ota2.repository.historySnapshotInterval";
+	public static final String HISTORY_CACHE_SIZE_PROPERTY = "ota2.repository.historyCacheSize";
+	public static final String HISTORY_CACHE_FOLDER_PROPERTY = "ota2.repository.historyCacheFolder";
+	public static final String HISTORY_CACHE_LIMIT_PROPERTY = "ota2.repository.historyCacheLimit";
+	
+	private static final int DEFAULT_SNAPSHOT_INTERVAL = 10;
+	private static final int DEFAULT_HISTORY_CACHE_SIZE = 256;
+	private static final String DEFAULT_HISTORY_CACHE_FOLDER = ".ota2/history-cache";
+	private static final long DEFAULT_HISTORY_CACHE_LIMIT = 256L * 1024L * 1024L;
+	private static final long CACHE_EVICTION_GRACE_PERIOD = 60000L;
+	
+	private static Log log = LogFactory.getLog( RepositoryHistoryManager.class );
+	
+	private static final Object contentCacheLock = new Object();
+	private static File contentCacheFolder;
+	private static long contentCacheSize = -1L;
 	
 	private RepositoryManager manager;
+	private Map<File,CommitTimeline> timelineCache = new LinkedHashMap<File,CommitTimeline>( 16, 0.75f, true ) {
+		
+		private static final long serialVersionUID = 1L;
+		
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<File,CommitTimeline> eldest) {
+			return size() > getHistoryCacheSize();
+		}
+		
+	};
 	
 	/**
 	 * Constructor that specifies the <code>RepositoryManager</code> for which the
@@ -65,62 +126,58 @@ public class RepositoryHistoryManager {
 	 */
 	protected void addToHistory(RepositoryItem item, Date effectiveOn, String remarks)
 			throws RepositoryException {
+		RepositoryFileManager fileManager = manager.getFileManager();
+		List<LibraryHistoryItemType> commits = getTimeline( item ).getCommits();
 		LibraryHistoryItemType newCommit = new LibraryHistoryItemType();
-		File historyFile = getHistoryFile( item );
+		String userId = fileManager.getCurrentUserId();
+		int commitNumber = commits.isEmpty() ? 0 : (commits.get( commits.size() - 1 ).getCommitNumber() + 1);
+		File contentFile = fileManager.getLibraryContentLocation(
+				item.getBaseNamespace(), item.getFilename(), item.getVersion() );
 		File hContentFile;
-		LibraryHistoryType history = loadHistoryFile( historyFile );
-		String userId = manager.getFileManager().getCurrentUserId();
-		int commitNumber = 0;
 		
-		// Update (or create) the repository item's history log file
-		if (history == null) { // new history file
-			RepositoryItemIdentityType itemIdentity = new RepositoryItemIdentityType();
-			
-			itemIdentity.setBaseNamespace( item.getBaseNamespace() );
-			itemIdentity.setFilename( item.getFilename() );
-			itemIdentity.setVersion( item.getVersion() );
+		// Save the contents of the repository item's library (i.e. the .otm file) as a delta
+		// against the previous commit, or as a full snapshot at each snapshot interval
+		try {
+			byte[] content = Files.readAllBytes( contentFile.toPath() );
+			byte[] baseContent = null;
 			
-			history = new LibraryHistoryType();
-			history.setRepositoryItemIdentity( itemIdentity );
+			if (!commits.isEmpty() && ((commitNumber % getSnapshotInterval()) != 0)) {
+				try {
+					baseContent = readContent( item, commits, commits.size() - 1 );
+					
+				} catch (IOException e) {
+					log.warn( "Unable to rebuild previous commit of " + item.getFilename()
+							+ " - saving a snapshot instead.", e );
+				}
+			}
+			hContentFile = getHistoricalContentFile( item, commitNumber, (baseContent == null) ?
+					HistoryContentStore.SNAPSHOT_SUFFIX : HistoryContentStore.DELTA_SUFFIX );
+			fileManager.createDirectory( hContentFile.getParentFile() );
+			fileManager.addToChangeSet( hContentFile );
 			
-		} else { // identify the next commit number
-			for (LibraryHistoryItemType commitItem : history.getLibraryHistoryItem()) {
-				commitNumber = Math.max( commitNumber, commitItem.getCommitNumber() );
+			if (baseContent == null) {
+				HistoryContentStore.writeSnapshot( hContentFile, content );
+				
+			} else {
+				HistoryContentStore.writeDelta( hContentFile, baseContent, content );
 			}
-			commitNumber++;
+			
+		} catch (IOException e) {
+			throw new RepositoryException("Error saving historical content file.", e);
 		}
-		hContentFile = getHistoricalContentFile( item, commitNumber );
 		
+		// Append the new commit to the repository item's commit log
 		newCommit.setCommitNumber( commitNumber );
 		newCommit.setUser( (userId == null ) ? "Unknown" : userId );
 		newCommit.setEffectiveOn( XMLGregorianCalendarConverter.toXMLGregorianCalendar(
 				(effectiveOn == null) ? new Date() : effectiveOn ) );
 		newCommit.setValue( remarks );
 		newCommit.setFilename( hContentFile.getName() );
-		history.getLibraryHistoryItem().add( 0, newCommit );
-		manager.getFileManager().saveFile(
-				historyFile, objFactory.createLibraryHistory( history ), true );
-		manager.getFileManager().addToChangeSet( historyFile );
-		
-		// Copy the contents of the repository item's library (i.e. the .otm file) to a
-		// new historical data file
-		File contentFile = manager.getFileManager().getLibraryContentLocation(
-				item.getBaseNamespace(), item.getFilename(), item.getVersion() );
+		appendToCommitLog( item, commits, newCommit );
+		invalidateTimeline( item );
 		
-		try (OutputStream contentOut = new FileOutputStream( hContentFile )) {
-			try (InputStream contentIn = new FileInputStream( contentFile )) {
-				byte[] buffer = new byte[1024];
-				int bytesRead;
-				
-				while ((bytesRead = contentIn.read( buffer, 0, buffer.length )) >= 0) {
-					contentOut.write( buffer, 0, bytesRead );
-				}
-			}
-			
-		} catch (IOException e) {
-			throw new RepositoryException("Error saving historical content file.", e);
-		}
-		manager.getFileManager().addToChangeSet( hContentFile );
+		// Discard any cached content that was rebuilt for a previous use of this commit number
+		FileUtils.delete( getCachedContentFile( item, newCommit ) );
 	}
 	
 	/**
@@ -130,22 +187,24 @@ public class RepositoryHistoryManager {
 	 * @throws RepositoryException  thrown if the item's history cannot be deleted
 	 */
 	protected void deleteHistory(RepositoryItem item) throws RepositoryException {
-		File historyFile = getHistoryFile( item );
-		File historyFolder = historyFile.getParentFile();
-		LibraryHistoryType history = loadHistoryFile( historyFile );
+		File historyFolder = getHistoryFile( item ).getParentFile();
 		
-		if (history != null) {
-			for (LibraryHistoryItemType commitItem : history.getLibraryHistoryItem()) {
-				File hContentFile = new File( historyFolder, commitItem.getFilename() );
-				
-				if (hContentFile.exists()) {
-					manager.getFileManager().addToChangeSet( hContentFile );
-					FileUtils.delete( hContentFile );
-				}
+		for (LibraryHistoryItemType commitItem : getTimeline( item ).getCommits()) {
+			File hContentFile = new File( historyFolder, commitItem.getFilename() );
+			
+			if (hContentFile.exists()) {
+				manager.getFileManager().addToChangeSet( hContentFile );
+				FileUtils.delete( hContentFile );
+			}
+			FileUtils.delete( getCachedContentFile( item, commitItem ) );
+		}
+		for (File historyFile : new File[] { getCommitLogFile( item ), getHistoryFile( item ) }) {
+			if (historyFile.exists()) {
+				manager.getFileManager().addToChangeSet( historyFile );
+				FileUtils.delete( historyFile );
 			}
-			manager.getFileManager().addToChangeSet( historyFile );
-			FileUtils.delete( historyFile );
 		}
+		invalidateTimeline( item );
 	}
 	
 	/**
@@ -156,7 +215,25 @@ public class RepositoryHistoryManager {
 	 * @throws RepositoryException  thrown if the item's history cannot be retrieved
 	 */
 	public LibraryHistoryType getHistory(RepositoryItem item) throws RepositoryException {
-		return loadHistoryFile( getHistoryFile( item ) );
+		List<LibraryHistoryItemType> commits = getTimeline( item ).getCommits();
+		LibraryHistoryType history = null;
+		
+		if (!commits.isEmpty()) {
+			RepositoryItemIdentityType itemIdentity = new RepositoryItemIdentityType();
+			
+			itemIdentity.setBaseNamespace( item.getBaseNamespace() );
+			itemIdentity.setFilename( item.getFilename() );
+			itemIdentity.setVersion( item.getVersion() );
+			
+			history = new LibraryHistoryType();
+			history.setRepositoryItemIdentity( itemIdentity );
+			
+			// Most recent commits are listed first
+			for (int i = commits.size() - 1; i >= 0; i--) {
+				history.getLibraryHistoryItem().add( copyCommit( commits.get( i ) ) );
+			}
+		}
+		return history;
 	}
 	
 	/**
@@ -172,13 +249,9 @@ public class RepositoryHistoryManager {
 		if (commitNumber < 0) {
 			throw new IllegalArgumentException("Invalid commit number specified: " + commitNumber );
 		}
-		File hContentFile = getHistoricalContentFile( item, commitNumber );
+		CommitTimeline timeline = getTimeline( item );
 		
-		if (!hContentFile.exists()) {
-			throw new RepositoryException("Error retrieving historical content for "
-					+ item.getFilename() + "/" + commitNumber);
-		}
-		return hContentFile;
+		return getHistoricalContent( item, timeline.getCommits(), timeline.indexOf( commitNumber ), commitNumber );
 	}
 	
 	/**
@@ -194,47 +267,439 @@ public class RepositoryHistoryManager {
 		if (effectiveDate == null) {
 			throw new IllegalArgumentException("Effective date cannot be null");
 		}
-		File historyFile = getHistoryFile( item );
-		LibraryHistoryType history = loadHistoryFile( historyFile );
-		int commitNumber = -1;
+		CommitTimeline timeline = getTimeline( item );
+		List<LibraryHistoryItemType> commits = timeline.getCommits();
+		int commitIdx = timeline.indexAt( effectiveDate );
 		
-		if (history != null) {
-			for (LibraryHistoryItemType commitItem : history.getLibraryHistoryItem()) {
-				Date commitDate = XMLGregorianCalendarConverter.toJavaDate( commitItem.getEffectiveOn() );
+		if (commitIdx < 0) {
+			throw new RepositoryException("Historical content does not exist for "
+					+ item.getFilename() + " at effective date/time " + effectiveDate);
+		}
+		return getHistoricalContent( item, commits, commitIdx, commits.get( commitIdx ).getCommitNumber() );
+	}
+	
+	/**
+	 * Returns a file location from which the content of the specified commit can be retrieved.
+	 * Uncompressed content files are returned as-is; all other content is rebuilt and cached
+	 * (if necessary) before the location of the cached copy is returned.
+	 * 
+	 * @param item  the repository item for which to return historical content
+	 * @param commits  the commits of the repository item in ascending order
+	 * @param commitIdx  the index of the commit to return (-1 if the commit is not in the log)
+	 * @param commitNumber  the commit number for which to return the item's historical content
+	 * @return File
+	 * @throws RepositoryException  thrown if the item's historical content cannot be retrieved
+	 */
+	private File getHistoricalContent(RepositoryItem item, List<LibraryHistoryItemType> commits,
+			int commitIdx, int commitNumber) throws RepositoryException {
+		File hContentFile = (commitIdx < 0) ? getHistoricalContentFile( item, commitNumber, "" )
+				: new File( getHistoryFile( item ).getParentFile(), commits.get( commitIdx ).getFilename() );
+		
+		if (!hContentFile.exists()) {
+			throw new RepositoryException("Error retrieving historical content for "
+					+ item.getFilename() + "/" + commitNumber);
+		}
+		
+		if ((commitIdx >= 0) && HistoryContentStore.isEncoded( hContentFile )) {
+			File cacheFile = getCachedContentFile( item, commits.get( commitIdx ) );
+			
+			// Touch existing copies so that the least recently used ones are evicted first
+			if (!cacheFile.setLastModified( System.currentTimeMillis() )) {
+				try {
+					byte[] content = readContent( item, commits, commitIdx );
+					File cacheFolder = cacheFile.getParentFile();
+					File tempFile;
+					
+					Files.createDirectories( cacheFolder.toPath() );
+					tempFile = File.createTempFile( cacheFile.getName(), ".tmp", cacheFolder );
+					Files.write( tempFile.toPath(), content );
+					Files.move( tempFile.toPath(), cacheFile.toPath(),
+							StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+					addToContentCache( content.length );
+					
+				} catch (IOException e) {
+					throw new RepositoryException("Error retrieving historical content for "
+							+ item.getFilename() + "/" + commitNumber, e);
+				}
+			}
+			hContentFile = cacheFile;
+		}
+		return hContentFile;
+	}
+	
+	/**
+	 * Rebuilds the content of the specified commit, beginning with the nearest snapshot (or
+	 * cached copy) at or before that commit and applying each of the subsequent deltas.
+	 * 
+	 * @param item  the repository item for which to return historical content
+	 * @param commits  the commits of the repository item in ascending order
+	 * @param commitIdx  the index of the commit whose content is to be returned
+	 * @return byte[]
+	 * @throws IOException  thrown if the commit's content cannot be rebuilt
+	 * @throws RepositoryException  thrown if the item's history folder cannot be identified
+	 */
+	private byte[] readContent(RepositoryItem item, List<LibraryHistoryItemType> commits, int commitIdx)
+			throws IOException, RepositoryException {
+		File historyFolder = getHistoryFile( item ).getParentFile();
+		int baseIdx = commitIdx;
+		byte[] content = null;
+		
+		while (content == null) {
+			LibraryHistoryItemType commit = commits.get( baseIdx );
+			File hContentFile = new File( historyFolder, commit.getFilename() );
+			byte[] cachedContent = readCachedContent( getCachedContentFile( item, commit ) );
+			
+			if (cachedContent != null) {
+				content = cachedContent;
 				
-				if (commitDate.compareTo( effectiveDate ) <= 0) {
-					commitNumber = commitItem.getCommitNumber();
-					break;
+			} else if (!HistoryContentStore.isDelta( hContentFile )) {
+				content = HistoryContentStore.readSnapshot( hContentFile );
+				
+			} else if (baseIdx == 0) {
+				throw new IOException("Historical content snapshot not found for " + item.getFilename());
+				
+			} else {
+				baseIdx--;
+			}
+		}
+		for (int i = baseIdx + 1; i <= commitIdx; i++) {
+			content = HistoryContentStore.applyDelta(
+					new File( historyFolder, commits.get( i ).getFilename() ), content );
+		}
+		return content;
+	}
+	
+	/**
+	 * Returns the content of the given cached file, or null if the file does not exist (or was
+	 * evicted from the cache).
+	 * 
+	 * @param cacheFile  the cached content file to read
+	 * @return byte[]
+	 * @throws IOException  thrown if the cached file cannot be read
+	 */
+	private byte[] readCachedContent(File cacheFile) throws IOException {
+		try {
+			return Files.readAllBytes( cacheFile.toPath() );
+			
+		} catch (NoSuchFileException e) {
+			return null;
+		}
+	}
+	
+	/**
+	 * Records the size of a file that was added to the historical content cache, and evicts
+	 * the least recently used files if the size of the cache exceeds its limit.  The size of
+	 * the cache is computed when it is first used, and again whenever files are evicted, since
+	 * the cache folder may be shared with other processes.
+	 * 
+	 * @param fileSize  the size of the file that was added to the cache
+	 */
+	private static void addToContentCache(long fileSize) {
+		File cacheFolder = getHistoryCacheFolder();
+		long cacheLimit = getHistoryCacheLimit();
+		
+		synchronized (contentCacheLock) {
+			if ((contentCacheSize < 0) || !cacheFolder.equals( contentCacheFolder )) {
+				contentCacheFolder = cacheFolder;
+				contentCacheSize = evictContent( cacheFolder, Long.MAX_VALUE );
+				
+			} else {
+				contentCacheSize += fileSize;
+			}
+			if (contentCacheSize > cacheLimit) {
+				contentCacheSize = evictContent( cacheFolder, (cacheLimit / 4) * 3 );
+			}
+		}
+	}
+	
+	/**
+	 * Deletes the least recently used files from the given cache folder until the total size
+	 * of its files does not exceed the target size.  Files that were used within the grace
+	 * period are never deleted, so that content returned to a caller is not deleted before the
+	 * caller has read it.
+	 * 
+	 * @param cacheFolder  the cache folder from which to evict files
+	 * @param targetSize  the maximum size of the files that should remain in the cache
+	 * @return long  the total size of the files that remain in the cache
+	 */
+	private static long evictContent(File cacheFolder, long targetSize) {
+		long evictBefore = System.currentTimeMillis() - CACHE_EVICTION_GRACE_PERIOD;
+		List<File> cacheFiles = new ArrayList<>();
+		long cacheSize = 0L;
+		
+		if (cacheFolder.exists()) {
+			try (Stream<Path> cachePaths = Files.walk( cacheFolder.toPath() )) {
+				cachePaths.filter( Files::isRegularFile ).forEach( p -> cacheFiles.add( p.toFile() ) );
+				
+			} catch (IOException | UncheckedIOException e) {
+				log.warn( "Unable to list the historical content cache: " + cacheFolder.getAbsolutePath(), e );
+			}
+		}
+		for (File cacheFile : cacheFiles) {
+			cacheSize += cacheFile.length();
+		}
+		cacheFiles.sort( Comparator.comparingLong( File::lastModified ) );
+		
+		for (File cacheFile : cacheFiles) {
+			if ((cacheSize <= targetSize) || (cacheFile.lastModified() >= evictBefore)) {
+				break;
+			}
+			long fileSize = cacheFile.length();
+			
+			if (cacheFile.delete()) {
+				cacheSize -= fileSize;
+			}
+		}
+		return cacheSize;
+	}
+	
+	/**
+	 * Returns the commit timeline of the given repository item.  Timelines are returned from
+	 * the cache unless the file from which they were loaded has been modified.
+	 * 
+	 * @param item  the repository item for which to return the commit timeline
+	 * @return CommitTimeline
+	 * @throws RepositoryException  thrown if the item's history cannot be loaded
+	 */
+	private CommitTimeline getTimeline(RepositoryItem item) throws RepositoryException {
+		File timelineKey = getHistoryFile( item ).getAbsoluteFile();
+		CommitTimeline timeline;
+		
+		synchronized (timelineCache) {
+			timeline = timelineCache.get( timelineKey );
+		}
+		
+		if ((timeline == null) || !timeline.isCurrent()) {
+			timeline = loadTimeline( item );
+			
+			synchronized (timelineCache) {
+				if (timeline.isCurrent()) {
+					timelineCache.put( timelineKey, timeline );
+					
+				} else { // no history exists for the item
+					timelineCache.remove( timelineKey );
 				}
 			}
 		}
+		return timeline;
+	}
+	
+	/**
+	 * Removes the commit timeline of the given repository item from the cache.  This method
+	 * should be called whenever the item's history is modified.
+	 * 
+	 * @param item  the repository item whose commit timeline is to be removed
+	 * @throws RepositoryException  thrown if the item's history file location cannot be identified
+	 */
+	private void invalidateTimeline(RepositoryItem item) throws RepositoryException {
+		File timelineKey = getHistoryFile( item ).getAbsoluteFile();
 		
-		if (commitNumber < 0) {
-			throw new RepositoryException("Historical content does not exist for "
-					+ item.getFilename() + " at effective date/time " + effectiveDate);
+		synchronized (timelineCache) {
+			timelineCache.remove( timelineKey );
 		}
-		return getHistoricalContent( item, commitNumber );
 	}
 	
 	/**
-	 * Loads the contents of the library history file.  If the history file does not yet
-	 * exist, this method will return a null result without error.
+	 * Loads the commits of the given repository item from its commit log (or from its XML
+	 * history file if a commit log has not yet been created).  If neither file exists, this
+	 * method will return an empty timeline without error.
 	 * 
-	 * @param historyFile  the library history file to load
-	 * @return LibraryHistoryType
-	 * @throws RepositoryException  thrown if the history file's contents cannot be loaded
+	 * @param item  the repository item for which to return the commits
+	 * @return CommitTimeline
+	 * @throws RepositoryException  thrown if the item's history cannot be loaded
 	 */
-	private LibraryHistoryType loadHistoryFile(File historyFile) throws RepositoryException {
-		LibraryHistoryType history = null;
+	private CommitTimeline loadTimeline(RepositoryItem item) throws RepositoryException {
+		File commitLogFile = getCommitLogFile( item );
+		File historyFile = getHistoryFile( item );
+		File sourceFile = commitLogFile.exists() ? commitLogFile : historyFile;
+		List<LibraryHistoryItemType> commits = new ArrayList<>();
+		
+		// Record the state of the file before it is read, so that any concurrent changes will
+		// cause the timeline to be reloaded
+		long sourceLastModified = sourceFile.lastModified();
+		long sourceLength = sourceFile.length();
 		
-		if (historyFile.exists()) {
-			history = (LibraryHistoryType) manager.getFileManager().loadFile( historyFile );
+		if (commitLogFile.exists()) {
+			try {
+				for (String entry : Files.readAllLines( commitLogFile.toPath(), StandardCharsets.UTF_8 )) {
+					LibraryHistoryItemType commit = parseCommitEntry( entry );
+					
+					if (commit != null) {
+						commits.add( commit );
+					}
+				}
+				
+			} catch (IOException e) {
+				throw new RepositoryException("Error loading commit log for " + item.getFilename(), e);
+			}
+			
+		} else if (historyFile.exists()) {
+			LibraryHistoryType history = (LibraryHistoryType) manager.getFileManager().loadFile( historyFile );
+			
+			commits.addAll( history.getLibraryHistoryItem() );
 		}
-		return history;
+		return new CommitTimeline( commits, sourceFile, sourceLastModified, sourceLength );
+	}
+	
+	/**
+	 * Returns a copy of the given commit so that the cached commit timelines cannot be
+	 * modified by callers.
+	 * 
+	 * @param commit  the commit to copy
+	 * @return LibraryHistoryItemType
+	 */
+	private LibraryHistoryItemType copyCommit(LibraryHistoryItemType commit) {
+		LibraryHistoryItemType commitCopy = new LibraryHistoryItemType();
+		
+		commitCopy.setCommitNumber( commit.getCommitNumber() );
+		commitCopy.setEffectiveOn( (XMLGregorianCalendar) commit.getEffectiveOn().clone() );
+		commitCopy.setUser( commit.getUser() );
+		commitCopy.setFilename( commit.getFilename() );
+		commitCopy.setValue( commit.getValue() );
+		return commitCopy;
+	}
+	
+	/**
+	 * Appends the new commit to the commit log of the given repository item.  If the item's
+	 * history is still stored in an XML history file, the commit log is created with all of
+	 * the existing commits and the XML history file is removed.
+	 * 
+	 * @param item  the repository item whose commit log is to be appended
+	 * @param commits  the existing commits of the repository item in ascending order
+	 * @param newCommit  the commit to append
+	 * @throws RepositoryException  thrown if the commit log cannot be updated
+	 */
+	private void appendToCommitLog(RepositoryItem item, List<LibraryHistoryItemType> commits,
+			LibraryHistoryItemType newCommit) throws RepositoryException {
+		RepositoryFileManager fileManager = manager.getFileManager();
+		File commitLogFile = getCommitLogFile( item );
+		File historyFile = getHistoryFile( item );
+		boolean convertHistory = !commitLogFile.exists() && historyFile.exists();
+		List<LibraryHistoryItemType> newEntries = new ArrayList<>();
+		StringBuilder logContent = new StringBuilder();
+		
+		if (convertHistory) {
+			newEntries.addAll( commits );
+		}
+		newEntries.add( newCommit );
+		
+		for (LibraryHistoryItemType commit : newEntries) {
+			logContent.append( formatCommitEntry( commit ) ).append( '\n' );
+		}
+		fileManager.addToChangeSet( commitLogFile );
+		
+		try {
+			Files.write( commitLogFile.toPath(), logContent.toString().getBytes( StandardCharsets.UTF_8 ),
+					StandardOpenOption.CREATE, StandardOpenOption.APPEND );
+			
+		} catch (IOException e) {
+			throw new RepositoryException("Error saving commit log for " + item.getFilename(), e);
+		}
+		
+		if (convertHistory) {
+			fileManager.addToChangeSet( historyFile );
+			FileUtils.delete( historyFile );
+		}
+	}
+	
+	/**
+	 * Returns the commit log entry for the given commit.  Entries are tab-delimited, and any
+	 * tabs or line breaks in the user, filename and remarks fields are escaped.
+	 * 
+	 * @param commit  the commit for which to return a log entry
+	 * @return String
+	 */
+	private String formatCommitEntry(LibraryHistoryItemType commit) {
+		return commit.getCommitNumber() + "\t"
+				+ XMLGregorianCalendarConverter.toJavaDate( commit.getEffectiveOn() ).getTime() + "\t"
+				+ escapeField( commit.getUser() ) + "\t"
+				+ escapeField( commit.getFilename() ) + "\t"
+				+ escapeField( commit.getValue() );
 	}
 	
 	/**
-	 * Returns the location of the repository item's history file.
+	 * Parses the given commit log entry.  If the entry is incomplete or invalid, this method
+	 * will return null.
+	 * 
+	 * @param entry  the commit log entry to parse
+	 * @return LibraryHistoryItemType
+	 */
+	private LibraryHistoryItemType parseCommitEntry(String entry) {
+		String[] fields = entry.split( "\t", -1 );
+		LibraryHistoryItemType commit = null;
+		
+		if (fields.length == 5) {
+			try {
+				commit = new LibraryHistoryItemType();
+				commit.setCommitNumber( Integer.parseInt( fields[0] ) );
+				commit.setEffectiveOn( XMLGregorianCalendarConverter.toXMLGregorianCalendar(
+						new Date( Long.parseLong( fields[1] ) ) ) );
+				commit.setUser( unescapeField( fields[2] ) );
+				commit.setFilename( unescapeField( fields[3] ) );
+				commit.setValue( unescapeField( fields[4] ) );
+				
+			} catch (NumberFormatException e) {
+				commit = null;
+			}
+		}
+		return commit;
+	}
+	
+	/**
+	 * Escapes the backslash, tab and line break characters in the given commit log field.
+	 * 
+	 * @param value  the field value to escape (may be null)
+	 * @return String
+	 */
+	private String escapeField(String value) {
+		StringBuilder result = new StringBuilder();
+		
+		if (value != null) {
+			for (char ch : value.toCharArray()) {
+				switch (ch) {
+					case '\\': result.append( "\\\\" ); break;
+					case '\t': result.append( "\\t" ); break;
+					case '\n': result.append( "\\n" ); break;
+					case '\r': result.append( "\\r" ); break;
+					default: result.append( ch );
+				}
+			}
+		}
+		return result.toString();
+	}
+	
+	/**
+	 * Reverses the escaping that was applied by the <code>escapeField()</code> method.
+	 * 
+	 * @param value  the escaped field value
+	 * @return String
+	 */
+	private String unescapeField(String value) {
+		StringBuilder result = new StringBuilder();
+		boolean escaped = false;
+		
+		for (char ch : value.toCharArray()) {
+			if (escaped) {
+				switch (ch) {
+					case 't': result.append( '\t' ); break;
+					case 'n': result.append( '\n' ); break;
+					case 'r': result.append( '\r' ); break;
+					default: result.append( ch );
+				}
+				escaped = false;
+				
+			} else if (ch == '\\') {
+				escaped = true;
+				
+			} else {
+				result.append( ch );
+			}
+		}
+		return result.toString();
+	}
+	
+	/**
+	 * Returns the location of the repository item's XML history file.
 	 * 
 	 * @param item  the repository item for which to return the history file location
 	 * @return File
@@ -248,6 +713,19 @@ public class RepositoryHistoryManager {
 		return new File( getHistoryFolder( metadataFile ), filename );
 	}
 	
+	/**
+	 * Returns the location of the repository item's commit log file.
+	 * 
+	 * @param item  the repository item for which to return the commit log location
+	 * @return File
+	 * @throws RepositoryException  thrown if the item's commit log location cannot be identified
+	 */
+	private File getCommitLogFile(RepositoryItem item) throws RepositoryException {
+		File historyFile = getHistoryFile( item );
+		
+		return new File( historyFile.getParentFile(), historyFile.getName().replace( ".xml", ".log" ) );
+	}
+	
 	/**
 	 * Returns the folder location of the item's history folder.
 	 * 
@@ -266,15 +744,84 @@ public class RepositoryHistoryManager {
 	 * 
 	 * @param item  the repository item for which to return the historical content filename
 	 * @param commitNumber  the commit number at which to return the item's content
+	 * @param suffix  the suffix that identifies the storage format of the content file
 	 * @return File
 	 * @throws RepositoryException  thrown if the item's file location cannot be identified
 	 */
-	private File getHistoricalContentFile(RepositoryItem item, int commitNumber) throws RepositoryException {
+	private File getHistoricalContentFile(RepositoryItem item, int commitNumber, String suffix)
+			throws RepositoryException {
 		File metadataFile = manager.getFileManager().getLibraryMetadataLocation(
 				item.getBaseNamespace(), item.getFilename(), item.getVersion() );
-		String filename = item.getFilename() + "." + String.format( "%03d", commitNumber );
+		String filename = item.getFilename() + "." + String.format( "%03d", commitNumber ) + suffix;
 		
 		return new File( getHistoryFolder( metadataFile ), filename );
 	}
 	
+	/**
+	 * Returns the location where the rebuilt content of the given repository item is cached
+	 * for the specified commit.  Each repository is assigned its own sub-folder of the cache
+	 * folder, and the name of each cached file includes the effective date of its commit so
+	 * that content cached for a repository that has since been re-created at the same location
+	 * is never returned.
+	 * 
+	 * @param item  the repository item for which to return the cached content location
+	 * @param commit  the commit of the cached content
+	 * @return File
+	 * @throws RepositoryException  thrown if the item's file location cannot be identified
+	 */
+	private File getCachedContentFile(RepositoryItem item, LibraryHistoryItemType commit)
+			throws RepositoryException {
+		File repositoryLocation = manager.getFileManager().getRepositoryLocation().getAbsoluteFile();
+		File historyFolder = getHistoryFile( item ).getParentFile().getAbsoluteFile();
+		String historyPath = repositoryLocation.toPath().normalize().relativize(
+				historyFolder.toPath().normalize() ).toString();
+		String repositoryFolder = UUID.nameUUIDFromBytes( repositoryLocation.toPath().normalize()
+				.toString().getBytes( StandardCharsets.UTF_8 ) ).toString();
+		long effectiveOn = XMLGregorianCalendarConverter.toJavaDate( commit.getEffectiveOn() ).getTime();
+		
+		return new File( new File( new File( getHistoryCacheFolder(), repositoryFolder ), historyPath ),
+				item.getFilename() + "." + String.format( "%03d", commit.getCommitNumber() )
+						+ "." + effectiveOn );
+	}
+	
+	/**
+	 * Returns the root folder in which rebuilt historical content is cached.
+	 * 
+	 * @return File
+	 */
+	private static File getHistoryCacheFolder() {
+		String cacheFolder = System.getProperty( HISTORY_CACHE_FOLDER_PROPERTY );
+		
+		return ((cacheFolder == null) || cacheFolder.trim().isEmpty()) ?
+				new File( System.getProperty( "java.io.tmpdir" ), DEFAULT_HISTORY_CACHE_FOLDER )
+				: new File( cacheFolder.trim() );
+	}
+	
+	/**
+	 * Returns the maximum size (in bytes) of the historical content cache.
+	 * 
+	 * @return long
+	 */
+	private static long getHistoryCacheLimit() {
+		return Math.max( Long.getLong( HISTORY_CACHE_LIMIT_PROPERTY, DEFAULT_HISTORY_CACHE_LIMIT ), 0L );
+	}
+	
+	/**
+	 * Returns the number of commits between each full snapshot of an item's content.
+	 * 
+	 * @return int
+	 */
+	private static int getSnapshotInterval() {
+		return Math.max( Integer.getInteger( SNAPSHOT_INTERVAL_PROPERTY, DEFAULT_SNAPSHOT_INTERVAL ), 1 );
+	}
+	
+	/**
+	 * Returns the maximum number of commit timelines that will be cached in memory.
+	 * 
+	 * @return int
+	 */
+	private static int getHistoryCacheSize() {
+		return Math.max( Integer.getInteger( HISTORY_CACHE_SIZE_PROPERTY, DEFAULT_HISTORY_CACHE_SIZE ), 1 );
+	}
+	
 }
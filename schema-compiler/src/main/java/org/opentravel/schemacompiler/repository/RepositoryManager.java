@@ -28,12 +28,21 @@ import java.net.UnknownHostException;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.regex.Pattern;
 
 import org.apache.commons.logging.Log;
@@ -76,6 +85,7 @@ import org.opentravel.schemacompiler.validate.ValidationFindings;
 import org.opentravel.schemacompiler.version.VersionScheme;
 import org.opentravel.schemacompiler.version.VersionSchemeException;
 import org.opentravel.schemacompiler.version.VersionSchemeFactory;
+import org.opentravel.schemacompiler.version.Versioned;
 import org.opentravel.schemacompiler.xml.XMLGregorianCalendarConverter;
 
 /**
@@ -86,6 +96,8 @@ import org.opentravel.schemacompiler.xml.XMLGregorianCalendarConverter;
  */
 public class RepositoryManager implements Repository {
 
+    public static final String REMOTE_REQUEST_TIMEOUT_PROPERTY = "ota2.repository.remoteRequestTimeout";
+
 	private static final String LISTENER_INVOCATION_ERROR = "Unexpected error during listener invocation.";
 	private static final String ROOT_NS_CONFLICT = "The root namespace cannot be created because it conflicts with an existing one.";
 	private static final String ROLLBACK_ERROR = "Error rolling back the active change set.";
@@ -99,6 +111,8 @@ public class RepositoryManager implements Repository {
     private static final String REMARK_PROMOTE = "Promoted to \"{0}\" status.";
     private static final String REMARK_DEMOTE  = "Demoted to \"{0}\" status.";
     private static final String REMARK_CRC     = "Recalculated library CRC.";
+    
+    private static final long DEFAULT_REMOTE_REQUEST_TIMEOUT = 30000L;
 
     private static RepositoryManager defaultInstance;
     private static Log log = LogFactory.getLog(RepositoryManager.class);
@@ -724,6 +738,32 @@ public class RepositoryManager implements Repository {
 	@Override
 	public List<RepositoryItem> listItems(String baseNamespace, TLLibraryStatus includeStatus,
 			boolean latestVersionsOnly, RepositoryItemType itemType) throws RepositoryException {
+		return listItems( baseNamespace, includeStatus, latestVersionsOnly, itemType, null, 0 );
+	}
+
+	/**
+	 * Returns a single page of the items that would be returned by
+	 * {@link #listItems(String, TLLibraryStatus, boolean, RepositoryItemType)}. The page begins
+	 * with the first item that is sorted after the one provided, and the listing stops as soon
+	 * as the maximum number of items has been collected.
+	 * 
+	 * <p>
+	 * Only the library name, namespace, filename and version of the 'startAfter' item are used
+	 * to determine where the page begins. The item does not need to exist in the repository, so
+	 * the listing can continue even if the last item of the previous page has been deleted.
+	 * 
+	 * @param baseNamespace  the base namespace of the items to return
+	 * @param includeStatus  the latest library status to include in the results (null = all)
+	 * @param latestVersionsOnly  flag indicating whether only the latest version of each item should be returned
+	 * @param itemType  the type of repository items to be returned (null = all item types)
+	 * @param startAfter  the last item of the previous page (null for the first page)
+	 * @param maxItems  the maximum number of items to return (zero or less = all items)
+	 * @return List<RepositoryItem>
+	 * @throws RepositoryException  thrown if the items cannot be listed
+	 */
+	public List<RepositoryItem> listItems(String baseNamespace, TLLibraryStatus includeStatus,
+			boolean latestVersionsOnly, RepositoryItemType itemType, RepositoryItem startAfter,
+			int maxItems) throws RepositoryException {
         String baseNS = RepositoryNamespaceUtils.normalizeUri(baseNamespace);
         Map<String,List<RepositoryItemVersionedWrapper>> libraryVersionMap = new HashMap<>();
         List<LibraryInfoType> metadataList = fileManager.loadLibraryMetadataRecords(baseNS);
@@ -741,8 +781,7 @@ public class RepositoryManager implements Repository {
             if (localRepositoryId.equals(itemMetadata.getOwningRepository())
                     && RepositoryUtils.isInclusiveStatus(itemStatus, includeStatus)) {
                 RepositoryItem item = RepositoryUtils.createRepositoryItem(this, itemMetadata);
-                String libraryKey = item.getLibraryName() +
-                		(RepositoryItemType.LIBRARY.isItemType( item.getFilename() ) ? ":OTM" : ":OTR");
+                String libraryKey = getLibraryKey( item );
                 List<RepositoryItemVersionedWrapper> libraryVersions = libraryVersionMap.get(libraryKey);
                 
                 if (libraryVersions == null) {
@@ -756,16 +795,25 @@ public class RepositoryManager implements Repository {
         // Sort the results by the item's name first, then by descending version number
         List<String> libraryKeys = new ArrayList<>();
 
+        String startKey = (startAfter == null) ? null : getLibraryKey( startAfter );
+
         libraryKeys.addAll(libraryVersionMap.keySet());
         Collections.sort(libraryKeys);
 
         for (String libraryKey : libraryKeys) {
+            int keyOrder = (startKey == null) ? 1 : libraryKey.compareTo( startKey );
+
+            if ((keyOrder < 0) || ((keyOrder == 0) && latestVersionsOnly)) {
+                continue; // Already returned with a previous page
+            }
             List<RepositoryItemVersionedWrapper> libraryVersions = libraryVersionMap.get(libraryKey);
             String versionSchemeId = libraryVersions.get(0).getVersionScheme();
+            Comparator<Versioned> versionComparator = null;
 
             try {
                 VersionScheme versionScheme = VersionSchemeFactory.getInstance().getVersionScheme(versionSchemeId);
-                Collections.sort(libraryVersions, versionScheme.getComparator(false));
+                versionComparator = versionScheme.getComparator(false);
+                Collections.sort(libraryVersions, versionComparator);
 
             } catch (VersionSchemeException e) {
                 log.warn("Unable to sort library versions - unrecognized version scheme: "
@@ -773,20 +821,78 @@ public class RepositoryManager implements Repository {
             }
 
             if (latestVersionsOnly) {
-                RepositoryUtils.checkItemState((RepositoryItemImpl) libraryVersions.get(0).getItem(), this);
-                itemList.add(libraryVersions.get(0).getItem());
-
-            } else {
-                for (RepositoryItemVersionedWrapper itemWrapper : libraryVersions) {
-                    RepositoryUtils
-                            .checkItemState((RepositoryItemImpl) itemWrapper.getItem(), this);
-                    itemList.add(itemWrapper.getItem());
+                libraryVersions = libraryVersions.subList( 0, 1 );
+                
+            } else if (keyOrder == 0) {
+            	libraryVersions = libraryVersions.subList( getPageStartIndex(
+            			libraryVersions, startAfter, versionComparator ), libraryVersions.size() );
+            }
+            
+            for (RepositoryItemVersionedWrapper itemWrapper : libraryVersions) {
+                if ((maxItems > 0) && (itemList.size() >= maxItems)) {
+                	return itemList;
                 }
+                RepositoryUtils.checkItemState((RepositoryItemImpl) itemWrapper.getItem(), this);
+                itemList.add(itemWrapper.getItem());
             }
         }
         return itemList;
 	}
 
+	/**
+	 * Returns the key that is used to group the versions of the given item and to sort the
+	 * results of an item listing.
+	 * 
+	 * @param item  the repository item for which to return a key
+	 * @return String
+	 */
+	private static String getLibraryKey(RepositoryItem item) {
+		return item.getLibraryName() +
+				(RepositoryItemType.LIBRARY.isItemType( item.getFilename() ) ? ":OTM" : ":OTR");
+	}
+	
+	/**
+	 * Returns the index of the first version in the given (sorted) list that follows the
+	 * 'startAfter' item. If the item is no longer present in the list, its position is determined
+	 * using the version comparator.
+	 * 
+	 * @param libraryVersions  the sorted list of versions for a single library
+	 * @param startAfter  the last item of the previous page
+	 * @param versionComparator  the comparator used to sort the list (may be null)
+	 * @return int
+	 */
+	private static int getPageStartIndex(List<RepositoryItemVersionedWrapper> libraryVersions,
+			RepositoryItem startAfter, Comparator<Versioned> versionComparator) {
+		RepositoryItemVersionedWrapper startWrapper = new RepositoryItemVersionedWrapper( startAfter );
+		int startIndex = 0;
+		
+		for (int i = 0; i < libraryVersions.size(); i++) {
+			if (isSameItem( libraryVersions.get( i ).getItem(), startAfter )) {
+				return i + 1;
+			}
+		}
+		if (versionComparator != null) {
+			while ((startIndex < libraryVersions.size()) && (versionComparator.compare(
+					libraryVersions.get( startIndex ), startWrapper ) <= 0)) {
+				startIndex++;
+			}
+		}
+		return startIndex;
+	}
+	
+	/**
+	 * Returns true if the namespace, filename and version of the two items are identical.
+	 * 
+	 * @param item1  the first item to compare
+	 * @param item2  the second item to compare
+	 * @return boolean
+	 */
+	private static boolean isSameItem(RepositoryItem item1, RepositoryItem item2) {
+		return Objects.equals( item1.getNamespace(), item2.getNamespace() )
+				&& Objects.equals( item1.getFilename(), item2.getFilename() )
+				&& Objects.equals( item1.getVersion(), item2.getVersion() );
+	}
+
 	/**
      * @see org.opentravel.schemacompiler.repository.Repository#search(java.lang.String, boolean, boolean)
      */
@@ -794,22 +900,11 @@ public class RepositoryManager implements Repository {
 	@Override
     public List<RepositoryItem> search(String freeTextQuery, boolean latestVersionsOnly,
             boolean includeDraftVersions) throws RepositoryException {
-        List<RepositoryItem> searchResults = new ArrayList<>();
-
-        for (RemoteRepository repository : remoteRepositories) {
-            try {
-                List<RepositoryItem> itemList = repository.search(freeTextQuery,
-                        latestVersionsOnly, includeDraftVersions);
+        List<RepositoryItem> searchResults = executeFederatedRequest( repository ->
+                repository.search( freeTextQuery, latestVersionsOnly, includeDraftVersions ) ).getResults();
 
-                for (RepositoryItem item : itemList) {
-                    RepositoryUtils.checkItemState((RepositoryItemImpl) item, this);
-                    searchResults.add(item);
-                }
-
-            } catch (RepositoryException e) {
-                log.warn("Error contacting remote repository: " + repository.getId() + ", reason: "
-                        + ExceptionUtils.getExceptionMessage(e));
-            }
+        for (RepositoryItem item : searchResults) {
+            RepositoryUtils.checkItemState((RepositoryItemImpl) item, this);
         }
         return searchResults;
     }
@@ -829,21 +924,124 @@ public class RepositoryManager implements Repository {
 	@Override
 	public List<RepositorySearchResult> search(String freeTextQuery, TLLibraryStatus includeStatus,
 			boolean latestVersionsOnly, RepositoryItemType itemType) throws RepositoryException {
-        List<RepositorySearchResult> searchResults = new ArrayList<>();
+        return searchRemoteRepositories( freeTextQuery, includeStatus, latestVersionsOnly, itemType ).getResults();
+	}
 
-        for (RemoteRepository repository : remoteRepositories) {
-            try {
-                List<RepositorySearchResult> resultList = repository.search(freeTextQuery,
-                        includeStatus, latestVersionsOnly, itemType);
-                
-                searchResults.addAll( resultList );
+	/**
+	 * Searches all of the remote repositories concurrently and returns the merged results along
+	 * with the status of each repository. Results are listed in the order in which the remote
+	 * repositories are configured. Repositories that return an error or fail to respond within the
+	 * request deadline contribute no results, and the search completes as soon as the slowest
+	 * responsive repository has replied.
+	 * 
+	 * @param freeTextQuery  the string containing space-separated keywords for the search
+	 * @param includeStatus  indicates the latest library status to include in the results (null = all statuses)
+	 * @param latestVersionsOnly  flag indicating whether the results should include all matching versions or just the latest version of each library
+	 * @param itemType  the type of repository item to include in the results (null = all item types)
+	 * @return FederatedResults<RepositorySearchResult>
+	 */
+	public FederatedResults<RepositorySearchResult> searchRemoteRepositories(String freeTextQuery,
+			TLLibraryStatus includeStatus, boolean latestVersionsOnly, RepositoryItemType itemType) {
+		return executeFederatedRequest( repository ->
+				repository.search( freeTextQuery, includeStatus, latestVersionsOnly, itemType ) );
+	}
 
-            } catch (RepositoryException e) {
-                log.warn("Error contacting remote repository: " + repository.getId() + ", reason: "
-                        + ExceptionUtils.getExceptionMessage(e));
-            }
-        }
-        return searchResults;
+	/**
+	 * Sends the given request to each of the remote repositories concurrently and merges the
+	 * results in the order in which the repositories are configured. Each repository must respond
+	 * before its own deadline, which is measured from the time its request is submitted. The
+	 * timeout is configured using the <code>ota2.repository.remoteRequestTimeout</code> system
+	 * property (in milliseconds, default 30000), and it can be overridden for an individual
+	 * repository by appending its ID to the property name (e.g.
+	 * <code>ota2.repository.remoteRequestTimeout.my-repository</code>). Errors and timeouts are
+	 * logged and reported in the status of the results.
+	 * 
+	 * @param request  the request to send to each remote repository
+	 * @return FederatedResults<T>
+	 */
+	private <T> FederatedResults<T> executeFederatedRequest(RemoteRepositoryRequest<T> request) {
+		List<RemoteRepositoryClient> repositories = new ArrayList<>( remoteRepositories );
+		FederatedResults<T> federatedResults = new FederatedResults<>();
+		
+		if (repositories.isEmpty()) {
+			return federatedResults;
+		}
+		ExecutorService executor = Executors.newFixedThreadPool( repositories.size(), r -> {
+			Thread t = new Thread( r, "ota2-remote-request" );
+			
+			t.setDaemon( true );
+			return t;
+		} );
+		
+		try {
+			List<Future<List<T>>> responses = new ArrayList<>();
+			List<Long> deadlines = new ArrayList<>();
+			
+			for (RemoteRepository repository : repositories) {
+				Callable<List<T>> worker = () -> request.execute( repository );
+				
+				deadlines.add( System.currentTimeMillis() + getRemoteRequestTimeout( repository.getId() ) );
+				responses.add( executor.submit( worker ) );
+			}
+			for (int i = 0; i < repositories.size(); i++) {
+				String repositoryId = repositories.get( i ).getId();
+				
+				try {
+					long remainingTime = Math.max( deadlines.get( i ) - System.currentTimeMillis(), 0L );
+					
+					federatedResults.addResults( repositoryId, RemoteRepositoryStatus.AVAILABLE,
+							responses.get( i ).get( remainingTime, TimeUnit.MILLISECONDS ) );
+					
+				} catch (TimeoutException e) {
+					log.warn( "Remote repository did not respond before the request deadline: " + repositoryId );
+					federatedResults.addResults( repositoryId, RemoteRepositoryStatus.TIMED_OUT, null );
+					
+				} catch (ExecutionException e) {
+					log.warn( "Error contacting remote repository: " + repositoryId + ", reason: "
+							+ ExceptionUtils.getExceptionMessage( e.getCause() ) );
+					federatedResults.addResults( repositoryId, RemoteRepositoryStatus.UNAVAILABLE, null );
+					
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					federatedResults.addResults( repositoryId, RemoteRepositoryStatus.TIMED_OUT, null );
+				}
+			}
+			
+		} finally {
+			executor.shutdownNow();
+		}
+		return federatedResults;
+	}
+
+	/**
+	 * Returns the timeout (in milliseconds) for federated requests that are sent to the specified
+	 * remote repository.
+	 * 
+	 * @param repositoryId  the ID of the remote repository
+	 * @return long
+	 */
+	private long getRemoteRequestTimeout(String repositoryId) {
+		return Long.getLong( REMOTE_REQUEST_TIMEOUT_PROPERTY + "." + repositoryId,
+				Long.getLong( REMOTE_REQUEST_TIMEOUT_PROPERTY, DEFAULT_REMOTE_REQUEST_TIMEOUT ) );
+	}
+	
+	/**
+	 * Request that can be sent to each remote repository as part of a federated operation.
+	 * 
+	 * @param <T>  the type of result returned by the request
+	 */
+	@FunctionalInterface
+	private interface RemoteRepositoryRequest<T> {
+		
+		/**
+		 * Sends the request to the given remote repository and returns its results.
+		 * 
+		 * @param repository  the remote repository to which the request should be sent
+		 * @return List<T>
+		 * @throws RepositoryException  thrown if the remote repository returns an error
+		 */
+		public List<T> execute(RemoteRepository repository) throws RepositoryException;
+		
 	}
 
 	/**
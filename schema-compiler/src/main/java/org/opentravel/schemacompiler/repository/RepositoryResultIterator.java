@@ -0,0 +1,49 @@
+/**
+ * Copyright (C) 2014 OpenTravel Alliance (info@opentravel.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opentravel.schemacompiler.repository;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Iterator over the results of a repository query that may need to contact the repository as
+ * the iteration proceeds (e.g. to retrieve the next page of results from a remote repository).
+ * 
+ * @param <T>  the type of result returned by the iterator
+ * @author S. Livezey
+ */
+public interface RepositoryResultIterator<T> {
+
+    /**
+     * Returns true if the iteration has more results.
+     * 
+     * @return boolean
+     * @throws RepositoryException
+     *             thrown if the next results cannot be retrieved from the repository
+     */
+    public boolean hasNext() throws RepositoryException;
+
+    /**
+     * Returns the next result in the iteration.
+     * 
+     * @return T
+     * @throws RepositoryException
+     *             thrown if the next results cannot be retrieved from the repository
+     * @throws NoSuchElementException
+     *             thrown if the iteration has no more results
+     */
+    public T next() throws RepositoryException;
+
+}
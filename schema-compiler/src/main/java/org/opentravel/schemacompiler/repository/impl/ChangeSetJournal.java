@@ -0,0 +1,497 @@
+/**
+ * Copyright (C) 2014 OpenTravel Alliance (info@opentravel.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opentravel.schemacompiler.repository.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.opentravel.schemacompiler.util.FileUtils;
+
+/**
+ * Write-ahead journal for a single repository change set. Before a file is modified for the first
+ * time in a change set, its original content is preserved in the journal folder and an entry that
+ * identifies the file is appended to the journal. Files that are replaced by renaming a new file
+ * over them (see <code>addReplacedFile()</code>) are preserved by a hard link, so the journal
+ * records only the rename that will restore the original file; no content is copied. A durable
+ * copy is only made for files that may be modified in place, or where hard links are not
+ * supported. Files that did not exist before they were added to the change set are recorded so
+ * that they can be removed if the change set is rolled back.
+ *
+ * <p>
+ * A change set is committed by forcing the files that were modified in place to disk, and then
+ * forcing each folder that contains a changed file once as a single batch, before deleting the
+ * journal. Replaced files are forced to disk before they are renamed into place, so they are
+ * not forced again at commit. A journal that is found on the file
+ * system when a repository is opened therefore belongs to a change set that was never committed,
+ * and its original file content is restored by the <code>recover()</code> method. An exclusive
+ * lock is held on the journal for as long as its change set is active, so that recovery never
+ * interferes with a change set that is still in progress. New journals are created and locked
+ * under a temporary name, and then renamed into place, so that recovery can never observe a
+ * journal before its lock has been obtained.
+ *
+ * @author S. Livezey
+ */
+class ChangeSetJournal {
+
+    private static final String JOURNAL_FILE_SUFFIX = ".journal";
+    private static final String NEW_JOURNAL_FILE_SUFFIX = ".journal-new";
+    private static final String BACKUP_FILE_SUFFIX = ".bak";
+    private static final String BACKUP_ENTRY = "B";
+    private static final String CREATED_ENTRY = "N";
+
+    private static Log log = LogFactory.getLog(ChangeSetJournal.class);
+    private static Set<String> activeJournalIds = ConcurrentHashMap.newKeySet();
+
+    private File journalFolder;
+    private String journalId;
+    private File journalFile;
+    private FileChannel journalChannel;
+    private FileLock journalLock;
+    private Map<File,File> journalEntries = new LinkedHashMap<>();
+    private Set<File> replacedFiles = new HashSet<>();
+
+    /**
+     * Constructor that specifies the location and identity of the journal.
+     *
+     * @param journalFolder
+     *            the folder where the journal and its backup files are stored
+     * @param journalId
+     *            the unique identifier of the journal
+     */
+    private ChangeSetJournal(File journalFolder, String journalId) {
+        this.journalFolder = journalFolder;
+        this.journalId = journalId;
+        this.journalFile = new File(journalFolder, journalId + JOURNAL_FILE_SUFFIX);
+    }
+
+    /**
+     * Creates a new (empty) journal in the specified folder and obtains an exclusive lock on it.
+     *
+     * @param journalFolder
+     *            the folder where the journal and its backup files are to be stored
+     * @return ChangeSetJournal
+     * @throws IOException
+     *             thrown if the journal cannot be created
+     */
+    public static ChangeSetJournal create(File journalFolder) throws IOException {
+        ChangeSetJournal journal = new ChangeSetJournal(journalFolder, UUID.randomUUID().toString());
+        File newJournalFile = new File(journalFolder, journal.journalId + NEW_JOURNAL_FILE_SUFFIX);
+        boolean success = false;
+
+        // Register the journal before it is created so that it cannot be recovered by this JVM
+        activeJournalIds.add(journal.journalId);
+        try {
+            // The lock is held before the journal becomes visible to other processes under
+            // its permanent name; the lock stays with the file when it is renamed
+            Files.createDirectories(journalFolder.toPath());
+            journal.journalChannel = FileChannel.open(newJournalFile.toPath(),
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            journal.journalLock = journal.journalChannel.lock();
+            Files.move(newJournalFile.toPath(), journal.journalFile.toPath(),
+                    StandardCopyOption.ATOMIC_MOVE);
+            success = true;
+
+        } finally {
+            if (!success) {
+                journal.close();
+                Files.deleteIfExists(newJournalFile.toPath());
+            }
+        }
+        return journal;
+    }
+
+    /**
+     * Records the given file in the journal before it is modified in place or deleted. If the file
+     * already exists, a copy of its current content is forced to disk before the journal entry is
+     * written. Files that have already been recorded in this journal are not recorded again.
+     *
+     * @param file
+     *            the file that is about to be created, modified or deleted
+     * @throws IOException
+     *             thrown if the file cannot be recorded in the journal
+     */
+    public void addFile(File file) throws IOException {
+        File backupFile = journalEntries.get(file);
+
+        // A file that is still linked to its backup (e.g. because it could not be replaced) must
+        // be copied before it can be modified in place
+        if ((backupFile != null) && file.isFile()
+                && Files.isSameFile(backupFile.toPath(), file.toPath())) {
+            File tempFile = File.createTempFile(journalId + "-", ".tmp", journalFolder);
+
+            Files.copy(file.toPath(), tempFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.COPY_ATTRIBUTES);
+            forceFile(tempFile);
+            Files.move(tempFile.toPath(), backupFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            forceFile(journalFolder);
+        }
+        addFile(file, false);
+        replacedFiles.remove(file);
+    }
+
+    /**
+     * Records the given file in the journal before a new file is renamed over it. Since the
+     * original file is never modified, its content is preserved by a hard link in the journal
+     * folder instead of a copy. Files that have already been recorded in this journal are not
+     * recorded again.
+     *
+     * @param file
+     *            the file that is about to be created or replaced
+     * @throws IOException
+     *             thrown if the file cannot be recorded in the journal
+     */
+    public void addReplacedFile(File file) throws IOException {
+        addFile(file, true);
+        replacedFiles.add(file);
+    }
+
+    /**
+     * Records the given file in the journal if it has not already been recorded.
+     *
+     * @param file
+     *            the file that is about to be modified
+     * @param replaced
+     *            flag indicating whether the file will be replaced instead of modified in place
+     * @throws IOException
+     *             thrown if the file cannot be recorded in the journal
+     */
+    private void addFile(File file, boolean replaced) throws IOException {
+        if (!journalEntries.containsKey(file)) {
+            File backupFile = null;
+
+            if (file.isFile()) {
+                backupFile = new File(journalFolder,
+                        journalId + "-" + journalEntries.size() + BACKUP_FILE_SUFFIX);
+
+                if (!replaced || !createLink(backupFile, file)) {
+                    Files.copy(file.toPath(), backupFile.toPath(),
+                            StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+                    forceFile(backupFile);
+                }
+                forceFile(journalFolder);
+            }
+            String entry = ((backupFile == null) ? CREATED_ENTRY : (BACKUP_ENTRY + "\t"
+                    + backupFile.getName())) + "\t" + file.getAbsolutePath() + "\n";
+
+            journalChannel.write(ByteBuffer.wrap(entry.getBytes(StandardCharsets.UTF_8)));
+            journalChannel.force(false);
+            journalEntries.put(file, backupFile);
+        }
+    }
+
+    /**
+     * Creates a hard link to the given file, returning false if hard links are not supported for
+     * the file.
+     *
+     * @param link
+     *            the location of the link to create
+     * @param file
+     *            the existing file to which the link should refer
+     * @return boolean
+     */
+    private static boolean createLink(File link, File file) {
+        boolean success;
+
+        try {
+            Files.deleteIfExists(link.toPath());
+            Files.createLink(link.toPath(), file.toPath());
+            success = true;
+
+        } catch (IOException | UnsupportedOperationException | SecurityException e) {
+            success = false;
+        }
+        return success;
+    }
+
+    /**
+     * Commits the change set by forcing the changed files and their folders to disk and then
+     * removing the journal along with its backup files.
+     *
+     * @throws IOException
+     *             thrown if the journal cannot be removed
+     */
+    public void commit() throws IOException {
+        Set<File> changedFolders = new LinkedHashSet<>();
+
+        for (File changedFile : journalEntries.keySet()) {
+            if (changedFile.isFile() && !replacedFiles.contains(changedFile)) {
+                forceFile(changedFile);
+            }
+            changedFolders.add(changedFile.getAbsoluteFile().getParentFile());
+        }
+        for (File changedFolder : changedFolders) {
+            forceFile(changedFolder);
+        }
+        close();
+        Files.deleteIfExists(journalFile.toPath());
+        forceFile(journalFolder);
+        removeBackupFiles();
+    }
+
+    /**
+     * Rolls back the change set by restoring the original content of each file in the journal, in
+     * the reverse order in which the files were recorded. The journal is removed only if all of
+     * the files are restored successfully; otherwise, it is retained so that the restoration can
+     * be re-attempted when the repository is next opened.
+     *
+     * @throws IOException
+     *             thrown if one or more files cannot be restored
+     */
+    public void rollback() throws IOException {
+        try {
+            restoreFiles();
+
+        } finally {
+            close();
+        }
+        Files.deleteIfExists(journalFile.toPath());
+        removeBackupFiles();
+    }
+
+    /**
+     * Restores the original file content of every uncommitted journal in the specified folder and
+     * removes any backup files that remain from committed change sets. Journals that are locked by
+     * an active change set are skipped.
+     *
+     * @param journalFolder
+     *            the folder that contains the journals of a repository
+     */
+    public static void recover(File journalFolder) {
+        File[] folderMembers = journalFolder.listFiles();
+        Set<String> journalIds = new LinkedHashSet<>();
+
+        if (folderMembers == null) {
+            return;
+        }
+        for (File folderMember : folderMembers) {
+            String filename = folderMember.getName();
+
+            if (filename.endsWith(JOURNAL_FILE_SUFFIX)) {
+                journalIds.add(filename.substring(0, filename.length() - JOURNAL_FILE_SUFFIX.length()));
+            }
+        }
+        for (String journalId : journalIds) {
+            if (activeJournalIds.contains(journalId)) {
+                continue;
+            }
+            ChangeSetJournal journal = new ChangeSetJournal(journalFolder, journalId);
+            try {
+                if (journal.load()) {
+                    log.warn("Rolling back uncommitted repository change set: " + journalId);
+                    journal.rollback();
+                }
+
+            } catch (IOException e) {
+                log.error("Unable to roll back uncommitted repository change set: " + journalId, e);
+                journal.close();
+            }
+        }
+
+        // Backups that do not belong to a journal were left behind by a committed change set
+        for (File folderMember : folderMembers) {
+            String filename = folderMember.getName();
+            int separatorIdx = filename.lastIndexOf('-');
+
+            if (filename.endsWith(BACKUP_FILE_SUFFIX) && (separatorIdx > 0)
+                    && !journalIds.contains(filename.substring(0, separatorIdx))) {
+                FileUtils.delete(folderMember);
+
+            } else if (filename.endsWith(NEW_JOURNAL_FILE_SUFFIX)) {
+                deleteAbandonedJournal(folderMember);
+            }
+        }
+    }
+
+    /**
+     * Deletes a journal that was abandoned before it was renamed into place. Such a journal is
+     * always empty, since no files are recorded until the rename is complete. Journals that are
+     * still locked by the process that is creating them are skipped.
+     *
+     * @param newJournalFile
+     *            the journal file to delete
+     */
+    private static void deleteAbandonedJournal(File newJournalFile) {
+        try (FileChannel channel = FileChannel.open(newJournalFile.toPath(),
+                StandardOpenOption.WRITE)) {
+            FileLock lock = channel.tryLock();
+
+            if (lock != null) {
+                Files.delete(newJournalFile.toPath());
+                lock.release();
+            }
+
+        } catch (IOException | OverlappingFileLockException e) {
+            // Ignore - the journal is still being created or has already been renamed
+        }
+    }
+
+    /**
+     * Obtains an exclusive lock on an existing journal and loads its entries. If the journal is
+     * locked by an active change set, this method will return false.
+     *
+     * @return boolean
+     * @throws IOException
+     *             thrown if the journal cannot be read
+     */
+    private boolean load() throws IOException {
+        journalChannel = FileChannel.open(journalFile.toPath(), StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            journalLock = journalChannel.tryLock();
+
+        } catch (OverlappingFileLockException e) {
+            journalLock = null;
+        }
+        if (journalLock == null) {
+            close();
+            return false;
+        }
+        String content = new String(Files.readAllBytes(journalFile.toPath()), StandardCharsets.UTF_8);
+
+        // An entry without a line terminator was never completed, so its file was never modified
+        for (String entry : content.substring(0, content.lastIndexOf('\n') + 1).split("\n")) {
+            String[] entryParts = entry.split("\t", 3);
+
+            if (BACKUP_ENTRY.equals(entryParts[0]) && (entryParts.length == 3)) {
+                journalEntries.put(new File(entryParts[2]), new File(journalFolder, entryParts[1]));
+
+            } else if (CREATED_ENTRY.equals(entryParts[0]) && (entryParts.length == 2)) {
+                journalEntries.put(new File(entryParts[1]), null);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Restores the original content of each file in the journal. Files and folders that did not
+     * exist before the change set are deleted (folders only if they are empty).
+     *
+     * @throws IOException
+     *             thrown if one or more files cannot be restored
+     */
+    private void restoreFiles() throws IOException {
+        List<File> changedFiles = new ArrayList<>(journalEntries.keySet());
+        boolean success = true;
+
+        Collections.reverse(changedFiles);
+
+        for (File changedFile : changedFiles) {
+            File backupFile = journalEntries.get(changedFile);
+            try {
+                if (backupFile == null) {
+                    String[] folderMembers = changedFile.list();
+
+                    if ((folderMembers == null) || (folderMembers.length == 0)) {
+                        Files.deleteIfExists(changedFile.toPath());
+                    }
+
+                } else if (backupFile.exists()) {
+                    Files.createDirectories(changedFile.getAbsoluteFile().getParentFile().toPath());
+                    Files.move(backupFile.toPath(), changedFile.toPath(),
+                            StandardCopyOption.REPLACE_EXISTING);
+                }
+                // A missing backup has already been restored by a previous attempt
+
+                if (log.isDebugEnabled()) {
+                    log.debug("Restored original file: " + changedFile.getName()
+                            + " [Journal - " + journalId + "]");
+                }
+            } catch (IOException e) {
+                log.error("Error restoring original file: " + changedFile.getAbsolutePath()
+                        + " [Journal - " + journalId + "]", e);
+                success = false;
+            }
+        }
+        if (!success) {
+            throw new IOException("Unable to restore one or more original files from journal: "
+                    + journalFile.getAbsolutePath());
+        }
+    }
+
+    /**
+     * Deletes all of the backup files that were created for this journal.
+     */
+    private void removeBackupFiles() {
+        for (File backupFile : journalEntries.values()) {
+            if (backupFile != null) {
+                FileUtils.delete(backupFile);
+            }
+        }
+    }
+
+    /**
+     * Releases the lock on the journal and closes its file channel. If the journal has not been
+     * committed or rolled back, it will remain on the file system until it is recovered.
+     */
+    void close() {
+        try {
+            if (journalLock != null) {
+                journalLock.release();
+            }
+            if (journalChannel != null) {
+                journalChannel.close();
+            }
+
+        } catch (IOException e) {
+            log.warn("Error closing repository journal: " + journalFile.getAbsolutePath(), e);
+
+        } finally {
+            journalLock = null;
+            journalChannel = null;
+            activeJournalIds.remove(journalId);
+        }
+    }
+
+    /**
+     * Forces any buffered content of the given file or folder to be written to disk. Platforms
+     * that do not support this operation for folders are ignored.
+     *
+     * @param file
+     *            the file or folder to be written to disk
+     */
+    private static void forceFile(File file) {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            channel.force(true);
+
+        } catch (IOException e) {
+            if (log.isDebugEnabled()) {
+                log.debug("Unable to force file to disk: " + file.getAbsolutePath());
+            }
+        }
+    }
+
+}
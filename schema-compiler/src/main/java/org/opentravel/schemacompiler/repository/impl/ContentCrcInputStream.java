@@ -0,0 +1,142 @@
+/**
+ * Copyright (C) 2014 OpenTravel Alliance (info@opentravel.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opentravel.schemacompiler.repository.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+
+/**
+ * Input stream that computes the CRC-32 checksum of repository content as it is read. If an
+ * expected checksum is provided, the computed value is verified when the end of the stream is
+ * reached and an <code>IOException</code> is thrown if the values do not match. This allows
+ * uploaded content to be verified while it is being written, without first buffering it.
+ * 
+ * <p>
+ * The checksum is computed from the raw bytes of the content. It is a transport check only, and
+ * is independent of the model-level CRC that is embedded in a library by the
+ * <code>LibraryCrcCalculator</code>.
+ * 
+ * @author S. Livezey
+ */
+public class ContentCrcInputStream extends CheckedInputStream {
+
+    private Long expectedCrc;
+    private boolean verified;
+
+    /**
+     * Constructor that creates a stream that computes the checksum of its content without
+     * verifying it.
+     * 
+     * @param in  the underlying input stream
+     */
+    public ContentCrcInputStream(InputStream in) {
+        this( in, null );
+    }
+
+    /**
+     * Constructor that specifies the checksum to verify when the end of the stream is reached.
+     * 
+     * @param in  the underlying input stream
+     * @param expectedCrc  the expected checksum of the content (null if no verification is required)
+     */
+    public ContentCrcInputStream(InputStream in, Long expectedCrc) {
+        super( in, new CRC32() );
+        this.expectedCrc = expectedCrc;
+    }
+
+    /**
+     * Parses a checksum value from its hexadecimal string representation.
+     * 
+     * @param crcValue  the hexadecimal checksum value to parse (may be null)
+     * @return Long
+     * @throws IOException  thrown if the value provided is not a valid checksum
+     */
+    public static Long parseCrc(String crcValue) throws IOException {
+        Long crc = null;
+        
+        if ((crcValue != null) && (crcValue.trim().length() > 0)) {
+            try {
+                crc = Long.parseLong( crcValue.trim(), 16 );
+                
+            } catch (NumberFormatException e) {
+                throw new IOException( "Invalid content CRC value: " + crcValue, e );
+            }
+        }
+        return crc;
+    }
+
+    /**
+     * Returns the hexadecimal string representation of the given checksum value.
+     * 
+     * @param crc  the checksum value to format
+     * @return String
+     */
+    public static String formatCrc(long crc) {
+        return Long.toHexString( crc );
+    }
+
+    /**
+     * Returns the checksum of the content that has been read from this stream.
+     * 
+     * @return long
+     */
+    public long getCrc() {
+        return getChecksum().getValue();
+    }
+
+    /**
+     * @see java.util.zip.CheckedInputStream#read()
+     */
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        
+        if (b < 0) {
+            verifyCrc();
+        }
+        return b;
+    }
+
+    /**
+     * @see java.util.zip.CheckedInputStream#read(byte[], int, int)
+     */
+    @Override
+    public int read(byte[] buf, int off, int len) throws IOException {
+        int bytesRead = super.read( buf, off, len );
+        
+        if (bytesRead < 0) {
+            verifyCrc();
+        }
+        return bytesRead;
+    }
+
+    /**
+     * Verifies the computed checksum against the expected value (if any) once the end of the
+     * stream has been reached.
+     * 
+     * @throws IOException  thrown if the computed checksum does not match the expected value
+     */
+    private void verifyCrc() throws IOException {
+        if (!verified && (expectedCrc != null) && (expectedCrc != getCrc())) {
+            throw new IOException( "Content CRC mismatch (expected: " + formatCrc( expectedCrc )
+                    + ", received: " + formatCrc( getCrc() ) + ")." );
+        }
+        verified = true;
+    }
+
+}
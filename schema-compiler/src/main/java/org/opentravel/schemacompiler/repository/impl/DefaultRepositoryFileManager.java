@@ -16,32 +16,40 @@
 package org.opentravel.schemacompiler.repository.impl;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
 import java.util.Set;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.opentravel.schemacompiler.repository.RepositoryException;
 import org.opentravel.schemacompiler.repository.RepositoryFileManager;
-import org.opentravel.schemacompiler.util.FileUtils;
 
 /**
- * Default implementation of the <code>RepositoryFileManager</code> that employs a simple file
- * system strategy for maintaining the integrity of files. Each time a file is saved (or manually
- * added to the change set), a backup of the affected file is created. When the change set is
- * committed, all backup files are deleted. If the change set is rolled back, the contents of each
- * file is replaced with the backup that was created.
+ * Default implementation of the <code>RepositoryFileManager</code> that employs a write-ahead
+ * journal for maintaining the integrity of files. Each time a file is saved (or manually added to
+ * the change set), the original version of the affected file is recorded in a journal for the
+ * current change set. Files that are replaced by the 'saveFile()' methods are recorded as a rename
+ * only, without copying their content. When the change set is committed, the changed files and
+ * folders are forced to disk and the journal is discarded. If the change set is rolled back, the
+ * original version of each file is restored from the journal.
+ * 
+ * <p>
+ * Journals are stored in the <code>.journal</code> folder of the repository. Any journals that
+ * remain from change sets that were interrupted (e.g. by a crash of the JVM) are rolled back when
+ * the file manager is created.
  * 
  * @author S. Livezey
  */
 public class DefaultRepositoryFileManager extends RepositoryFileManager {
 
+    public static final String JOURNAL_FOLDER_LOCATION = ".journal/";
+
     private static Log log = LogFactory.getLog(DefaultRepositoryFileManager.class);
 
+    private static final ThreadLocal<ChangeSetJournal> changeSetJournal = new ThreadLocal<>();
+
+    private File journalFolder;
+
     /**
      * Constructor that initializes a new instance used for managing and retrieving files in an
      * OTA2.0 repository at the specified file location.
@@ -51,154 +59,124 @@ public class DefaultRepositoryFileManager extends RepositoryFileManager {
      */
     public DefaultRepositoryFileManager(File repositoryLocation) {
         super(repositoryLocation);
+        this.journalFolder = new File(repositoryLocation, JOURNAL_FOLDER_LOCATION);
+        ChangeSetJournal.recover(journalFolder);
     }
 
     /**
-     * Prior to a file being added to the change set, this method creates a backup of that file on
-     * the local file system.
+     * Prior to a file being added to the change set, this method records the original content of
+     * that file in the journal of the current change set.
      * 
      * @see org.opentravel.schemacompiler.repository.RepositoryFileManager#addToChangeSet(java.io.File)
      */
     @Override
     public void addToChangeSet(File file) throws RepositoryException {
-        File backupFile = getBackupFile(file);
-        try {
-            if (file.exists()) {
-                createBackupFile(file, backupFile);
+        journalFile(file, false);
+        super.addToChangeSet(file);
+    }
+
+    /**
+     * Prior to a file being replaced, this method records the rename that will restore its
+     * original version in the journal of the current change set.
+     * 
+     * @see org.opentravel.schemacompiler.repository.RepositoryFileManager#addReplacedFileToChangeSet(java.io.File)
+     */
+    @Override
+    protected void addReplacedFileToChangeSet(File file) throws RepositoryException {
+        journalFile(file, true);
+        super.addToChangeSet(file);
+    }
+
+    /**
+     * Records the given file in the journal of the current change set, creating the journal if
+     * necessary.
+     * 
+     * @param file
+     *            the file to be recorded in the journal
+     * @param replaced
+     *            flag indicating whether the file will be replaced instead of modified in place
+     * @throws RepositoryException
+     *             thrown if the file cannot be recorded in the journal
+     */
+    private void journalFile(File file, boolean replaced) throws RepositoryException {
+        if (file != null) {
+            try {
+                ChangeSetJournal journal = changeSetJournal.get();
+
+                if (journal == null) {
+                    journal = ChangeSetJournal.create(journalFolder);
+                    changeSetJournal.set(journal);
+                }
+                if (replaced) {
+                    journal.addReplacedFile(file);
+                } else {
+                    journal.addFile(file);
+                }
 
                 if (log.isDebugEnabled()) {
-                		log.debug(String.format("Created backup file: %s [Change Set - %s]",
-                				file.getName(), Thread.currentThread().getName()));
+                    log.debug(String.format("Journaled file: %s [Change Set - %s]",
+                            file.getName(), Thread.currentThread().getName()));
                 }
-            }
-            super.addToChangeSet(file);
 
-        } catch (IOException e) {
-        		log.error(String.format("Error creating backup file: %s [Change Set - %s]",
-        				file.getName(), Thread.currentThread().getName()));
-            throw new RepositoryException("Error creating backup file: " + file.getName(), e);
+            } catch (IOException e) {
+                log.error(String.format("Error journaling file: %s [Change Set - %s]",
+                        file.getName(), Thread.currentThread().getName()));
+                throw new RepositoryException("Error journaling file: " + file.getName(), e);
+            }
         }
     }
 
     /**
-     * Removes all backup files that were created by the <code>addToChangeSet()</code> method since
-     * this thread's last call to <code>startChangeSet()</code>.
+     * Forces all of the files and folders that were changed since this thread's last call to
+     * <code>startChangeSet()</code> to disk and discards the journal of the change set.
      * 
      * @see org.opentravel.schemacompiler.repository.RepositoryFileManager#commitChangeSet(java.util.Set)
      */
     @Override
     protected void commitChangeSet(Set<File> changeSet) throws RepositoryException {
-        for (File changedFile : changeSet) {
-            File backupFile = getBackupFile(changedFile);
+        ChangeSetJournal journal = changeSetJournal.get();
 
-            if (backupFile.exists()) {
-                removeBackupFile(backupFile);
+        if (journal != null) {
+            changeSetJournal.remove();
+            try {
+                journal.commit();
 
                 if (log.isDebugEnabled()) {
-                		log.debug(String.format("Removed backup file: %s [Change Set - %s]",
-                				backupFile.getName(), Thread.currentThread().getName()));
+                    log.debug("Committed change set journal [Change Set - "
+                            + Thread.currentThread().getName() + "]");
                 }
+            } catch (IOException e) {
+                throw new RepositoryException("Error committing the repository change set.", e);
             }
         }
     }
 
     /**
-     * For each file in the change set, the contents of the original file are replaced with the
-     * backup.
+     * For each file in the change set, the original contents of the file are restored from the
+     * journal.
      * 
      * @see org.opentravel.schemacompiler.repository.RepositoryFileManager#rollbackChangeSet(java.util.Set)
      */
     @Override
     protected void rollbackChangeSet(Set<File> changeSet) throws RepositoryException {
-        boolean success = true;
+        ChangeSetJournal journal = changeSetJournal.get();
 
-        for (File changedFile : changeSet) {
-            File backupFile = getBackupFile(changedFile);
+        if (journal != null) {
+            changeSetJournal.remove();
             try {
-                restoreBackupFile(backupFile, changedFile);
+                journal.rollback();
 
                 if (log.isDebugEnabled()) {
-                    log.debug("Restored backup file: " + changedFile.getName() + " [Change Set - "
+                    log.debug("Restored files from change set journal [Change Set - "
                             + Thread.currentThread().getName() + "]");
                 }
             } catch (IOException e) {
-                log.error("Error restoring backup file: " + backupFile.getName()
-                        + " [Change Set - " + Thread.currentThread().getName() + "]", e);
-                success = false;
+                log.error("Error restoring files from change set journal [Change Set - "
+                        + Thread.currentThread().getName() + "]", e);
+                throw new RepositoryException(
+                        "Error while restoring one or more backup files in the repository.");
             }
         }
-        if (!success) {
-            throw new RepositoryException(
-                    "Error while restoring one or more backup files in the repository.");
-        }
-    }
-
-    /**
-     * Returns a handle for the backup file for the specified repository file. Neither the
-     * repository file nor the backup file needs to exist for this method to succeed.
-     * 
-     * @param repositoryFile
-     *            the repository file for which to retrieve the backup file handle
-     * @return File
-     */
-    protected File getBackupFile(File repositoryFile) {
-        return new File(repositoryFile.getParentFile(), repositoryFile.getName() + ".bak");
-    }
-
-    /**
-     * Creates a backup of the specified original file on the local file system. If the original
-     * file passed to this method does not exist, an exception will be thrown.
-     * 
-     * @param originalFile
-     *            the original file to backup
-     * @return File
-     * @throws IOException
-     *             thrown if the backup file cannot be created
-     */
-	protected void createBackupFile(File originalFile, File backupFile) throws IOException {
-		if (originalFile.isFile()) {
-			try (InputStream in = new FileInputStream(originalFile)) {
-				try (OutputStream out = new FileOutputStream(backupFile)) {
-					byte[] buffer = new byte[1024];
-					int bytesRead;
-					
-					while ((bytesRead = in.read(buffer)) >= 0) {
-						out.write(buffer, 0, bytesRead);
-					}
-				}
-			}
-		}
-	}
-	
-    /**
-     * Creates a backup of the specified original file on the local file system. If the backup file
-     * does not exist, the original file is considered be newly created; in these cases the original
-     * file is simply deleted by this method.
-     * 
-     * @param backupFile
-     *            the backup file to restore
-     * @param originalFile
-     *            the original file whose content is to be restored from the backup
-     * @throws IOException
-     *             thrown if the backup file cannot be restored
-     */
-    protected void restoreBackupFile(File backupFile, File originalFile) throws IOException {
-        if (originalFile.exists() && !FileUtils.confirmDelete(originalFile)) {
-            throw new IOException(
-                    "Unable to delete original file during restoration of backup: "
-                            + backupFile.getAbsolutePath());
-        }
-        FileUtils.renameTo( backupFile, originalFile );
-    }
-
-    /**
-     * Deletes the inidicated backup file from the local file system.
-     * 
-     * @param backupFile
-     *            the backup file to remove
-     */
-    protected void removeBackupFile(File backupFile) {
-    		FileUtils.delete( backupFile );
     }
 
 }
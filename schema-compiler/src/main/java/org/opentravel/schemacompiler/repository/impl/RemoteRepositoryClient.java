@@ -15,11 +15,14 @@
  */
 package org.opentravel.schemacompiler.repository.impl;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.StringWriter;
 import java.io.UnsupportedEncodingException;
 import java.net.MalformedURLException;
@@ -30,10 +33,16 @@ import java.net.URLEncoder;
 import java.net.UnknownHostException;
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.Date;
-import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 import javax.xml.bind.JAXBElement;
 import javax.xml.bind.JAXBException;
@@ -43,11 +52,13 @@ import javax.xml.bind.Unmarshaller;
 import org.apache.commons.lang3.time.DateUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.http.HttpHeaders;
 import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
 import org.apache.http.auth.AuthState;
 import org.apache.http.auth.Credentials;
 import org.apache.http.auth.UsernamePasswordCredentials;
-import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpUriRequest;
@@ -56,7 +67,8 @@ import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.entity.mime.MultipartEntityBuilder;
 import org.apache.http.impl.auth.BasicScheme;
-import org.apache.http.impl.client.HttpClientBuilder;
+import org.opentravel.ns.ota2.repositoryinfo_v01_00.DownloadItemType;
+import org.opentravel.ns.ota2.repositoryinfo_v01_00.DownloadItemsRQType;
 import org.opentravel.ns.ota2.repositoryinfo_v01_00.EntityInfoListType;
 import org.opentravel.ns.ota2.repositoryinfo_v01_00.EntityInfoType;
 import org.opentravel.ns.ota2.repositoryinfo_v01_00.LibraryHistoryType;
@@ -89,6 +101,7 @@ import org.opentravel.schemacompiler.repository.RepositoryItemType;
 import org.opentravel.schemacompiler.repository.RepositoryManager;
 import org.opentravel.schemacompiler.repository.RepositoryNamespaceUtils;
 import org.opentravel.schemacompiler.repository.RepositoryOutOfSyncException;
+import org.opentravel.schemacompiler.repository.RepositoryResultIterator;
 import org.opentravel.schemacompiler.repository.RepositorySearchResult;
 import org.opentravel.schemacompiler.repository.RepositorySecurityException;
 import org.opentravel.schemacompiler.repository.RepositoryUnavailableException;
@@ -106,17 +119,21 @@ import org.opentravel.schemacompiler.xml.XMLGregorianCalendarConverter;
  */
 public class RemoteRepositoryClient implements RemoteRepository {
 
+    public static final String PAGE_SIZE_PROPERTY = "ota2.repository.remotePageSize";
+
 	private static final String BASE_NAMESPACE = "baseNamespace";
 	private static final String NAMESPACE = "namespace";
 	private static final String LIBRARY_NAME = "libraryName";
 	private static final String VERSION = "version";
 	private static final String STATUS = "status";
 	private static final String FILE_CONTENT = "fileContent";
+	private static final String CONTENT_CRC = "contentCrc";
 	private static final String UTF_8 = "UTF-8";
 	private static final String REPOSITORY_UNAVAILABLE = "The remote repository is unavailable.";
 	private static final String SERVICE_RESPONSE_UNREADABLE = "The format of the service response is unreadable.";
 	private static final String METADATA_UNREADABLE = "The format of the library meta-data is unreadable.";
 	private static final String ROLLBACK_ERROR = "Error rolling back the current change set.";
+	private static final int DEFAULT_PAGE_SIZE = 500;
 	
 	private static final String SERVICE_CONTEXT = "/service";
     private static final String REPOSITORY_METADATA_ENDPOINT = SERVICE_CONTEXT + "/repository-metadata";
@@ -150,6 +167,8 @@ public class RemoteRepositoryClient implements RemoteRepository {
     private static final String ENTITY_WHERE_USED_ENDPOINT = SERVICE_CONTEXT + "/entity-where-used";
     private static final String ENTITY_WHERE_EXTENDED_ENDPOINT = SERVICE_CONTEXT + "/entity-where-extended";
     private static final String HISTORICAL_CONTENT_ENDPOINT = SERVICE_CONTEXT + "/historical-content";
+    private static final String DOWNLOAD_ITEMS_ENDPOINT = SERVICE_CONTEXT + "/download-items";
+
 
     private static Log log = LogFactory.getLog(RemoteRepositoryClient.class);
     protected static ObjectFactory objectFactory = new ObjectFactory();
@@ -162,7 +181,9 @@ public class RemoteRepositoryClient implements RemoteRepository {
     private RefreshPolicy refreshPolicy;
     private String userId;
     private String encryptedPassword;
-    private Set<String> downloadCache = new HashSet<>();
+    private Set<String> downloadCache = ConcurrentHashMap.newKeySet();
+    private Map<String,Object> downloadLocks = new ConcurrentHashMap<>();
+    private RemoteRepositoryDownloadCache contentCache;
 
     /**
      * Initializes this instance with a handle to the <code>RepositoryManager</code> that controls
@@ -175,63 +196,90 @@ public class RemoteRepositoryClient implements RemoteRepository {
         this.manager = manager;
     }
 
-    /**
-     * Returns an HTTP client to use when accessing the remote repository.
-     * 
-     * @return HttpClient
-     */
-    private static HttpClient createHttpClient() {
-		return HttpClientBuilder.create().useSystemProperties()
-                .setDefaultCredentialsProvider(new NTLMSystemCredentialsProvider()).build();
-    }
-
     /**
      * Applies the user's credentials to the given request and sends the request to
      * the remote repository.  If the response is returned from this method, the caller
-     * can assume that the remote operation did not result in an error.
+     * can assume that the remote operation did not result in an error.  Requests are
+     * sent using the pooled HTTP client that is shared by all requests to this repository.
+     * A 304 (not modified) response to a conditional request is not considered an error.
+     * 
+     * <p>The response content is streamed from the remote repository, so the caller must close
+     * the response in order to release its connection.
      * 
      * @param request  the request to send to the remote repository
-     * @return HttpResponse
+     * @return CloseableHttpResponse
      * @throws RepositoryException  thrown if an error response is received from the remote server
      * @throws IOException  thrown if an error occurs during request execution
      */
-    private HttpResponse executeWithAuthentication(HttpUriRequest request)
+    private CloseableHttpResponse executeWithAuthentication(HttpUriRequest request)
             throws RepositoryException, IOException {
-    	HttpResponse response = createHttpClient().execute(request, createHttpContext());
+    	CloseableHttpResponse response = RemoteRepositoryConnectionManager.execute(
+    			endpointUrl, request, createHttpContext());
     	int statusCode = response.getStatusLine().getStatusCode();
     	
-        if ((statusCode < 200) || (statusCode > 299)) {
-        	if (statusCode == 401) {
-                throw new RepositorySecurityException(
-                		"User is not authorized to perform the requested action (check for out of date credentials).");
-        	} else {
-                throw new RepositoryException(getResponseErrorMessage(response));
-        	}
+        if (((statusCode < 200) || (statusCode > 299)) && (statusCode != HttpStatus.SC_NOT_MODIFIED)) {
+            try {
+                if (statusCode == 401) {
+                    throw new RepositorySecurityException(
+                    		"User is not authorized to perform the requested action (check for out of date credentials).");
+                } else {
+                    throw new RepositoryException(getResponseErrorMessage(response));
+                }
+            } finally {
+                response.close();
+            }
         }
     	return response;
     }
 
     /**
-     * Sends the given request to the remote repository.
+     * Sends the given request to the remote repository using the user's credentials and returns
+     * the JAXB content that is unmarshalled from the response.  The response is closed before
+     * this method returns.
      * 
      * @param request  the request to send to the remote repository
-     * @return HttpResponse
+     * @return Object
      * @throws RepositoryException  thrown if an error response is received from the remote server
+     * @throws JAXBException  thrown if the content of the response cannot be unmarshalled
      * @throws IOException  thrown if an error occurs during request execution
      */
-    private static HttpResponse execute(HttpUriRequest request) throws RepositoryException, IOException {
-    	HttpResponse response = createHttpClient().execute(request);
-    	int statusCode = response.getStatusLine().getStatusCode();
-    	
-        if ((statusCode < 200) || (statusCode > 299)) {
-        	if (statusCode == 401) {
-                throw new RepositorySecurityException(
-                		"User is not authorized to perform the requested action.");
-        	} else {
-                throw new RepositoryException(getResponseErrorMessage(response));
-        	}
+    private Object executeAndUnmarshal(HttpUriRequest request)
+            throws RepositoryException, JAXBException, IOException {
+        try (CloseableHttpResponse response = executeWithAuthentication(request)) {
+            Unmarshaller unmarshaller = RepositoryFileManager.getSharedJaxbContext().createUnmarshaller();
+            
+            return unmarshaller.unmarshal(response.getEntity().getContent());
         }
-    	return response;
+    }
+
+    /**
+     * Sends the given request to the remote repository and returns the JAXB content that is
+     * unmarshalled from the response.
+     * 
+     * @param endpointUrl  the URL endpoint of the remote repository
+     * @param request  the request to send to the remote repository
+     * @return Object
+     * @throws RepositoryException  thrown if an error response is received from the remote server
+     * @throws JAXBException  thrown if the content of the response cannot be unmarshalled
+     * @throws IOException  thrown if an error occurs during request execution
+     */
+    private static Object executeAndUnmarshal(String endpointUrl, HttpUriRequest request)
+    		throws RepositoryException, JAXBException, IOException {
+    	try (CloseableHttpResponse response = RemoteRepositoryConnectionManager.execute(endpointUrl, request, null)) {
+        	int statusCode = response.getStatusLine().getStatusCode();
+        	
+            if ((statusCode < 200) || (statusCode > 299)) {
+            	if (statusCode == 401) {
+                    throw new RepositorySecurityException(
+                    		"User is not authorized to perform the requested action.");
+            	} else {
+                    throw new RepositoryException(getResponseErrorMessage(response));
+            	}
+            }
+            Unmarshaller unmarshaller = RepositoryFileManager.getSharedJaxbContext().createUnmarshaller();
+            
+            return unmarshaller.unmarshal(response.getEntity().getContent());
+    	}
     }
 
     /**
@@ -248,6 +296,19 @@ public class RemoteRepositoryClient implements RemoteRepository {
     public void resetDownloadCache() {
     	downloadCache.clear();
     }
+    
+    /**
+     * Returns the persistent cache of items that have been downloaded from this repository.
+     * 
+     * @return RemoteRepositoryDownloadCache
+     */
+    private synchronized RemoteRepositoryDownloadCache getContentCache() {
+    	if (contentCache == null) {
+    		contentCache = new RemoteRepositoryDownloadCache(
+    				manager.getFileManager().getRepositoryLocation(), id );
+    	}
+    	return contentCache;
+    }
 
     /**
      * @see org.opentravel.schemacompiler.repository.Repository#getId()
@@ -402,11 +463,8 @@ public class RemoteRepositoryClient implements RemoteRepository {
         try {
             String baseNS = RepositoryNamespaceUtils.normalizeUri(baseNamespace);
             HttpGet request = newGetRequest(NAMESPACE_CHILDREN_ENDPOINT, new HttpGetParam(BASE_NAMESPACE, baseNS));
-            HttpResponse response = executeWithAuthentication(request);
-            Unmarshaller unmarshaller = RepositoryFileManager.getSharedJaxbContext()
-                    .createUnmarshaller();
-            JAXBElement<NamespaceListType> jaxbElement = (JAXBElement<NamespaceListType>) unmarshaller
-                    .unmarshal(response.getEntity().getContent());
+            JAXBElement<NamespaceListType> jaxbElement = (JAXBElement<NamespaceListType>)
+                    executeAndUnmarshal(request);
             List<String> nsList = new ArrayList<>();
 
             nsList.addAll(jaxbElement.getValue().getNamespace());
@@ -428,11 +486,8 @@ public class RemoteRepositoryClient implements RemoteRepository {
     public List<String> listBaseNamespaces() throws RepositoryException {
         try {
             HttpGet request = newGetRequest(BASE_NAMSPACES_ENDPOINT);
-            HttpResponse response = executeWithAuthentication(request);
-            Unmarshaller unmarshaller = RepositoryFileManager.getSharedJaxbContext()
-                    .createUnmarshaller();
-            JAXBElement<NamespaceListType> jaxbElement = (JAXBElement<NamespaceListType>) unmarshaller
-                    .unmarshal(response.getEntity().getContent());
+            JAXBElement<NamespaceListType> jaxbElement = (JAXBElement<NamespaceListType>)
+                    executeAndUnmarshal(request);
             List<String> nsList = new ArrayList<>();
 
             nsList.addAll(jaxbElement.getValue().getNamespace());
@@ -454,11 +509,8 @@ public class RemoteRepositoryClient implements RemoteRepository {
     public List<String> listAllNamespaces() throws RepositoryException {
         try {
             HttpGet request = newGetRequest(ALL_NAMSPACES_ENDPOINT);
-            HttpResponse response = executeWithAuthentication(request);
-            Unmarshaller unmarshaller = RepositoryFileManager.getSharedJaxbContext()
-                    .createUnmarshaller();
-            JAXBElement<NamespaceListType> jaxbElement = (JAXBElement<NamespaceListType>) unmarshaller
-                    .unmarshal(response.getEntity().getContent());
+            JAXBElement<NamespaceListType> jaxbElement = (JAXBElement<NamespaceListType>)
+                    executeAndUnmarshal(request);
             List<String> nsList = new ArrayList<>();
 
             nsList.addAll(jaxbElement.getValue().getNamespace());
@@ -493,11 +545,8 @@ public class RemoteRepositoryClient implements RemoteRepository {
             marshaller.marshal(objectFactory.createListItemsRQ(listItemsRQ), xmlWriter);
             request.setEntity(new StringEntity(xmlWriter.toString(), ContentType.TEXT_XML));
 
-            HttpResponse response = executeWithAuthentication(request);
-            Unmarshaller unmarshaller = RepositoryFileManager.getSharedJaxbContext()
-                    .createUnmarshaller();
-            JAXBElement<LibraryInfoListType> jaxbElement = (JAXBElement<LibraryInfoListType>) unmarshaller
-                    .unmarshal(response.getEntity().getContent());
+            JAXBElement<LibraryInfoListType> jaxbElement = (JAXBElement<LibraryInfoListType>)
+                    executeAndUnmarshal(request);
             List<RepositoryItem> itemList = new ArrayList<>();
 
             for (LibraryInfoType itemMetadata : jaxbElement.getValue().getLibraryInfo()) {
@@ -529,12 +578,60 @@ public class RemoteRepositoryClient implements RemoteRepository {
 	/**
 	 * @see org.opentravel.schemacompiler.repository.Repository#listItems(java.lang.String, org.opentravel.schemacompiler.model.TLLibraryStatus, boolean, org.opentravel.schemacompiler.repository.RepositoryItemType)
 	 */
-	@SuppressWarnings("unchecked")
 	@Override
 	public List<RepositoryItem> listItems(String baseNamespace, TLLibraryStatus includeStatus,
 			boolean latestVersionsOnly, RepositoryItemType itemType) throws RepositoryException {
+		RepositoryResultIterator<RepositoryItem> iterator = listItemsIterator(
+				baseNamespace, includeStatus, latestVersionsOnly, itemType, getPageSize() );
+		List<RepositoryItem> itemList = new ArrayList<>();
+		
+		while (iterator.hasNext()) {
+			itemList.add( iterator.next() );
+		}
+		return itemList;
+	}
+
+	/**
+	 * Returns an iterator over the items in the specified namespace.  Items are retrieved from the
+	 * remote repository one page at a time as the iteration proceeds.
+	 * 
+	 * @param baseNamespace  the base namespace for which to return items
+	 * @param includeStatus  indicates the latest status to include in the results (null = all statuses)
+	 * @param latestVersionsOnly  flag indicating whether only the latest version of each item should be returned
+	 * @param itemType  the type of repository items to return (null = all item types)
+	 * @param pageSize  the maximum number of items to retrieve with each request to the remote repository
+	 * @return RepositoryResultIterator<RepositoryItem>
+	 */
+	public RepositoryResultIterator<RepositoryItem> listItemsIterator(String baseNamespace,
+			TLLibraryStatus includeStatus, boolean latestVersionsOnly, RepositoryItemType itemType, int pageSize) {
+		return new PagedResultIterator<RepositoryItem>() {
+			@Override
+			protected String fetchPage(String cursor, List<RepositoryItem> pageItems) throws RepositoryException {
+				return fetchListItemsPage( baseNamespace, includeStatus, latestVersionsOnly, itemType,
+						pageSize, cursor, pageItems );
+			}
+		};
+	}
+
+	/**
+	 * Retrieves a single page of items from the remote repository's list-items service.
+	 * 
+	 * @param baseNamespace  the base namespace for which to return items
+	 * @param includeStatus  indicates the latest status to include in the results (null = all statuses)
+	 * @param latestVersionsOnly  flag indicating whether only the latest version of each item should be returned
+	 * @param itemType  the type of repository items to return (null = all item types)
+	 * @param pageSize  the maximum number of items to retrieve
+	 * @param cursor  the cursor returned with the previous page (null for the first page)
+	 * @param itemList  the list to which the items on the page will be added
+	 * @return String  the cursor for the next page (null if this is the last page)
+	 * @throws RepositoryException  thrown if the page cannot be retrieved
+	 */
+	@SuppressWarnings("unchecked")
+	private String fetchListItemsPage(String baseNamespace, TLLibraryStatus includeStatus,
+			boolean latestVersionsOnly, RepositoryItemType itemType, int pageSize, String cursor,
+			List<RepositoryItem> itemList) throws RepositoryException {
         try {
-        	List<HttpGetParam> paramList = new ArrayList<>();
+        	List<HttpGetParam> paramList = newPageParams( pageSize, cursor );
         	
         	if (itemType != null) {
             	paramList.add( new HttpGetParam( "itemType", itemType.toString() ) );
@@ -546,21 +643,16 @@ public class RemoteRepositoryClient implements RemoteRepository {
             ListItems2RQType listItemsRQ = new ListItems2RQType();
             StringWriter xmlWriter = new StringWriter();
 
-            if (includeStatus == null) {
-            	includeStatus = TLLibraryStatus.DRAFT;
-            }
             listItemsRQ.setNamespace(baseNS);
-            listItemsRQ.setIncludeStatus(includeStatus.toRepositoryStatus());
+            listItemsRQ.setIncludeStatus(((includeStatus == null) ?
+            		TLLibraryStatus.DRAFT : includeStatus).toRepositoryStatus());
             listItemsRQ.setLatestVersionOnly(latestVersionsOnly);
             
             marshaller.marshal(objectFactory.createListItems2RQ(listItemsRQ), xmlWriter);
             request.setEntity(new StringEntity(xmlWriter.toString(), ContentType.TEXT_XML));
 
-            HttpResponse response = executeWithAuthentication(request);
-            Unmarshaller unmarshaller = RepositoryFileManager.getSharedJaxbContext().createUnmarshaller();
             JAXBElement<LibraryInfoListType> jaxbElement = (JAXBElement<LibraryInfoListType>)
-            		unmarshaller.unmarshal(response.getEntity().getContent());
-            List<RepositoryItem> itemList = new ArrayList<>();
+                    executeAndUnmarshal(request);
 
             for (LibraryInfoType itemMetadata : jaxbElement.getValue().getLibraryInfo()) {
                 RepositoryItemImpl item = RepositoryUtils.createRepositoryItem(manager,
@@ -569,7 +661,7 @@ public class RemoteRepositoryClient implements RemoteRepository {
                 RepositoryUtils.checkItemState(item, manager);
                 itemList.add(item);
             }
-            return itemList;
+            return jaxbElement.getValue().getNextCursor();
 
         } catch (JAXBException e) {
             throw new RepositoryException(SERVICE_RESPONSE_UNREADABLE, e);
@@ -590,10 +682,8 @@ public class RemoteRepositoryClient implements RemoteRepository {
             HttpGet request = newGetRequest(SEARCH_ENDPOINT, new HttpGetParam("query",
                     freeTextQuery), new HttpGetParam("latestVersion", latestVersionsOnly + ""),
                     new HttpGetParam("includeDraft", includeDraftVersions + ""));
-            HttpResponse response = executeWithAuthentication(request);
-            Unmarshaller unmarshaller = RepositoryFileManager.getSharedJaxbContext().createUnmarshaller();
-            JAXBElement<LibraryInfoListType> jaxbElement = (JAXBElement<LibraryInfoListType>) unmarshaller
-                    .unmarshal(response.getEntity().getContent());
+            JAXBElement<LibraryInfoListType> jaxbElement = (JAXBElement<LibraryInfoListType>)
+                    executeAndUnmarshal(request);
             List<RepositoryItem> itemList = new ArrayList<>();
 
             for (LibraryInfoType itemMetadata : jaxbElement.getValue().getLibraryInfo()) {
@@ -625,12 +715,60 @@ public class RemoteRepositoryClient implements RemoteRepository {
 	/**
 	 * @see org.opentravel.schemacompiler.repository.Repository#search(java.lang.String, org.opentravel.schemacompiler.model.TLLibraryStatus, boolean, org.opentravel.schemacompiler.repository.RepositoryItemType)
 	 */
-	@SuppressWarnings("unchecked")
 	@Override
 	public List<RepositorySearchResult> search(String freeTextQuery, TLLibraryStatus includeStatus,
 			boolean latestVersionsOnly, RepositoryItemType itemType) throws RepositoryException {
+		RepositoryResultIterator<RepositorySearchResult> iterator = searchIterator(
+				freeTextQuery, includeStatus, latestVersionsOnly, itemType, getPageSize() );
+		List<RepositorySearchResult> itemList = new ArrayList<>();
+		
+		while (iterator.hasNext()) {
+			itemList.add( iterator.next() );
+		}
+		return itemList;
+	}
+
+	/**
+	 * Returns an iterator over the results of a free-text search.  Results are retrieved from the
+	 * remote repository one page at a time as the iteration proceeds.
+	 * 
+	 * @param freeTextQuery  the string containing space-separated keywords for the free-text search
+	 * @param includeStatus  indicates the latest status to include in the results (null = all statuses)
+	 * @param latestVersionsOnly  flag indicating whether only the latest version of each item should be returned
+	 * @param itemType  the type of repository items to return (null = all item types)
+	 * @param pageSize  the maximum number of index hits to examine with each request to the remote repository
+	 * @return RepositoryResultIterator<RepositorySearchResult>
+	 */
+	public RepositoryResultIterator<RepositorySearchResult> searchIterator(String freeTextQuery,
+			TLLibraryStatus includeStatus, boolean latestVersionsOnly, RepositoryItemType itemType, int pageSize) {
+		return new PagedResultIterator<RepositorySearchResult>() {
+			@Override
+			protected String fetchPage(String cursor, List<RepositorySearchResult> pageItems) throws RepositoryException {
+				return fetchSearchPage( freeTextQuery, includeStatus, latestVersionsOnly, itemType,
+						pageSize, cursor, pageItems );
+			}
+		};
+	}
+
+	/**
+	 * Retrieves a single page of results from the remote repository's free-text search service.
+	 * 
+	 * @param freeTextQuery  the string containing space-separated keywords for the free-text search
+	 * @param includeStatus  indicates the latest status to include in the results (null = all statuses)
+	 * @param latestVersionsOnly  flag indicating whether only the latest version of each item should be returned
+	 * @param itemType  the type of repository items to return (null = all item types)
+	 * @param pageSize  the maximum number of index hits to examine
+	 * @param cursor  the cursor returned with the previous page (null for the first page)
+	 * @param itemList  the list to which the results on the page will be added
+	 * @return String  the cursor for the next page (null if this is the last page)
+	 * @throws RepositoryException  thrown if the page cannot be retrieved
+	 */
+	@SuppressWarnings("unchecked")
+	private String fetchSearchPage(String freeTextQuery, TLLibraryStatus includeStatus,
+			boolean latestVersionsOnly, RepositoryItemType itemType, int pageSize, String cursor,
+			List<RepositorySearchResult> itemList) throws RepositoryException {
         try {
-        	List<HttpGetParam> paramList = new ArrayList<>();
+        	List<HttpGetParam> paramList = newPageParams( pageSize, cursor );
         	
         	paramList.add( new HttpGetParam( "query", freeTextQuery ) );
         	paramList.add( new HttpGetParam( "latestVersion", latestVersionsOnly + "" ) );
@@ -643,11 +781,8 @@ public class RemoteRepositoryClient implements RemoteRepository {
         	}
         	
             HttpGet request = newGetRequest( SEARCH2_ENDPOINT, paramList.toArray( new HttpGetParam[ paramList.size() ] ) );
-            HttpResponse response = executeWithAuthentication( request );
-            Unmarshaller unmarshaller = RepositoryFileManager.getSharedJaxbContext().createUnmarshaller();
-            JAXBElement<SearchResultsListType> jaxbElement = (JAXBElement<SearchResultsListType>) unmarshaller
-                    .unmarshal( response.getEntity().getContent() );
-            List<RepositorySearchResult> itemList = new ArrayList<>();
+            JAXBElement<SearchResultsListType> jaxbElement = (JAXBElement<SearchResultsListType>)
+                    executeAndUnmarshal(request);
 
             for (JAXBElement<? extends LibraryInfoType> resultElement : jaxbElement.getValue().getSearchResult()) {
             	LibraryInfoType resultItem = resultElement.getValue();
@@ -660,7 +795,7 @@ public class RemoteRepositoryClient implements RemoteRepository {
             	}
                 itemList.add( item );
             }
-            return itemList;
+            return jaxbElement.getValue().getNextCursor();
 
         } catch (JAXBException e) {
             throw new RepositoryException(METADATA_UNREADABLE, e);
@@ -670,6 +805,37 @@ public class RemoteRepositoryClient implements RemoteRepository {
         }
 	}
 
+	/**
+	 * Returns a new list of request parameters that specify the page size and cursor of a paged
+	 * request.
+	 * 
+	 * @param pageSize  the maximum number of results to retrieve
+	 * @param cursor  the cursor returned with the previous page (null for the first page)
+	 * @return List<HttpGetParam>
+	 */
+	private List<HttpGetParam> newPageParams(int pageSize, String cursor) {
+		List<HttpGetParam> paramList = new ArrayList<>();
+		
+		paramList.add( new HttpGetParam( "pageSize", pageSize + "" ) );
+		
+		if (cursor != null) {
+			paramList.add( new HttpGetParam( "cursor", cursor ) );
+		}
+		return paramList;
+	}
+
+	/**
+	 * Returns the number of results to retrieve with each request when a complete list of items
+	 * or search results is assembled from paged responses.
+	 * 
+	 * @return int
+	 */
+	private static int getPageSize() {
+		Integer pageSize = Integer.getInteger( PAGE_SIZE_PROPERTY );
+		
+		return ((pageSize == null) || (pageSize <= 0)) ? DEFAULT_PAGE_SIZE : pageSize;
+	}
+
 	/**
      * @see org.opentravel.schemacompiler.repository.Repository#getVersionHistory(org.opentravel.schemacompiler.repository.RepositoryItem)
      */
@@ -690,14 +856,11 @@ public class RemoteRepositoryClient implements RemoteRepository {
 
             // Send the web service request and unmarshall the updated meta-data from the response
             log.info("Sending version history request to HTTP endpoint: " + endpointUrl);
-            HttpResponse response = executeWithAuthentication(request);
+            JAXBElement<LibraryInfoListType> jaxbElement = (JAXBElement<LibraryInfoListType>)
+                    executeAndUnmarshal(request);
             
             log.info("Version history response received - Status OK");
 
-            Unmarshaller unmarshaller = RepositoryFileManager.getSharedJaxbContext()
-                    .createUnmarshaller();
-            JAXBElement<LibraryInfoListType> jaxbElement = (JAXBElement<LibraryInfoListType>) unmarshaller
-                    .unmarshal(response.getEntity().getContent());
             List<RepositoryItem> itemList = new ArrayList<>();
 
             for (LibraryInfoType itemMetadata : jaxbElement.getValue().getLibraryInfo()) {
@@ -805,10 +968,8 @@ public class RemoteRepositoryClient implements RemoteRepository {
             marshaller.marshal(objectFactory.createLibraryInfo(itemMetadata), xmlWriter);
             request.setEntity(new StringEntity(xmlWriter.toString(), ContentType.TEXT_XML));
 
-            HttpResponse response = executeWithAuthentication(request);
-            Unmarshaller unmarshaller = RepositoryFileManager.getSharedJaxbContext().createUnmarshaller();
-            JAXBElement<LibraryHistoryType> jaxbElement = (JAXBElement<LibraryHistoryType>) unmarshaller
-                    .unmarshal(response.getEntity().getContent());
+            JAXBElement<LibraryHistoryType> jaxbElement = (JAXBElement<LibraryHistoryType>)
+                    executeAndUnmarshal(request);
             
             return RepositoryUtils.createItemHistory( jaxbElement.getValue(), manager );
 
@@ -835,10 +996,8 @@ public class RemoteRepositoryClient implements RemoteRepository {
             marshaller.marshal(objectFactory.createLibraryInfo(itemMetadata), xmlWriter);
             request.setEntity(new StringEntity(xmlWriter.toString(), ContentType.TEXT_XML));
 
-            HttpResponse response = executeWithAuthentication(request);
-            Unmarshaller unmarshaller = RepositoryFileManager.getSharedJaxbContext().createUnmarshaller();
-            JAXBElement<LibraryInfoListType> jaxbElement = (JAXBElement<LibraryInfoListType>) unmarshaller
-                    .unmarshal(response.getEntity().getContent());
+            JAXBElement<LibraryInfoListType> jaxbElement = (JAXBElement<LibraryInfoListType>)
+                    executeAndUnmarshal(request);
             List<RepositoryItem> itemList = new ArrayList<>();
 
             for (LibraryInfoType rsItemMetadata : jaxbElement.getValue().getLibraryInfo()) {
@@ -873,10 +1032,8 @@ public class RemoteRepositoryClient implements RemoteRepository {
             marshaller.marshal(objectFactory.createEntityInfo(entityMetadata), xmlWriter);
             request.setEntity(new StringEntity(xmlWriter.toString(), ContentType.TEXT_XML));
 
-            HttpResponse response = executeWithAuthentication(request);
-            Unmarshaller unmarshaller = RepositoryFileManager.getSharedJaxbContext().createUnmarshaller();
-            JAXBElement<EntityInfoListType> jaxbElement = (JAXBElement<EntityInfoListType>) unmarshaller
-                    .unmarshal(response.getEntity().getContent());
+            JAXBElement<EntityInfoListType> jaxbElement = (JAXBElement<EntityInfoListType>)
+                    executeAndUnmarshal(request);
             List<EntitySearchResult> searchResults = new ArrayList<>();
 
             for (EntityInfoType rsEntityMetadata : jaxbElement.getValue().getEntityInfo()) {
@@ -907,10 +1064,8 @@ public class RemoteRepositoryClient implements RemoteRepository {
             marshaller.marshal(objectFactory.createEntityInfo(entityMetadata), xmlWriter);
             request.setEntity(new StringEntity(xmlWriter.toString(), ContentType.TEXT_XML));
 
-            HttpResponse response = executeWithAuthentication(request);
-            Unmarshaller unmarshaller = RepositoryFileManager.getSharedJaxbContext().createUnmarshaller();
-            JAXBElement<EntityInfoListType> jaxbElement = (JAXBElement<EntityInfoListType>) unmarshaller
-                    .unmarshal(response.getEntity().getContent());
+            JAXBElement<EntityInfoListType> jaxbElement = (JAXBElement<EntityInfoListType>)
+                    executeAndUnmarshal(request);
             List<EntitySearchResult> searchResults = new ArrayList<>();
 
             for (EntityInfoType rsEntityMetadata : jaxbElement.getValue().getEntityInfo()) {
@@ -940,13 +1095,11 @@ public class RemoteRepositoryClient implements RemoteRepository {
 
             // Send the web service request and check the response
             log.info("Sending user-authorization request to HTTP endpoint: " + endpointUrl);
-            HttpResponse response = executeWithAuthentication(request);
-            Unmarshaller unmarshaller = RepositoryFileManager.getSharedJaxbContext()
-                    .createUnmarshaller();
-            JAXBElement<RepositoryPermissionType> jaxbElement = (JAXBElement<RepositoryPermissionType>) unmarshaller
-                    .unmarshal(response.getEntity().getContent());
+            JAXBElement<RepositoryPermissionType> jaxbElement = (JAXBElement<RepositoryPermissionType>)
+                    executeAndUnmarshal(request);
 
             log.info("User-authorization response received - Status OK");
+
             return jaxbElement.getValue().getRepositoryPermission();
 
         } catch (JAXBException e) {
@@ -965,10 +1118,8 @@ public class RemoteRepositoryClient implements RemoteRepository {
 	public List<RepositoryItem> getLockedItems() throws RepositoryException {
         try {
             HttpGet request = newGetRequest(LOCKED_ITEMS_ENDPOINT);
-            HttpResponse response = executeWithAuthentication(request);
-            Unmarshaller unmarshaller = RepositoryFileManager.getSharedJaxbContext().createUnmarshaller();
-            JAXBElement<LibraryInfoListType> jaxbElement = (JAXBElement<LibraryInfoListType>) unmarshaller
-                    .unmarshal(response.getEntity().getContent());
+            JAXBElement<LibraryInfoListType> jaxbElement = (JAXBElement<LibraryInfoListType>)
+                    executeAndUnmarshal(request);
             List<RepositoryItem> itemList = new ArrayList<>();
 
             for (LibraryInfoType itemMetadata : jaxbElement.getValue().getLibraryInfo()) {
@@ -999,7 +1150,7 @@ public class RemoteRepositoryClient implements RemoteRepository {
 
             // Send the web service request and check the response
             log.info("Sending create-root-namespace request to HTTP endpoint: " + endpointUrl);
-            executeWithAuthentication(request);
+            executeWithAuthentication(request).close();
 
             refreshRepositoryMetadata();
             log.info("Create-root-namespace response received - Status OK");
@@ -1021,7 +1172,7 @@ public class RemoteRepositoryClient implements RemoteRepository {
 
             // Send the web service request and check the response
             log.info("Sending delete-root-namespace request to HTTP endpoint: " + endpointUrl);
-            executeWithAuthentication(request);
+            executeWithAuthentication(request).close();
 
             refreshRepositoryMetadata();
             log.info("Delete-root-namespace response received - Status OK");
@@ -1043,7 +1194,7 @@ public class RemoteRepositoryClient implements RemoteRepository {
 
             // Send the web service request and check the response
             log.info("Sending create-namespace request to HTTP endpoint: " + endpointUrl);
-            executeWithAuthentication(request);
+            executeWithAuthentication(request).close();
 
             log.info("Create-namespace response received - Status OK");
 
@@ -1064,7 +1215,7 @@ public class RemoteRepositoryClient implements RemoteRepository {
 
             // Send the web service request and check the response
             log.info("Sending delete-namespace request to HTTP endpoint: " + endpointUrl);
-            executeWithAuthentication(request);
+            executeWithAuthentication(request).close();
 
             log.info("Delete-namespace response received - Status OK");
 
@@ -1105,20 +1256,32 @@ public class RemoteRepositoryClient implements RemoteRepository {
             // Invoke the remote web service call to perform the publication
             HttpPost postRequest = newPostRequest(PUBLISH_ENDPOINT);
             MultipartEntityBuilder mpEntity = MultipartEntityBuilder.create();
+            File spoolFile = File.createTempFile("ota2-publish", ".tmp");
 
-            if (versionScheme != null) {
-                mpEntity.addTextBody("versionScheme", versionScheme);
-            }
-            mpEntity.addBinaryBody(FILE_CONTENT, toByteArray(contentStream),
-                    ContentType.DEFAULT_BINARY, filename);
-            mpEntity.addTextBody(NAMESPACE, targetNS);
-            mpEntity.addTextBody(LIBRARY_NAME, libraryName);
-            mpEntity.addTextBody(VERSION, versionIdentifier);
-            mpEntity.addTextBody(STATUS, initialStatus.toRepositoryStatus().toString());
-            postRequest.setEntity(mpEntity.build());
+            try {
+                // Spool the content to disk so that it can be streamed (and re-sent if the
+                // server requests authentication) without holding it in memory
+                long contentCrc = saveContent(contentStream, spoolFile);
+
+                if (versionScheme != null) {
+                    mpEntity.addTextBody("versionScheme", versionScheme);
+                }
+                mpEntity.addBinaryBody(FILE_CONTENT, spoolFile, ContentType.DEFAULT_BINARY, filename);
+                mpEntity.addTextBody(CONTENT_CRC, ContentCrcInputStream.formatCrc(contentCrc));
+                mpEntity.addTextBody(NAMESPACE, targetNS);
+                mpEntity.addTextBody(LIBRARY_NAME, libraryName);
+                mpEntity.addTextBody(VERSION, versionIdentifier);
+                mpEntity.addTextBody(STATUS, initialStatus.toRepositoryStatus().toString());
+                postRequest.setEntity(mpEntity.build());
 
-            log.info("Sending publish request to HTTP endpoint: " + endpointUrl);
-            executeWithAuthentication(postRequest);
+                log.info("Sending publish request to HTTP endpoint: " + endpointUrl);
+                executeWithAuthentication(postRequest).close();
+
+            } finally {
+                if (!spoolFile.delete()) {
+                    spoolFile.deleteOnExit();
+                }
+            }
 
             log.info("Publish response received - Status OK");
             return item;
@@ -1167,11 +1330,10 @@ public class RemoteRepositoryClient implements RemoteRepository {
 
             marshaller.marshal(objectFactory.createRepositoryItemIdentity(itemIdentity), xmlWriter);
             
-            try (InputStream wipContent = new FileInputStream(wipFile)) {
-                mpEntity.addTextBody("item", xmlWriter.toString(), ContentType.TEXT_XML);
-                mpEntity.addBinaryBody(FILE_CONTENT, toByteArray(wipContent),
-                        ContentType.DEFAULT_BINARY, item.getFilename());
-            }
+            mpEntity.addTextBody("item", xmlWriter.toString(), ContentType.TEXT_XML);
+            mpEntity.addBinaryBody(FILE_CONTENT, wipFile, ContentType.DEFAULT_BINARY, item.getFilename());
+            mpEntity.addTextBody(CONTENT_CRC, ContentCrcInputStream.formatCrc(calculateCrc(wipFile)));
+            
             if (remarks != null) {
             		mpEntity.addTextBody("remarks", remarks, ContentType.TEXT_PLAIN);
             }
@@ -1180,7 +1342,7 @@ public class RemoteRepositoryClient implements RemoteRepository {
 
             // Send the web service request and check the response
             log.info("Sending commit request to HTTP endpoint: " + endpointUrl);
-            executeWithAuthentication(request);
+            executeWithAuthentication(request).close();
 
             log.info("Commit response received - Status OK");
 
@@ -1223,14 +1385,11 @@ public class RemoteRepositoryClient implements RemoteRepository {
 
             // Send the web service request and unmarshall the updated meta-data from the response
             log.info("Sending lock request to HTTP endpoint: " + endpointUrl);
-            HttpResponse response = executeWithAuthentication(request);
+            JAXBElement<LibraryInfoType> jaxbElement = (JAXBElement<LibraryInfoType>)
+                    executeAndUnmarshal(request);
 
             log.info("Lock response received - Status OK");
 
-            Unmarshaller unmarshaller = RepositoryFileManager.getSharedJaxbContext().createUnmarshaller();
-            JAXBElement<LibraryInfoType> jaxbElement = (JAXBElement<LibraryInfoType>) unmarshaller
-                    .unmarshal(response.getEntity().getContent());
-
             // Update the local cache with the content we just received from the remote web service
             manager.getFileManager().saveLibraryMetadata(jaxbElement.getValue());
 
@@ -1292,9 +1451,8 @@ public class RemoteRepositoryClient implements RemoteRepository {
 				if (!wipFile.exists()) {
 					throw new RepositoryException("The work-in-process file does not exist: " + item.getFilename());
 				}
-				try (InputStream wipContent = new FileInputStream(wipFile)) {
-					mpEntity.addBinaryBody(FILE_CONTENT, toByteArray(wipContent), ContentType.DEFAULT_BINARY, item.getFilename());
-				}
+				mpEntity.addBinaryBody(FILE_CONTENT, wipFile, ContentType.DEFAULT_BINARY, item.getFilename());
+				mpEntity.addTextBody(CONTENT_CRC, ContentCrcInputStream.formatCrc(calculateCrc(wipFile)));
 				
 				if (remarks != null) {
 					mpEntity.addTextBody("remarks", remarks, ContentType.TEXT_PLAIN);
@@ -1306,14 +1464,11 @@ public class RemoteRepositoryClient implements RemoteRepository {
 
             // Send the web service request and unmarshall the updated meta-data from the response
             log.info("Sending lock request to HTTP endpoint: " + endpointUrl);
-            HttpResponse response = executeWithAuthentication(request);
+            JAXBElement<LibraryInfoType> jaxbElement = (JAXBElement<LibraryInfoType>)
+                    executeAndUnmarshal(request);
 
             log.info("Lock response received - Status OK");
 
-            Unmarshaller unmarshaller = RepositoryFileManager.getSharedJaxbContext().createUnmarshaller();
-            JAXBElement<LibraryInfoType> jaxbElement = (JAXBElement<LibraryInfoType>) unmarshaller
-                    .unmarshal(response.getEntity().getContent());
-
             // Update the local cache with the content we just received from the remote web service
             manager.getFileManager().saveLibraryMetadata(jaxbElement.getValue());
 
@@ -1366,7 +1521,7 @@ public class RemoteRepositoryClient implements RemoteRepository {
 
             // Send the web service request and check the response
             log.info("Sending promote request to HTTP endpoint: " + endpointUrl);
-            executeWithAuthentication(request);
+            executeWithAuthentication(request).close();
             log.info("Promote response received - Status OK");
 
             // Update the local cache with the content that was just modified in the remote
@@ -1400,7 +1555,7 @@ public class RemoteRepositoryClient implements RemoteRepository {
 
             // Send the web service request and check the response
             log.info("Sending promote request to HTTP endpoint: " + endpointUrl);
-            executeWithAuthentication(request);
+            executeWithAuthentication(request).close();
             log.info("Demote response received - Status OK");
 
             // Update the local cache by deleting the local copy of the item
@@ -1434,7 +1589,7 @@ public class RemoteRepositoryClient implements RemoteRepository {
 
             // Send the web service request and check the response
             log.info("Sending update-status request to HTTP endpoint: " + endpointUrl);
-            executeWithAuthentication(request);
+            executeWithAuthentication(request).close();
             log.info("Update-Status response received - Status OK");
 
             // Update the local cache by deleting the local copy of the item
@@ -1467,7 +1622,7 @@ public class RemoteRepositoryClient implements RemoteRepository {
 
             // Send the web service request and check the response
             log.info("Sending recalculate-crc request to HTTP endpoint: " + endpointUrl);
-            executeWithAuthentication(request);
+            executeWithAuthentication(request).close();
             log.info("Recalculate-crc response received - Status OK");
 
             // Update the local cache by deleting the local copy of the item
@@ -1500,7 +1655,7 @@ public class RemoteRepositoryClient implements RemoteRepository {
 
             // Send the web service request and check the response
             log.info("Sending delete request to HTTP endpoint: " + endpointUrl);
-            executeWithAuthentication(request);
+            executeWithAuthentication(request).close();
             log.info("Delete response received - Status OK");
 
             // Update the local cache with the content that was just modified in the remote
@@ -1512,6 +1667,7 @@ public class RemoteRepositoryClient implements RemoteRepository {
 
             FileUtils.delete( itemMetadata );
             FileUtils.delete( itemContent );
+            manager.getFileManager().refreshLibraryMetadata( itemMetadata );
 
         } catch (JAXBException e) {
             throw new RepositoryException(METADATA_UNREADABLE, e);
@@ -1539,10 +1695,20 @@ public class RemoteRepositoryClient implements RemoteRepository {
      * (or the remote repository is not accessible), the locally cached copy of the content will be
      * used.
      * 
+     * <p>Updates are requested conditionally using the entity tag of the local copy's meta-data.  If
+     * the remote repository reports that the local copy is current, no content is transferred.  The
+     * library content is only downloaded if the item has been updated since the local copy was
+     * obtained.  The time of each successful check is recorded in the download cache so that the
+     * refresh policy is applied across sessions.
+     * 
      * <p>This method will return true if the local copy was replaced by newer content from the remote
      * repository.  False will be returned if the local copy was up-to-date, even if a refresh was
      * forced by the caller or the update policy.
      * 
+     * <p>Downloads of the same item are serialized, so that concurrent requests for an item (e.g.
+     * from the threads of the <code>RepositoryItemPrefetcher</code>) transfer and save its content
+     * at most once.
+     * 
      * @param baseNamespace
      *            the namespace of the repository item to download
      * @param filename
@@ -1556,29 +1722,60 @@ public class RemoteRepositoryClient implements RemoteRepository {
      * @throws RepositoryException
      *             thrown if the remote repository cannot be accessed
      */
-    @SuppressWarnings("unchecked")
     public boolean downloadContent(String baseNamespace, String filename, String versionIdentifier,
             boolean forceUpdate) throws RepositoryException {
         String baseNS = RepositoryNamespaceUtils.normalizeUri(baseNamespace);
         String cacheKey = baseNS + "~" + filename + "~" + versionIdentifier;
-        LibraryInfoType contentMetadata = null;
-        boolean refreshRequired = true;
-        boolean isStaleContent = false;
-        Date localLastUpdated;
 
-        try {
-            contentMetadata = manager.getFileManager().loadLibraryMetadata(baseNS, filename, versionIdentifier);
-            localLastUpdated = XMLGregorianCalendarConverter.toJavaDate(contentMetadata.getLastUpdated());
-            
-        } catch (RepositoryException e) {
-        	localLastUpdated = new Date( 0L ); // make sure the local date is earlier than anything we will get from the repository
+        synchronized (downloadLocks.computeIfAbsent(cacheKey, k -> new Object())) {
+            return downloadItemContent(baseNS, filename, versionIdentifier, forceUpdate);
         }
+    }
+
+    /**
+     * Downloads the specified content (and its associated meta-data) from the remote repository
+     * into the local instance. The caller must hold the download lock for the item.
+     * 
+     * @param baseNS
+     *            the normalized namespace of the repository item to download
+     * @param filename
+     *            the filename of the repository item to download
+     * @param versionIdentifier
+     *            the version identifier of the repository item to download
+     * @param forceUpdate
+     *            disregards the repository's update policy and forces the remote content to be
+     *            downloaded
+     * @return boolean
+     * @throws RepositoryException
+     *             thrown if the remote repository cannot be accessed
+     */
+    @SuppressWarnings("unchecked")
+    private boolean downloadItemContent(String baseNS, String filename, String versionIdentifier,
+            boolean forceUpdate) throws RepositoryException {
+        String cacheKey = baseNS + "~" + filename + "~" + versionIdentifier;
+        File repositoryMetadataFile = manager.getFileManager().getLibraryMetadataLocation(
+                baseNS, filename, versionIdentifier);
+        File repositoryContentFile = manager.getFileManager().getLibraryContentLocation(baseNS,
+                filename, versionIdentifier);
+        LibraryInfoType contentMetadata = findLocalMetadata(baseNS, filename, versionIdentifier);
+        boolean localCopyExists = (contentMetadata != null) && repositoryContentFile.exists();
+        boolean refreshRequired = true;
+        boolean isStaleContent = false;
+        Date localLastUpdated = getLastUpdated(contentMetadata);
         
-        // Skip the download if the item has been downloaded recently
-        if (downloadCache.contains( cacheKey )) {
-            log.info("Skipping download of repository item '" + id + "' - " + baseNS + "; "
-                    + filename + "; " + versionIdentifier);
-            refreshRequired = false;
+        // Skip the download if the item has been downloaded recently or if the refresh policy
+        // does not yet require the local copy to be checked
+        if (!forceUpdate) {
+            if (downloadCache.contains( cacheKey )) {
+                log.info("Skipping download of repository item '" + id + "' - " + baseNS + "; "
+                        + filename + "; " + versionIdentifier);
+                refreshRequired = false;
+                
+            } else if (localCopyExists && !getContentCache().isRefreshDue( cacheKey, refreshPolicy )) {
+                log.info("Skipping download of repository item '" + id + "' - " + baseNS + "; "
+                        + filename + "; " + versionIdentifier + " (refresh policy: " + refreshPolicy + ")");
+                refreshRequired = false;
+            }
         }
         
         // If the item was previously downloaded, make sure it originated from this remote
@@ -1588,21 +1785,23 @@ public class RemoteRepositoryClient implements RemoteRepository {
                     "The requested content is managed by a different remote repository.");
         }
 
-        // If a refresh is required, download the item's metadata and content from the remote web
-        // service
+        // If a refresh is required, check the item's metadata with the remote web service and
+        // download the content if the local copy is out of date
         if (refreshRequired) {
-            File repositoryContentFile = manager.getFileManager().getLibraryContentLocation(baseNS,
-                    filename, versionIdentifier);
             boolean success = false;
 
             try (StringWriter xmlWriter = new StringWriter()) {
-                log.info("Downloading content from repository '" + id + "' - " + baseNS + "; "
+                log.info("Checking for updated content from repository '" + id + "' - " + baseNS + "; "
                         + filename + "; " + versionIdentifier);
                 manager.getFileManager().startChangeSet();
 
-                // Marshal the JAXB content to a string and construct the HTTP requests
+                // Starting a change set can roll back uncommitted changes to the local copy, so
+                // the conditional request is based on the current state of the local files
+                LibraryInfoType localMetadata = findLocalMetadata(baseNS, filename, versionIdentifier);
+                boolean localContentExists = (localMetadata != null) && repositoryContentFile.exists();
+
+                // Marshal the JAXB content to a string and construct the HTTP request
                 HttpPost metadataRequest = newPostRequest(REPOSITORY_ITEM_METADATA_ENDPOINT);
-                HttpPost contentRequest = newPostRequest(REPOSITORY_ITEM_CONTENT_ENDPOINT);
                 RepositoryItemIdentityType itemIdentity = new RepositoryItemIdentityType();
                 Marshaller marshaller = RepositoryFileManager.getSharedJaxbContext()
                         .createMarshaller();
@@ -1613,37 +1812,63 @@ public class RemoteRepositoryClient implements RemoteRepository {
 
                 marshaller.marshal(objectFactory.createRepositoryItemIdentity(itemIdentity), xmlWriter);
                 metadataRequest.setEntity(new StringEntity(xmlWriter.toString(), ContentType.TEXT_XML));
-                contentRequest.setEntity(new StringEntity(xmlWriter.toString(), ContentType.TEXT_XML));
 
-                // Send the requests for meta-data and content to the remote web service
-                HttpResponse metadataResponse = executeWithAuthentication(metadataRequest);
-                HttpResponse contentResponse = executeWithAuthentication(contentRequest);
+                if (localContentExists) {
+                    metadataRequest.setHeader(HttpHeaders.IF_NONE_MATCH,
+                            RepositoryUtils.createItemETag(localMetadata));
+                }
 
-                // Update the local cache with the content we just received from the remote web
-                // service
-                Unmarshaller unmarshaller = RepositoryFileManager.getSharedJaxbContext().createUnmarshaller();
-                JAXBElement<LibraryInfoType> jaxbElement = (JAXBElement<LibraryInfoType>) unmarshaller
-                        .unmarshal(metadataResponse.getEntity().getContent());
-                LibraryInfoType libraryMetadata = jaxbElement.getValue();
+                // Send the conditional request for meta-data to the remote web service
+                JAXBElement<LibraryInfoType> jaxbElement = null;
 
-                manager.getFileManager().createNamespaceIdFiles(
-                        jaxbElement.getValue().getBaseNamespace());
-                manager.getFileManager().saveLibraryMetadata(libraryMetadata);
-                manager.getFileManager().saveFile(repositoryContentFile,
-                        contentResponse.getEntity().getContent());
+                try (CloseableHttpResponse metadataResponse = executeWithAuthentication(metadataRequest)) {
+                    if (metadataResponse.getStatusLine().getStatusCode() != HttpStatus.SC_NOT_MODIFIED) {
+                        Unmarshaller unmarshaller = RepositoryFileManager.getSharedJaxbContext().createUnmarshaller();
+                        
+                        jaxbElement = (JAXBElement<LibraryInfoType>) unmarshaller
+                                .unmarshal(metadataResponse.getEntity().getContent());
+                    }
+                }
+
+                if (jaxbElement == null) {
+                    log.info("Local copy is up-to-date - " + baseNS + "; " + filename + "; "
+                            + versionIdentifier);
+
+                } else {
+                    // Update the local cache with the meta-data we just received from the remote
+                    // web service
+                    LibraryInfoType libraryMetadata = jaxbElement.getValue();
+                    Date remoteLastUpdated = XMLGregorianCalendarConverter.toJavaDate(libraryMetadata.getLastUpdated());
+
+                    manager.getFileManager().createNamespaceIdFiles(
+                            jaxbElement.getValue().getBaseNamespace());
+                    manager.getFileManager().saveLibraryMetadata(libraryMetadata);
+
+                    // Only download the content if it was modified since the local copy was
+                    // obtained (e.g. lock and status changes do not require a new download)
+                    if (!localContentExists || (remoteLastUpdated == null)
+                            || !remoteLastUpdated.equals(getLastUpdated(localMetadata))) {
+                        HttpPost contentRequest = newPostRequest(REPOSITORY_ITEM_CONTENT_ENDPOINT);
+
+                        log.info("Downloading content from repository '" + id + "' - " + baseNS + "; "
+                                + filename + "; " + versionIdentifier);
+                        contentRequest.setEntity(new StringEntity(xmlWriter.toString(), ContentType.TEXT_XML));
+
+                        try (CloseableHttpResponse contentResponse = executeWithAuthentication(contentRequest)) {
+                            manager.getFileManager().saveFile(repositoryContentFile,
+                                    contentResponse.getEntity().getContent());
+                        }
+                    }
+                    
+                    // Compare the last-updated with our previous local value and return true if the
+                    // local content was modified.
+                    isStaleContent = (remoteLastUpdated != null) && remoteLastUpdated.after( localLastUpdated );
+                }
                 success = true;
-                
-                // Compare the last-updated with our previous local value and return true if the
-                // local content was modified.
-                Date remoteLastUpdated = XMLGregorianCalendarConverter.toJavaDate(libraryMetadata.getLastUpdated());
-                isStaleContent = remoteLastUpdated.after( localLastUpdated );
 
             } catch (UnknownHostException e) {
                 // If the remote repository is inaccessible, it is only an error if we are
                 // downloading the files for the first time.
-                File repositoryMetadataFile = manager.getFileManager().getLibraryMetadataLocation(
-                        baseNS, filename, versionIdentifier);
-
                 if (repositoryMetadataFile.exists() && repositoryContentFile.exists()) {
                     log.warn("Remote repository is unavailable - using cached copy of file '"
                             + filename + "'.");
@@ -1664,6 +1889,8 @@ public class RemoteRepositoryClient implements RemoteRepository {
                 // Commit or roll back the changes based on the result of the operation
                 if (success) {
                     manager.getFileManager().commitChangeSet();
+                    getContentCache().recordItem(cacheKey, getLastUpdated(
+                    		findLocalMetadata(baseNS, filename, versionIdentifier)), repositoryContentFile);
                 } else {
                     try {
                         manager.getFileManager().rollbackChangeSet();
@@ -1677,6 +1904,261 @@ public class RemoteRepositoryClient implements RemoteRepository {
         return isStaleContent;
     }
     
+    /**
+     * Downloads the content (and associated meta-data) of multiple items from the remote
+     * repository into the local instance using a single request (or one request for each batch of
+     * {@link RepositoryUtils#MAX_DOWNLOAD_ITEMS} items). Items whose local copies do not require a
+     * refresh under the repository's refresh policy are not requested, and items whose local
+     * copies are found to be current are not transferred.
+     * 
+     * <p>Downloads performed by this method are an optimization only. If the remote repository
+     * cannot be accessed (or does not support multi-item downloads), a warning is logged and any
+     * items that were not downloaded will be retrieved individually when they are accessed.
+     * 
+     * <p>The identities of the items that were downloaded (or found to be current) by this method
+     * are returned to the caller.
+     * 
+     * @param itemIdentities
+     *            the identities of the repository items to download
+     * @param forceUpdate
+     *            disregards the repository's update policy and forces the remote content to be
+     *            downloaded
+     * @return List<RepositoryItemIdentityType>
+     */
+    public List<RepositoryItemIdentityType> downloadContent(List<RepositoryItemIdentityType> itemIdentities,
+            boolean forceUpdate) {
+        List<DownloadItemType> downloadedItems = new ArrayList<>();
+        boolean success = false;
+
+        try {
+            List<DownloadItemType> downloadItems = new ArrayList<>();
+
+            manager.getFileManager().startChangeSet();
+
+            for (RepositoryItemIdentityType itemIdentity : itemIdentities) {
+                DownloadItemType downloadItem = newDownloadItem(itemIdentity, forceUpdate);
+
+                if (downloadItem != null) {
+                    downloadItems.add(downloadItem);
+                }
+            }
+            for (int i = 0; i < downloadItems.size(); i += RepositoryUtils.MAX_DOWNLOAD_ITEMS) {
+                downloadItems(downloadItems.subList(i,
+                        Math.min(i + RepositoryUtils.MAX_DOWNLOAD_ITEMS, downloadItems.size())), downloadedItems);
+            }
+            success = true;
+
+        } catch (JAXBException | IOException | RepositoryException | RuntimeException e) {
+            log.warn("Unable to download items from repository '" + id
+                    + "' - items will be downloaded individually: " + e.getMessage());
+
+        } finally {
+            // Commit or roll back the changes based on the result of the operation
+            try {
+                if (success) {
+                    manager.getFileManager().commitChangeSet();
+                    recordDownloadedItems(downloadedItems);
+
+                } else {
+                    manager.getFileManager().rollbackChangeSet();
+                }
+
+            } catch (RepositoryException e) {
+                log.error(ROLLBACK_ERROR, e);
+                downloadedItems.clear();
+            }
+        }
+        return success ? new ArrayList<>(downloadedItems) : Collections.emptyList();
+    }
+
+    /**
+     * Sends a single multi-item download request to the remote repository and saves the items it
+     * returns to the local repository.
+     * 
+     * @param downloadItems  the list of items to request from the remote repository
+     * @param downloadedItems  the list to which each item that was downloaded or found to be current will be added
+     * @throws JAXBException  thrown if the request cannot be created or an item's meta-data cannot be read
+     * @throws IOException  thrown if an error occurs during request execution
+     * @throws RepositoryException  thrown if the request fails or an item cannot be saved to the local repository
+     */
+    private void downloadItems(List<DownloadItemType> downloadItems, List<DownloadItemType> downloadedItems)
+    		throws JAXBException, IOException, RepositoryException {
+        DownloadItemsRQType downloadRQ = new DownloadItemsRQType();
+        Marshaller marshaller = RepositoryFileManager.getSharedJaxbContext().createMarshaller();
+        HttpPost request = newPostRequest(DOWNLOAD_ITEMS_ENDPOINT);
+        StringWriter xmlWriter = new StringWriter();
+
+        log.info("Downloading " + downloadItems.size() + " items from repository '" + id + "'");
+        downloadRQ.getDownloadItem().addAll(downloadItems);
+        marshaller.marshal(objectFactory.createDownloadItemsRQ(downloadRQ), xmlWriter);
+        request.setEntity(new StringEntity(xmlWriter.toString(), ContentType.TEXT_XML));
+
+        try (CloseableHttpResponse response = executeWithAuthentication(request);
+                ZipInputStream zipIn = new ZipInputStream(response.getEntity().getContent())) {
+            saveDownloadedItems(zipIn, downloadItems, downloadedItems);
+        }
+    }
+
+    /**
+     * Returns a multi-item download request for the specified item, or null if the item's local
+     * copy does not require a refresh.
+     * 
+     * @param itemIdentity  the identity of the repository item to download
+     * @param forceUpdate  flag indicating whether the repository's update policy should be disregarded
+     * @return DownloadItemType
+     * @throws RepositoryException  thrown if the local repository location of the item is not valid
+     */
+    private DownloadItemType newDownloadItem(RepositoryItemIdentityType itemIdentity, boolean forceUpdate)
+    		throws RepositoryException {
+        String baseNS = RepositoryNamespaceUtils.normalizeUri(itemIdentity.getBaseNamespace());
+        String filename = itemIdentity.getFilename();
+        String versionIdentifier = itemIdentity.getVersion();
+        String cacheKey = baseNS + "~" + filename + "~" + versionIdentifier;
+        File repositoryContentFile = manager.getFileManager().getLibraryContentLocation(baseNS,
+                filename, versionIdentifier);
+        LibraryInfoType localMetadata = findLocalMetadata(baseNS, filename, versionIdentifier);
+        boolean localCopyExists = (localMetadata != null) && repositoryContentFile.exists();
+        DownloadItemType downloadItem = null;
+
+        // Items managed by other repositories are left to be reported when they are accessed
+        boolean refreshRequired = (localMetadata == null) || id.equals(localMetadata.getOwningRepository());
+
+        if (refreshRequired && !forceUpdate) {
+            refreshRequired = !downloadCache.contains( cacheKey )
+            		&& (!localCopyExists || getContentCache().isRefreshDue( cacheKey, refreshPolicy ));
+        }
+        if (refreshRequired) {
+            downloadItem = new DownloadItemType();
+            downloadItem.setBaseNamespace(baseNS);
+            downloadItem.setFilename(filename);
+            downloadItem.setVersion(versionIdentifier);
+
+            if (localCopyExists) {
+                downloadItem.setEtag(RepositoryUtils.createItemETag(localMetadata));
+            }
+        }
+        return downloadItem;
+    }
+
+    /**
+     * Saves the meta-data and content of each item in the given multi-item download archive to
+     * the local repository.
+     * 
+     * @param zipIn  the zip archive that was received from the remote repository
+     * @param downloadItems  the list of items that were requested from the remote repository
+     * @param downloadedItems  the list to which each item that was downloaded or found to be current will be added
+     * @throws JAXBException  thrown if an item's meta-data cannot be read
+     * @throws IOException  thrown if the archive cannot be read
+     * @throws RepositoryException  thrown if an item cannot be saved to the local repository, or if
+     *                              any of the requested items were not included in the archive
+     */
+    @SuppressWarnings("unchecked")
+    private void saveDownloadedItems(ZipInputStream zipIn, List<DownloadItemType> downloadItems,
+    		List<DownloadItemType> downloadedItems) throws JAXBException, IOException, RepositoryException {
+        Unmarshaller unmarshaller = RepositoryFileManager.getSharedJaxbContext().createUnmarshaller();
+        List<DownloadItemType> savedItems = new ArrayList<>();
+        ZipEntry zipEntry;
+
+        while ((zipEntry = zipIn.getNextEntry()) != null) {
+            String entryName = zipEntry.getName();
+            int separatorIdx = entryName.indexOf('/');
+            DownloadItemType downloadItem = downloadItems.get(
+            		Integer.parseInt(entryName.substring(0, separatorIdx)));
+            String entryType = entryName.substring(separatorIdx + 1);
+            String baseNS = downloadItem.getBaseNamespace();
+
+            if (entryType.equals(RepositoryUtils.DOWNLOAD_NOT_MODIFIED_ENTRY)) {
+                savedItems.add(downloadItem);
+
+            } else if (entryType.equals(RepositoryUtils.DOWNLOAD_METADATA_ENTRY)) {
+                JAXBElement<LibraryInfoType> jaxbElement = (JAXBElement<LibraryInfoType>) unmarshaller
+                        .unmarshal(new ByteArrayInputStream(toByteArray(zipIn)));
+
+                manager.getFileManager().createNamespaceIdFiles(jaxbElement.getValue().getBaseNamespace());
+                manager.getFileManager().saveLibraryMetadata(jaxbElement.getValue());
+
+            } else if (entryType.equals(RepositoryUtils.DOWNLOAD_CONTENT_ENTRY)) {
+                File repositoryContentFile = manager.getFileManager().getLibraryContentLocation(
+                        baseNS, downloadItem.getFilename(), downloadItem.getVersion());
+
+                manager.getFileManager().saveFile(repositoryContentFile,
+                        new ByteArrayInputStream(toByteArray(zipIn)));
+                savedItems.add(downloadItem);
+            }
+            zipIn.closeEntry();
+        }
+        
+        // Items that are missing from the archive (e.g. because they were deleted or the user is
+        // not authorized to read them) cause the whole download to be abandoned
+        if (savedItems.size() < downloadItems.size()) {
+            throw new RepositoryException("The remote repository did not return "
+            		+ (downloadItems.size() - savedItems.size()) + " of the requested items.");
+        }
+        downloadedItems.addAll(savedItems);
+    }
+    
+    /**
+     * Records the items that were downloaded (or found to be current) by a multi-item download in
+     * the session and persistent download caches.
+     * 
+     * @param downloadedItems  the items that were downloaded or found to be current
+     */
+    private void recordDownloadedItems(List<DownloadItemType> downloadedItems) {
+        for (DownloadItemType downloadItem : downloadedItems) {
+            String baseNS = downloadItem.getBaseNamespace();
+            String filename = downloadItem.getFilename();
+            String versionIdentifier = downloadItem.getVersion();
+            String cacheKey = baseNS + "~" + filename + "~" + versionIdentifier;
+
+            try {
+                getContentCache().recordItem(cacheKey,
+                        getLastUpdated(findLocalMetadata(baseNS, filename, versionIdentifier)),
+                        manager.getFileManager().getLibraryContentLocation(baseNS, filename, versionIdentifier));
+                downloadCache.add(cacheKey);
+
+            } catch (RepositoryException e) {
+                log.warn("Unable to record downloaded item: " + cacheKey, e);
+            }
+        }
+    }
+    
+    /**
+     * Returns the meta-data for the local copy of the specified item, or null if the item has not
+     * yet been downloaded into the local repository.
+     * 
+     * @param baseNamespace  the base namespace of the repository item
+     * @param filename  the filename of the repository item
+     * @param versionIdentifier  the version identifier of the repository item
+     * @return LibraryInfoType
+     */
+    private LibraryInfoType findLocalMetadata(String baseNamespace, String filename, String versionIdentifier) {
+    	LibraryInfoType localMetadata;
+    	
+        try {
+        	localMetadata = manager.getFileManager().loadLibraryMetadata(baseNamespace, filename, versionIdentifier);
+            
+        } catch (RepositoryException e) {
+        	localMetadata = null;
+        }
+        return localMetadata;
+    }
+    
+    /**
+     * Returns the last-updated date of the given local meta-data.  If no local meta-data exists, a date
+     * that is earlier than anything we will get from the repository is returned.
+     * 
+     * @param localMetadata  the local meta-data for a repository item (may be null)
+     * @return Date
+     */
+    private Date getLastUpdated(LibraryInfoType localMetadata) {
+    	Date lastUpdated = null;
+    	
+    	if (localMetadata != null) {
+    		lastUpdated = XMLGregorianCalendarConverter.toJavaDate( localMetadata.getLastUpdated() );
+    	}
+    	return (lastUpdated == null) ? new Date( 0L ) : lastUpdated;
+    }
+    
     /**
      * Returns true if the copy of the item in the remote repository has been updated
      * since the local copy was last downloaded.
@@ -1697,19 +2179,28 @@ public class RemoteRepositoryClient implements RemoteRepository {
             itemIdentity.setFilename( item.getFilename() );
             itemIdentity.setVersion( item.getVersion() );
 
+            // Get the local meta-data for the item so the request can be made conditional
+            LibraryInfoType localMetadata = manager.getFileManager().loadLibraryMetadata(
+            		item.getBaseNamespace(), item.getFilename(), item.getVersion() );
+            
             marshaller.marshal( objectFactory.createRepositoryItemIdentity(itemIdentity), xmlWriter );
             metadataRequest.setEntity( new StringEntity( xmlWriter.toString(), ContentType.TEXT_XML ) );
+            metadataRequest.setHeader( HttpHeaders.IF_NONE_MATCH, RepositoryUtils.createItemETag( localMetadata ) );
 
             // Send the request for meta-data to the remote web service
-            HttpResponse metadataResponse = executeWithAuthentication(metadataRequest);
-            Unmarshaller unmarshaller = RepositoryFileManager.getSharedJaxbContext().createUnmarshaller();
-            JAXBElement<LibraryInfoType> jaxbElement = (JAXBElement<LibraryInfoType>) unmarshaller
-                    .unmarshal( metadataResponse.getEntity().getContent() );
-            LibraryInfoType remoteMetadata = jaxbElement.getValue();
+            LibraryInfoType remoteMetadata;
+            
+            try (CloseableHttpResponse metadataResponse = executeWithAuthentication(metadataRequest)) {
+                if (metadataResponse.getStatusLine().getStatusCode() == HttpStatus.SC_NOT_MODIFIED) {
+                	return false;
+                }
+                Unmarshaller unmarshaller = RepositoryFileManager.getSharedJaxbContext().createUnmarshaller();
+                JAXBElement<LibraryInfoType> jaxbElement = (JAXBElement<LibraryInfoType>) unmarshaller
+                        .unmarshal( metadataResponse.getEntity().getContent() );
+                remoteMetadata = jaxbElement.getValue();
+            }
     		
-            // Get the local meta-data for the item and compare the last-updated timestamps
-            LibraryInfoType localMetadata = manager.getFileManager().loadLibraryMetadata(
-            		item.getBaseNamespace(), item.getFilename(), item.getVersion() );
+            // Compare the local and remote last-updated timestamps
             Date localLastUpdated = XMLGregorianCalendarConverter.toJavaDate( localMetadata.getLastUpdated() );
             Date remoteLastUpdated = XMLGregorianCalendarConverter.toJavaDate( remoteMetadata.getLastUpdated() );
             
@@ -1772,10 +2263,8 @@ public class RemoteRepositoryClient implements RemoteRepository {
             throws RepositoryException {
         try {
             HttpGet getRequest = new HttpGet(endpointUrl + REPOSITORY_METADATA_ENDPOINT);
-            HttpResponse response = execute(getRequest);
-            Unmarshaller unmarshaller = RepositoryFileManager.getSharedJaxbContext().createUnmarshaller();
-            JAXBElement<RepositoryInfoType> jaxbElement = (JAXBElement<RepositoryInfoType>) unmarshaller
-                    .unmarshal(response.getEntity().getContent());
+            JAXBElement<RepositoryInfoType> jaxbElement = (JAXBElement<RepositoryInfoType>)
+                    executeAndUnmarshal(endpointUrl, getRequest);
 
             return jaxbElement.getValue();
 
@@ -1960,6 +2449,59 @@ public class RemoteRepositoryClient implements RemoteRepository {
         return errorMessage;
     }
 
+    /**
+     * Base class for iterators that retrieve their results from the remote repository one page
+     * at a time. A page is not requested until the results of the previous page have been
+     * consumed.
+     *
+     * @param <T>  the type of result returned by the iterator
+     */
+    private abstract static class PagedResultIterator<T> implements RepositoryResultIterator<T> {
+
+        private Iterator<T> currentPage = Collections.emptyIterator();
+        private String nextCursor;
+        private boolean lastPage = false;
+
+        /**
+         * @see org.opentravel.schemacompiler.repository.RepositoryResultIterator#hasNext()
+         */
+        @Override
+        public boolean hasNext() throws RepositoryException {
+            // Pages may be empty if none of their results are accessible to the user
+            while (!currentPage.hasNext() && !lastPage) {
+                List<T> pageItems = new ArrayList<>();
+                String cursor = nextCursor;
+
+                nextCursor = fetchPage(cursor, pageItems);
+                lastPage = (nextCursor == null) || nextCursor.equals(cursor);
+                currentPage = pageItems.iterator();
+            }
+            return currentPage.hasNext();
+        }
+
+        /**
+         * @see org.opentravel.schemacompiler.repository.RepositoryResultIterator#next()
+         */
+        @Override
+        public T next() throws RepositoryException {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return currentPage.next();
+        }
+
+        /**
+         * Retrieves the page of results that is identified by the given cursor.
+         *
+         * @param cursor  the cursor returned with the previous page (null for the first page)
+         * @param pageItems  the list to which the results on the page should be added
+         * @return String  the cursor for the next page (null if this is the last page)
+         * @throws RepositoryException  thrown if the page cannot be retrieved
+         */
+        protected abstract String fetchPage(String cursor, List<T> pageItems) throws RepositoryException;
+
+    }
+
     /**
      * Encapsulates a single name/value pair that should be included as a URL parameter on an HTTP
      * GET request.
@@ -2014,6 +2556,46 @@ public class RemoteRepositoryClient implements RemoteRepository {
 
     private static final int DEFAULT_BUFFER_SIZE = 1024 * 4;
 
+    /**
+     * Saves the content of the given stream to the specified file and returns the CRC-32
+     * checksum of the content.
+     * 
+     * @param content  the content to be saved (the stream will be closed by this method)
+     * @param file  the file to which the content should be saved
+     * @return long
+     * @throws IOException  thrown if the content cannot be saved
+     */
+    private static long saveContent(InputStream content, File file) throws IOException {
+        try (ContentCrcInputStream in = new ContentCrcInputStream(content);
+                OutputStream out = new FileOutputStream(file)) {
+            byte[] data = new byte[DEFAULT_BUFFER_SIZE];
+            int nRead;
+
+            while ((nRead = in.read(data, 0, data.length)) != -1) {
+                out.write(data, 0, nRead);
+            }
+            return in.getCrc();
+        }
+    }
+
+    /**
+     * Returns the CRC-32 checksum of the given file's content.
+     * 
+     * @param file  the file for which to calculate the checksum
+     * @return long
+     * @throws IOException  thrown if the file cannot be read
+     */
+    private static long calculateCrc(File file) throws IOException {
+        try (ContentCrcInputStream in = new ContentCrcInputStream(new FileInputStream(file))) {
+            byte[] data = new byte[DEFAULT_BUFFER_SIZE];
+
+            while (in.read(data, 0, data.length) != -1) {
+                // Read the entire file to compute the checksum
+            }
+            return in.getCrc();
+        }
+    }
+
     private byte[] toByteArray(InputStream is) throws IOException {
         ByteArrayOutputStream buffer = new ByteArrayOutputStream();
         int nRead;
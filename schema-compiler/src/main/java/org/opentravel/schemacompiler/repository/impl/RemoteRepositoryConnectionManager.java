@@ -0,0 +1,346 @@
+/**
+ * Copyright (C) 2014 OpenTravel Alliance (info@opentravel.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opentravel.schemacompiler.repository.impl;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.Header;
+import org.apache.http.HeaderElement;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.entity.GzipCompressingEntity;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.EntityUtils;
+
+/**
+ * Maintains a single long-lived, connection-pooling HTTP client for each remote repository
+ * endpoint. Sharing a client allows the connections (along with their TLS sessions and NTLM
+ * authentication state) to be re-used by all of the requests that are sent to a repository.
+ *
+ * <p>
+ * The pool can be tuned using the following system properties:
+ * <ul>
+ * <li><code>ota2.repository.http.maxConnections</code> - maximum number of connections for each
+ * repository endpoint (default: 20)</li>
+ * <li><code>ota2.repository.http.maxConnectionsPerRoute</code> - maximum number of connections for
+ * each route to a repository endpoint (default: 10)</li>
+ * <li><code>ota2.repository.http.connectTimeout</code> - timeout in milliseconds for establishing
+ * a connection (default: 30000)</li>
+ * <li><code>ota2.repository.http.socketTimeout</code> - timeout in milliseconds while waiting for
+ * response data (default: 300000)</li>
+ * <li><code>ota2.repository.http.idleTimeout</code> - time in milliseconds after which idle
+ * connections are evicted from the pool (default: 60000)</li>
+ * <li><code>ota2.repository.http.compression</code> - set to false to disable the compression of
+ * request and response entities (default: true)</li>
+ * </ul>
+ *
+ * <p>
+ * Request entities are gzip-compressed only after the repository service has advertised that it
+ * can decode them using the <code>X-OTA2-Request-Encoding</code> response header. A compressed
+ * response alone is not sufficient, since it may have been produced by a proxy in front of an
+ * older service. If a compressed request is rejected with a 400 or 415 status, the endpoint falls
+ * back to uncompressed requests and the request is re-sent without compression (when its entity
+ * is repeatable).
+ *
+ * @author S. Livezey
+ */
+public class RemoteRepositoryConnectionManager {
+
+    public static final String MAX_CONNECTIONS_PROPERTY = "ota2.repository.http.maxConnections";
+    public static final String MAX_CONNECTIONS_PER_ROUTE_PROPERTY = "ota2.repository.http.maxConnectionsPerRoute";
+    public static final String CONNECT_TIMEOUT_PROPERTY = "ota2.repository.http.connectTimeout";
+    public static final String SOCKET_TIMEOUT_PROPERTY = "ota2.repository.http.socketTimeout";
+    public static final String IDLE_TIMEOUT_PROPERTY = "ota2.repository.http.idleTimeout";
+    public static final String COMPRESSION_PROPERTY = "ota2.repository.http.compression";
+    public static final String REQUEST_ENCODING_HEADER = "X-OTA2-Request-Encoding";
+
+    private static final int DEFAULT_MAX_CONNECTIONS = 20;
+    private static final int DEFAULT_MAX_CONNECTIONS_PER_ROUTE = 10;
+    private static final int DEFAULT_CONNECT_TIMEOUT = 30000;
+    private static final int DEFAULT_SOCKET_TIMEOUT = 300000;
+    private static final int DEFAULT_IDLE_TIMEOUT = 60000;
+    private static final String GZIP_ENCODING = "gzip";
+
+    private static Log log = LogFactory.getLog(RemoteRepositoryConnectionManager.class);
+    private static Map<String,CloseableHttpClient> httpClients = new HashMap<>();
+    private static Set<String> compressionEndpoints = ConcurrentHashMap.newKeySet();
+    private static Set<String> uncompressedEndpoints = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private RemoteRepositoryConnectionManager() {}
+
+    /**
+     * Returns the shared HTTP client for the given repository endpoint, creating it if necessary.
+     *
+     * @param endpointUrl
+     *            the URL of the remote repository endpoint
+     * @return CloseableHttpClient
+     */
+    public static synchronized CloseableHttpClient getHttpClient(String endpointUrl) {
+        String clientKey = (endpointUrl == null) ? "" : endpointUrl;
+        CloseableHttpClient httpClient = httpClients.get(clientKey);
+
+        if (httpClient == null) {
+            httpClient = createHttpClient(clientKey);
+            httpClients.put(clientKey, httpClient);
+        }
+        return httpClient;
+    }
+
+    /**
+     * Returns true if the given repository endpoint has advertised that it is able to decode
+     * gzip-encoded request entities, and has not rejected a compressed request since.
+     *
+     * @param endpointUrl
+     *            the URL of the remote repository endpoint
+     * @return boolean
+     */
+    public static boolean isCompressionSupported(String endpointUrl) {
+        String clientKey = (endpointUrl == null) ? "" : endpointUrl;
+
+        return compressionEndpoints.contains(clientKey) && !uncompressedEndpoints.contains(clientKey);
+    }
+
+    /**
+     * Sends the given request using the shared HTTP client for the specified endpoint. The
+     * response entity is streamed from the remote repository, so the caller must close the
+     * response when it is finished with the content. Closing the response consumes any content
+     * that was not read by the caller so that the pooled connection can be re-used.
+     *
+     * <p>
+     * If the request entity is compressed and the endpoint rejects it with a 400 or 415 status,
+     * compression is disabled for the endpoint and the request is sent again with its original
+     * entity, provided that the entity is repeatable.
+     *
+     * @param endpointUrl
+     *            the URL of the remote repository endpoint
+     * @param request
+     *            the request to send to the remote repository
+     * @param context
+     *            the HTTP context for the request (may be null)
+     * @return CloseableHttpResponse
+     * @throws IOException
+     *             thrown if an error occurs during request execution
+     */
+    public static CloseableHttpResponse execute(String endpointUrl, HttpUriRequest request,
+            HttpContext context) throws IOException {
+        HttpEntity plainEntity = null;
+
+        if ((request instanceof HttpEntityEnclosingRequest) && isCompressionSupported(endpointUrl)) {
+            HttpEntityEnclosingRequest entityRequest = (HttpEntityEnclosingRequest) request;
+            HttpEntity requestEntity = entityRequest.getEntity();
+
+            if ((requestEntity != null) && (requestEntity.getContentEncoding() == null)) {
+                entityRequest.setEntity(new GzipCompressingEntity(requestEntity));
+                plainEntity = requestEntity;
+            }
+        }
+        CloseableHttpResponse response = new PooledHttpResponse(
+                getHttpClient(endpointUrl).execute(request, context));
+
+        if ((plainEntity != null) && isCompressionRejected(response)) {
+            log.warn("Compressed request rejected by " + endpointUrl
+                    + " - request compression disabled for this repository.");
+            uncompressedEndpoints.add((endpointUrl == null) ? "" : endpointUrl);
+
+            if (plainEntity.isRepeatable()) {
+                response.close();
+                ((HttpEntityEnclosingRequest) request).setEntity(plainEntity);
+                response = new PooledHttpResponse(getHttpClient(endpointUrl).execute(request, context));
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Returns true if the given response indicates that the remote repository was unable to
+     * process a compressed request entity.
+     *
+     * @param response
+     *            the response to a request with a compressed entity
+     * @return boolean
+     */
+    private static boolean isCompressionRejected(CloseableHttpResponse response) {
+        int statusCode = response.getStatusLine().getStatusCode();
+
+        return (statusCode == HttpStatus.SC_BAD_REQUEST)
+                || (statusCode == HttpStatus.SC_UNSUPPORTED_MEDIA_TYPE);
+    }
+
+    /**
+     * Closes all of the shared HTTP clients and releases their pooled connections. New clients
+     * will be created if any further requests are sent to a remote repository.
+     */
+    public static synchronized void shutdown() {
+        for (CloseableHttpClient httpClient : httpClients.values()) {
+            try {
+                httpClient.close();
+
+            } catch (IOException e) {
+                log.warn("Error closing remote repository HTTP client.", e);
+            }
+        }
+        httpClients.clear();
+        compressionEndpoints.clear();
+        uncompressedEndpoints.clear();
+    }
+
+    /**
+     * Creates a new connection-pooling HTTP client that is configured using the current system
+     * properties.
+     *
+     * @param clientKey
+     *            the key that identifies the repository endpoint of the client
+     * @return CloseableHttpClient
+     */
+    private static CloseableHttpClient createHttpClient(String clientKey) {
+        Registry<ConnectionSocketFactory> socketFactoryRegistry = RegistryBuilder
+                .<ConnectionSocketFactory> create()
+                .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                .register("https", SSLConnectionSocketFactory.getSystemSocketFactory()).build();
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(
+                socketFactoryRegistry);
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(getIntProperty(CONNECT_TIMEOUT_PROPERTY, DEFAULT_CONNECT_TIMEOUT))
+                .setSocketTimeout(getIntProperty(SOCKET_TIMEOUT_PROPERTY, DEFAULT_SOCKET_TIMEOUT))
+                .build();
+
+        connectionManager.setMaxTotal(getIntProperty(MAX_CONNECTIONS_PROPERTY, DEFAULT_MAX_CONNECTIONS));
+        connectionManager.setDefaultMaxPerRoute(
+                getIntProperty(MAX_CONNECTIONS_PER_ROUTE_PROPERTY, DEFAULT_MAX_CONNECTIONS_PER_ROUTE));
+
+        // Connection state tracking is disabled so that connections that have been authenticated
+        // (e.g. using NTLM) can be re-used by subsequent requests to the same repository
+        HttpClientBuilder builder = HttpClientBuilder.create().useSystemProperties()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setDefaultCredentialsProvider(new NTLMSystemCredentialsProvider())
+                .disableConnectionState()
+                .evictExpiredConnections()
+                .evictIdleConnections(
+                        (long) getIntProperty(IDLE_TIMEOUT_PROPERTY, DEFAULT_IDLE_TIMEOUT),
+                        TimeUnit.MILLISECONDS);
+
+        if (Boolean.parseBoolean(System.getProperty(COMPRESSION_PROPERTY, "true"))) {
+            // Record the request encodings that are advertised by the repository service
+            builder.addInterceptorFirst((HttpResponseInterceptor) (response, context) -> {
+                Header requestEncoding = response.getFirstHeader(REQUEST_ENCODING_HEADER);
+
+                if ((requestEncoding != null) && isGzipEncoding(requestEncoding)) {
+                    compressionEndpoints.add(clientKey);
+                }
+            });
+
+        } else {
+            builder.disableContentCompression();
+        }
+        return builder.build();
+    }
+
+    /**
+     * Returns true if the given header includes the gzip encoding in its list of values.
+     *
+     * @param header
+     *            the header to check
+     * @return boolean
+     */
+    private static boolean isGzipEncoding(Header header) {
+        boolean result = false;
+
+        for (HeaderElement element : header.getElements()) {
+            result |= GZIP_ENCODING.equalsIgnoreCase(element.getName());
+        }
+        return result;
+    }
+
+    /**
+     * Returns the positive integer value of the specified system property, or the default value
+     * provided if the property is not defined or is invalid.
+     *
+     * @param propertyName
+     *            the name of the system property to return
+     * @param defaultValue
+     *            the default value to return if the property is not defined
+     * @return int
+     */
+    private static int getIntProperty(String propertyName, int defaultValue) {
+        Integer value = Integer.getInteger(propertyName);
+
+        return ((value == null) || (value <= 0)) ? defaultValue : value;
+    }
+
+    /**
+     * Response returned to callers of the connection manager. Closing the response consumes the
+     * remainder of its content (if any) so that the underlying connection is returned to the pool
+     * instead of being discarded.
+     */
+    private static class PooledHttpResponse extends BasicHttpResponse implements CloseableHttpResponse {
+
+        private CloseableHttpResponse response;
+
+        /**
+         * Constructor that specifies the response from the pooled HTTP client.
+         *
+         * @param response
+         *            the response received from the HTTP client
+         */
+        public PooledHttpResponse(CloseableHttpResponse response) {
+            super(response.getStatusLine());
+            setHeaders(response.getAllHeaders());
+            setEntity(response.getEntity());
+            setLocale(response.getLocale());
+            this.response = response;
+        }
+
+        /**
+         * @see java.io.Closeable#close()
+         */
+        @Override
+        public void close() throws IOException {
+            try {
+                EntityUtils.consume(response.getEntity());
+
+            } finally {
+                response.close();
+            }
+        }
+
+    }
+
+}
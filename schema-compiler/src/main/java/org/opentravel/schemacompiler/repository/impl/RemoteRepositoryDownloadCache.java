@@ -0,0 +1,545 @@
+/**
+ * Copyright (C) 2014 OpenTravel Alliance (info@opentravel.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opentravel.schemacompiler.repository.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.opentravel.ns.ota2.repositoryinfo_v01_00.RefreshPolicy;
+
+/**
+ * Persistent index of the items that have been downloaded from a remote repository into the local
+ * repository. Each entry records the SHA-256 hash of the item's content, the last-updated
+ * timestamp of the item and the last time that the local copy was checked against the remote
+ * repository. The last-checked time is used to apply the repository's refresh policy across
+ * sessions.
+ *
+ * <p>
+ * Downloaded content is stored by its hash: the first item with a given hash becomes the stored
+ * copy of that content (through a hard link in the <code>content</code> folder of the cache), and
+ * the file of each later item with identical bytes (e.g. an unchanged library in a new version) is
+ * replaced by another link to the stored copy. Identical content is therefore stored once on disk,
+ * regardless of how many items share it. This relies on the repository file manager replacing
+ * files by renaming new content over them, instead of rewriting them in place. Stored content that
+ * is no longer linked to any item is deleted when the index is compacted. Content is not shared on
+ * file systems that do not support hard links and link counts.
+ *
+ * <p>
+ * The index is located in the <code>.download-cache</code> folder of the local repository and may
+ * be shared by several JVMs. It is held in memory and only reloaded when the index file has been
+ * modified by another process. The index file is only read while holding a shared file lock, and
+ * each update is appended to it while holding an exclusive file lock; the file is rewritten
+ * atomically once it accumulates enough superseded entries. Content hashes are computed before
+ * the lock is obtained. Errors in the cache are logged and ignored because the cache is an
+ * optimization only.
+ *
+ * @author S. Livezey
+ */
+public class RemoteRepositoryDownloadCache {
+
+    public static final String CACHE_FOLDER = ".download-cache";
+
+    private static final String LOCK_FILENAME = "cache.lock";
+    private static final String CONTENT_FOLDER = "content";
+    private static final String LINK_COUNT_ATTRIBUTE = "unix:nlink";
+    private static final String INDEX_FILE_SUFFIX = "-index.properties";
+    private static final String HASH_ALGORITHM = "SHA-256";
+    private static final long DAILY_REFRESH_INTERVAL = 24L * 60L * 60L * 1000L;
+    private static final int MIN_COMPACTION_RECORDS = 100;
+
+    private static Log log = LogFactory.getLog(RemoteRepositoryDownloadCache.class);
+    private static Map<String,Object> cacheMonitors = new ConcurrentHashMap<>();
+
+    private File cacheFolder;
+    private File contentFolder;
+    private File indexFile;
+    private Object cacheMonitor;
+    private Properties index = new Properties();
+    private long indexModified = -1L;
+    private long indexLength = -1L;
+    private int indexRecords;
+
+    /**
+     * Constructor that specifies the local repository location and the ID of the remote
+     * repository whose downloads are to be indexed.
+     *
+     * @param repositoryLocation
+     *            the folder location of the local repository
+     * @param repositoryId
+     *            the ID of the remote repository
+     */
+    public RemoteRepositoryDownloadCache(File repositoryLocation, String repositoryId) {
+        this.cacheFolder = new File(repositoryLocation, CACHE_FOLDER);
+        this.contentFolder = new File(cacheFolder, CONTENT_FOLDER);
+        this.indexFile = new File(cacheFolder,
+                repositoryId.replaceAll("[^A-Za-z0-9._\\-]", "_") + INDEX_FILE_SUFFIX);
+        this.cacheMonitor = cacheMonitors.computeIfAbsent(indexFile.getAbsolutePath(),
+                k -> new Object());
+    }
+
+    /**
+     * Returns true if the local copy of the specified item must be checked against the remote
+     * repository under the given refresh policy. Items that are not in the index are always due
+     * for a check unless the refresh policy is <code>ON_DEMAND</code>.
+     *
+     * @param itemKey
+     *            the key that identifies the repository item
+     * @param refreshPolicy
+     *            the refresh policy of the remote repository
+     * @return boolean
+     */
+    public boolean isRefreshDue(String itemKey, RefreshPolicy refreshPolicy) {
+        boolean refreshDue;
+
+        if (refreshPolicy == RefreshPolicy.ON_DEMAND) {
+            refreshDue = false;
+
+        } else if (refreshPolicy == RefreshPolicy.DAILY) {
+            CacheEntry entry = getEntry(itemKey);
+
+            refreshDue = (entry == null)
+                    || ((System.currentTimeMillis() - entry.lastChecked) >= DAILY_REFRESH_INTERVAL);
+
+        } else {
+            refreshDue = true;
+        }
+        return refreshDue;
+    }
+
+    /**
+     * Returns the SHA-256 hash of the content that was last recorded for the specified item, or
+     * null if the item is not in the index.
+     *
+     * @param itemKey
+     *            the key that identifies the repository item
+     * @return String
+     */
+    public String getContentHash(String itemKey) {
+        CacheEntry entry = getEntry(itemKey);
+
+        return (entry == null) ? null : entry.contentHash;
+    }
+
+    /**
+     * Records that the local copy of the specified item has just been downloaded or checked
+     * against the remote repository. The hash of the item's content is only re-computed (and the
+     * content only shared with other items) if its last-updated timestamp has changed since it was
+     * last recorded.
+     *
+     * @param itemKey
+     *            the key that identifies the repository item
+     * @param lastUpdated
+     *            the last-updated timestamp of the local copy (may be null)
+     * @param contentFile
+     *            the content file of the local copy
+     */
+    public void recordItem(String itemKey, Date lastUpdated, File contentFile) {
+        if (!contentFile.exists()) {
+            return;
+        }
+        try {
+            CacheEntry previousEntry = getEntry(itemKey);
+            long updatedTime = (lastUpdated == null) ? 0L : lastUpdated.getTime();
+            String contentHash = null;
+
+            // Hash and share the content before the lock is obtained, since it may be large
+            if ((previousEntry == null) || (previousEntry.lastUpdated != updatedTime)) {
+                contentHash = computeHash(contentFile);
+                storeContent(contentHash, contentFile);
+            }
+
+            synchronized (cacheMonitor) {
+                try (FileChannel lockChannel = openLockChannel();
+                        FileLock lock = lockChannel.lock()) {
+                    refreshIndex();
+                    CacheEntry entry = CacheEntry.parse(index.getProperty(itemKey));
+
+                    if (contentHash != null) {
+                        entry = new CacheEntry(contentHash, updatedTime, 0L);
+
+                    } else if (entry == null) {
+                        entry = previousEntry;
+                    }
+                    entry.lastChecked = System.currentTimeMillis();
+                    index.setProperty(itemKey, entry.toString());
+
+                    if (indexRecords >= Math.max(index.size() * 2, MIN_COMPACTION_RECORDS)) {
+                        saveIndex();
+                        deleteUnusedContent();
+                    } else {
+                        appendIndexEntry(itemKey, entry);
+                    }
+                }
+            }
+
+        } catch (IOException e) {
+            log.warn("Unable to update the download cache for item: " + itemKey, e);
+        }
+    }
+
+    /**
+     * Returns the index entry for the specified item, or null if the item is not in the index.
+     *
+     * @param itemKey
+     *            the key that identifies the repository item
+     * @return CacheEntry
+     */
+    private CacheEntry getEntry(String itemKey) {
+        synchronized (cacheMonitor) {
+            if (indexFile.exists()) {
+                try (FileChannel lockChannel = openLockChannel();
+                        FileLock lock = lockChannel.lock(0L, Long.MAX_VALUE, true)) {
+                    refreshIndex();
+
+                } catch (IOException e) {
+                    log.warn("Unable to lock the download cache index: " + indexFile.getName(), e);
+                }
+            } else {
+                refreshIndex();
+            }
+            return CacheEntry.parse(index.getProperty(itemKey));
+        }
+    }
+
+    /**
+     * Shares the given content file with all other items whose content has the same hash. If no
+     * content with the hash has been stored, the content file becomes the stored copy. Otherwise,
+     * the content file is replaced by a link to the stored copy.
+     *
+     * @param contentHash
+     *            the hash of the content file
+     * @param contentFile
+     *            the content file of the item's local copy
+     */
+    private void storeContent(String contentHash, File contentFile) {
+        File storedFile = new File(contentFolder, contentHash);
+
+        try {
+            if (getLinkCount(contentFile) < 0) {
+                return; // content cannot be shared on this file system
+            }
+            Files.createDirectories(contentFolder.toPath());
+
+            if (!storedFile.exists()) {
+                Files.createLink(storedFile.toPath(), contentFile.toPath());
+
+            } else if (!Files.isSameFile(storedFile.toPath(), contentFile.toPath())) {
+                File linkFile = new File(contentFile.getAbsoluteFile().getParentFile(),
+                        contentFile.getName() + "-" + contentHash + ".tmp");
+
+                Files.deleteIfExists(linkFile.toPath());
+                Files.createLink(linkFile.toPath(), storedFile.toPath());
+                moveFile(linkFile, contentFile);
+            }
+
+        } catch (IOException | UnsupportedOperationException | SecurityException e) {
+            // Ignore - the item keeps its own copy of the content (e.g. if another process has
+            // stored or deleted the same content at the same time)
+            log.debug("Unable to share downloaded content: " + contentFile.getName(), e);
+        }
+    }
+
+    /**
+     * Deletes the stored content that is no longer linked to the file of any item.
+     */
+    private void deleteUnusedContent() {
+        File[] storedFiles = contentFolder.listFiles();
+
+        if (storedFiles != null) {
+            for (File storedFile : storedFiles) {
+                try {
+                    if (getLinkCount(storedFile) == 1) {
+                        Files.deleteIfExists(storedFile.toPath());
+                    }
+
+                } catch (IOException e) {
+                    log.debug("Unable to delete unused content: " + storedFile.getName(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of hard links to the given file, or -1 if link counts are not supported
+     * by the file system.
+     *
+     * @param file
+     *            the file whose link count is to be returned
+     * @return int
+     * @throws IOException
+     *             thrown if the file's attributes cannot be read
+     */
+    private static int getLinkCount(File file) throws IOException {
+        int linkCount;
+
+        try {
+            linkCount = (Integer) Files.getAttribute(file.toPath(), LINK_COUNT_ATTRIBUTE);
+
+        } catch (UnsupportedOperationException | IllegalArgumentException e) {
+            linkCount = -1;
+        }
+        return linkCount;
+    }
+
+    /**
+     * Returns the SHA-256 hash of the content of the given file as a hexadecimal string.
+     *
+     * @param file
+     *            the file whose hash is to be computed
+     * @return String
+     * @throws IOException
+     *             thrown if the file cannot be read
+     */
+    private String computeHash(File file) throws IOException {
+        try (DigestInputStream in = new DigestInputStream(new FileInputStream(file),
+                MessageDigest.getInstance(HASH_ALGORITHM))) {
+            byte[] buffer = new byte[8192];
+            StringBuilder hash = new StringBuilder();
+
+            while (in.read(buffer) >= 0) {
+                // Read the entire file to compute the digest
+            }
+            for (byte b : in.getMessageDigest().digest()) {
+                hash.append(String.format("%02x", b));
+            }
+            return hash.toString();
+
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException("Unsupported hash algorithm: " + HASH_ALGORITHM, e);
+        }
+    }
+
+    /**
+     * Reloads the in-memory index if the index file has been modified since it was last read
+     * or written by this instance. An empty index is used if the index file does not exist or
+     * cannot be read. The caller must hold a lock on the index file if it exists.
+     */
+    private void refreshIndex() {
+        long modified = indexFile.lastModified();
+        long length = indexFile.length();
+
+        if ((modified != indexModified) || (length != indexLength)) {
+            Properties newIndex = new Properties();
+            int newRecords = 0;
+
+            if (indexFile.exists()) {
+                try {
+                    byte[] indexContent = Files.readAllBytes(indexFile.toPath());
+
+                    newIndex.load(new ByteArrayInputStream(indexContent));
+                    newRecords = countRecords(indexContent);
+
+                } catch (IOException e) {
+                    log.warn("Unable to read download cache index: " + indexFile.getName(), e);
+                }
+            }
+            index = newIndex;
+            indexRecords = newRecords;
+            indexModified = modified;
+            indexLength = length;
+        }
+    }
+
+    /**
+     * Appends the given entry to the index file. Because later entries replace earlier ones when
+     * the index is loaded, this is equivalent to rewriting the file with the updated entry.
+     *
+     * @param itemKey
+     *            the key that identifies the repository item
+     * @param entry
+     *            the index entry to be appended
+     * @throws IOException
+     *             thrown if the index file cannot be updated
+     */
+    private void appendIndexEntry(String itemKey, CacheEntry entry) throws IOException {
+        Properties record = new Properties();
+        ByteArrayOutputStream recordContent = new ByteArrayOutputStream();
+
+        record.setProperty(itemKey, entry.toString());
+        record.store(recordContent, null);
+
+        try (OutputStream out = new FileOutputStream(indexFile, true)) {
+            for (String line : new String(recordContent.toByteArray(), StandardCharsets.ISO_8859_1)
+                    .split("\\r?\\n")) {
+                if ((line.length() > 0) && !line.startsWith("#")) {
+                    out.write((line + "\n").getBytes(StandardCharsets.ISO_8859_1));
+                }
+            }
+        }
+        indexRecords++;
+        indexModified = indexFile.lastModified();
+        indexLength = indexFile.length();
+    }
+
+    /**
+     * Replaces the index file with the current contents of the in-memory index.
+     *
+     * @throws IOException
+     *             thrown if the index cannot be saved
+     */
+    private void saveIndex() throws IOException {
+        File tempFile = File.createTempFile("cache", ".tmp", cacheFolder);
+
+        try (OutputStream out = new FileOutputStream(tempFile)) {
+            index.store(out, null);
+        }
+        moveFile(tempFile, indexFile);
+        indexRecords = index.size();
+        indexModified = indexFile.lastModified();
+        indexLength = indexFile.length();
+    }
+
+    /**
+     * Returns the number of entries (including superseded ones) in the given index file content.
+     *
+     * @param indexContent
+     *            the raw content of the index file
+     * @return int
+     */
+    private int countRecords(byte[] indexContent) {
+        int recordCount = 0;
+
+        for (String line : new String(indexContent, StandardCharsets.ISO_8859_1).split("\\r?\\n")) {
+            if ((line.length() > 0) && !line.startsWith("#")) {
+                recordCount++;
+            }
+        }
+        return recordCount;
+    }
+
+    /**
+     * Opens the channel for the lock file that guards access to the cache by all JVMs.
+     *
+     * @return FileChannel
+     * @throws IOException
+     *             thrown if the lock file cannot be opened
+     */
+    private FileChannel openLockChannel() throws IOException {
+        if (!cacheFolder.exists() && !cacheFolder.mkdirs()) {
+            throw new IOException("Unable to create download cache folder: " + cacheFolder.getAbsolutePath());
+        }
+        return FileChannel.open(new File(cacheFolder, LOCK_FILENAME).toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Moves the source file to the target location, replacing the target atomically where the
+     * file system supports it.
+     *
+     * @param sourceFile
+     *            the file to be moved
+     * @param targetFile
+     *            the location to which the file should be moved
+     * @throws IOException
+     *             thrown if the file cannot be moved
+     */
+    private void moveFile(File sourceFile, File targetFile) throws IOException {
+        try {
+            Files.move(sourceFile.toPath(), targetFile.toPath(), StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(sourceFile.toPath(), targetFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+        } finally {
+            Files.deleteIfExists(sourceFile.toPath());
+        }
+    }
+
+    /**
+     * Index entry for a downloaded repository item.
+     */
+    private static class CacheEntry {
+
+        private String contentHash;
+        private long lastUpdated;
+        private long lastChecked;
+
+        /**
+         * Full constructor.
+         *
+         * @param contentHash
+         *            the SHA-256 hash of the item's content
+         * @param lastUpdated
+         *            the last-updated timestamp of the item
+         * @param lastChecked
+         *            the time that the item was last checked against the remote repository
+         */
+        public CacheEntry(String contentHash, long lastUpdated, long lastChecked) {
+            this.contentHash = contentHash;
+            this.lastUpdated = lastUpdated;
+            this.lastChecked = lastChecked;
+        }
+
+        /**
+         * Parses an index entry from its string representation, returning null if the value
+         * provided is missing or invalid.
+         *
+         * @param value
+         *            the string representation of the entry
+         * @return CacheEntry
+         */
+        public static CacheEntry parse(String value) {
+            CacheEntry entry = null;
+
+            if (value != null) {
+                String[] fields = value.split(",");
+
+                try {
+                    if ((fields.length == 3) && (fields[0].length() > 2)) {
+                        entry = new CacheEntry(fields[0], Long.parseLong(fields[1]),
+                                Long.parseLong(fields[2]));
+                    }
+
+                } catch (NumberFormatException e) {
+                    // Ignore invalid entries
+                }
+            }
+            return entry;
+        }
+
+        /**
+         * @see java.lang.Object#toString()
+         */
+        @Override
+        public String toString() {
+            return contentHash + "," + lastUpdated + "," + lastChecked;
+        }
+
+    }
+
+}
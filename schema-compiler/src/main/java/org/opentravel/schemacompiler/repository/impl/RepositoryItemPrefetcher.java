@@ -0,0 +1,395 @@
+/**
+ * Copyright (C) 2014 OpenTravel Alliance (info@opentravel.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opentravel.schemacompiler.repository.impl;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.opentravel.ns.ota2.project_v01_00.ManagedProjectItemType;
+import org.opentravel.ns.ota2.repositoryinfo_v01_00.RepositoryItemIdentityType;
+import org.opentravel.schemacompiler.loader.LibraryModuleImport;
+import org.opentravel.schemacompiler.repository.Repository;
+import org.opentravel.schemacompiler.repository.RepositoryException;
+import org.opentravel.schemacompiler.repository.RepositoryItem;
+import org.opentravel.schemacompiler.repository.RepositoryManager;
+import org.opentravel.schemacompiler.repository.RepositoryNamespaceUtils;
+import org.opentravel.schemacompiler.util.URLUtils;
+import org.opentravel.schemacompiler.version.VersionScheme;
+import org.opentravel.schemacompiler.version.VersionSchemeException;
+import org.opentravel.schemacompiler.version.VersionSchemeFactory;
+
+/**
+ * Resolves the managed items of a project, along with the transitive closure of the repository
+ * items that they import, before the project's model is constructed. Items are resolved
+ * concurrently by a bounded pool of worker threads so that the round-trip latency of downloads
+ * from remote repositories is overlapped instead of being incurred one item at a time by the
+ * model loader.
+ *
+ * <p>
+ * Each level of the import hierarchy is resolved as a group, and the imports of the items in
+ * that group are discovered by reading the headers of their local copies. Project items and
+ * repository imports are identified by the base namespace, filename, and version of the item
+ * they resolve to, so each item is requested at most once. Items that were already delivered by
+ * a multi-item download are not requested again; only their imports are read. Prefetching is an
+ * optimization only; any errors that are encountered are ignored so that they can be reported
+ * when the items are loaded. The size of the worker pool can be configured using the
+ * <code>ota2.repository.prefetchThreads</code> system property (default: 4).
+ *
+ * @author S. Livezey
+ */
+public class RepositoryItemPrefetcher {
+
+    public static final String PREFETCH_THREADS_PROPERTY = "ota2.repository.prefetchThreads";
+
+    private static final int DEFAULT_PREFETCH_THREADS = 4;
+    private static final String REPOSITORY_URI_PREFIX = "otm://";
+    private static final String IMPORT_ELEMENT = "Import";
+    private static final Set<String> HEADER_ELEMENTS = new HashSet<>(Arrays.asList(
+            "VersionScheme", "Status", "Namespace", "Prefix", "Name", "Includes"));
+
+    private static Log log = LogFactory.getLog(RepositoryItemPrefetcher.class);
+
+    private RepositoryManager repositoryManager;
+    private Set<String> requestedItems = new HashSet<>();
+
+    /**
+     * Constructor that specifies the repository manager to use when resolving items.
+     *
+     * @param repositoryManager
+     *            the repository manager to use when resolving items
+     */
+    public RepositoryItemPrefetcher(RepositoryManager repositoryManager) {
+        this.repositoryManager = repositoryManager;
+    }
+
+    /**
+     * Resolves the given managed project items and the transitive closure of the repository
+     * items that they import.
+     *
+     * @param projectItems
+     *            the managed project items to be resolved
+     */
+    public void prefetch(List<ManagedProjectItemType> projectItems) {
+        prefetch(projectItems, Collections.<RepositoryItemIdentityType> emptyList());
+    }
+
+    /**
+     * Resolves the given managed project items and the transitive closure of the repository
+     * items that they import. Items whose content was already delivered to the local repository
+     * are not requested again.
+     *
+     * @param projectItems
+     *            the managed project items to be resolved
+     * @param deliveredItems
+     *            the identities of the items that have already been downloaded
+     */
+    public void prefetch(List<ManagedProjectItemType> projectItems,
+            Collection<RepositoryItemIdentityType> deliveredItems) {
+        List<Callable<List<LibraryModuleImport>>> workers = new ArrayList<>();
+        Set<String> deliveredItemKeys = new HashSet<>();
+
+        for (RepositoryItemIdentityType itemIdentity : deliveredItems) {
+            deliveredItemKeys.add(getItemKey(itemIdentity.getBaseNamespace(),
+                    itemIdentity.getFilename(), itemIdentity.getVersion()));
+        }
+        for (ManagedProjectItemType projectItem : projectItems) {
+            String itemKey = getItemKey(projectItem.getBaseNamespace(), projectItem.getFilename(),
+                    projectItem.getVersion());
+
+            if (!requestedItems.add(itemKey)) {
+                continue;
+            }
+            if (deliveredItemKeys.contains(itemKey)) {
+                workers.add(() -> findImports(newDeliveredItem(projectItem)));
+
+            } else {
+                workers.add(() -> findImports(resolveProjectItem(projectItem)));
+            }
+        }
+        if (!workers.isEmpty()) {
+            ExecutorService executor = Executors.newFixedThreadPool(
+                    Math.max(Integer.getInteger(PREFETCH_THREADS_PROPERTY, DEFAULT_PREFETCH_THREADS), 1));
+            try {
+                while (!workers.isEmpty()) {
+                    List<Future<List<LibraryModuleImport>>> results = executor.invokeAll(workers);
+
+                    workers = new ArrayList<>();
+
+                    for (Future<List<LibraryModuleImport>> result : results) {
+                        addImportWorkers(getImports(result), workers);
+                    }
+                }
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Adds a worker to the list provided for each repository item import that has not yet been
+     * requested.
+     *
+     * @param imports
+     *            the imports that were discovered in a resolved item
+     * @param workers
+     *            the list of workers for the next level of the import hierarchy
+     */
+    private void addImportWorkers(List<LibraryModuleImport> imports,
+            List<Callable<List<LibraryModuleImport>>> workers) {
+        for (LibraryModuleImport libraryImport : imports) {
+            String namespace = libraryImport.getNamespace();
+
+            for (String fileHint : libraryImport.getFileHints()) {
+                if (fileHint.startsWith(REPOSITORY_URI_PREFIX)
+                        && requestedItems.add(getImportKey(namespace, fileHint))) {
+                    workers.add(() -> findImports(
+                            repositoryManager.getRepositoryItem(fileHint, namespace)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the key that identifies the repository item with the given base namespace,
+     * filename, and version.
+     *
+     * @param baseNamespace
+     *            the base namespace of the repository item
+     * @param filename
+     *            the filename of the repository item
+     * @param versionIdentifier
+     *            the version identifier of the repository item
+     * @return String
+     */
+    private static String getItemKey(String baseNamespace, String filename,
+            String versionIdentifier) {
+        return RepositoryNamespaceUtils.normalizeUri(baseNamespace) + "~" + filename + "~"
+                + versionIdentifier;
+    }
+
+    /**
+     * Returns the key that identifies the repository item to which the given import resolves.
+     * The import is identified by its namespace and file hint if the repository item URI cannot
+     * be resolved, so that the error can be reported when the import is loaded.
+     *
+     * @param namespace
+     *            the namespace of the import
+     * @param fileHint
+     *            the repository item URI of the import
+     * @return String
+     */
+    private static String getImportKey(String namespace, String fileHint) {
+        String itemKey;
+
+        try {
+            VersionSchemeFactory vsFactory = VersionSchemeFactory.getInstance();
+            String[] uriParts = RepositoryUtils.parseRepositoryItemUri(
+                    RepositoryUtils.toRepositoryItemUri(fileHint));
+            VersionScheme vScheme = vsFactory.getVersionScheme((uriParts[3] == null)
+                    ? vsFactory.getDefaultVersionScheme() : uriParts[3]);
+            String itemNamespace = (namespace == null) ? uriParts[1] : namespace;
+
+            itemKey = getItemKey(vScheme.getBaseNamespace(itemNamespace), uriParts[2],
+                    vScheme.getVersionIdentifier(itemNamespace));
+
+        } catch (URISyntaxException | VersionSchemeException | RuntimeException e) {
+            itemKey = namespace + "~" + fileHint;
+        }
+        return itemKey;
+    }
+
+    /**
+     * Returns a repository item that refers to the local copy of the given managed project item,
+     * whose content has already been delivered to the local repository.
+     *
+     * @param projectItem
+     *            the managed project item that was delivered
+     * @return RepositoryItem
+     */
+    private static RepositoryItem newDeliveredItem(ManagedProjectItemType projectItem) {
+        RepositoryItemImpl item = new RepositoryItemImpl();
+
+        item.setBaseNamespace(projectItem.getBaseNamespace());
+        item.setFilename(projectItem.getFilename());
+        item.setVersion(projectItem.getVersion());
+        return item;
+    }
+
+    /**
+     * Resolves the repository item for the given managed project item.
+     *
+     * @param projectItem
+     *            the managed project item to resolve
+     * @return RepositoryItem
+     * @throws RepositoryException
+     *             thrown if the item cannot be resolved
+     */
+    private RepositoryItem resolveProjectItem(ManagedProjectItemType projectItem)
+            throws RepositoryException {
+        String repositoryId = projectItem.getRepository();
+        Repository repository = repositoryManager;
+
+        if ((repositoryId != null) && (repositoryId.length() > 0)) {
+            repository = repositoryManager.getRepository(repositoryId);
+
+            if (repository == null) {
+                throw new RepositoryException("Unknown repository specified: " + repositoryId);
+            }
+        }
+        return repository.getRepositoryItem(projectItem.getBaseNamespace(),
+                projectItem.getFilename(), projectItem.getVersion());
+    }
+
+    /**
+     * Returns the imports that are declared by the local copy of the given repository item.
+     *
+     * @param item
+     *            the repository item whose imports are to be returned
+     * @return List<LibraryModuleImport>
+     * @throws Exception
+     *             thrown if the item's content cannot be read
+     */
+    private List<LibraryModuleImport> findImports(RepositoryItem item) throws Exception {
+        File libraryFile = URLUtils.toFile(repositoryManager.getContentLocation(item));
+        List<LibraryModuleImport> imports = Collections.emptyList();
+
+        if (libraryFile.exists() && !libraryFile.getName().toLowerCase().endsWith(".xsd")) {
+            try (InputStream libraryContent = new FileInputStream(libraryFile)) {
+                imports = readImports(libraryContent);
+            }
+        }
+        return imports;
+    }
+
+    /**
+     * Returns the imports that are declared in the header of the given library content. Only
+     * the elements that precede the library's members are read, so the library does not need to
+     * be parsed in full.
+     *
+     * @param libraryContent
+     *            the input stream from which the library content is to be read
+     * @return List<LibraryModuleImport>
+     * @throws XMLStreamException
+     *             thrown if the library header cannot be parsed
+     */
+    static List<LibraryModuleImport> readImports(InputStream libraryContent)
+            throws XMLStreamException {
+        XMLStreamReader reader = XMLInputFactory.newInstance()
+                .createXMLStreamReader(libraryContent);
+        List<LibraryModuleImport> imports = new ArrayList<>();
+
+        try {
+            int depth = 0;
+
+            while (reader.hasNext()) {
+                int eventType = reader.next();
+
+                if (eventType == XMLStreamConstants.START_ELEMENT) {
+                    depth++;
+
+                    if (depth == 2) {
+                        String elementName = reader.getLocalName();
+
+                        if (IMPORT_ELEMENT.equals(elementName)) {
+                            imports.add(newImport(reader));
+
+                        } else if (!HEADER_ELEMENTS.contains(elementName)) {
+                            break; // Stop at the first element that follows the imports
+                        }
+                    }
+                } else if (eventType == XMLStreamConstants.END_ELEMENT) {
+                    depth--;
+                }
+            }
+
+        } finally {
+            reader.close();
+        }
+        return imports;
+    }
+
+    /**
+     * Returns an import declaration using the attributes of the current 'Import' element of the
+     * given reader.
+     *
+     * @param reader
+     *            the reader that is positioned at the start of an 'Import' element
+     * @return LibraryModuleImport
+     */
+    private static LibraryModuleImport newImport(XMLStreamReader reader) {
+        String fileHints = reader.getAttributeValue(null, "fileHints");
+        List<String> fileHintList = new ArrayList<>();
+
+        if (fileHints != null) {
+            for (String fileHint : fileHints.trim().split("\\s+")) {
+                if (fileHint.length() > 0) {
+                    fileHintList.add(fileHint);
+                }
+            }
+        }
+        return new LibraryModuleImport(reader.getAttributeValue(null, "namespace"),
+                reader.getAttributeValue(null, "prefix"), fileHintList);
+    }
+
+    /**
+     * Returns the imports discovered by a prefetch worker, or an empty list if the worker was
+     * unable to resolve its item.
+     *
+     * @param result
+     *            the result of the prefetch worker
+     * @return List<LibraryModuleImport>
+     * @throws InterruptedException
+     *             thrown if the calling thread is interrupted
+     */
+    private List<LibraryModuleImport> getImports(Future<List<LibraryModuleImport>> result)
+            throws InterruptedException {
+        List<LibraryModuleImport> imports = Collections.emptyList();
+
+        try {
+            imports = result.get();
+
+        } catch (ExecutionException e) {
+            log.debug("Unable to prefetch repository item (ignoring).", e.getCause());
+        }
+        return imports;
+    }
+
+}
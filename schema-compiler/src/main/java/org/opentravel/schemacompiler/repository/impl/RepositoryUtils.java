@@ -22,8 +22,11 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URLDecoder;
 import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
+import java.util.zip.CRC32;
 
 import org.opentravel.ns.ota2.repositoryinfo_v01_00.EntityInfoType;
 import org.opentravel.ns.ota2.repositoryinfo_v01_00.LibraryHistoryItemType;
@@ -52,6 +55,7 @@ import org.opentravel.schemacompiler.validate.ValidationFindings;
 import org.opentravel.schemacompiler.version.VersionScheme;
 import org.opentravel.schemacompiler.version.VersionSchemeException;
 import org.opentravel.schemacompiler.version.VersionSchemeFactory;
+import org.opentravel.schemacompiler.xml.XMLGregorianCalendarConverter;
 
 /**
  * Static utility methods used by the OTA2.0 repository implementation.
@@ -60,6 +64,26 @@ import org.opentravel.schemacompiler.version.VersionSchemeFactory;
  */
 public class RepositoryUtils {
 	
+    /**
+     * Name of the zip entry that contains an item's meta-data in a multi-item download archive.
+     */
+    public static final String DOWNLOAD_METADATA_ENTRY = "metadata";
+    
+    /**
+     * Name of the zip entry that contains an item's content in a multi-item download archive.
+     */
+    public static final String DOWNLOAD_CONTENT_ENTRY = "content";
+    
+    /**
+     * Name of the zip entry that indicates an item's local copy is current in a multi-item download archive.
+     */
+    public static final String DOWNLOAD_NOT_MODIFIED_ENTRY = "not-modified";
+    
+    /**
+     * Maximum number of items that may be requested by a single multi-item download.
+     */
+    public static final int MAX_DOWNLOAD_ITEMS = 100;
+    
     /**
      * Creates a new repository item instance using information from the meta-data record provided.
      * 
@@ -121,7 +145,30 @@ public class RepositoryUtils {
         itemMetadata.setState(RepositoryState.valueOf(itemState.toString()));
         itemMetadata.setLockedBy(source.getLockedByUser());
     }
-    
+
+    /**
+     * Returns an HTTP entity tag that identifies the current revision of the given repository item.
+     * The tag is derived from the item's last-updated timestamp, along with a CRC of its status,
+     * state, and lock owner, so remote clients can compare their local copy with the repository's
+     * copy without downloading the item.
+     *
+     * @param itemMetadata  the meta-data record of the repository item
+     * @return String
+     */
+    public static String createItemETag(LibraryInfoType itemMetadata) {
+        Date lastUpdated = XMLGregorianCalendarConverter.toJavaDate( itemMetadata.getLastUpdated() );
+        StringBuilder revisionInfo = new StringBuilder();
+        CRC32 crc = new CRC32();
+
+        revisionInfo.append( itemMetadata.getStatus() ).append( '|' );
+        revisionInfo.append( itemMetadata.getState() ).append( '|' );
+        revisionInfo.append( itemMetadata.getLockedBy() );
+        crc.update( revisionInfo.toString().getBytes( StandardCharsets.UTF_8 ) );
+
+        return "\"" + Long.toHexString( (lastUpdated == null) ? 0L : lastUpdated.getTime() )
+        		+ "-" + Long.toHexString( crc.getValue() ) + "\"";
+    }
+
     /**
      * Returns a new meta-data instance for the given entity.
      * 
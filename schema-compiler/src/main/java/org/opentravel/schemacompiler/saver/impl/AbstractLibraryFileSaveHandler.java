@@ -44,7 +44,6 @@ import org.opentravel.schemacompiler.validate.FindingType;
 import org.opentravel.schemacompiler.validate.ValidationFindings;
 import org.opentravel.schemacompiler.xml.LibraryLineBreakProcessor;
 import org.opentravel.schemacompiler.xml.XMLPrettyPrinter;
-import org.w3c.dom.Document;
 import org.xml.sax.helpers.DefaultHandler;
 
 import com.sun.xml.bind.marshaller.NamespacePrefixMapper;
@@ -107,17 +106,13 @@ public abstract class AbstractLibraryFileSaveHandler<T> implements LibrarySaveHa
         try (OutputStream out = new FileOutputStream(libraryFile)){
             JAXBElement<T> documentElement = createLibraryElement(library);
             Marshaller marshaller = getJaxbContext().createMarshaller();
-            Document domDocument = XMLPrettyPrinter.newDocument();
 
-            // Marshall the JAXB content
-            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
+            // Marshall the JAXB content, formatting the XML as it is streamed to the file
             marshaller.setProperty("com.sun.xml.bind.namespacePrefixMapper",
                     new LibrarySaveNamespacePrefixMapper());
             marshaller.setProperty("jaxb.schemaLocation", getLibrarySchemaLocation());
-            marshaller.marshal(documentElement, domDocument); // no schema validation during file-save marshalling
-
-            // Format the XML before saving it to a file
-            new XMLPrettyPrinter(new LibraryLineBreakProcessor()).formatDocument(domDocument, out);
+            new XMLPrettyPrinter(new LibraryLineBreakProcessor()).formatJaxbContent(
+                    marshaller, documentElement, out); // no schema validation during file-save marshalling
             success = true;
 
         } catch (IllegalArgumentException | JAXBException | IOException e) {
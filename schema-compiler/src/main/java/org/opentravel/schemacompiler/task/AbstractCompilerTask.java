@@ -24,6 +24,13 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.opentravel.schemacompiler.codegen.CodeGenerationContext;
 import org.opentravel.schemacompiler.codegen.CodeGenerationException;
@@ -85,6 +92,9 @@ public abstract class AbstractCompilerTask implements CommonCompilerTaskOptions
     private String validationRuleSetId;
     private String catalogLocation;
     private String outputFolder;
+    private int compilerThreads = 1;
+    private AbstractCompilerTask parentTask;
+    private ExecutorService workerExecutor;
     protected String projectFilename;
     
     /**
@@ -346,7 +356,21 @@ public abstract class AbstractCompilerTask implements CommonCompilerTaskOptions
         ValidationFindings findings = validateLibraries(userDefinedLibraries);
 
         if (!findings.hasFinding(FindingType.ERROR)) {
-            generateOutput(userDefinedLibraries, legacySchemas);
+            TLModel model = getModel(userDefinedLibraries, legacySchemas);
+
+            // The model is read-only during code generation since it may be accessed by more
+            // than one worker thread
+            if (model != null) {
+                model.beginReadOnlyAccess();
+            }
+            try {
+                generateOutput(userDefinedLibraries, legacySchemas);
+
+            } finally {
+                if (model != null) {
+                    model.endReadOnlyAccess();
+                }
+            }
         }
         return findings;
     }
@@ -501,6 +525,214 @@ public abstract class AbstractCompilerTask implements CommonCompilerTaskOptions
     public void applyTaskOptions(CommonCompilerTaskOptions taskOptions) {
         setCatalogLocation(taskOptions.getCatalogLocation());
         setOutputFolder(taskOptions.getOutputFolder());
+
+        if (taskOptions instanceof AbstractCompilerTask) {
+            setCompilerThreads(((AbstractCompilerTask) taskOptions).getCompilerThreads());
+        }
+    }
+
+    /**
+     * Returns the number of worker threads that this task may use to generate its output.
+     * 
+     * @return int
+     */
+    public int getCompilerThreads() {
+        return compilerThreads;
+    }
+
+    /**
+     * Assigns the number of worker threads that this task may use to generate its output. By
+     * default, this value is set to one and all output is generated serially by the calling
+     * thread. Values greater than one allow independent units of work (e.g. the output formats of
+     * a compile-all task or the individual libraries of a schema task) to be generated
+     * concurrently.
+     * 
+     * @param compilerThreads
+     *            the number of compiler threads to assign
+     */
+    public void setCompilerThreads(int compilerThreads) {
+        this.compilerThreads = Math.max(compilerThreads, 1);
+    }
+
+    /**
+     * Assigns the task that created this one as a sub-task. All of the workers of a task and its
+     * sub-tasks share the thread pool of the top-level task, so that the number of compiler
+     * threads is not multiplied by the number of sub-tasks.
+     * 
+     * @param parentTask
+     *            the task that created this sub-task
+     */
+    void setParentTask(AbstractCompilerTask parentTask) {
+        this.parentTask = parentTask;
+    }
+
+    /**
+     * Executes each of the given workers and returns their results in the same order. If more than
+     * one compiler thread has been assigned, the workers are executed concurrently and each worker
+     * thread is assigned the compiler extension that is active for the calling thread. If any of
+     * the workers fails, the first error encountered (in worker order) is re-thrown once all of the
+     * remaining workers have completed.
+     * 
+     * @param workers
+     *            the units of work to be executed
+     * @return List<T>
+     * @throws SchemaCompilerException
+     *             thrown if an error occurs during the execution of any worker
+     */
+    protected <T> List<T> executeWorkers(List<? extends Callable<T>> workers)
+            throws SchemaCompilerException {
+        return executeWorkers(workers, true);
+    }
+
+    /**
+     * Executes each of the given workers and returns their results in the same order. Concurrent
+     * execution is only performed if more than one compiler thread has been assigned and the
+     * caller indicates that the workers are independent of one another.
+     * 
+     * <p>
+     * Concurrent workers are queued on a single pool that is shared with all of the sub-tasks of
+     * the top-level task. The pool has one thread less than the number of compiler threads since
+     * the calling thread also runs each worker that has not yet been started by the pool. As a
+     * result, nested calls from sub-tasks never wait for queued work, and no more than the
+     * assigned number of compiler threads are ever active.
+     * 
+     * @param workers
+     *            the units of work to be executed
+     * @param concurrent
+     *            flag indicating whether the workers may be executed concurrently
+     * @return List<T>
+     * @throws SchemaCompilerException
+     *             thrown if an error occurs during the execution of any worker
+     */
+    protected <T> List<T> executeWorkers(List<? extends Callable<T>> workers, boolean concurrent)
+            throws SchemaCompilerException {
+        List<T> results = new ArrayList<>();
+
+        if (concurrent && (compilerThreads > 1) && (workers.size() > 1)) {
+            final String extensionId = CompilerExtensionRegistry.getActiveExtension();
+            AbstractCompilerTask rootTask = getRootTask();
+            List<FutureTask<T>> tasks = new ArrayList<>();
+            boolean ownsExecutor = false;
+            ExecutorService executor;
+            Throwable error = null;
+
+            synchronized (rootTask) {
+                if (rootTask.workerExecutor == null) {
+                    rootTask.workerExecutor = Executors.newFixedThreadPool(
+                            Math.max(rootTask.compilerThreads - 1, 1), new WorkerThreadFactory());
+                    ownsExecutor = true;
+                }
+                executor = rootTask.workerExecutor;
+            }
+
+            try {
+                for (final Callable<T> worker : workers) {
+                    FutureTask<T> task = new FutureTask<>(new Callable<T>() {
+                        public T call() throws Exception {
+                            String threadExtensionId = CompilerExtensionRegistry.getThreadExtension();
+
+                            try {
+                                CompilerExtensionRegistry.setThreadExtension(extensionId);
+                                return worker.call();
+
+                            } finally {
+                                CompilerExtensionRegistry.setThreadExtension(threadExtensionId);
+                            }
+                        }
+                    });
+
+                    tasks.add(task);
+                    executor.execute(task);
+                }
+
+                // Run any workers that the pool has not yet started (no action for the others)
+                for (FutureTask<T> task : tasks) {
+                    task.run();
+                }
+                for (FutureTask<T> task : tasks) {
+                    try {
+                        results.add(task.get());
+
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SchemaCompilerException("Interrupted while waiting for code generation.", e);
+
+                    } catch (ExecutionException e) {
+                        if (error == null) {
+                            error = e.getCause();
+                        }
+                    }
+                }
+            } finally {
+                if (ownsExecutor) {
+                    synchronized (rootTask) {
+                        rootTask.workerExecutor = null;
+                    }
+                    executor.shutdownNow();
+                }
+            }
+            if (error != null) {
+                throw toSchemaCompilerException(error);
+            }
+
+        } else {
+            for (Callable<T> worker : workers) {
+                try {
+                    results.add(worker.call());
+
+                } catch (Exception e) {
+                    throw toSchemaCompilerException(e);
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Returns the top-level task of the hierarchy to which this task belongs.
+     * 
+     * @return AbstractCompilerTask
+     */
+    private AbstractCompilerTask getRootTask() {
+        AbstractCompilerTask rootTask = this;
+
+        while (rootTask.parentTask != null) {
+            rootTask = rootTask.parentTask;
+        }
+        return rootTask;
+    }
+
+    /**
+     * Returns the given error as a <code>SchemaCompilerException</code>. Errors of any other type
+     * (including runtime exceptions) are wrapped by the exception that is returned.
+     * 
+     * @param error
+     *            the error to convert
+     * @return SchemaCompilerException
+     */
+    private SchemaCompilerException toSchemaCompilerException(Throwable error) {
+        return (error instanceof SchemaCompilerException) ? (SchemaCompilerException) error
+                : new SchemaCompilerException(error);
+    }
+
+    /**
+     * Thread factory for the daemon threads of the compiler worker pool.
+     */
+    private static class WorkerThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger threadCounter = new AtomicInteger();
+
+        /**
+         * @see java.util.concurrent.ThreadFactory#newThread(java.lang.Runnable)
+         */
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "ota2-compiler-worker-" + threadCounter.incrementAndGet());
+
+            thread.setDaemon(true);
+            return thread;
+        }
+
     }
 
     /**
@@ -16,9 +16,12 @@
 package org.opentravel.schemacompiler.task;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
 import javax.xml.XMLConstants;
 
@@ -98,47 +101,60 @@ public abstract class AbstractSchemaCompilerTask extends AbstractCompilerTask im
     @SuppressWarnings("unchecked")
     protected void compileXmlSchemas(Collection<TLLibrary> userDefinedLibraries,
             Collection<XSDLibrary> legacySchemas, CodeGenerationContext context,
-            CodeGenerationFilenameBuilder<?> filenameBuilder, CodeGenerationFilter filter)
+            final CodeGenerationFilenameBuilder<?> filenameBuilder, final CodeGenerationFilter filter)
             throws SchemaCompilerException {
 
         // Generate output for all user-defined libraries
-        TLModel model = getModel(userDefinedLibraries, legacySchemas);
+        final TLModel model = getModel(userDefinedLibraries, legacySchemas);
 
         if (model == null) {
             throw new SchemaCompilerException(
                     "No libraries or legacy schemas found for code generation task.");
         }
-        ImportSchemaLocations importLocations = analyzeImportDependencies(model, context,
+        final ImportSchemaLocations importLocations = analyzeImportDependencies(model, context,
                 filenameBuilder, filter);
+        List<Callable<List<File>>> workers = new ArrayList<>();
 
-        for (TLLibrary library : userDefinedLibraries) {
-            CodeGenerator<TLLibrary> xsdGenerator = newCodeGenerator(
-                    CodeGeneratorFactory.XSD_TARGET_FORMAT, TLLibrary.class,
-                    (CodeGenerationFilenameBuilder<TLLibrary>) filenameBuilder, filter);
+        for (final TLLibrary library : userDefinedLibraries) {
+            final CodeGenerationContext libraryContext = context.getCopy();
 
-            if (xsdGenerator instanceof AbstractXsdCodeGenerator) {
-                ((AbstractXsdCodeGenerator<?>) xsdGenerator)
-                        .setImportSchemaLocations(importLocations);
-            }
-            addGeneratedFiles(xsdGenerator.generateOutput(library, context));
-
-            // If any non-xsd built-in dependencies were identified, add them to the current filter
-            if ((filter != null) && (xsdGenerator instanceof AbstractJaxbCodeGenerator)) {
-                AbstractJaxbCodeGenerator<?> generator = (AbstractJaxbCodeGenerator<?>) xsdGenerator;
+            workers.add(new Callable<List<File>>() {
+                public List<File> call() throws Exception {
+                    CodeGenerator<TLLibrary> xsdGenerator = newCodeGenerator(
+                            CodeGeneratorFactory.XSD_TARGET_FORMAT, TLLibrary.class,
+                            (CodeGenerationFilenameBuilder<TLLibrary>) filenameBuilder, filter);
 
-                for (SchemaDeclaration schemaDeclaration : generator.getCompileTimeDependencies()) {
-                    if (schemaDeclaration.getFilename(CodeGeneratorFactory.XSD_TARGET_FORMAT)
-                    		.endsWith(".xsd")) {
-                        continue;
+                    if (xsdGenerator instanceof AbstractXsdCodeGenerator) {
+                        ((AbstractXsdCodeGenerator<?>) xsdGenerator)
+                                .setImportSchemaLocations(importLocations);
                     }
-                    AbstractLibrary dependentLib = model.getLibrary(
-                            schemaDeclaration.getNamespace(), schemaDeclaration.getName());
-
-                    if (dependentLib instanceof BuiltInLibrary) {
-                        filter.addBuiltInLibrary((BuiltInLibrary) dependentLib);
+                    Collection<File> outputFiles = xsdGenerator.generateOutput(library, libraryContext);
+
+                    // If any non-xsd built-in dependencies were identified, add them to the current filter
+                    if ((filter != null) && (xsdGenerator instanceof AbstractJaxbCodeGenerator)) {
+                        AbstractJaxbCodeGenerator<?> generator = (AbstractJaxbCodeGenerator<?>) xsdGenerator;
+
+                        for (SchemaDeclaration schemaDeclaration : generator.getCompileTimeDependencies()) {
+                            if (schemaDeclaration.getFilename(CodeGeneratorFactory.XSD_TARGET_FORMAT)
+                                    .endsWith(".xsd")) {
+                                continue;
+                            }
+                            AbstractLibrary dependentLib = model.getLibrary(
+                                    schemaDeclaration.getNamespace(), schemaDeclaration.getName());
+
+                            if (dependentLib instanceof BuiltInLibrary) {
+                                filter.addBuiltInLibrary((BuiltInLibrary) dependentLib);
+                            }
+                        }
                     }
+                    return new ArrayList<>(outputFiles);
                 }
-            }
+            });
+        }
+
+        // Libraries can only be generated concurrently when no filter is being accumulated
+        for (List<File> outputFiles : executeWorkers(workers, (filter == null))) {
+            addGeneratedFiles(outputFiles);
         }
 
         // Generate output for all legacy XML schema libraries
@@ -338,41 +354,53 @@ public abstract class AbstractSchemaCompilerTask extends AbstractCompilerTask im
     @SuppressWarnings("unchecked")
     protected void compileJsonSchemas(Collection<TLLibrary> userDefinedLibraries,
             Collection<XSDLibrary> legacySchemas, CodeGenerationContext context,
-            CodeGenerationFilenameBuilder<?> filenameBuilder, CodeGenerationFilter filter)
+            final CodeGenerationFilenameBuilder<?> filenameBuilder, final CodeGenerationFilter filter)
             throws SchemaCompilerException {
 
         // Generate output for all user-defined libraries
-        TLModel model = getModel(userDefinedLibraries, legacySchemas);
+        final TLModel model = getModel(userDefinedLibraries, legacySchemas);
 
         if (model == null) {
             throw new SchemaCompilerException(
                     "No libraries or legacy schemas found for code generation task.");
         }
+        List<Callable<List<File>>> workers = new ArrayList<>();
+
+        for (final TLLibrary library : userDefinedLibraries) {
+            final CodeGenerationContext libraryContext = context.getCopy();
 
-        for (TLLibrary library : userDefinedLibraries) {
-            CodeGenerator<TLLibrary> jsonSchemaGenerator = newCodeGenerator(
-                    CodeGeneratorFactory.JSON_SCHEMA_TARGET_FORMAT, TLLibrary.class,
-                    (CodeGenerationFilenameBuilder<TLLibrary>) filenameBuilder, filter);
+            workers.add(new Callable<List<File>>() {
+                public List<File> call() throws Exception {
+                    CodeGenerator<TLLibrary> jsonSchemaGenerator = newCodeGenerator(
+                            CodeGeneratorFactory.JSON_SCHEMA_TARGET_FORMAT, TLLibrary.class,
+                            (CodeGenerationFilenameBuilder<TLLibrary>) filenameBuilder, filter);
+                    Collection<File> outputFiles = jsonSchemaGenerator.generateOutput(library, libraryContext);
 
-            addGeneratedFiles(jsonSchemaGenerator.generateOutput(library, context));
+                    // If any OTM built-in dependencies were identified, add them to the current filter
+                    if ((filter != null) && (jsonSchemaGenerator instanceof AbstractJsonSchemaCodeGenerator)) {
+                        AbstractJsonSchemaCodeGenerator<?> generator = (AbstractJsonSchemaCodeGenerator<?>) jsonSchemaGenerator;
 
-            // If any OTM built-in dependencies were identified, add them to the current filter
-            if ((filter != null) && (jsonSchemaGenerator instanceof AbstractJsonSchemaCodeGenerator)) {
-            	AbstractJsonSchemaCodeGenerator<?> generator = (AbstractJsonSchemaCodeGenerator<?>) jsonSchemaGenerator;
+                        for (SchemaDeclaration schemaDeclaration : generator.getCompileTimeDependencies()) {
+                            String schemaFilename = schemaDeclaration.getFilename(CodeGeneratorFactory.JSON_SCHEMA_TARGET_FORMAT);
 
-                for (SchemaDeclaration schemaDeclaration : generator.getCompileTimeDependencies()) {
-                	String schemaFilename = schemaDeclaration.getFilename(CodeGeneratorFactory.JSON_SCHEMA_TARGET_FORMAT);
-                	
-                    if ((schemaFilename != null) && schemaFilename.endsWith(".json")) {
-                        AbstractLibrary dependentLib = model.getLibrary(
-                                schemaDeclaration.getNamespace(), schemaDeclaration.getName());
+                            if ((schemaFilename != null) && schemaFilename.endsWith(".json")) {
+                                AbstractLibrary dependentLib = model.getLibrary(
+                                        schemaDeclaration.getNamespace(), schemaDeclaration.getName());
 
-                        if (dependentLib instanceof BuiltInLibrary) {
-                            filter.addBuiltInLibrary((BuiltInLibrary) dependentLib);
+                                if (dependentLib instanceof BuiltInLibrary) {
+                                    filter.addBuiltInLibrary((BuiltInLibrary) dependentLib);
+                                }
+                            }
                         }
                     }
+                    return new ArrayList<>(outputFiles);
                 }
-            }
+            });
+        }
+
+        // Libraries can only be generated concurrently when no filter is being accumulated
+        for (List<File> outputFiles : executeWorkers(workers, (filter == null))) {
+            addGeneratedFiles(outputFiles);
         }
 
         // Generate output for all built-in libraries
@@ -17,7 +17,10 @@ package org.opentravel.schemacompiler.task;
 
 import java.io.File;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
 
 import org.opentravel.schemacompiler.codegen.CodeGenerationContext;
 import org.opentravel.schemacompiler.model.TLLibrary;
@@ -68,9 +71,10 @@ public class CompileAllCompilerTask extends AbstractCompilerTask implements Comp
      *      java.util.Collection)
      */
     @Override
-    protected void generateOutput(Collection<TLLibrary> userDefinedLibraries,
-            Collection<XSDLibrary> legacySchemas) throws SchemaCompilerException {
+    protected void generateOutput(final Collection<TLLibrary> userDefinedLibraries,
+            final Collection<XSDLibrary> legacySchemas) throws SchemaCompilerException {
         CodeGenerationContext compileAllContext = createContext();
+        List<AbstractCompilerTask> subtasks = new ArrayList<>();
 
         if (compileSchemas) {
             XmlSchemaCompilerTask schemaTask = new XmlSchemaCompilerTask(projectFilename, repositoryManager);
@@ -78,8 +82,7 @@ public class CompileAllCompilerTask extends AbstractCompilerTask implements Comp
             schemaTask.applyTaskOptions(this);
             schemaTask.getPrimaryLibraries().addAll( getPrimaryLibraries() );
             schemaTask.setOutputFolder(getSubtaskOutputFolder(compileAllContext, "schemas"));
-            schemaTask.generateOutput(userDefinedLibraries, legacySchemas);
-            addGeneratedFiles(schemaTask.getGeneratedFiles());
+            subtasks.add(schemaTask);
         }
         if (compileJson) {
             JsonSchemaCompilerTask jsonSchemaTask = new JsonSchemaCompilerTask(projectFilename, repositoryManager);
@@ -87,8 +90,7 @@ public class CompileAllCompilerTask extends AbstractCompilerTask implements Comp
             jsonSchemaTask.applyTaskOptions(this);
             jsonSchemaTask.getPrimaryLibraries().addAll( getPrimaryLibraries() );
             jsonSchemaTask.setOutputFolder(getSubtaskOutputFolder(compileAllContext, "json"));
-            jsonSchemaTask.generateOutput(userDefinedLibraries, legacySchemas);
-            addGeneratedFiles(jsonSchemaTask.getGeneratedFiles());
+            subtasks.add(jsonSchemaTask);
         }
         if (compileServices) {
             if (projectFilename != null) {
@@ -97,8 +99,7 @@ public class CompileAllCompilerTask extends AbstractCompilerTask implements Comp
                 serviceTask.applyTaskOptions(this);
                 serviceTask.getPrimaryLibraries().addAll( getPrimaryLibraries() );
                 serviceTask.setOutputFolder(getSubtaskOutputFolder(compileAllContext, "services"));
-                serviceTask.generateOutput(userDefinedLibraries, legacySchemas);
-                addGeneratedFiles(serviceTask.getGeneratedFiles());
+                subtasks.add(serviceTask);
 
             } else { // non-project service compilation
                 ServiceCompilerTask serviceTask = new ServiceCompilerTask(repositoryManager);
@@ -106,8 +107,7 @@ public class CompileAllCompilerTask extends AbstractCompilerTask implements Comp
                 serviceTask.applyTaskOptions(this);
                 serviceTask.getPrimaryLibraries().addAll( getPrimaryLibraries() );
                 serviceTask.setOutputFolder(getSubtaskOutputFolder(compileAllContext, "services"));
-                serviceTask.generateOutput(userDefinedLibraries, legacySchemas);
-                addGeneratedFiles(serviceTask.getGeneratedFiles());
+                subtasks.add(serviceTask);
             }
         }
         if (compileSwagger) {
@@ -116,8 +116,7 @@ public class CompileAllCompilerTask extends AbstractCompilerTask implements Comp
             swaggerTask.applyTaskOptions(this);
             swaggerTask.getPrimaryLibraries().addAll( getPrimaryLibraries() );
             swaggerTask.setOutputFolder(getSubtaskOutputFolder(compileAllContext, "swagger"));
-            swaggerTask.generateOutput(userDefinedLibraries, legacySchemas);
-            addGeneratedFiles(swaggerTask.getGeneratedFiles());
+            subtasks.add(swaggerTask);
         }
         
         if (compileHtml) {
@@ -126,8 +125,25 @@ public class CompileAllCompilerTask extends AbstractCompilerTask implements Comp
         	docTask.applyTaskOptions(this);
         	docTask.getPrimaryLibraries().addAll( getPrimaryLibraries() );
 			docTask.setOutputFolder(getOutputFolder() + "/documentation");
-			docTask.generateOutput(userDefinedLibraries, legacySchemas);
-			addGeneratedFiles(docTask.getGeneratedFiles());
+			subtasks.add(docTask);
+        }
+        
+        List<Callable<Void>> workers = new ArrayList<>();
+        
+        for (final AbstractCompilerTask subtask : subtasks) {
+            subtask.setParentTask(this);
+            workers.add(new Callable<Void>() {
+                public Void call() throws Exception {
+                    subtask.generateOutput(userDefinedLibraries, legacySchemas);
+                    return null;
+                }
+            });
+        }
+        executeWorkers(workers);
+        
+        // Merge the generated files in the same order as a serial compilation
+        for (AbstractCompilerTask subtask : subtasks) {
+            addGeneratedFiles(subtask.getGeneratedFiles());
         }
     }
 
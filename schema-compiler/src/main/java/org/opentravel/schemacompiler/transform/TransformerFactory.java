@@ -15,12 +15,15 @@
  */
 package org.opentravel.schemacompiler.transform;
 
+import java.lang.reflect.Constructor;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.opentravel.schemacompiler.ioc.SchemaCompilerApplicationContext;
 import org.slf4j.Logger;
@@ -31,6 +34,15 @@ import org.springframework.context.ApplicationContext;
  * Default implementation of the transformer factory that uses Java annotations to identify the
  * transformer implementations.
  * 
+ * <p>
+ * Each call to {@link #getInstance(String, ObjectTransformerContext)} returns a separate factory
+ * instance that is bound to the caller's transformer context, so concurrent compilations and
+ * loads never share a context. The transformer mappings of each named factory are read from the
+ * application context only once and are shared (read-only) by all of the factory instances
+ * created from it. A new transformer instance is created for each request (since transformers
+ * may hold state for the duration of their use), but the constructor lookup for each transformer
+ * class is cached.
+ * 
  * @param C
  *            the type of context required by the transformers provided by the factory
  * @author S. Livezey
@@ -39,6 +51,10 @@ public class TransformerFactory<C extends ObjectTransformerContext> {
 
     private static final Logger log = LoggerFactory.getLogger(TransformerFactory.class);
 
+    private static final Map<Class<?>,Constructor<?>> transformerConstructors = new ConcurrentHashMap<>();
+    private static final Map<ApplicationContext,Map<String,TransformerFactory<?>>> prototypeFactories =
+            new WeakHashMap<>();
+
     private Map<Class<?>,Map<Class<?>,Class<?>>> sourceTypeMappings = new HashMap<>();
     private C transformerContext;
 
@@ -56,12 +72,50 @@ public class TransformerFactory<C extends ObjectTransformerContext> {
     public static <C extends ObjectTransformerContext> TransformerFactory<C> getInstance(
             String factoryName, C transformerContext) {
         ApplicationContext appContext = SchemaCompilerApplicationContext.getContext();
-        TransformerFactory<C> factory = (TransformerFactory<C>) appContext.getBean(factoryName);
+        TransformerFactory<C> prototype = (TransformerFactory<C>) getPrototypeFactory(appContext,
+                factoryName);
+        TransformerFactory<C> factory;
 
+        if (prototype.getClass() == TransformerFactory.class) {
+            factory = new TransformerFactory<>();
+            factory.sourceTypeMappings = prototype.sourceTypeMappings;
+
+        } else {
+            // Sub-classes may carry additional configuration, so always obtain a new bean
+            factory = (TransformerFactory<C>) appContext.getBean(factoryName);
+        }
         factory.setContext(transformerContext);
         return factory;
     }
 
+    /**
+     * Returns the prototype factory instance for the given factory name. Prototypes are obtained
+     * from each application context only once, so that threads using different compiler
+     * extensions do not invalidate each other's cached prototypes.
+     * 
+     * @param appContext
+     *            the application context from which to obtain the factory
+     * @param factoryName
+     *            the bean ID of the factory instance from the application context
+     * @return TransformerFactory<?>
+     */
+    private static synchronized TransformerFactory<?> getPrototypeFactory(
+            ApplicationContext appContext, String factoryName) {
+        Map<String,TransformerFactory<?>> contextFactories = prototypeFactories.get(appContext);
+
+        if (contextFactories == null) {
+            contextFactories = new HashMap<>();
+            prototypeFactories.put(appContext, contextFactories);
+        }
+        TransformerFactory<?> prototype = contextFactories.get(factoryName);
+
+        if (prototype == null) {
+            prototype = (TransformerFactory<?>) appContext.getBean(factoryName);
+            contextFactories.put(factoryName, prototype);
+        }
+        return prototype;
+    }
+
     /**
      * Returns the transformer context for this factory instance.
      * 
@@ -91,18 +145,21 @@ public class TransformerFactory<C extends ObjectTransformerContext> {
      *            the mapping specifications for this transformer
      */
     public void setTransformerMappings(Collection<TransformerMapping> mappings) {
-        sourceTypeMappings.clear();
+        Map<Class<?>,Map<Class<?>,Class<?>>> typeMappings = new HashMap<>();
 
         for (TransformerMapping mapping : mappings) {
-            Map<Class<?>, Class<?>> targetTypeMappings = sourceTypeMappings
-                    .get(mapping.getSource());
+            Map<Class<?>, Class<?>> targetTypeMappings = typeMappings.get(mapping.getSource());
 
             if (targetTypeMappings == null) {
                 targetTypeMappings = new HashMap<>();
-                sourceTypeMappings.put(mapping.getSource(), targetTypeMappings);
+                typeMappings.put(mapping.getSource(), targetTypeMappings);
             }
             targetTypeMappings.put(mapping.getTarget(), mapping.getTransformer());
         }
+
+        // Replace (instead of modifying) the mappings since they may be shared with other
+        // factory instances
+        sourceTypeMappings = typeMappings;
     }
     
     /**
@@ -206,7 +263,7 @@ public class TransformerFactory<C extends ObjectTransformerContext> {
 
             try {
                 if (transformerClass != null) {
-                    transformer = transformerClass.newInstance();
+                    transformer = newTransformer(transformerClass);
                     transformer.setContext(transformerContext);
                 }
             } catch (Exception e) {
@@ -216,4 +273,27 @@ public class TransformerFactory<C extends ObjectTransformerContext> {
         return transformer;
     }
 
+    /**
+     * Creates a new instance of the given transformer class using a cached default constructor.
+     * 
+     * @param <T>
+     *            the type of transformer to create
+     * @param transformerClass
+     *            the transformer class to instantiate
+     * @return T
+     * @throws Exception
+     *             thrown if the transformer cannot be instantiated
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T newTransformer(Class<T> transformerClass) throws Exception {
+        Constructor<T> constructor = (Constructor<T>) transformerConstructors.get(transformerClass);
+
+        if (constructor == null) {
+            constructor = transformerClass.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            transformerConstructors.put(transformerClass, constructor);
+        }
+        return constructor.newInstance();
+    }
+
 }
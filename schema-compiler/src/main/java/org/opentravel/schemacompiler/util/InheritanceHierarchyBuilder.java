@@ -78,8 +78,13 @@ public class InheritanceHierarchyBuilder {
         }
 
         // First, collect all of the extension relationships from the model into an easily-readable
-        // map
+        // map (entity extensions are obtained from the model's registry, so only the facets must
+        // be collected by navigating the model)
         ExtensionVisitor visitor = new ExtensionVisitor();
+
+        for (TLExtension extension : model.getExtensionRegistry().getAllExtensions()) {
+            visitor.addExtension(extension);
+        }
         ModelNavigator.navigate(model, visitor);
         Map<NamedEntity, NamedEntity> extensionMap = visitor.getExtensionMap();
 
@@ -196,7 +201,9 @@ public class InheritanceHierarchyBuilder {
     }
 
     /**
-     * Visitor that collects all of the extenion relationships defined within the model.
+     * Visitor that collects all of the extenion relationships defined within the model. Facet
+     * relationships are collected during navigation, while entity extensions are supplied by the
+     * model's extension registry.
      */
     private class ExtensionVisitor extends ModelElementVisitorAdapter {
 
@@ -212,10 +219,12 @@ public class InheritanceHierarchyBuilder {
         }
 
         /**
-         * @see org.opentravel.schemacompiler.visitor.ModelElementVisitorAdapter#visitExtension(org.opentravel.schemacompiler.model.TLExtension)
+         * Adds the relationships defined by the given extension to the extension map.
+         * 
+         * @param extension
+         *            the extension whose relationships are to be added
          */
-        @Override
-        public boolean visitExtension(TLExtension extension) {
+        private void addExtension(TLExtension extension) {
             NamedEntity extendedEntity = (NamedEntity) extension.getOwner();
             NamedEntity baseEntity = extension.getExtendsEntity();
 
@@ -245,7 +254,6 @@ public class InheritanceHierarchyBuilder {
                     }
                 }
             }
-            return true;
         }
 
         /**
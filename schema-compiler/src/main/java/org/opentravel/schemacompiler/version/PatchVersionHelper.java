@@ -21,9 +21,11 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import org.opentravel.schemacompiler.ic.ModelExtensionRegistry;
+import org.opentravel.schemacompiler.model.AbstractLibrary;
 import org.opentravel.schemacompiler.model.LibraryElement;
-import org.opentravel.schemacompiler.model.NamedEntity;
 import org.opentravel.schemacompiler.model.TLExtension;
+import org.opentravel.schemacompiler.model.TLExtensionOwner;
 import org.opentravel.schemacompiler.model.TLExtensionPointFacet;
 import org.opentravel.schemacompiler.model.TLLibrary;
 import org.opentravel.schemacompiler.model.TLModel;
@@ -100,20 +102,23 @@ public final class PatchVersionHelper extends AbstractVersionHelper {
                         .getOwningLibrary());
 
                 if (!patchVersionLibraries.isEmpty()) {
-                    // Start by identifying the possible facets to which an extension point facet
-                    // can refer
-                    Set<TLPatchableFacet> entityFacets = new HashSet<>(
-                    		getVersionHandler(versionedEntity).getPatchableFacets(versionedEntity) );
-                    
-                    // Search the extension points to determine if any of them reference a facet of
-                    // our original entity
+                    // Start by identifying the extension point facets that refer to any of the
+                    // patchable facets of our original entity
+                    ModelExtensionRegistry extensionRegistry = versionedMember.getOwningModel()
+                            .getExtensionRegistry();
+                    Set<TLExtensionOwner> entityPatches = new HashSet<>();
+
+                    for (TLPatchableFacet entityFacet : getVersionHandler(versionedEntity)
+                            .getPatchableFacets(versionedEntity)) {
+                        entityPatches.addAll(extensionRegistry.getExtendingEntities(entityFacet));
+                    }
+
+                    // Collect the patches that are declared in the later patch versions, retaining
+                    // the order of their declarations
                     for (TLLibrary patchVersionLib : patchVersionLibraries) {
                         for (TLExtensionPointFacet xpFacet : patchVersionLib
                                 .getExtensionPointFacetTypes()) {
-                            NamedEntity xpExtendedEntity = (xpFacet.getExtension() == null) ? null
-                                    : xpFacet.getExtension().getExtendsEntity();
-
-                            if (entityFacets.contains(xpExtendedEntity)) {
+                            if (entityPatches.contains(xpFacet)) {
                                 patchList.add(xpFacet);
                             }
                         }
@@ -138,20 +143,22 @@ public final class PatchVersionHelper extends AbstractVersionHelper {
         TLLibrary owningLibrary = getOwningLibrary((Versioned) versionedEntityFacet.getOwningEntity());
         List<TLLibrary> patchLibraries = getLaterPatchVersions(owningLibrary);
         List<TLLibrary> eligibleLibraries = new ArrayList<>();
+        Set<AbstractLibrary> patchedLibraries = new HashSet<>();
+
+        // Identify the libraries that already contain a patch for the given facet
+        if (owningLibrary.getOwningModel() != null) {
+            for (TLExtensionOwner patch : owningLibrary.getOwningModel().getExtensionRegistry()
+                    .getExtendingEntities(versionedEntityFacet)) {
+                if (patch instanceof TLExtensionPointFacet) {
+                    patchedLibraries.add(patch.getOwningLibrary());
+                }
+            }
+        }
 
         // Search the patch libraries, and return only those who do not yet contain a patch for the
         // given facet
         for (TLLibrary patchLibrary : patchLibraries) {
-            boolean isEligible = true;
-
-            for (TLExtensionPointFacet patch : patchLibrary.getExtensionPointFacetTypes()) {
-                if ((patch.getExtension() != null)
-                        && (patch.getExtension().getExtendsEntity() == versionedEntityFacet)) {
-                    isEligible = false;
-                    break;
-                }
-            }
-            if (isEligible && !isReadOnly(patchLibrary)) {
+            if (!patchedLibraries.contains(patchLibrary) && !isReadOnly(patchLibrary)) {
                 eligibleLibraries.add(patchLibrary);
             }
         }
@@ -15,12 +15,20 @@
  */
 package org.opentravel.schemacompiler.xml;
 
+import java.util.Map;
+
 import org.w3c.dom.Document;
 
 /**
  * Line break processor that inserts line-break tokens into a DOM tree, indicating where additional
  * blank spaces should be inserted during the XML formatting process.
  * 
+ * <p>
+ * When XML content is streamed directly to its output (without an intermediate DOM tree), the
+ * processor is consulted for each element in document order instead. Processors may therefore
+ * maintain state between calls, and a new instance should be used for each document that is
+ * formatted.
+ * 
  * @author S. Livezey
  */
 public interface PrettyPrintLineBreakProcessor {
@@ -37,4 +45,37 @@ public interface PrettyPrintLineBreakProcessor {
      */
     public void insertLineBreakTokens(Document document);
 
+    /**
+     * Returns true if an additional line break should be inserted before the start tag of the
+     * specified element when XML content is streamed to its output. By default, no line breaks
+     * are inserted.
+     * 
+     * @param depth
+     *            the nesting depth of the element (zero for the root element)
+     * @param localName
+     *            the local name of the element
+     * @param attributes
+     *            the attribute values of the element, keyed by local name
+     * @return boolean
+     */
+    public default boolean isLineBreakBefore(int depth, String localName,
+            Map<String,String> attributes) {
+        return false;
+    }
+
+    /**
+     * Returns true if an additional line break should be inserted before the end tag of the
+     * specified element when XML content is streamed to its output. By default, no line breaks
+     * are inserted.
+     * 
+     * @param depth
+     *            the nesting depth of the element (zero for the root element)
+     * @param localName
+     *            the local name of the element
+     * @return boolean
+     */
+    public default boolean isLineBreakBeforeEnd(int depth, String localName) {
+        return false;
+    }
+
 }
@@ -0,0 +1,1099 @@
+/**
+ * Copyright (C) 2014 OpenTravel Alliance (info@opentravel.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opentravel.schemacompiler.xml;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.xml.XMLConstants;
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * <code>XMLStreamWriter</code> that formats XML content as it is written to the underlying character
+ * stream. Since no intermediate document is constructed, the memory required to format a document
+ * does not depend upon its size.
+ * 
+ * <p>
+ * The formatting rules are identical to those of the DOM serializer that is used by
+ * <code>XMLPrettyPrinter.formatDocument()</code>, so that streamed content is byte-for-byte
+ * identical to the content produced from a DOM tree. Elements are indented by four spaces per
+ * nesting level (up to a maximum of 36 spaces), attributes are written in alphabetical order and
+ * wrapped onto continuation lines once a start tag exceeds 72 columns, and line-break comments
+ * are inserted at the positions identified by a <code>PrettyPrintLineBreakProcessor</code>.
+ * 
+ * @author S. Livezey
+ */
+class PrettyPrintXMLStreamWriter implements XMLStreamWriter {
+
+    private static final String XML_DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>";
+    private static final String LINE_SEPARATOR = "\n";
+    private static final int INDENT = 4;
+    private static final int LINE_WIDTH = 72;
+
+    private IndentPrinter printer;
+    private PrettyPrintLineBreakProcessor lineBreakProcessor;
+    private Deque<ElementState> elementStack = new ArrayDeque<>();
+    private PendingElement pendingElement;
+    private StringBuilder pendingText = new StringBuilder();
+    private NamespaceContext rootNamespaceContext;
+    private boolean started = false;
+
+    /**
+     * Constructor that specifies the underlying writer and the (optional) line break processor.
+     * 
+     * @param out
+     *            the character stream to which formatted content will be written
+     * @param lineBreakProcessor
+     *            the line break processor to consult for additional line breaks (may be null)
+     */
+    public PrettyPrintXMLStreamWriter(Writer out, PrettyPrintLineBreakProcessor lineBreakProcessor) {
+        this.printer = new IndentPrinter(out);
+        this.lineBreakProcessor = lineBreakProcessor;
+    }
+
+    /**
+     * @see javax.xml.stream.XMLStreamWriter#writeStartDocument()
+     */
+    @Override
+    public void writeStartDocument() throws XMLStreamException {
+        if (!started) {
+            printer.printText(XML_DECLARATION);
+            printer.breakLine();
+            started = true;
+        }
+    }
+
+    /**
+     * The XML declaration of the formatted output always specifies version 1.0 and UTF-8
+     * encoding.
+     * 
+     * @see javax.xml.stream.XMLStreamWriter#writeStartDocument(java.lang.String)
+     */
+    @Override
+    public void writeStartDocument(String version) throws XMLStreamException {
+        writeStartDocument();
+    }
+
+    /**
+     * The XML declaration of the formatted output always specifies version 1.0 and UTF-8
+     * encoding.
+     * 
+     * @see javax.xml.stream.XMLStreamWriter#writeStartDocument(java.lang.String, java.lang.String)
+     */
+    @Override
+    public void writeStartDocument(String encoding, String version) throws XMLStreamException {
+        writeStartDocument();
+    }
+
+    /**
+     * @see javax.xml.stream.XMLStreamWriter#writeEndDocument()
+     */
+    @Override
+    public void writeEndDocument() throws XMLStreamException {
+        while ((pendingElement != null) || !elementStack.isEmpty()) {
+            writeEndElement();
+        }
+        printer.flush();
+    }
+
+    /**
+     * @see javax.xml.stream.XMLStreamWriter#writeStartElement(java.lang.String)
+     */
+    @Override
+    public void writeStartElement(String localName) throws XMLStreamException {
+        writeStartElement(null, localName, null);
+    }
+
+    /**
+     * @see javax.xml.stream.XMLStreamWriter#writeStartElement(java.lang.String, java.lang.String)
+     */
+    @Override
+    public void writeStartElement(String namespaceURI, String localName) throws XMLStreamException {
+        writeStartElement(getPrefix(namespaceURI), localName, namespaceURI);
+    }
+
+    /**
+     * @see javax.xml.stream.XMLStreamWriter#writeStartElement(java.lang.String, java.lang.String,
+     *      java.lang.String)
+     */
+    @Override
+    public void writeStartElement(String prefix, String localName, String namespaceURI)
+            throws XMLStreamException {
+        flushContent();
+        pendingElement = new PendingElement(qualifiedName(prefix, localName), localName);
+    }
+
+    /**
+     * @see javax.xml.stream.XMLStreamWriter#writeEmptyElement(java.lang.String)
+     */
+    @Override
+    public void writeEmptyElement(String localName) throws XMLStreamException {
+        writeStartElement(localName);
+        pendingElement.isEmpty = true;
+    }
+
+    /**
+     * @see javax.xml.stream.XMLStreamWriter#writeEmptyElement(java.lang.String, java.lang.String)
+     */
+    @Override
+    public void writeEmptyElement(String namespaceURI, String localName) throws XMLStreamException {
+        writeStartElement(namespaceURI, localName);
+        pendingElement.isEmpty = true;
+    }
+
+    /**
+     * @see javax.xml.stream.XMLStreamWriter#writeEmptyElement(java.lang.String, java.lang.String,
+     *      java.lang.String)
+     */
+    @Override
+    public void writeEmptyElement(String prefix, String localName, String namespaceURI)
+            throws XMLStreamException {
+        writeStartElement(prefix, localName, namespaceURI);
+        pendingElement.isEmpty = true;
+    }
+
+    /**
+     * @see javax.xml.stream.XMLStreamWriter#writeEndElement()
+     */
+    @Override
+    public void writeEndElement() throws XMLStreamException {
+        flushContent();
+
+        if (elementStack.isEmpty()) {
+            throw new XMLStreamException("No open element to close.");
+        }
+        ElementState element = elementStack.peek();
+
+        if ((lineBreakProcessor != null)
+                && lineBreakProcessor.isLineBreakBeforeEnd(element.depth, element.localName)) {
+            printComment(PrettyPrintLineBreakProcessor.LINE_BREAK_TOKEN);
+        }
+        endElement();
+    }
+
+    /**
+     * @see javax.xml.stream.XMLStreamWriter#writeAttribute(java.lang.String, java.lang.String)
+     */
+    @Override
+    public void writeAttribute(String localName, String value) throws XMLStreamException {
+        writeAttribute(null, null, localName, value);
+    }
+
+    /**
+     * @see javax.xml.stream.XMLStreamWriter#writeAttribute(java.lang.String, java.lang.String,
+     *      java.lang.String)
+     */
+    @Override
+    public void writeAttribute(String namespaceURI, String localName, String value)
+            throws XMLStreamException {
+        writeAttribute(getPrefix(namespaceURI), namespaceURI, localName, value);
+    }
+
+    /**
+     * @see javax.xml.stream.XMLStreamWriter#writeAttribute(java.lang.String, java.lang.String,
+     *      java.lang.String, java.lang.String)
+     */
+    @Override
+    public void writeAttribute(String prefix, String namespaceURI, String localName, String value)
+            throws XMLStreamException {
+        PendingElement element = getPendingElement();
+
+        element.attributeValues.put(localName, value);
+        element.attributes.put(qualifiedName(prefix, localName), value);
+    }
+
+    /**
+     * @see javax.xml.stream.XMLStreamWriter#writeNamespace(java.lang.String, java.lang.String)
+     */
+    @Override
+    public void writeNamespace(String prefix, String namespaceURI) throws XMLStreamException {
+        if ((prefix == null) || prefix.equals("") || prefix.equals(XMLConstants.XMLNS_ATTRIBUTE)) {
+            writeDefaultNamespace(namespaceURI);
+
+        } else {
+            PendingElement element = getPendingElement();
+
+            element.namespaces.put(prefix, namespaceURI);
+            element.attributes.put(XMLConstants.XMLNS_ATTRIBUTE + ":" + prefix, namespaceURI);
+        }
+    }
+
+    /**
+     * @see javax.xml.stream.XMLStreamWriter#writeDefaultNamespace(java.lang.String)
+     */
+    @Override
+    public void writeDefaultNamespace(String namespaceURI) throws XMLStreamException {
+        PendingElement element = getPendingElement();
+
+        element.namespaces.put(XMLConstants.DEFAULT_NS_PREFIX, namespaceURI);
+        element.attributes.put(XMLConstants.XMLNS_ATTRIBUTE, namespaceURI);
+    }
+
+    /**
+     * @see javax.xml.stream.XMLStreamWriter#writeComment(java.lang.String)
+     */
+    @Override
+    public void writeComment(String data) throws XMLStreamException {
+        flushContent();
+        printComment(data);
+    }
+
+    /**
+     * @see javax.xml.stream.XMLStreamWriter#writeProcessingInstruction(java.lang.String)
+     */
+    @Override
+    public void writeProcessingInstruction(String target) throws XMLStreamException {
+        writeProcessingInstruction(target, null);
+    }
+
+    /**
+     * @see javax.xml.stream.XMLStreamWriter#writeProcessingInstruction(java.lang.String,
+     *      java.lang.String)
+     */
+    @Override
+    public void writeProcessingInstruction(String target, String data) throws XMLStreamException {
+        flushContent();
+        ElementState element = elementStack.peek();
+
+        if (element != null) {
+            startContent(element);
+        }
+        printer.indent();
+        printer.printText("<?" + target + (((data == null) || (data.length() == 0)) ? "" : (" " + data))
+                + "?>");
+        printer.unindent();
+
+        if (element != null) {
+            element.afterElement = true;
+        }
+    }
+
+    /**
+     * @see javax.xml.stream.XMLStreamWriter#writeCData(java.lang.String)
+     */
+    @Override
+    public void writeCData(String data) throws XMLStreamException {
+        flushContent();
+        ElementState element = elementStack.peek();
+
+        if (element != null) {
+            startContent(element);
+            printer.printText("<![CDATA[" + data + "]]>");
+        }
+    }
+
+    /**
+     * @see javax.xml.stream.XMLStreamWriter#writeDTD(java.lang.String)
+     */
+    @Override
+    public void writeDTD(String dtd) throws XMLStreamException {
+        flushContent();
+        printer.printText(dtd);
+        printer.breakLine();
+    }
+
+    /**
+     * @see javax.xml.stream.XMLStreamWriter#writeEntityRef(java.lang.String)
+     */
+    @Override
+    public void writeEntityRef(String name) throws XMLStreamException {
+        flushContent();
+        ElementState element = elementStack.peek();
+
+        if (element != null) {
+            startContent(element);
+            printer.printText("&" + name + ";");
+        }
+    }
+
+    /**
+     * Consecutive character content is combined and written as a single text node.
+     * 
+     * @see javax.xml.stream.XMLStreamWriter#writeCharacters(java.lang.String)
+     */
+    @Override
+    public void writeCharacters(String text) throws XMLStreamException {
+        if (text != null) {
+            closePendingStartTag();
+            pendingText.append(text);
+        }
+    }
+
+    /**
+     * @see javax.xml.stream.XMLStreamWriter#writeCharacters(char[], int, int)
+     */
+    @Override
+    public void writeCharacters(char[] text, int start, int len) throws XMLStreamException {
+        closePendingStartTag();
+        pendingText.append(text, start, len);
+    }
+
+    /**
+     * @see javax.xml.stream.XMLStreamWriter#getPrefix(java.lang.String)
+     */
+    @Override
+    public String getPrefix(String uri) throws XMLStreamException {
+        return getNamespaceContext().getPrefix(uri);
+    }
+
+    /**
+     * @see javax.xml.stream.XMLStreamWriter#setPrefix(java.lang.String, java.lang.String)
+     */
+    @Override
+    public void setPrefix(String prefix, String uri) throws XMLStreamException {
+        Map<String,String> namespaces = null;
+
+        if (pendingElement != null) {
+            namespaces = pendingElement.namespaces;
+
+        } else if (!elementStack.isEmpty()) {
+            namespaces = elementStack.peek().namespaces;
+        }
+        if (namespaces != null) {
+            namespaces.put((prefix == null) ? XMLConstants.DEFAULT_NS_PREFIX : prefix, uri);
+        }
+    }
+
+    /**
+     * @see javax.xml.stream.XMLStreamWriter#setDefaultNamespace(java.lang.String)
+     */
+    @Override
+    public void setDefaultNamespace(String uri) throws XMLStreamException {
+        setPrefix(XMLConstants.DEFAULT_NS_PREFIX, uri);
+    }
+
+    /**
+     * @see javax.xml.stream.XMLStreamWriter#setNamespaceContext(javax.xml.namespace.NamespaceContext)
+     */
+    @Override
+    public void setNamespaceContext(NamespaceContext context) throws XMLStreamException {
+        this.rootNamespaceContext = context;
+    }
+
+    /**
+     * @see javax.xml.stream.XMLStreamWriter#getNamespaceContext()
+     */
+    @Override
+    public NamespaceContext getNamespaceContext() {
+        return new ElementNamespaceContext();
+    }
+
+    /**
+     * @see javax.xml.stream.XMLStreamWriter#getProperty(java.lang.String)
+     */
+    @Override
+    public Object getProperty(String name) {
+        throw new IllegalArgumentException("Unsupported property: " + name);
+    }
+
+    /**
+     * Flushes the underlying character stream. Content of the current line is not written until
+     * the line is complete or the document has ended.
+     * 
+     * @see javax.xml.stream.XMLStreamWriter#flush()
+     */
+    @Override
+    public void flush() throws XMLStreamException {
+        printer.flushWriter();
+    }
+
+    /**
+     * Flushes any buffered content without closing the underlying character stream.
+     * 
+     * @see javax.xml.stream.XMLStreamWriter#close()
+     */
+    @Override
+    public void close() throws XMLStreamException {
+        flush();
+    }
+
+    /**
+     * Writes any start tag or character content that has not yet been written.
+     * 
+     * @throws XMLStreamException
+     *             thrown if the content cannot be written
+     */
+    private void flushContent() throws XMLStreamException {
+        closePendingStartTag();
+
+        if (pendingText.length() > 0) {
+            String text = pendingText.toString();
+            ElementState element = elementStack.peek();
+
+            pendingText.setLength(0);
+
+            // Text that consists only of whitespace is discarded unless spaces are preserved
+            if ((element != null)
+                    && (element.preserveSpace || (text.replace('\n', ' ').trim().length() != 0))) {
+                startContent(element);
+
+                if (element.preserveSpace) {
+                    int nextIndent = printer.getNextIndent();
+
+                    printer.setNextIndent(0);
+                    printCharacters(text);
+                    printer.setNextIndent(nextIndent);
+
+                } else {
+                    printCharacters(text);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the start tag of the pending element (if any). Unless the parent element preserves
+     * spaces, the start tag is written on a new line if it is the first content of its parent or
+     * follows another element or comment.
+     * 
+     * @throws XMLStreamException
+     *             thrown if the content cannot be written
+     */
+    private void closePendingStartTag() throws XMLStreamException {
+        if (pendingElement != null) {
+            PendingElement element = pendingElement;
+            ElementState parent = elementStack.peek();
+            boolean preserveSpace = (parent != null) && parent.preserveSpace;
+
+            pendingElement = null;
+
+            if ((parent != null) && (lineBreakProcessor != null) && lineBreakProcessor
+                    .isLineBreakBefore(elementStack.size(), element.localName, element.attributeValues)) {
+                printComment(PrettyPrintLineBreakProcessor.LINE_BREAK_TOKEN);
+            }
+            if (parent != null) {
+                if (parent.empty) {
+                    printer.printText('>');
+                }
+                if (!parent.preserveSpace && (parent.empty || parent.afterElement || parent.afterComment)) {
+                    printer.breakLine();
+                }
+            }
+            printer.printText('<');
+            printer.printText(element.qualifiedName);
+            printer.indent();
+
+            for (Map.Entry<String,String> attribute : element.attributes.entrySet()) {
+                String name = attribute.getKey();
+                String value = (attribute.getValue() == null) ? "" : attribute.getValue();
+
+                printer.printSpace();
+                printer.printText(name);
+                printer.printText("=\"");
+                printAttributeValue(value);
+                printer.printText('"');
+
+                if (name.equals("xml:space")) {
+                    preserveSpace = value.equals("preserve");
+                }
+            }
+            elementStack.push(new ElementState(element, elementStack.size(), preserveSpace));
+
+            if (element.isEmpty) {
+                endElement();
+            }
+        }
+    }
+
+    /**
+     * Ends the current element, writing its end tag (or closing its start tag if the element has
+     * no content).
+     * 
+     * @throws XMLStreamException
+     *             thrown if the content cannot be written
+     */
+    private void endElement() throws XMLStreamException {
+        ElementState element = elementStack.pop();
+        ElementState parent = elementStack.peek();
+
+        printer.unindent();
+
+        if (element.empty) {
+            printer.printText("/>");
+
+        } else {
+            if (!element.preserveSpace && (element.afterElement || element.afterComment)) {
+                printer.breakLine();
+            }
+            printer.printText("</");
+            printer.printText(element.qualifiedName);
+            printer.printText('>');
+        }
+
+        if (parent != null) {
+            parent.afterElement = true;
+            parent.afterComment = false;
+            parent.empty = false;
+
+        } else {
+            printer.flush();
+        }
+    }
+
+    /**
+     * Closes the start tag of the given element if it does not yet have any content, and marks the
+     * element as one whose last content was not another element.
+     * 
+     * @param element
+     *            the element that will receive the content
+     * @throws XMLStreamException
+     *             thrown if the content cannot be written
+     */
+    private void startContent(ElementState element) throws XMLStreamException {
+        if (element.empty) {
+            printer.printText('>');
+            element.empty = false;
+        }
+        element.afterElement = false;
+        element.afterComment = false;
+    }
+
+    /**
+     * Writes a comment with the given text as the next child of the current element. Comments
+     * are always written on a new line unless the current element preserves spaces.
+     * 
+     * @param text
+     *            the text of the comment
+     * @throws XMLStreamException
+     *             thrown if the content cannot be written
+     */
+    private void printComment(String text) throws XMLStreamException {
+        ElementState element = elementStack.peek();
+        int endIdx = text.indexOf("-->");
+        String comment = "<!--" + ((endIdx < 0) ? text : text.substring(0, endIdx)) + "-->";
+
+        if (element != null) {
+            startContent(element);
+
+            if (!element.preserveSpace) {
+                printer.breakLine();
+            }
+        }
+        printer.indent();
+        printer.printText(comment);
+        printer.unindent();
+
+        if (element != null) {
+            element.afterComment = true;
+            element.afterElement = false;
+        }
+    }
+
+    /**
+     * Writes the given character content, escaping any markup characters.
+     * 
+     * @param text
+     *            the character content to write
+     * @throws XMLStreamException
+     *             thrown if the text contains characters that are not allowed in XML content
+     */
+    private void printCharacters(String text) throws XMLStreamException {
+        int length = text.length();
+
+        for (int i = 0; i < length; i++) {
+            char ch = text.charAt(i);
+
+            if (!isValidChar(ch)) {
+                i++;
+                printSupplementalChar(ch, (i < length) ? text.charAt(i) : 0);
+
+            } else if (ch == '\r') {
+                printHex(ch);
+
+            } else if (ch == '<') {
+                printer.printText("&lt;");
+
+            } else if (ch == '&') {
+                printer.printText("&amp;");
+
+            } else if (ch == '>') {
+                printer.printText("&gt;");
+
+            } else if ((ch == '\n') || (ch == '\t') || (ch >= ' ')) {
+                printer.printText(ch);
+
+            } else {
+                printHex(ch);
+            }
+        }
+    }
+
+    /**
+     * Writes the given attribute value, escaping any markup and whitespace characters other than
+     * spaces.
+     * 
+     * @param value
+     *            the attribute value to write
+     * @throws XMLStreamException
+     *             thrown if the value contains characters that are not allowed in XML content
+     */
+    private void printAttributeValue(String value) throws XMLStreamException {
+        int length = value.length();
+
+        for (int i = 0; i < length; i++) {
+            char ch = value.charAt(i);
+
+            if (!isValidChar(ch)) {
+                i++;
+                printSupplementalChar(ch, (i < length) ? value.charAt(i) : 0);
+
+            } else if ((ch == '\n') || (ch == '\r') || (ch == '\t')) {
+                printHex(ch);
+
+            } else if (ch == '<') {
+                printer.printText("&lt;");
+
+            } else if (ch == '&') {
+                printer.printText("&amp;");
+
+            } else if (ch == '"') {
+                printer.printText("&quot;");
+
+            } else if (ch >= ' ') {
+                printer.printText(ch);
+
+            } else {
+                printHex(ch);
+            }
+        }
+    }
+
+    /**
+     * Writes the character reference for the supplemental character that is represented by the
+     * given surrogate pair.
+     * 
+     * @param high
+     *            the high surrogate of the character
+     * @param low
+     *            the low surrogate of the character
+     * @throws XMLStreamException
+     *             thrown if the characters are not a valid surrogate pair
+     */
+    private void printSupplementalChar(char high, char low) throws XMLStreamException {
+        if (!Character.isHighSurrogate(high) || !Character.isLowSurrogate(low)) {
+            throw new XMLStreamException(String.format(
+                    "The character 0x%x is not allowed in XML content.", (int) high));
+        }
+        printHex(Character.toCodePoint(high, low));
+    }
+
+    /**
+     * Writes a hexadecimal character reference for the given character.
+     * 
+     * @param ch
+     *            the character (or code point) to write
+     */
+    private void printHex(int ch) {
+        printer.printText("&#x");
+        printer.printText(Integer.toHexString(ch));
+        printer.printText(';');
+    }
+
+    /**
+     * Returns true if the given character is allowed in XML content on its own (surrogate
+     * characters are only allowed as part of a valid pair).
+     * 
+     * @param ch
+     *            the character to check
+     * @return boolean
+     */
+    private static boolean isValidChar(char ch) {
+        return (ch == '\t') || (ch == '\n') || (ch == '\r') || ((ch >= 0x20) && (ch <= 0xD7FF))
+                || ((ch >= 0xE000) && (ch <= 0xFFFD));
+    }
+
+    /**
+     * Returns the element whose start tag has not yet been written.
+     * 
+     * @return PendingElement
+     * @throws XMLStreamException
+     *             thrown if no start tag is currently open
+     */
+    private PendingElement getPendingElement() throws XMLStreamException {
+        if (pendingElement == null) {
+            throw new XMLStreamException(
+                    "Attributes and namespaces can only be written immediately after a start tag.");
+        }
+        return pendingElement;
+    }
+
+    /**
+     * Returns the qualified name for the given prefix and local name.
+     * 
+     * @param prefix
+     *            the namespace prefix (may be null)
+     * @param localName
+     *            the local name of the element or attribute
+     * @return String
+     */
+    private static String qualifiedName(String prefix, String localName) {
+        return ((prefix == null) || (prefix.length() == 0)) ? localName : (prefix + ":" + localName);
+    }
+
+    /**
+     * Element whose start tag has been started, but whose attributes and namespace declarations
+     * have not yet been written.
+     */
+    private static class PendingElement {
+
+        private String qualifiedName;
+        private String localName;
+        private Map<String,String> attributes = new TreeMap<>();
+        private Map<String,String> attributeValues = new HashMap<>();
+        private Map<String,String> namespaces = new HashMap<>();
+        private boolean isEmpty = false;
+
+        /**
+         * Constructor that specifies the name of the element.
+         * 
+         * @param qualifiedName
+         *            the qualified name of the element
+         * @param localName
+         *            the local name of the element
+         */
+        public PendingElement(String qualifiedName, String localName) {
+            this.qualifiedName = qualifiedName;
+            this.localName = localName;
+        }
+
+    }
+
+    /**
+     * Formatting state of an element whose start tag has been written, but which has not yet been
+     * ended.
+     */
+    private static class ElementState {
+
+        private String qualifiedName;
+        private String localName;
+        private Map<String,String> namespaces;
+        private int depth;
+        private boolean preserveSpace;
+        private boolean empty = true;
+        private boolean afterElement = false;
+        private boolean afterComment = false;
+
+        /**
+         * Constructor that specifies the element and its nesting depth.
+         * 
+         * @param element
+         *            the element whose start tag has been written
+         * @param depth
+         *            the nesting depth of the element (zero for the root element)
+         * @param preserveSpace
+         *            flag indicating whether the spaces of the element's content are preserved
+         */
+        public ElementState(PendingElement element, int depth, boolean preserveSpace) {
+            this.qualifiedName = element.qualifiedName;
+            this.localName = element.localName;
+            this.namespaces = element.namespaces;
+            this.depth = depth;
+            this.preserveSpace = preserveSpace;
+        }
+
+    }
+
+    /**
+     * Printer that breaks long start tags onto multiple lines. Text is accumulated until a space
+     * (the boundary between two attributes) or a line break is printed. At each space, the
+     * accumulated text is wrapped onto a new line if the current line would otherwise exceed the
+     * maximum line width. Lines are indented when they are written, using the indentation level
+     * that was in effect when the previous line was completed.
+     */
+    private static class IndentPrinter {
+
+        private Writer out;
+        private StringBuilder line = new StringBuilder();
+        private StringBuilder text = new StringBuilder();
+        private int spaces = 0;
+        private int thisIndent = 0;
+        private int nextIndent = 0;
+
+        /**
+         * Constructor that specifies the underlying character stream.
+         * 
+         * @param out
+         *            the character stream to which formatted lines are written
+         */
+        public IndentPrinter(Writer out) {
+            this.out = out;
+        }
+
+        /**
+         * Appends the given text to the current line.
+         * 
+         * @param str
+         *            the text to print
+         */
+        public void printText(String str) {
+            text.append(str);
+        }
+
+        /**
+         * Appends the given character to the current line.
+         * 
+         * @param ch
+         *            the character to print
+         */
+        public void printText(char ch) {
+            text.append(ch);
+        }
+
+        /**
+         * Prints a space that separates the accumulated text from the text that follows, wrapping
+         * the accumulated text onto a new line if the current line would exceed the maximum line
+         * width.
+         * 
+         * @throws XMLStreamException
+         *             thrown if the content cannot be written
+         */
+        public void printSpace() throws XMLStreamException {
+            if (text.length() > 0) {
+                if ((thisIndent + line.length() + spaces + text.length()) > LINE_WIDTH) {
+                    flushLine();
+                    write(LINE_SEPARATOR);
+                }
+                appendText();
+            }
+            spaces++;
+        }
+
+        /**
+         * Completes the current line, starting a new one.
+         * 
+         * @throws XMLStreamException
+         *             thrown if the content cannot be written
+         */
+        public void breakLine() throws XMLStreamException {
+            if (text.length() > 0) {
+                appendText();
+            }
+            flushLine();
+            write(LINE_SEPARATOR);
+        }
+
+        /**
+         * Completes the current line if it contains any content, and flushes the underlying
+         * character stream.
+         * 
+         * @throws XMLStreamException
+         *             thrown if the content cannot be written
+         */
+        public void flush() throws XMLStreamException {
+            if ((line.length() > 0) || (text.length() > 0)) {
+                breakLine();
+            }
+            flushWriter();
+        }
+
+        /**
+         * Flushes the underlying character stream.
+         * 
+         * @throws XMLStreamException
+         *             thrown if the stream cannot be flushed
+         */
+        public void flushWriter() throws XMLStreamException {
+            try {
+                out.flush();
+
+            } catch (IOException e) {
+                throw new XMLStreamException(e);
+            }
+        }
+
+        /**
+         * Increases the indentation level of the lines that follow.
+         */
+        public void indent() {
+            nextIndent += INDENT;
+        }
+
+        /**
+         * Decreases the indentation level of the lines that follow. If the current line is empty,
+         * the new indentation level also applies to the current line.
+         */
+        public void unindent() {
+            nextIndent = Math.max(nextIndent - INDENT, 0);
+
+            if ((line.length() + spaces + text.length()) == 0) {
+                thisIndent = nextIndent;
+            }
+        }
+
+        /**
+         * Returns the indentation level of the lines that follow.
+         * 
+         * @return int
+         */
+        public int getNextIndent() {
+            return nextIndent;
+        }
+
+        /**
+         * Assigns the indentation level of the lines that follow.
+         * 
+         * @param nextIndent
+         *            the indentation level to assign
+         */
+        public void setNextIndent(int nextIndent) {
+            this.nextIndent = nextIndent;
+        }
+
+        /**
+         * Moves the accumulated text (preceded by any pending spaces) to the current line.
+         */
+        private void appendText() {
+            for (; spaces > 0; spaces--) {
+                line.append(' ');
+            }
+            line.append(text);
+            text.setLength(0);
+        }
+
+        /**
+         * Writes the current line (if any) with its indentation, omitting any line-break tokens,
+         * and discards any trailing spaces.
+         * 
+         * @throws XMLStreamException
+         *             thrown if the content cannot be written
+         */
+        private void flushLine() throws XMLStreamException {
+            if (line.length() > 0) {
+                int indent = Math.min(thisIndent, LINE_WIDTH / 2);
+                String lineContent = line.toString();
+
+                for (int i = 0; i < indent; i++) {
+                    write(" ");
+                }
+                if (lineContent.contains(PrettyPrintLineBreakProcessor.LINE_BREAK_COMMENT)) {
+                    lineContent = lineContent.replace(PrettyPrintLineBreakProcessor.LINE_BREAK_COMMENT, "");
+                }
+                thisIndent = nextIndent;
+                spaces = 0;
+                write(lineContent);
+                line.setLength(0);
+            }
+        }
+
+        /**
+         * Writes the given string to the underlying character stream.
+         * 
+         * @param str
+         *            the string to write
+         * @throws XMLStreamException
+         *             thrown if the content cannot be written
+         */
+        private void write(String str) throws XMLStreamException {
+            try {
+                out.write(str);
+
+            } catch (IOException e) {
+                throw new XMLStreamException(e);
+            }
+        }
+
+    }
+
+    /**
+     * Returns the namespace declarations of the pending element and each open element, from the
+     * innermost to the outermost scope.
+     * 
+     * @return List<Map<String,String>>
+     */
+    private List<Map<String,String>> getNamespaceScopes() {
+        List<Map<String,String>> scopes = new ArrayList<>();
+
+        if (pendingElement != null) {
+            scopes.add(pendingElement.namespaces);
+        }
+        for (ElementState element : elementStack) {
+            scopes.add(element.namespaces);
+        }
+        return scopes;
+    }
+
+    /**
+     * Namespace context that resolves prefixes using the namespace declarations of the elements
+     * that are currently open.
+     */
+    private class ElementNamespaceContext implements NamespaceContext {
+
+        /**
+         * @see javax.xml.namespace.NamespaceContext#getNamespaceURI(java.lang.String)
+         */
+        @Override
+        public String getNamespaceURI(String prefix) {
+            for (Map<String,String> namespaces : getNamespaceScopes()) {
+                String uri = namespaces.get(prefix);
+
+                if (uri != null) {
+                    return uri;
+                }
+            }
+            return (rootNamespaceContext == null) ? null : rootNamespaceContext
+                    .getNamespaceURI(prefix);
+        }
+
+        /**
+         * @see javax.xml.namespace.NamespaceContext#getPrefix(java.lang.String)
+         */
+        @Override
+        public String getPrefix(String namespaceURI) {
+            Iterator<String> prefixes = getPrefixes(namespaceURI);
+
+            return prefixes.hasNext() ? prefixes.next() : null;
+        }
+
+        /**
+         * @see javax.xml.namespace.NamespaceContext#getPrefixes(java.lang.String)
+         */
+        @Override
+        public Iterator<String> getPrefixes(String namespaceURI) {
+            List<String> prefixes = new ArrayList<>();
+
+            for (Map<String,String> namespaces : getNamespaceScopes()) {
+                for (Map.Entry<String,String> entry : namespaces.entrySet()) {
+                    if (entry.getValue().equals(namespaceURI)
+                            && namespaceURI.equals(getNamespaceURI(entry.getKey()))
+                            && !prefixes.contains(entry.getKey())) {
+                        prefixes.add(entry.getKey());
+                    }
+                }
+            }
+            if (prefixes.isEmpty() && (rootNamespaceContext != null)) {
+                String prefix = rootNamespaceContext.getPrefix(namespaceURI);
+
+                if (prefix != null) {
+                    prefixes.add(prefix);
+                }
+            }
+            return Collections.unmodifiableList(prefixes).iterator();
+        }
+
+    }
+
+}
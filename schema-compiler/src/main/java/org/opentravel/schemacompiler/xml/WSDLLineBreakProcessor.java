@@ -17,6 +17,7 @@ package org.opentravel.schemacompiler.xml;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
@@ -61,4 +62,22 @@ public class WSDLLineBreakProcessor implements PrettyPrintLineBreakProcessor {
         rootElement.appendChild(document.createComment(LINE_BREAK_TOKEN));
     }
 
+    /**
+     * @see org.opentravel.schemacompiler.xml.PrettyPrintLineBreakProcessor#isLineBreakBefore(int,
+     *      java.lang.String, java.util.Map)
+     */
+    @Override
+    public boolean isLineBreakBefore(int depth, String localName, Map<String,String> attributes) {
+        return (depth == 1) && lineBreakElements.contains(localName);
+    }
+
+    /**
+     * @see org.opentravel.schemacompiler.xml.PrettyPrintLineBreakProcessor#isLineBreakBeforeEnd(int,
+     *      java.lang.String)
+     */
+    @Override
+    public boolean isLineBreakBeforeEnd(int depth, String localName) {
+        return (depth == 0);
+    }
+
 }
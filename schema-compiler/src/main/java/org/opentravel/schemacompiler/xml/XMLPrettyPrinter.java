@@ -21,9 +21,14 @@ import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.UnsupportedEncodingException;
 import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -37,6 +42,10 @@ import org.w3c.dom.ls.LSSerializer;
  * utilities. In addition to the line-spacing logic that is implemented by this class, all XML
  * output is also converted to UTF-8 encoding when content is written to the file system.
  * 
+ * <p>
+ * JAXB content can also be formatted without constructing a DOM document by streaming it
+ * directly to its output via the <code>formatJaxbContent()</code> method.
+ * 
  * @author S. Livezey
  */
 public class XMLPrettyPrinter {
@@ -106,6 +115,36 @@ public class XMLPrettyPrinter {
         }
     }
 
+    /**
+     * Marshals the given JAXB content directly to the specified output stream as formatted XML.
+     * Unlike <code>formatDocument()</code>, no intermediate DOM document is constructed; the
+     * marshalled content is indented and line-break processing is applied as it is streamed to
+     * the output. The formatted output is identical to that of <code>formatDocument()</code> for
+     * the same content.
+     *
+     * @param marshaller
+     *            the JAXB marshaller to use for the content
+     * @param jaxbContent
+     *            the JAXB element or object to be marshalled
+     * @param out
+     *            the output stream that will receive the formatted content
+     * @throws JAXBException
+     *             thrown if the content cannot be marshalled or written to the output stream
+     */
+    public void formatJaxbContent(Marshaller marshaller, Object jaxbContent, OutputStream out)
+            throws JAXBException {
+        try {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            XMLStreamWriter streamWriter = new PrettyPrintXMLStreamWriter(writer, lineBreakProcessor);
+
+            marshaller.marshal(jaxbContent, streamWriter);
+            streamWriter.flush();
+
+        } catch (XMLStreamException e) {
+            throw new JAXBException(e);
+        }
+    }
+
     /**
      * Writer that intercepts the XML output produced by the pretty-printer class, replacing
      * line-break tokens with actual line breaks in the underlying output stream.
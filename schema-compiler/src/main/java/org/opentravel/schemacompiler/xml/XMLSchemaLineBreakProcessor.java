@@ -17,6 +17,7 @@ package org.opentravel.schemacompiler.xml;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
@@ -34,6 +35,9 @@ public class XMLSchemaLineBreakProcessor implements PrettyPrintLineBreakProcesso
 
     private static final List<String> lineBreakElements = Arrays.asList(LINE_BREAK_ELEMENTS);
 
+    private boolean importOrIncludeBreakStreamed = false;
+    private boolean lastStreamedTokenWasElement = false;
+
     /**
      * @see org.opentravel.schemacompiler.xml.PrettyPrintLineBreakProcessor#insertLineBreakTokens(org.w3c.dom.Document)
      */
@@ -84,4 +88,42 @@ public class XMLSchemaLineBreakProcessor implements PrettyPrintLineBreakProcesso
         rootElement.appendChild(document.createComment(LINE_BREAK_TOKEN));
     }
 
+    /**
+     * @see org.opentravel.schemacompiler.xml.PrettyPrintLineBreakProcessor#isLineBreakBefore(int,
+     *      java.lang.String, java.util.Map)
+     */
+    @Override
+    public boolean isLineBreakBefore(int depth, String localName, Map<String,String> attributes) {
+        boolean addLineBreak = false;
+
+        if (depth == 1) {
+            if (lineBreakElements.contains(localName)) {
+                addLineBreak = true;
+
+            } else if (!importOrIncludeBreakStreamed
+                    && (localName.equals("import") || localName.equals("include"))) {
+                addLineBreak = true;
+                importOrIncludeBreakStreamed = true;
+            }
+
+            if (localName.equals("element")) {
+                addLineBreak = attributes.containsKey("abstract") || !lastStreamedTokenWasElement;
+                lastStreamedTokenWasElement = true;
+
+            } else {
+                lastStreamedTokenWasElement = false;
+            }
+        }
+        return addLineBreak;
+    }
+
+    /**
+     * @see org.opentravel.schemacompiler.xml.PrettyPrintLineBreakProcessor#isLineBreakBeforeEnd(int,
+     *      java.lang.String)
+     */
+    @Override
+    public boolean isLineBreakBeforeEnd(int depth, String localName) {
+        return (depth == 0);
+    }
+
 }
@@ -0,0 +1,193 @@
+/**
+ * Copyright (C) 2014 OpenTravel Alliance (info@opentravel.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opentravel.schemacompiler.codegen;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.opentravel.schemacompiler.codegen.util.FacetCodegenUtils;
+import org.opentravel.schemacompiler.codegen.util.PropertyCodegenUtils;
+import org.opentravel.schemacompiler.model.TLAttribute;
+import org.opentravel.schemacompiler.model.TLBusinessObject;
+import org.opentravel.schemacompiler.model.TLContextualFacet;
+import org.opentravel.schemacompiler.model.TLExtension;
+import org.opentravel.schemacompiler.model.TLFacet;
+import org.opentravel.schemacompiler.model.TLFacetType;
+import org.opentravel.schemacompiler.model.TLLibrary;
+import org.opentravel.schemacompiler.model.TLModel;
+
+/**
+ * Verifies the caching and invalidation of the inheritance views that are returned by
+ * <code>PropertyCodegenUtils</code> and <code>FacetCodegenUtils</code>.
+ */
+public class TestModelInheritanceCache {
+
+    private TLBusinessObject bo1;
+    private TLBusinessObject bo2;
+    private TLBusinessObject bo3;
+
+    @Before
+    public void setupTestModel() throws Exception {
+        TLModel model = new TLModel();
+        TLLibrary library = new TLLibrary();
+        TLExtension bo2Ext = new TLExtension();
+
+        library.setNamespace("http://www.OpenTravel.org/ns/OTA2/SchemaCompiler/test-package");
+        library.setPrefix("pkg");
+        library.setName("inheritance_cache_test");
+        model.addLibrary(library);
+
+        bo1 = new TLBusinessObject();
+        bo1.setName("BO1");
+        bo1.getSummaryFacet().addAttribute(newAttribute("attr1"));
+        library.addNamedMember(bo1);
+
+        TLContextualFacet customFacet = new TLContextualFacet();
+
+        customFacet.setName("Custom1");
+        customFacet.setFacetType(TLFacetType.CUSTOM);
+        bo1.addCustomFacet(customFacet);
+        library.addNamedMember(customFacet);
+
+        bo2 = new TLBusinessObject();
+        bo2.setName("BO2");
+        bo2.getSummaryFacet().addAttribute(newAttribute("attr2"));
+        bo2.setExtension(bo2Ext);
+        bo2Ext.setExtendsEntity(bo1);
+        library.addNamedMember(bo2);
+
+        bo3 = new TLBusinessObject();
+        bo3.setName("BO3");
+        bo3.getSummaryFacet().addAttribute(newAttribute("attr3"));
+        library.addNamedMember(bo3);
+    }
+
+    @Test
+    public void testCachedInheritanceViews() throws Exception {
+        TLFacet summaryFacet = bo2.getSummaryFacet();
+        List<TLAttribute> attributes = PropertyCodegenUtils.getInheritedAttributes(summaryFacet);
+        List<TLFacet> hierarchy = FacetCodegenUtils.getLocalFacetHierarchy(summaryFacet);
+
+        assertEquals(2, attributes.size());
+        assertEquals("attr1", attributes.get(0).getName());
+        assertEquals("attr2", attributes.get(1).getName());
+        assertSame(attributes, PropertyCodegenUtils.getInheritedAttributes(summaryFacet));
+        assertSame(hierarchy, FacetCodegenUtils.getLocalFacetHierarchy(summaryFacet));
+    }
+
+    @Test
+    public void testViewsInvalidatedByModelEvents() throws Exception {
+        TLFacet summaryFacet = bo2.getSummaryFacet();
+        List<TLAttribute> attributes = PropertyCodegenUtils.getInheritedAttributes(summaryFacet);
+
+        bo1.getIdFacet().addAttribute(newAttribute("id1"));
+        bo1.getSummaryFacet().addAttribute(newAttribute("attr1b"));
+        List<TLAttribute> updatedAttributes = PropertyCodegenUtils.getInheritedAttributes(summaryFacet);
+
+        assertNotSame(attributes, updatedAttributes);
+        assertEquals(4, updatedAttributes.size());
+        assertEquals("id1", updatedAttributes.get(0).getName());
+        assertEquals("attr1", updatedAttributes.get(1).getName());
+        assertEquals("attr1b", updatedAttributes.get(2).getName());
+        assertEquals("attr2", updatedAttributes.get(3).getName());
+    }
+
+    @Test
+    public void testViewsRetainedForUnrelatedModelEvents() throws Exception {
+        TLFacet summaryFacet = bo2.getSummaryFacet();
+        List<TLAttribute> attributes = PropertyCodegenUtils.getInheritedAttributes(summaryFacet);
+        List<TLAttribute> bo3Attributes = PropertyCodegenUtils.getInheritedAttributes(
+                bo3.getSummaryFacet());
+
+        // Changes to an unrelated entity or a sub-type must not discard the views of BO2
+        bo3.getSummaryFacet().addAttribute(newAttribute("attr3b"));
+        assertSame(attributes, PropertyCodegenUtils.getInheritedAttributes(summaryFacet));
+        assertNotSame(bo3Attributes, PropertyCodegenUtils.getInheritedAttributes(
+                bo3.getSummaryFacet()));
+
+        // Elements that are not members of the model do not affect the cache
+        TLBusinessObject detachedBO = new TLBusinessObject();
+
+        detachedBO.getSummaryFacet().addAttribute(newAttribute("detached"));
+        assertSame(attributes, PropertyCodegenUtils.getInheritedAttributes(summaryFacet));
+
+        // Extension changes affect the entire model
+        bo3.setExtension(new TLExtension());
+        assertNotSame(attributes, PropertyCodegenUtils.getInheritedAttributes(summaryFacet));
+    }
+
+    @Test
+    public void testViewsRetainedDuringGhostFacetCreation() throws Exception {
+        TLFacet summaryFacet = bo2.getSummaryFacet();
+        List<TLAttribute> attributes = PropertyCodegenUtils.getInheritedAttributes(summaryFacet);
+        List<TLContextualFacet> ghostFacets = FacetCodegenUtils.findGhostFacets(bo2,
+                TLFacetType.CUSTOM);
+
+        assertEquals(1, ghostFacets.size());
+        assertEquals("Custom1", ghostFacets.get(0).getName());
+        assertSame(attributes, PropertyCodegenUtils.getInheritedAttributes(summaryFacet));
+    }
+
+    @Test
+    public void testCacheSuspendedWhileListenersDisabled() throws Exception {
+        TLModel model = bo2.getOwningModel();
+        TLFacet summaryFacet = bo2.getSummaryFacet();
+        List<TLAttribute> attributes = PropertyCodegenUtils.getInheritedAttributes(summaryFacet);
+        List<TLAttribute> bo3Attributes = PropertyCodegenUtils.getInheritedAttributes(
+                bo3.getSummaryFacet());
+
+        // Views are neither cached nor invalidated while listeners are disabled
+        model.setListenersEnabled(false);
+        bo1.getSummaryFacet().addAttribute(newAttribute("attr1b"));
+        List<TLAttribute> suspendedAttributes = PropertyCodegenUtils.getInheritedAttributes(
+                summaryFacet);
+
+        assertEquals(3, suspendedAttributes.size());
+        assertNotSame(suspendedAttributes, PropertyCodegenUtils.getInheritedAttributes(summaryFacet));
+        assertTrue(model.getInheritanceCache().isSuspended());
+
+        // The entire cache is discarded when listeners are re-enabled
+        model.setListenersEnabled(true);
+        List<TLAttribute> updatedAttributes = PropertyCodegenUtils.getInheritedAttributes(summaryFacet);
+
+        assertFalse(model.getInheritanceCache().isSuspended());
+        assertNotSame(attributes, updatedAttributes);
+        assertEquals(3, updatedAttributes.size());
+        assertSame(updatedAttributes, PropertyCodegenUtils.getInheritedAttributes(summaryFacet));
+        assertNotSame(bo3Attributes, PropertyCodegenUtils.getInheritedAttributes(
+                bo3.getSummaryFacet()));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testImmutableInheritanceViews() throws Exception {
+        PropertyCodegenUtils.getInheritedAttributes(bo2.getSummaryFacet()).add(newAttribute("attr3"));
+    }
+
+    private TLAttribute newAttribute(String name) {
+        TLAttribute attribute = new TLAttribute();
+
+        attribute.setName(name);
+        return attribute;
+    }
+
+}
@@ -0,0 +1,59 @@
+/**
+ * Copyright (C) 2014 OpenTravel Alliance (info@opentravel.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opentravel.schemacompiler.codegen.html;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+/**
+ * Verifies that the settings of a documentation <code>Configuration</code> do not
+ * leak into later tasks that run on the same (pooled) thread.
+ */
+public class TestConfiguration {
+
+	@Test
+	public void testResetDiscardsThreadSettings() throws Exception {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		
+		try {
+			executor.submit(() -> {
+				Configuration config = Configuration.getInstance();
+				
+				config.setWindowtitle("FirstExecution");
+				config.setModel(TestLibraryProvider.getModel());
+				Configuration.reset();
+				return null;
+			}).get();
+			
+			executor.submit(() -> {
+				Configuration config = Configuration.getInstance();
+				
+				assertEquals("", config.getWindowtitle());
+				assertNull(config.getModel());
+				return null;
+			}).get();
+			
+		} finally {
+			executor.shutdown();
+		}
+	}
+	
+}
@@ -20,32 +20,43 @@ import static org.junit.Assert.fail;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.Test;
 import org.opentravel.schemacompiler.event.ModelEventListener;
+import org.opentravel.schemacompiler.ic.ModelExtensionRegistry;
 import org.opentravel.schemacompiler.ic.ModelIntegrityChecker;
+import org.opentravel.schemacompiler.ic.ModelReferenceIndex;
 import org.opentravel.schemacompiler.loader.LibraryInputSource;
 import org.opentravel.schemacompiler.loader.LibraryModelLoader;
 import org.opentravel.schemacompiler.loader.impl.LibraryStreamInputSource;
+import org.opentravel.schemacompiler.model.NamedEntity;
 import org.opentravel.schemacompiler.model.TLAttribute;
 import org.opentravel.schemacompiler.model.TLAttributeType;
 import org.opentravel.schemacompiler.model.TLChoiceObject;
 import org.opentravel.schemacompiler.model.TLContextualFacet;
+import org.opentravel.schemacompiler.model.TLCoreObject;
 import org.opentravel.schemacompiler.model.TLExample;
+import org.opentravel.schemacompiler.model.TLExtension;
 import org.opentravel.schemacompiler.model.TLFacetType;
 import org.opentravel.schemacompiler.model.TLInclude;
 import org.opentravel.schemacompiler.model.TLLibrary;
 import org.opentravel.schemacompiler.model.TLModel;
 import org.opentravel.schemacompiler.model.TLNamespaceImport;
+import org.opentravel.schemacompiler.model.TLPropertyType;
 import org.opentravel.schemacompiler.model.TLSimple;
 import org.opentravel.schemacompiler.model.TLValueWithAttributes;
 import org.opentravel.schemacompiler.util.SchemaCompilerTestUtils;
 import org.opentravel.schemacompiler.util.URLUtils;
 import org.opentravel.schemacompiler.validate.FindingType;
 import org.opentravel.schemacompiler.validate.ValidationFindings;
+import org.opentravel.schemacompiler.visitor.ModelElementVisitorAdapter;
+import org.opentravel.schemacompiler.visitor.ModelNavigator;
 
 /**
  * Verifies the operation of the various integrity-checker listener routines.
@@ -193,6 +204,116 @@ public class TestIntegrityCheckers extends AbstractModelEventTests {
         }
     }
 
+    @Test
+    public void testModelReferenceIndex() throws Exception {
+        ModelReferenceIndex referenceIndex = testModel.getReferenceIndex();
+        TLLibrary library1p2 = (TLLibrary) testModel
+                .getLibrary(PACKAGE_2_NAMESPACE, "library_1_p2");
+        TLLibrary library2p2 = (TLLibrary) testModel
+                .getLibrary(PACKAGE_2_NAMESPACE, "library_2_p2");
+        TLSimple testType = library2p2.getSimpleType("SampleDocumentation");
+        TLAttributeType originalParentType = testType.getParentType();
+        TLSimple counter3 = library1p2.getSimpleType("Counter_3");
+        TLValueWithAttributes testVWA = library2p2.getValueWithAttributesType("MyVWA");
+        TLAttribute testAttr = testVWA.getAttribute("testAttr");
+        TLPropertyType attrType = testAttr.getType();
+        try {
+            // Type assignments are reflected in the index
+            assertFalse(referenceIndex.getReferrers(counter3).contains(testType));
+            testType.setParentType(counter3);
+            assertTrue(referenceIndex.getReferrers(counter3).contains(testType));
+            testType.setParentType(originalParentType);
+            assertFalse(referenceIndex.getReferrers(counter3).contains(testType));
+            assertTrue(referenceIndex.getReferrers(originalParentType).contains(testType));
+
+            // Removed members no longer appear as referrers
+            assertTrue(referenceIndex.getReferrers(attrType).contains(testAttr));
+            testVWA.removeAttribute(testAttr);
+            assertFalse(referenceIndex.getReferrers(attrType).contains(testAttr));
+            testVWA.addAttribute(testAttr);
+            assertTrue(referenceIndex.getReferrers(attrType).contains(testAttr));
+
+            // Index maintenance must not depend on the listener state of the model
+            testModel.setListenersEnabled(false);
+            testType.setParentType(counter3);
+            testModel.setListenersEnabled(true);
+            assertTrue(referenceIndex.getReferrers(counter3).contains(testType));
+
+        } finally {
+            testModel.setListenersEnabled(true);
+            testType.setParentType(originalParentType);
+            if (testAttr.getOwner() == null) {
+                testVWA.addAttribute(testAttr);
+            }
+        }
+    }
+
+    @Test
+    public void testModelExtensionRegistry() throws Exception {
+        ModelExtensionRegistry extensionRegistry = testModel.getExtensionRegistry();
+        TLLibrary library1p2 = (TLLibrary) testModel
+                .getLibrary(PACKAGE_2_NAMESPACE, "library_1_p2");
+        TLCoreObject sampleCore = library1p2.getCoreObjectType("SampleCore");
+        TLCoreObject simpleCore = library1p2.getCoreObjectType("SimpleCore");
+        TLCoreObject enumCore = library1p2.getCoreObjectType("EnumCore");
+        TLExtension extension = simpleCore.getExtension();
+        try {
+            assertTrue(extensionRegistry.getExtendingEntities(sampleCore).contains(simpleCore));
+            assertTrue(extensionRegistry.getAllExtensions().contains(extension));
+
+            // Extension assignments are reflected in the registry
+            extension.setExtendsEntity(enumCore);
+            assertFalse(extensionRegistry.getExtendingEntities(sampleCore).contains(simpleCore));
+            assertTrue(extensionRegistry.getExtendingEntities(enumCore).contains(simpleCore));
+
+            // Removed extensions no longer appear in the registry
+            simpleCore.setExtension(null);
+            assertFalse(extensionRegistry.getExtendingEntities(enumCore).contains(simpleCore));
+
+            // Registry maintenance must not depend on the listener state of the model
+            testModel.setListenersEnabled(false);
+            simpleCore.setExtension(extension);
+            testModel.setListenersEnabled(true);
+            assertTrue(extensionRegistry.getExtendingEntities(enumCore).contains(simpleCore));
+
+        } finally {
+            testModel.setListenersEnabled(true);
+            simpleCore.setExtension(extension);
+            extension.setExtendsEntity(sampleCore);
+        }
+        assertTrue(extensionRegistry.getExtendingEntities(sampleCore).contains(simpleCore));
+    }
+
+    @Test
+    public void testModelExtensionRegistryOrder() throws Exception {
+        final List<NamedEntity> expectedOrder = new ArrayList<>();
+        List<NamedEntity> actualOrder = new ArrayList<>();
+
+        // Extensions are grouped by extended entity in the order of their first occurrence
+        ModelNavigator.navigate(testModel, new ModelElementVisitorAdapter() {
+            public boolean visitExtension(TLExtension extension) {
+                addFirstOccurrence(expectedOrder, extension.getExtendsEntity());
+                return true;
+            }
+        });
+        for (TLExtension extension : new ModelExtensionRegistry(testModel).getAllExtensions()) {
+            addFirstOccurrence(actualOrder, extension.getExtendsEntity());
+        }
+        assertFalse(expectedOrder.isEmpty());
+        assertEquals(expectedOrder, actualOrder);
+    }
+
+    private void addFirstOccurrence(List<NamedEntity> entities, NamedEntity entity) {
+        for (NamedEntity e : entities) {
+            if (e == entity) {
+                return;
+            }
+        }
+        if (entity != null) {
+            entities.add(entity);
+        }
+    }
+
     @Test
     public void testPrefixChangeIntegrityChecker() throws Exception {
         ModelEventListener<?, ?> listener = new ModelIntegrityChecker();
@@ -0,0 +1,74 @@
+/**
+ * Copyright (C) 2014 OpenTravel Alliance (info@opentravel.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opentravel.schemacompiler.ioc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+import org.springframework.context.ApplicationContext;
+
+/**
+ * Verifies the thread-specific extension assignments of the <code>CompilerExtensionRegistry</code>.
+ *
+ * @author S. Livezey
+ */
+public class TestCompilerExtensionRegistry {
+
+    @Test
+    public void testThreadExtensionIsolation() throws Exception {
+        final String globalExtension = CompilerExtensionRegistry.getActiveExtension();
+        final ApplicationContext globalContext = SchemaCompilerApplicationContext.getContext();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            Future<ApplicationContext> result = executor.submit(() -> {
+                try {
+                    CompilerExtensionRegistry.setThreadExtension(globalExtension);
+                    assertEquals(globalExtension, CompilerExtensionRegistry.getActiveExtension());
+                    return SchemaCompilerApplicationContext.getContext();
+
+                } finally {
+                    CompilerExtensionRegistry.setThreadExtension(null);
+                    assertNull(CompilerExtensionRegistry.getThreadApplicationContext());
+                }
+            });
+
+            assertSame(globalContext, result.get());
+            assertNull(CompilerExtensionRegistry.getThreadApplicationContext());
+            assertEquals(globalExtension, CompilerExtensionRegistry.getActiveExtension());
+
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownThreadExtension() throws Exception {
+        try {
+            CompilerExtensionRegistry.setThreadExtension("UNKNOWN_EXTENSION");
+
+        } finally {
+            assertNull(CompilerExtensionRegistry.getThreadApplicationContext());
+        }
+    }
+
+}
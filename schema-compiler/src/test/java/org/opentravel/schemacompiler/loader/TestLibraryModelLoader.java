@@ -23,6 +23,7 @@ import static org.junit.Assert.assertTrue;
 import java.io.File;
 import java.io.InputStream;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -39,6 +40,7 @@ import org.opentravel.schemacompiler.repository.ProjectManager;
 import org.opentravel.schemacompiler.repository.RepositoryManager;
 import org.opentravel.schemacompiler.util.SchemaCompilerTestUtils;
 import org.opentravel.schemacompiler.validate.FindingType;
+import org.opentravel.schemacompiler.validate.ValidationFinding;
 import org.opentravel.schemacompiler.validate.ValidationFindings;
 
 /**
@@ -288,6 +290,51 @@ public class TestLibraryModelLoader {
                                                                // namespaces
     }
 
+    @Test
+    public void testParallelLoadMatchesSerialLoad() throws Exception {
+        String[] libraryFiles = new String[] { "/test-package_v2/library_1_p2.xml",
+                "/test-package_v3/sample_library.xml", "/test-package_v3/legacy_schema_1.xsd" };
+
+        for (String libraryFile : libraryFiles) {
+            List<String> serialLibraries = new ArrayList<String>();
+            List<String> parallelLibraries = new ArrayList<String>();
+            ValidationFindings serialFindings = loadLibraryFile(libraryFile, 1, serialLibraries);
+            ValidationFindings parallelFindings = loadLibraryFile(libraryFile, 4, parallelLibraries);
+
+            assertEquals(serialLibraries, parallelLibraries);
+            assertEquals(getFindingKeys(serialFindings), getFindingKeys(parallelFindings));
+        }
+    }
+
+    private List<String> getFindingKeys(ValidationFindings findings) {
+        List<String> findingKeys = new ArrayList<String>();
+
+        for (ValidationFinding finding : findings.getAllFindingsAsList()) {
+            findingKeys.add(finding.getType() + ":" + finding.getMessageKey());
+        }
+        return findingKeys;
+    }
+
+    private ValidationFindings loadLibraryFile(String libraryFile, int loaderThreads,
+            List<String> libraryUrls) throws Exception {
+        LibraryNamespaceResolver namespaceResolver = new CatalogLibraryNamespaceResolver(new File(
+                SchemaCompilerTestUtils.getBaseLibraryLocation() + "/empty-catalog.xml"));
+        LibraryInputSource<InputStream> libraryInput = new LibraryStreamInputSource(new File(
+                SchemaCompilerTestUtils.getBaseLibraryLocation() + libraryFile));
+        LibraryModelLoader<InputStream> modelLoader = new LibraryModelLoader<InputStream>();
+        TLModel model = modelLoader.getLibraryModel();
+
+        new ProjectManager( model, false, testRepositoryManager );
+        modelLoader.setNamespaceResolver(namespaceResolver);
+        modelLoader.setLoaderThreads(loaderThreads);
+        ValidationFindings findings = modelLoader.loadLibraryModel(libraryInput);
+
+        for (AbstractLibrary library : model.getAllLibraries()) {
+            libraryUrls.add(String.valueOf(library.getLibraryUrl()));
+        }
+        return findings;
+    }
+
     // @Test
     public void testLoadLibrary_manualTest() throws Exception {
         File sourceFile = new File(System.getProperty("user.dir"),
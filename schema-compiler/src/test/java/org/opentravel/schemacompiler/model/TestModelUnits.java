@@ -23,8 +23,11 @@ import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.io.InputStream;
+import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.Test;
 import org.opentravel.schemacompiler.loader.LibraryInputSource;
@@ -193,6 +196,124 @@ public class TestModelUnits {
         }
 	}
 	
+	@Test
+	public void testIndexedLookups() throws Exception {
+        LibraryInputSource<InputStream> libraryInput = new LibraryStreamInputSource(new File(
+                SchemaCompilerTestUtils.getBaseLibraryLocation()
+                        + "/test-package_v2/library_1_p2.xml"));
+        LibraryModelLoader<InputStream> modelLoader = new LibraryModelLoader<InputStream>();
+        ValidationFindings findings = modelLoader.loadLibraryModel(libraryInput);
+		
+        SchemaCompilerTestUtils.printFindings( findings );
+		assertFalse(findings.hasFinding(FindingType.ERROR));
+		
+        TLModel model = modelLoader.getLibraryModel();
+        TLLibrary library = (TLLibrary) model.getLibrary(PACKAGE_2_NAMESPACE, "library_1_p2");
+        String newNamespace = PACKAGE_2_NAMESPACE + "/indexed";
+        
+        // Library lookups by URL and namespace
+        assertNotNull(library);
+        assertTrue(model.hasLibrary(library.getLibraryUrl()));
+        assertTrue(model.getLibrariesForNamespace(PACKAGE_2_NAMESPACE).contains(library));
+        
+        library.setNamespace(newNamespace);
+        assertNull(model.getLibrary(PACKAGE_2_NAMESPACE, "library_1_p2"));
+        assertTrue(model.getLibrary(newNamespace, "library_1_p2") == library);
+        assertTrue(model.hasNamespace(newNamespace));
+        assertTrue(model.getNamespaces().contains(newNamespace));
+        
+        model.removeLibrary(library);
+        assertFalse(model.hasLibrary(library.getLibraryUrl()));
+        assertFalse(model.hasNamespace(newNamespace));
+        model.addLibrary(library);
+        assertTrue(model.getLibrary(library.getLibraryUrl()) == library);
+        
+        // Member lookups by local name
+        TLSimple simple = new TLSimple();
+        
+        simple.setName("IndexedSimple");
+        library.addNamedMember(simple);
+        assertTrue(library.getSimpleType("IndexedSimple") == simple);
+        
+        simple.setName("RenamedSimple");
+        assertNull(library.getSimpleType("IndexedSimple"));
+        assertTrue(library.getSimpleType("RenamedSimple") == simple);
+        
+        // Duplicate names resolve to the first member in the library's member list
+        TLSimple duplicate = new TLSimple();
+        
+        duplicate.setName("DuplicateSimple");
+        library.addNamedMember(duplicate);
+        simple.setName("DuplicateSimple");
+        assertTrue(library.getSimpleType("DuplicateSimple") == simple);
+        assertNull(library.getSimpleType("RenamedSimple"));
+        
+        simple.setName("RenamedSimple");
+        assertTrue(library.getSimpleType("DuplicateSimple") == duplicate);
+        library.removeNamedMember(duplicate);
+        assertNull(library.getSimpleType("DuplicateSimple"));
+        
+        library.removeNamedMember(simple);
+        assertNull(library.getSimpleType("RenamedSimple"));
+        
+        for (LibraryMember member : library.getNamedMembers()) {
+        	assertNotNull(library.getNamedMember(member.getLocalName()));
+        }
+	}
+	
+    @Test
+    public void testConcurrentIndexedLookups() throws Exception {
+        TLModel model = new TLModel();
+        TLLibrary library = new TLLibrary();
+        TLSimple simple = new TLSimple();
+        AtomicReference<Throwable> readerError = new AtomicReference<>();
+        AtomicBoolean done = new AtomicBoolean(false);
+        
+        library.setNamespace(PACKAGE_2_NAMESPACE);
+        library.setName("concurrent_lookup");
+        library.setLibraryUrl(new URL("file:/concurrent/concurrent_lookup.otm"));
+        simple.setName("ConcurrentSimple");
+        library.addNamedMember(simple);
+        model.addLibrary(library);
+        
+        // Readers must always find the stable library and member while other libraries, members,
+        // and names are modified
+        Thread reader = new Thread(() -> {
+            try {
+                while (!done.get()) {
+                    assertTrue(model.getLibrary(PACKAGE_2_NAMESPACE, "concurrent_lookup") == library);
+                    assertTrue(model.hasNamespace(PACKAGE_2_NAMESPACE));
+                    assertTrue(library.getSimpleType("ConcurrentSimple") == simple);
+                }
+            } catch (Throwable t) {
+                readerError.set(t);
+            }
+        });
+        
+        reader.start();
+        
+        try {
+            for (int i = 0; i < 2000; i++) {
+                TLLibrary tempLibrary = new TLLibrary();
+                TLSimple tempSimple = new TLSimple();
+                
+                tempLibrary.setNamespace(PACKAGE_2_NAMESPACE + "/temp" + (i % 10));
+                tempLibrary.setName("temp_library_" + i);
+                tempLibrary.setLibraryUrl(new URL("file:/concurrent/temp_library_" + i + ".otm"));
+                model.addLibrary(tempLibrary);
+                tempSimple.setName("TempSimple" + i);
+                library.addNamedMember(tempSimple);
+                tempSimple.setName("RenamedTempSimple" + i);
+                library.removeNamedMember(tempSimple);
+                model.removeLibrary(tempLibrary);
+            }
+        } finally {
+            done.set(true);
+            reader.join();
+        }
+        assertNull(readerError.get());
+    }
+	
     private TLBusinessObject getTestBusinessObject() {
     	TLBusinessObject bo = new TLBusinessObject();
     	TLContextualFacet cfa = new TLContextualFacet();
@@ -0,0 +1,160 @@
+/**
+ * Copyright (C) 2014 OpenTravel Alliance (info@opentravel.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opentravel.schemacompiler.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.opentravel.ns.ota2.repositoryinfo_v01_00.LibraryInfoType;
+import org.opentravel.ns.ota2.repositoryinfo_v01_00.LibraryStatus;
+import org.opentravel.ns.ota2.repositoryinfo_v01_00.RepositoryState;
+import org.opentravel.schemacompiler.repository.impl.DefaultRepositoryFileManager;
+
+/**
+ * Verifies that the library meta-data catalog of the <code>RepositoryFileManager</code> stays
+ * consistent with the repository's meta-data files.
+ */
+public class TestLibraryMetadataCatalog {
+
+    private static final String BASE_NAMESPACE = "http://www.OpenTravel.org/ns/OTA2/catalog-test";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testCommitAndRollback() throws Exception {
+        RepositoryFileManager fileManager = new DefaultRepositoryFileManager(folder.getRoot());
+
+        fileManager.startChangeSet();
+        fileManager.saveLibraryMetadata(newMetadata("Catalog_Test_1_0_0.otm", "1.0.0"));
+        fileManager.commitChangeSet();
+        assertEquals(1, fileManager.loadLibraryMetadataRecords(BASE_NAMESPACE).size());
+
+        // Committed changes should be visible without re-reading the namespace folders
+        LibraryInfoType libraryMetadata = newMetadata("Catalog_Test_1_0_0.otm", "1.0.0");
+
+        libraryMetadata.setStatus(LibraryStatus.FINAL);
+        fileManager.startChangeSet();
+        fileManager.saveLibraryMetadata(libraryMetadata);
+        fileManager.saveLibraryMetadata(newMetadata("Catalog_Test_1_1_0.otm", "1.1.0"));
+        fileManager.commitChangeSet();
+
+        List<LibraryInfoType> records = fileManager.loadLibraryMetadataRecords(BASE_NAMESPACE);
+
+        assertEquals(2, records.size());
+        assertEquals(LibraryStatus.FINAL, findRecord(records, "Catalog_Test_1_0_0.otm").getStatus());
+
+        // Rolled back changes should be removed from the catalog
+        fileManager.startChangeSet();
+        fileManager.saveLibraryMetadata(newMetadata("Catalog_Test_1_2_0.otm", "1.2.0"));
+        assertEquals(3, fileManager.loadLibraryMetadataRecords(BASE_NAMESPACE).size());
+        fileManager.rollbackChangeSet();
+        assertEquals(2, fileManager.loadLibraryMetadataRecords(BASE_NAMESPACE).size());
+
+        // Changes to the records that are returned should not affect the catalog
+        records.get(0).setLibraryName("Modified_Name");
+
+        for (LibraryInfoType record : fileManager.loadLibraryMetadataRecords(BASE_NAMESPACE)) {
+            assertEquals("Catalog_Test", record.getLibraryName());
+        }
+    }
+
+    @Test
+    public void testRefreshDeletedFile() throws Exception {
+        RepositoryFileManager fileManager = new DefaultRepositoryFileManager(folder.getRoot());
+
+        fileManager.startChangeSet();
+        fileManager.saveLibraryMetadata(newMetadata("Catalog_Test_1_0_0.otm", "1.0.0"));
+        File metadataFile = fileManager.saveLibraryMetadata(newMetadata("Catalog_Test_1_1_0.otm", "1.1.0"));
+        fileManager.commitChangeSet();
+        assertEquals(2, fileManager.loadLibraryMetadataRecords(BASE_NAMESPACE).size());
+
+        assertTrue(metadataFile.delete());
+        fileManager.refreshLibraryMetadata(metadataFile);
+
+        List<LibraryInfoType> records = fileManager.loadLibraryMetadataRecords(BASE_NAMESPACE);
+
+        assertEquals(1, records.size());
+        assertEquals("Catalog_Test_1_0_0.otm", records.get(0).getFilename());
+
+        // A new file manager should load the same records from the file system
+        assertEquals(1, new DefaultRepositoryFileManager(folder.getRoot())
+                .loadLibraryMetadataRecords(BASE_NAMESPACE).size());
+    }
+
+    @Test
+    public void testExternalModification() throws Exception {
+        RepositoryFileManager fileManager = new DefaultRepositoryFileManager(folder.getRoot());
+        RepositoryFileManager otherFileManager = new DefaultRepositoryFileManager(folder.getRoot());
+
+        fileManager.startChangeSet();
+        fileManager.saveLibraryMetadata(newMetadata("Catalog_Test_1_0_0.otm", "1.0.0"));
+        fileManager.commitChangeSet();
+        assertEquals(1, fileManager.loadLibraryMetadataRecords(BASE_NAMESPACE).size());
+
+        // Changes made by another file manager (or process) should be detected
+        LibraryInfoType libraryMetadata = newMetadata("Catalog_Test_1_0_0.otm", "1.0.0");
+
+        libraryMetadata.setStatus(LibraryStatus.FINAL);
+        otherFileManager.startChangeSet();
+        otherFileManager.saveLibraryMetadata(libraryMetadata);
+        otherFileManager.saveLibraryMetadata(newMetadata("Catalog_Test_1_1_0.otm", "1.1.0"));
+        otherFileManager.commitChangeSet();
+
+        List<LibraryInfoType> records = fileManager.loadLibraryMetadataRecords(BASE_NAMESPACE);
+
+        assertEquals(2, records.size());
+        assertEquals(LibraryStatus.FINAL, findRecord(records, "Catalog_Test_1_0_0.otm").getStatus());
+
+        // Deleting a file outside of the file manager should also be detected
+        assertTrue(otherFileManager.getLibraryMetadataLocation(BASE_NAMESPACE,
+                "Catalog_Test_1_1_0.otm", "1.1.0").delete());
+        assertEquals(1, fileManager.loadLibraryMetadataRecords(BASE_NAMESPACE).size());
+    }
+
+    private LibraryInfoType newMetadata(String filename, String version) {
+        LibraryInfoType libraryMetadata = new LibraryInfoType();
+
+        libraryMetadata.setNamespace(BASE_NAMESPACE + "/v" + version.replace('.', '_'));
+        libraryMetadata.setBaseNamespace(BASE_NAMESPACE);
+        libraryMetadata.setFilename(filename);
+        libraryMetadata.setLibraryName("Catalog_Test");
+        libraryMetadata.setVersion(version);
+        libraryMetadata.setVersionScheme("OTA2");
+        libraryMetadata.setStatus(LibraryStatus.DRAFT);
+        libraryMetadata.setState(RepositoryState.MANAGED_UNLOCKED);
+        libraryMetadata.setOwningRepository("test-repository");
+        return libraryMetadata;
+    }
+
+    private LibraryInfoType findRecord(List<LibraryInfoType> records, String filename) {
+        LibraryInfoType result = null;
+
+        for (LibraryInfoType record : records) {
+            if (filename.equals(record.getFilename())) {
+                result = record;
+            }
+        }
+        return result;
+    }
+
+}
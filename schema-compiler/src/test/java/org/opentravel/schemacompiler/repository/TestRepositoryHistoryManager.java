@@ -0,0 +1,303 @@
+/**
+ * Copyright (C) 2014 OpenTravel Alliance (info@opentravel.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opentravel.schemacompiler.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.opentravel.ns.ota2.repositoryinfo_v01_00.LibraryHistoryItemType;
+import org.opentravel.ns.ota2.repositoryinfo_v01_00.LibraryHistoryType;
+import org.opentravel.schemacompiler.repository.impl.RepositoryItemImpl;
+
+/**
+ * Verifies the storage and retrieval of historical content by the
+ * <code>RepositoryHistoryManager</code>.
+ */
+public class TestRepositoryHistoryManager {
+
+    private static final String BASE_NAMESPACE = "http://www.OpenTravel.org/ns/OTA2/history-test";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Rule
+    public TemporaryFolder cacheFolder = new TemporaryFolder();
+
+    @Test
+    public void testDeltaHistory() throws Exception {
+        RepositoryManager manager = new RepositoryManager(folder.getRoot());
+        RepositoryHistoryManager historyManager = manager.getHistoryManager();
+        RepositoryItem item = newRepositoryItem();
+        List<String> versions = new ArrayList<>();
+        long commitTime = System.currentTimeMillis() - 100000L;
+
+        for (int i = 0; i < 12; i++) {
+            String content = newLibraryContent(i);
+
+            saveContent(manager, content);
+            versions.add(content);
+            manager.getFileManager().startChangeSet();
+            historyManager.addToHistory(item, new Date(commitTime + (i * 1000L)), "Commit\t" + i);
+            manager.getFileManager().commitChangeSet();
+        }
+
+        // Commits after the first are stored as deltas, except at the snapshot interval
+        File historyFolder = new File(manager.getFileManager().getLibraryMetadataLocation(
+                BASE_NAMESPACE, "Test_History_1_0_0.otm", "1.0.0").getParentFile(), "history");
+        File snapshotFile = new File(historyFolder, "Test_History_1_0_0.otm.000.gz");
+        File deltaFile = new File(historyFolder, "Test_History_1_0_0.otm.005.delta");
+
+        assertTrue(snapshotFile.exists());
+        assertTrue(deltaFile.exists());
+        assertTrue(new File(historyFolder, "Test_History_1_0_0.otm.010.gz").exists());
+        assertTrue(deltaFile.length() < snapshotFile.length());
+
+        // Every commit should be rebuilt with its original content
+        for (int i = 0; i < versions.size(); i++) {
+            assertEquals(versions.get(i), readContent(historyManager.getHistoricalContent(item, i)));
+        }
+        assertEquals(versions.get(7), readContent(historyManager.getHistoricalContent(item,
+                new Date(commitTime + 7500L))));
+
+        LibraryHistoryType history = historyManager.getHistory(item);
+        LibraryHistoryItemType latestCommit = history.getLibraryHistoryItem().get(0);
+
+        assertEquals(12, history.getLibraryHistoryItem().size());
+        assertEquals(11, latestCommit.getCommitNumber());
+        assertEquals("Commit\t11", latestCommit.getValue());
+    }
+
+    @Test
+    public void testDeleteHistory() throws Exception {
+        RepositoryManager manager = new RepositoryManager(folder.getRoot());
+        RepositoryHistoryManager historyManager = manager.getHistoryManager();
+        RepositoryItem item = newRepositoryItem();
+
+        for (int i = 0; i < 3; i++) {
+            saveContent(manager, newLibraryContent(i));
+            manager.getFileManager().startChangeSet();
+            historyManager.addToHistory(item, new Date(), "Commit " + i);
+            manager.getFileManager().commitChangeSet();
+        }
+        File cachedContent = historyManager.getHistoricalContent(item, 2);
+
+        manager.getFileManager().startChangeSet();
+        historyManager.deleteHistory(item);
+        manager.getFileManager().commitChangeSet();
+
+        assertEquals(null, historyManager.getHistory(item));
+        assertFalse(cachedContent.exists());
+
+        // Commit numbers are re-used after the history is deleted
+        saveContent(manager, newLibraryContent(5));
+        manager.getFileManager().startChangeSet();
+        historyManager.addToHistory(item, new Date(), "Commit 0");
+        manager.getFileManager().commitChangeSet();
+
+        assertEquals(newLibraryContent(5), readContent(historyManager.getHistoricalContent(item, 0)));
+    }
+
+    @Test
+    public void testEffectiveDateLookup() throws Exception {
+        RepositoryManager manager = new RepositoryManager(folder.getRoot());
+        RepositoryHistoryManager historyManager = manager.getHistoryManager();
+        RepositoryItem item = newRepositoryItem();
+        long baseTime = System.currentTimeMillis() - 100000L;
+        long[] commitTimes = new long[] { 5000L, 1000L, 3000L };
+
+        // Effective dates are intentionally out of order with respect to the commit numbers
+        for (int i = 0; i < commitTimes.length; i++) {
+            saveContent(manager, newLibraryContent(i));
+            manager.getFileManager().startChangeSet();
+            historyManager.addToHistory(item, new Date(baseTime + commitTimes[i]), "Commit " + i);
+            manager.getFileManager().commitChangeSet();
+        }
+        assertEquals(newLibraryContent(1), readContent(historyManager.getHistoricalContent(item,
+                new Date(baseTime + 2000L))));
+        assertEquals(newLibraryContent(2), readContent(historyManager.getHistoricalContent(item,
+                new Date(baseTime + 6000L))));
+
+        try {
+            historyManager.getHistoricalContent(item, new Date(baseTime));
+            fail("Expected exception not thrown.");
+
+        } catch (RepositoryException e) {
+            // Expected - no commits were effective at that time
+        }
+
+        // Appending a commit must be reflected by the cached timeline
+        saveContent(manager, newLibraryContent(3));
+        manager.getFileManager().startChangeSet();
+        historyManager.addToHistory(item, new Date(baseTime + 7000L), "Commit 3");
+        manager.getFileManager().commitChangeSet();
+
+        assertEquals(newLibraryContent(3), readContent(historyManager.getHistoricalContent(item,
+                new Date(baseTime + 8000L))));
+        assertEquals(4, historyManager.getHistory(item).getLibraryHistoryItem().size());
+    }
+
+    @Test
+    public void testHistoryCacheLocation() throws Exception {
+        File repositoryFolder = folder.newFolder("repository");
+        long baseTime = System.currentTimeMillis() - 100000L;
+
+        System.setProperty(RepositoryHistoryManager.HISTORY_CACHE_FOLDER_PROPERTY,
+                cacheFolder.getRoot().getAbsolutePath());
+
+        try {
+            // Rebuilt content must be cached outside of the repository
+            RepositoryManager manager = new RepositoryManager(repositoryFolder);
+            RepositoryItem item = newRepositoryItem();
+
+            for (int i = 0; i < 3; i++) {
+                saveContent(manager, newLibraryContent(i));
+                manager.getFileManager().startChangeSet();
+                manager.getHistoryManager().addToHistory(item, new Date(baseTime + i), "Commit " + i);
+                manager.getFileManager().commitChangeSet();
+            }
+            File cachedContent = manager.getHistoryManager().getHistoricalContent(item, 1);
+
+            assertTrue(cachedContent.toPath().startsWith(cacheFolder.getRoot().toPath()));
+            assertFalse(new File(repositoryFolder, ".history-cache").exists());
+
+            // Content cached for a repository that is re-created at the same location is not re-used
+            try (Stream<Path> repositoryFiles = Files.walk(repositoryFolder.toPath())) {
+                repositoryFiles.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            }
+            manager = new RepositoryManager(repositoryFolder);
+
+            for (int i = 0; i < 3; i++) {
+                saveContent(manager, newLibraryContent(i + 5));
+                manager.getFileManager().startChangeSet();
+                manager.getHistoryManager().addToHistory(item, new Date(baseTime + 10 + i), "Commit " + i);
+                manager.getFileManager().commitChangeSet();
+            }
+            assertEquals(newLibraryContent(6),
+                    readContent(manager.getHistoryManager().getHistoricalContent(item, 1)));
+
+        } finally {
+            System.clearProperty(RepositoryHistoryManager.HISTORY_CACHE_FOLDER_PROPERTY);
+        }
+    }
+
+    @Test
+    public void testHistoryCacheEviction() throws Exception {
+        long baseTime = System.currentTimeMillis() - 600000L;
+
+        System.setProperty(RepositoryHistoryManager.HISTORY_CACHE_FOLDER_PROPERTY,
+                cacheFolder.getRoot().getAbsolutePath());
+        System.setProperty(RepositoryHistoryManager.HISTORY_CACHE_LIMIT_PROPERTY, "25000");
+
+        try {
+            RepositoryManager manager = new RepositoryManager(folder.getRoot());
+            RepositoryHistoryManager historyManager = manager.getHistoryManager();
+            RepositoryItem item = newRepositoryItem();
+            List<File> cachedFiles = new ArrayList<>();
+
+            for (int i = 0; i < 6; i++) {
+                saveContent(manager, newLibraryContent(i));
+                manager.getFileManager().startChangeSet();
+                historyManager.addToHistory(item, new Date(baseTime + i), "Commit " + i);
+                manager.getFileManager().commitChangeSet();
+            }
+
+            // Recently used content is never evicted, even if the cache exceeds its limit
+            for (int i = 0; i < 5; i++) {
+                cachedFiles.add(historyManager.getHistoricalContent(item, i));
+            }
+            for (int i = 0; i < 5; i++) {
+                assertTrue(cachedFiles.get(i).exists());
+                cachedFiles.get(i).setLastModified(baseTime + (i * 1000L));
+            }
+
+            // Re-using a cached file makes it the most recently used
+            assertEquals(cachedFiles.get(2), historyManager.getHistoricalContent(item, 2));
+
+            // Caching another file evicts the least recently used files
+            File latestFile = historyManager.getHistoricalContent(item, 5);
+
+            assertTrue(latestFile.exists());
+            assertTrue(cachedFiles.get(2).exists());
+            assertFalse(cachedFiles.get(0).exists());
+            assertFalse(cachedFiles.get(1).exists());
+            assertFalse(cachedFiles.get(3).exists());
+            assertFalse(cachedFiles.get(4).exists());
+
+            // Evicted content is rebuilt when it is requested again
+            assertEquals(newLibraryContent(0), readContent(historyManager.getHistoricalContent(item, 0)));
+
+        } finally {
+            System.clearProperty(RepositoryHistoryManager.HISTORY_CACHE_FOLDER_PROPERTY);
+            System.clearProperty(RepositoryHistoryManager.HISTORY_CACHE_LIMIT_PROPERTY);
+        }
+    }
+
+    private RepositoryItem newRepositoryItem() {
+        RepositoryItemImpl item = new RepositoryItemImpl();
+
+        item.setBaseNamespace(BASE_NAMESPACE);
+        item.setNamespace(BASE_NAMESPACE + "/v01");
+        item.setFilename("Test_History_1_0_0.otm");
+        item.setLibraryName("Test_History");
+        item.setVersion("1.0.0");
+        return item;
+    }
+
+    private String newLibraryContent(int revision) {
+        StringBuilder content = new StringBuilder();
+
+        content.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        content.append("<Library revision=\"").append(revision).append("\">\n");
+
+        for (int i = 0; i < 200; i++) {
+            content.append("    <Simple name=\"Simple_").append(i).append("\" type=\"xsd:string\"");
+            content.append((i == (revision * 10)) ? " pattern=\"[A-Z]+\"/>\n" : "/>\n");
+        }
+        for (int i = 0; i < revision; i++) {
+            content.append("    <Simple name=\"Added_").append(i).append("\" type=\"xsd:int\"/>\n");
+        }
+        content.append("</Library>");
+        return content.toString();
+    }
+
+    private void saveContent(RepositoryManager manager, String content) throws Exception {
+        File contentFile = manager.getFileManager().getLibraryContentLocation(BASE_NAMESPACE,
+                "Test_History_1_0_0.otm", "1.0.0");
+
+        contentFile.getParentFile().mkdirs();
+        Files.write(contentFile.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String readContent(File file) throws Exception {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+
+}
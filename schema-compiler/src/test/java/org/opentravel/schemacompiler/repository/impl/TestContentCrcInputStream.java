@@ -0,0 +1,91 @@
+/**
+ * Copyright (C) 2014 OpenTravel Alliance (info@opentravel.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opentravel.schemacompiler.repository.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+import org.junit.Test;
+
+/**
+ * Verifies the operation of the checksum stream used for repository content uploads.
+ */
+public class TestContentCrcInputStream {
+
+    private static final byte[] CONTENT = "<Library>test content</Library>".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    public void testComputeCrc() throws Exception {
+        try (ContentCrcInputStream in = new ContentCrcInputStream(new ByteArrayInputStream(CONTENT))) {
+            readFully(in);
+            assertEquals(getExpectedCrc(), in.getCrc());
+        }
+    }
+
+    @Test
+    public void testVerifyCrc() throws Exception {
+        Long expectedCrc = ContentCrcInputStream.parseCrc(ContentCrcInputStream.formatCrc(getExpectedCrc()));
+
+        try (ContentCrcInputStream in = new ContentCrcInputStream(new ByteArrayInputStream(CONTENT), expectedCrc)) {
+            assertEquals(CONTENT.length, readFully(in));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testCrcMismatch() throws Exception {
+        try (ContentCrcInputStream in = new ContentCrcInputStream(new ByteArrayInputStream(CONTENT),
+                getExpectedCrc() + 1)) {
+            readFully(in);
+        }
+    }
+
+    @Test
+    public void testParseCrc() throws Exception {
+        assertNull(ContentCrcInputStream.parseCrc(null));
+        assertNull(ContentCrcInputStream.parseCrc(""));
+        assertEquals(Long.valueOf(0xffffffffL), ContentCrcInputStream.parseCrc("ffffffff"));
+    }
+
+    @Test(expected = IOException.class)
+    public void testParseInvalidCrc() throws Exception {
+        ContentCrcInputStream.parseCrc("not-a-crc");
+    }
+
+    private long getExpectedCrc() {
+        CRC32 crc = new CRC32();
+
+        crc.update(CONTENT);
+        return crc.getValue();
+    }
+
+    private int readFully(InputStream in) throws IOException {
+        byte[] buffer = new byte[8];
+        int totalBytes = 0;
+        int bytesRead;
+
+        while ((bytesRead = in.read(buffer)) >= 0) {
+            totalBytes += bytesRead;
+        }
+        return totalBytes;
+    }
+
+}
@@ -0,0 +1,187 @@
+/**
+ * Copyright (C) 2014 OpenTravel Alliance (info@opentravel.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opentravel.schemacompiler.repository.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.opentravel.schemacompiler.repository.RepositoryFileManager;
+
+/**
+ * Verifies the journaling of change sets by the <code>DefaultRepositoryFileManager</code>.
+ */
+public class TestDefaultRepositoryFileManager {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testCommitChangeSet() throws Exception {
+        RepositoryFileManager fileManager = new DefaultRepositoryFileManager(folder.getRoot());
+        File existingFile = writeFile("existing.txt", "original");
+        File newFile = new File(folder.getRoot(), "new.txt");
+
+        fileManager.startChangeSet();
+        fileManager.addToChangeSet(existingFile);
+        writeFile("existing.txt", "modified");
+        fileManager.addToChangeSet(existingFile);
+        fileManager.addToChangeSet(newFile);
+        writeFile("new.txt", "created");
+        fileManager.commitChangeSet();
+
+        assertEquals("modified", readFile(existingFile));
+        assertEquals("created", readFile(newFile));
+        assertJournalFolderEmpty();
+    }
+
+    @Test
+    public void testRollbackChangeSet() throws Exception {
+        RepositoryFileManager fileManager = new DefaultRepositoryFileManager(folder.getRoot());
+        File existingFile = writeFile("existing.txt", "original");
+        File newFolder = new File(folder.getRoot(), "new-folder");
+        File newFile = new File(newFolder, "new.txt");
+
+        fileManager.startChangeSet();
+        fileManager.addToChangeSet(existingFile);
+        writeFile("existing.txt", "modified");
+
+        // Adding a file a second time must not replace its original content in the journal
+        fileManager.addToChangeSet(existingFile);
+        assertTrue(newFolder.mkdir());
+        fileManager.addToChangeSet(newFolder);
+        fileManager.addToChangeSet(newFile);
+        writeFile("new-folder/new.txt", "created");
+        fileManager.rollbackChangeSet();
+
+        assertEquals("original", readFile(existingFile));
+        assertFalse(newFile.exists());
+        assertFalse(newFolder.exists());
+        assertJournalFolderEmpty();
+    }
+
+    @Test
+    public void testRollbackSavedFiles() throws Exception {
+        RepositoryFileManager fileManager = new DefaultRepositoryFileManager(folder.getRoot());
+        File existingFile = writeFile("existing.txt", "original");
+        File newFile = new File(folder.getRoot(), "new.txt");
+
+        fileManager.startChangeSet();
+        fileManager.saveFile(existingFile, newContent("modified"));
+        fileManager.saveFile(newFile, newContent("created"));
+        assertEquals("modified", readFile(existingFile));
+        fileManager.rollbackChangeSet();
+
+        assertEquals("original", readFile(existingFile));
+        assertFalse(newFile.exists());
+        assertJournalFolderEmpty();
+    }
+
+    @Test
+    public void testSavedFilesReplacedWithoutCopies() throws Exception {
+        RepositoryFileManager fileManager = new DefaultRepositoryFileManager(folder.getRoot());
+        File existingFile = writeFile("existing.txt", "original");
+        Object originalFileKey = getFileKey(existingFile);
+        File journalFolder = new File(folder.getRoot(),
+                DefaultRepositoryFileManager.JOURNAL_FOLDER_LOCATION);
+
+        Assume.assumeNotNull(originalFileKey);
+        fileManager.startChangeSet();
+        fileManager.saveFile(existingFile, newContent("modified"));
+
+        // The original file is preserved by a link in the journal instead of a copy, and the
+        // saved file is a new file that was renamed into place
+        File[] backupFiles = journalFolder.listFiles((dir, name) -> name.endsWith(".bak"));
+
+        assertEquals(1, backupFiles.length);
+        assertEquals(originalFileKey, getFileKey(backupFiles[0]));
+        assertNotEquals(originalFileKey, getFileKey(existingFile));
+        assertEquals(0, folder.getRoot().list((dir, name) -> name.endsWith(".tmp")).length);
+
+        // Files that are modified in place after they are replaced are restored by a rollback
+        fileManager.addToChangeSet(existingFile);
+        writeFile("existing.txt", "modified twice");
+        fileManager.rollbackChangeSet();
+
+        assertEquals("original", readFile(existingFile));
+        assertJournalFolderEmpty();
+    }
+
+    @Test
+    public void testRecoverInterruptedChangeSet() throws Exception {
+        File journalFolder = new File(folder.getRoot(),
+                DefaultRepositoryFileManager.JOURNAL_FOLDER_LOCATION);
+        File existingFile = writeFile("existing.txt", "original");
+        File newFile = new File(folder.getRoot(), "new.txt");
+        ChangeSetJournal journal = ChangeSetJournal.create(journalFolder);
+
+        // A journal that was abandoned before it was renamed into place is removed
+        assertTrue(new File(journalFolder, "abandoned.journal-new").createNewFile());
+
+        journal.addFile(existingFile);
+        writeFile("existing.txt", "modified");
+        journal.addFile(newFile);
+        writeFile("new.txt", "created");
+
+        // Simulate a crash by abandoning the journal without a commit or rollback
+        journal.close();
+        new DefaultRepositoryFileManager(folder.getRoot());
+
+        assertEquals("original", readFile(existingFile));
+        assertFalse(newFile.exists());
+        assertJournalFolderEmpty();
+    }
+
+    private File writeFile(String filename, String content) throws IOException {
+        File file = new File(folder.getRoot(), filename);
+
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private Object getFileKey(File file) throws IOException {
+        return Files.readAttributes(file.toPath(), BasicFileAttributes.class).fileKey();
+    }
+
+    private InputStream newContent(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String readFile(File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+
+    private void assertJournalFolderEmpty() {
+        File journalFolder = new File(folder.getRoot(),
+                DefaultRepositoryFileManager.JOURNAL_FOLDER_LOCATION);
+
+        assertEquals(0, journalFolder.list().length);
+    }
+
+}
@@ -0,0 +1,172 @@
+/**
+ * Copyright (C) 2014 OpenTravel Alliance (info@opentravel.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opentravel.schemacompiler.repository.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.util.EntityUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Verifies that the <code>RemoteRepositoryConnectionManager</code> shares a pooled HTTP client for
+ * each endpoint, that connections are re-used once the streamed responses are closed, and that
+ * request entities are only compressed for endpoints that advertise support for it.
+ */
+public class TestRemoteRepositoryConnectionManager {
+
+    private static final int RESPONSE_SIZE = 64 * 1024;
+
+    private HttpServer server;
+    private String endpointUrl;
+    private Set<InetSocketAddress> clientAddresses = new HashSet<>();
+    private List<String> uploadEncodings = new ArrayList<>();
+
+    @Before
+    public void setUp() throws Exception {
+        byte[] content = new byte[RESPONSE_SIZE];
+
+        Arrays.fill(content, (byte) 'x');
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            synchronized (clientAddresses) {
+                clientAddresses.add(exchange.getRemoteAddress());
+            }
+            exchange.sendResponseHeaders(200, content.length);
+
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(content);
+            }
+        });
+        server.createContext("/gzip-content", exchange -> {
+            ByteArrayOutputStream gzipContent = new ByteArrayOutputStream();
+
+            try (OutputStream out = new GZIPOutputStream(gzipContent)) {
+                out.write(content);
+            }
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            exchange.sendResponseHeaders(200, gzipContent.size());
+
+            try (OutputStream out = exchange.getResponseBody()) {
+                gzipContent.writeTo(out);
+            }
+        });
+        server.createContext("/advertise-encoding", exchange -> {
+            exchange.getResponseHeaders().add(
+                    RemoteRepositoryConnectionManager.REQUEST_ENCODING_HEADER, "gzip, deflate");
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.createContext("/upload", exchange -> {
+            String contentEncoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+
+            try (InputStream in = exchange.getRequestBody()) {
+                while (in.read() >= 0) {}
+            }
+
+            // Simulates an older service (behind a compressing proxy) that cannot decode requests
+            synchronized (uploadEncodings) {
+                uploadEncodings.add(String.valueOf(contentEncoding));
+            }
+            exchange.sendResponseHeaders((contentEncoding == null) ? 200 : 415, -1);
+            exchange.close();
+        });
+        server.start();
+        endpointUrl = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        RemoteRepositoryConnectionManager.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    public void testSharedClient() throws Exception {
+        assertSame(RemoteRepositoryConnectionManager.getHttpClient(endpointUrl),
+                RemoteRepositoryConnectionManager.getHttpClient(endpointUrl));
+    }
+
+    @Test
+    public void testConnectionReuse() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            try (CloseableHttpResponse response = RemoteRepositoryConnectionManager.execute(
+                    endpointUrl, new HttpGet(endpointUrl + "/content"), null)) {
+                assertEquals(200, response.getStatusLine().getStatusCode());
+
+                // Alternate between reading all, part and none of the streamed content
+                if (i % 3 == 0) {
+                    assertEquals(RESPONSE_SIZE, EntityUtils.toByteArray(response.getEntity()).length);
+
+                } else if (i % 3 == 1) {
+                    response.getEntity().getContent().read(new byte[16]);
+                }
+            }
+        }
+        assertEquals(1, clientAddresses.size());
+    }
+
+    @Test
+    public void testRequestCompression() throws Exception {
+        // A compressed response alone does not enable compressed requests
+        try (CloseableHttpResponse response = RemoteRepositoryConnectionManager.execute(
+                endpointUrl, new HttpGet(endpointUrl + "/gzip-content"), null)) {
+            assertEquals(RESPONSE_SIZE, EntityUtils.toByteArray(response.getEntity()).length);
+        }
+        assertFalse(RemoteRepositoryConnectionManager.isCompressionSupported(endpointUrl));
+
+        try (CloseableHttpResponse response = RemoteRepositoryConnectionManager.execute(
+                endpointUrl, new HttpGet(endpointUrl + "/advertise-encoding"), null)) {
+            assertEquals(200, response.getStatusLine().getStatusCode());
+        }
+        assertTrue(RemoteRepositoryConnectionManager.isCompressionSupported(endpointUrl));
+
+        // A rejected compressed request is re-sent without compression
+        HttpPost upload = new HttpPost(endpointUrl + "/upload");
+
+        upload.setEntity(new StringEntity("<Library/>", ContentType.TEXT_XML));
+
+        try (CloseableHttpResponse response = RemoteRepositoryConnectionManager.execute(
+                endpointUrl, upload, null)) {
+            assertEquals(200, response.getStatusLine().getStatusCode());
+        }
+        assertEquals(Arrays.asList("gzip", "null"), uploadEncodings);
+        assertFalse(RemoteRepositoryConnectionManager.isCompressionSupported(endpointUrl));
+    }
+
+}
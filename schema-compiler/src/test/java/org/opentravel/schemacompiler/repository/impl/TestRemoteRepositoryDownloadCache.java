@@ -0,0 +1,199 @@
+/**
+ * Copyright (C) 2014 OpenTravel Alliance (info@opentravel.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opentravel.schemacompiler.repository.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.opentravel.ns.ota2.repositoryinfo_v01_00.RefreshPolicy;
+
+/**
+ * Verifies the operation of the persistent download cache for remote repositories.
+ */
+public class TestRemoteRepositoryDownloadCache {
+
+    private static final String ITEM_KEY_1 = "http://www.opentravel.org/ns/test~Test_1_0_0.otm~1.0.0";
+    private static final String ITEM_KEY_2 = "http://www.opentravel.org/ns/test~Test_1_1_0.otm~1.1.0";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRefreshPolicies() throws Exception {
+        RemoteRepositoryDownloadCache cache = new RemoteRepositoryDownloadCache(folder.getRoot(), "test-repository");
+
+        assertTrue(cache.isRefreshDue(ITEM_KEY_1, RefreshPolicy.ALWAYS));
+        assertTrue(cache.isRefreshDue(ITEM_KEY_1, RefreshPolicy.DAILY));
+        assertFalse(cache.isRefreshDue(ITEM_KEY_1, RefreshPolicy.ON_DEMAND));
+
+        cache.recordItem(ITEM_KEY_1, new Date(), createContentFile("item1.otm", "library-content"));
+
+        assertTrue(cache.isRefreshDue(ITEM_KEY_1, RefreshPolicy.ALWAYS));
+        assertFalse(cache.isRefreshDue(ITEM_KEY_1, RefreshPolicy.DAILY));
+        assertTrue(cache.isRefreshDue(ITEM_KEY_2, RefreshPolicy.DAILY));
+
+        // The index should be visible to other instances (e.g. in a later session)
+        cache = new RemoteRepositoryDownloadCache(folder.getRoot(), "test-repository");
+        assertFalse(cache.isRefreshDue(ITEM_KEY_1, RefreshPolicy.DAILY));
+
+        // ...but not to the caches of other remote repositories
+        cache = new RemoteRepositoryDownloadCache(folder.getRoot(), "other-repository");
+        assertTrue(cache.isRefreshDue(ITEM_KEY_1, RefreshPolicy.DAILY));
+    }
+
+    @Test
+    public void testContentHash() throws Exception {
+        RemoteRepositoryDownloadCache cache = new RemoteRepositoryDownloadCache(folder.getRoot(), "test-repository");
+        File cacheFolder = new File(folder.getRoot(), RemoteRepositoryDownloadCache.CACHE_FOLDER);
+        Date lastUpdated = new Date();
+
+        assertNull(cache.getContentHash(ITEM_KEY_1));
+        cache.recordItem(ITEM_KEY_1, lastUpdated, createContentFile("item1.otm", "library-content"));
+        cache.recordItem(ITEM_KEY_2, lastUpdated, createContentFile("item2.otm", "library-content"));
+        String contentHash = cache.getContentHash(ITEM_KEY_1);
+
+        assertNotNull(contentHash);
+        assertEquals(contentHash, cache.getContentHash(ITEM_KEY_2));
+
+        // The content is not copied into the cache folder
+        assertEquals(new HashSet<>(Arrays.asList("cache.lock", "test-repository-index.properties",
+                "content")), new HashSet<>(Arrays.asList(cacheFolder.list())));
+
+        // The hash is only re-computed when the last-updated timestamp of the item changes
+        cache.recordItem(ITEM_KEY_1, lastUpdated, createContentFile("item1.otm", "updated-content"));
+        assertEquals(contentHash, cache.getContentHash(ITEM_KEY_1));
+
+        cache.recordItem(ITEM_KEY_1, new Date(0L), createContentFile("item1.otm", "updated-content"));
+        assertNotEquals(contentHash, cache.getContentHash(ITEM_KEY_1));
+    }
+
+    @Test
+    public void testSharedContent() throws Exception {
+        RemoteRepositoryDownloadCache cache = new RemoteRepositoryDownloadCache(folder.getRoot(), "test-repository");
+        File contentFolder = new File(folder.getRoot(), RemoteRepositoryDownloadCache.CACHE_FOLDER + "/content");
+        File contentFile1 = createContentFile("item1.otm", "library-content");
+        File contentFile2 = createContentFile("item2.otm", "library-content");
+
+        Assume.assumeTrue(getLinkCount(contentFile1) > 0);
+        cache.recordItem(ITEM_KEY_1, new Date(), contentFile1);
+        cache.recordItem(ITEM_KEY_2, new Date(), contentFile2);
+        File storedFile = new File(contentFolder, cache.getContentHash(ITEM_KEY_1));
+
+        // Identical content is stored once, and shared by the files of both items
+        assertEquals(1, contentFolder.list().length);
+        assertTrue(Files.isSameFile(storedFile.toPath(), contentFile1.toPath()));
+        assertTrue(Files.isSameFile(storedFile.toPath(), contentFile2.toPath()));
+        assertEquals("library-content", readContentFile(contentFile2));
+
+        // Replacing the content of one item does not affect the other
+        createContentFile("item1.otm", "updated-content");
+        cache.recordItem(ITEM_KEY_1, new Date(0L), contentFile1);
+
+        assertEquals("updated-content", readContentFile(contentFile1));
+        assertEquals("library-content", readContentFile(contentFile2));
+        assertEquals(2, contentFolder.list().length);
+
+        // Content that is no longer used by any item is deleted when the index is compacted
+        createContentFile("item2.otm", "updated-content");
+
+        for (int i = 0; i < 100; i++) {
+            cache.recordItem(ITEM_KEY_2, new Date(0L), contentFile2);
+        }
+        assertFalse(storedFile.exists());
+        assertEquals(1, contentFolder.list().length);
+        assertEquals("updated-content", readContentFile(contentFile2));
+    }
+
+    @Test
+    public void testSharedIndex() throws Exception {
+        RemoteRepositoryDownloadCache cache1 = new RemoteRepositoryDownloadCache(folder.getRoot(), "test-repository");
+        RemoteRepositoryDownloadCache cache2 = new RemoteRepositoryDownloadCache(folder.getRoot(), "test-repository");
+        File contentFile = createContentFile("item.otm", "library-content");
+
+        assertTrue(cache1.isRefreshDue(ITEM_KEY_1, RefreshPolicy.DAILY));
+        assertTrue(cache2.isRefreshDue(ITEM_KEY_2, RefreshPolicy.DAILY));
+
+        // Updates by one instance are picked up by the other when the index file changes
+        cache2.recordItem(ITEM_KEY_1, new Date(), contentFile);
+        assertFalse(cache1.isRefreshDue(ITEM_KEY_1, RefreshPolicy.DAILY));
+
+        cache1.recordItem(ITEM_KEY_2, new Date(), contentFile);
+        assertFalse(cache2.isRefreshDue(ITEM_KEY_1, RefreshPolicy.DAILY));
+        assertFalse(cache2.isRefreshDue(ITEM_KEY_2, RefreshPolicy.DAILY));
+    }
+
+    @Test
+    public void testIndexCompaction() throws Exception {
+        RemoteRepositoryDownloadCache cache = new RemoteRepositoryDownloadCache(folder.getRoot(), "test-repository");
+        File indexFile = new File(folder.getRoot(), RemoteRepositoryDownloadCache.CACHE_FOLDER
+                + "/test-repository-index.properties");
+        File contentFile = createContentFile("item.otm", "library-content");
+
+        // Repeated checks of the same items must not grow the index without bound
+        for (int i = 0; i < 250; i++) {
+            cache.recordItem((i % 2 == 0) ? ITEM_KEY_1 : ITEM_KEY_2, new Date(0L), contentFile);
+        }
+        assertTrue(Files.readAllLines(indexFile.toPath()).size() <= 100);
+
+        cache = new RemoteRepositoryDownloadCache(folder.getRoot(), "test-repository");
+        assertFalse(cache.isRefreshDue(ITEM_KEY_1, RefreshPolicy.DAILY));
+        assertFalse(cache.isRefreshDue(ITEM_KEY_2, RefreshPolicy.DAILY));
+    }
+
+    /**
+     * Creates or replaces the specified content file. Like the repository file manager, existing
+     * files are replaced by a rename instead of being rewritten in place.
+     */
+    private File createContentFile(String filename, String content) throws IOException {
+        File contentFile = new File(folder.getRoot(), filename);
+        File tempFile = File.createTempFile(filename, ".tmp", folder.getRoot());
+
+        Files.write(tempFile.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        Files.move(tempFile.toPath(), contentFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        return contentFile;
+    }
+
+    private String readContentFile(File contentFile) throws IOException {
+        return new String(Files.readAllBytes(contentFile.toPath()), StandardCharsets.UTF_8);
+    }
+
+    private int getLinkCount(File file) throws IOException {
+        try {
+            return (Integer) Files.getAttribute(file.toPath(), "unix:nlink");
+
+        } catch (UnsupportedOperationException | IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+}
@@ -0,0 +1,221 @@
+/**
+ * Copyright (C) 2014 OpenTravel Alliance (info@opentravel.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opentravel.schemacompiler.repository.impl;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.opentravel.ns.ota2.project_v01_00.ManagedProjectItemType;
+import org.opentravel.ns.ota2.repositoryinfo_v01_00.RepositoryItemIdentityType;
+import org.opentravel.schemacompiler.loader.LibraryModuleImport;
+import org.opentravel.schemacompiler.repository.RepositoryException;
+import org.opentravel.schemacompiler.repository.RepositoryItem;
+import org.opentravel.schemacompiler.repository.RepositoryManager;
+import org.opentravel.schemacompiler.util.URLUtils;
+
+/**
+ * Verifies that the <code>RepositoryItemPrefetcher</code> discovers imports from library headers
+ * and resolves each item of the import hierarchy exactly once.
+ */
+public class TestRepositoryItemPrefetcher {
+
+    private static final String TEST_NAMESPACE = "http://www.OpenTravel.org/ns/OTA2/SchemaCompiler/prefetch-test";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testReadImports() throws Exception {
+        List<LibraryModuleImport> imports;
+
+        try (InputStream in = new FileInputStream(
+                "src/test/resources/libraries_1_6/test-package_v2/library_2_p2.xml")) {
+            imports = RepositoryItemPrefetcher.readImports(in);
+        }
+        assertEquals(3, imports.size());
+        assertEquals("http://www.w3.org/2001/XMLSchema", imports.get(0).getNamespace());
+        assertEquals("xsd", imports.get(0).getPrefix());
+        assertEquals(Collections.emptyList(), imports.get(0).getFileHints());
+        assertEquals("http://www.OpenTravel.org/ns/OTA2/SchemaCompiler/test-package_v1",
+                imports.get(2).getNamespace());
+        assertEquals(Arrays.asList("../test-package_v1/library_2_p1.xml"),
+                imports.get(2).getFileHints());
+    }
+
+    @Test
+    public void testReadImportsStopsAtMembers() throws Exception {
+        String library = newLibrary("otm://test-repository/a.otm  otm://test-repository/b.otm")
+                .replace("</Library>", "<Import namespace=\"http://ignored\"/></Library>");
+        List<LibraryModuleImport> imports = RepositoryItemPrefetcher.readImports(
+                new ByteArrayInputStream(library.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(1, imports.size());
+        assertEquals(Arrays.asList("otm://test-repository/a.otm", "otm://test-repository/b.otm"),
+                imports.get(0).getFileHints());
+    }
+
+    @Test
+    public void testPrefetch() throws Exception {
+        File libraryFolder = folder.newFolder("libraries");
+        StubRepositoryManager repositoryManager = new StubRepositoryManager(
+                folder.newFolder("repository"), libraryFolder);
+        ManagedProjectItemType projectItem = new ManagedProjectItemType();
+
+        writeLibrary(libraryFolder, "root.otm",
+                "otm://test-repository/a.otm otm://test-repository/b.otm");
+        writeLibrary(libraryFolder, "a.otm",
+                "otm://test-repository/b.otm otm://test-repository/c.otm");
+        writeLibrary(libraryFolder, "b.otm",
+                "otm://test-repository/a.otm local_library.otm");
+        writeLibrary(libraryFolder, "c.otm", null);
+
+        projectItem.setBaseNamespace(TEST_NAMESPACE);
+        projectItem.setFilename("root.otm");
+        projectItem.setVersion("1.0.0");
+        new RepositoryItemPrefetcher(repositoryManager).prefetch(Arrays.asList(projectItem));
+
+        assertEquals(4, repositoryManager.requestedItems.size());
+        assertEquals(new HashSet<>(Arrays.asList("root.otm", "a.otm", "b.otm", "c.otm")),
+                new HashSet<>(repositoryManager.requestedItems));
+    }
+
+    @Test
+    public void testPrefetchSkipsDeliveredItems() throws Exception {
+        File libraryFolder = folder.newFolder("libraries");
+        StubRepositoryManager repositoryManager = new StubRepositoryManager(
+                folder.newFolder("repository"), libraryFolder);
+        RepositoryItemIdentityType deliveredItem = new RepositoryItemIdentityType();
+
+        writeLibrary(libraryFolder, "root.otm",
+                "otm://test-repository/a.otm otm://test-repository/b.otm");
+        writeLibrary(libraryFolder, "a.otm",
+                "otm://test-repository/b.otm otm://test-repository/c.otm");
+        writeLibrary(libraryFolder, "b.otm", "otm://test-repository/a.otm");
+        writeLibrary(libraryFolder, "c.otm", null);
+
+        // Imports of a project item resolve to the same item, and delivered items are not
+        // requested (although their imports are still prefetched)
+        deliveredItem.setBaseNamespace(TEST_NAMESPACE);
+        deliveredItem.setFilename("a.otm");
+        deliveredItem.setVersion("1.0.0");
+        new RepositoryItemPrefetcher(repositoryManager).prefetch(Arrays.asList(
+                newProjectItem("root.otm"), newProjectItem("a.otm")),
+                Arrays.asList(deliveredItem));
+
+        assertEquals(3, repositoryManager.requestedItems.size());
+        assertEquals(new HashSet<>(Arrays.asList("root.otm", "b.otm", "c.otm")),
+                new HashSet<>(repositoryManager.requestedItems));
+    }
+
+    private static ManagedProjectItemType newProjectItem(String filename) {
+        ManagedProjectItemType projectItem = new ManagedProjectItemType();
+
+        projectItem.setBaseNamespace(TEST_NAMESPACE);
+        projectItem.setFilename(filename);
+        projectItem.setVersion("1.0.0");
+        return projectItem;
+    }
+
+    /**
+     * Returns the content of a library whose header imports the test namespace using the given
+     * file hints.
+     */
+    private static String newLibrary(String fileHints) {
+        StringBuilder library = new StringBuilder();
+
+        library.append("<Library xmlns=\"http://www.OpenTravel.org/ns/OTA2/LibraryModel_v01_06\"");
+        library.append(" xmlns:xsd=\"http://www.w3.org/2001/XMLSchema\">");
+        library.append("<VersionScheme>OTA2</VersionScheme><Status>Draft</Status>");
+        library.append("<Namespace>").append(TEST_NAMESPACE).append("/v1</Namespace>");
+        library.append("<Prefix>pf</Prefix><Name>Prefetch_Test</Name>");
+
+        if (fileHints != null) {
+            library.append("<Import namespace=\"").append(TEST_NAMESPACE).append("/v1\"");
+            library.append(" prefix=\"pf\"");
+            library.append(" fileHints=\"").append(fileHints).append("\"/>");
+        }
+        library.append("<Comments>Test Library</Comments>");
+        library.append("<Simple name=\"Counter\" type=\"xsd:int\"/>");
+        library.append("</Library>");
+        return library.toString();
+    }
+
+    private static void writeLibrary(File folder, String filename, String fileHints)
+            throws Exception {
+        Files.write(new File(folder, filename).toPath(),
+                newLibrary(fileHints).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Repository manager that resolves items from a folder of library files and records each
+     * item that is requested.
+     */
+    private static class StubRepositoryManager extends RepositoryManager {
+
+        private List<String> requestedItems = Collections.synchronizedList(new ArrayList<>());
+        private File libraryFolder;
+
+        public StubRepositoryManager(File repositoryLocation, File libraryFolder)
+                throws RepositoryException {
+            super(repositoryLocation);
+            this.libraryFolder = libraryFolder;
+        }
+
+        @Override
+        public RepositoryItem getRepositoryItem(String baseNamespace, String filename,
+                String versionIdentifier) throws RepositoryException {
+            return newItem(filename);
+        }
+
+        @Override
+        public RepositoryItem getRepositoryItem(String itemUri, String itemNamespace)
+                throws RepositoryException {
+            return newItem(itemUri.substring(itemUri.lastIndexOf('/') + 1));
+        }
+
+        @Override
+        public URL getContentLocation(RepositoryItem item) throws RepositoryException {
+            return URLUtils.toURL(new File(libraryFolder, item.getFilename()));
+        }
+
+        private RepositoryItem newItem(String filename) {
+            RepositoryItemImpl item = new RepositoryItemImpl();
+
+            requestedItems.add(filename);
+            item.setBaseNamespace(TEST_NAMESPACE);
+            item.setFilename(filename);
+            item.setVersion("1.0.0");
+            return item;
+        }
+
+    }
+
+}
@@ -0,0 +1,200 @@
+/**
+ * Copyright (C) 2014 OpenTravel Alliance (info@opentravel.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opentravel.schemacompiler.task;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.opentravel.schemacompiler.model.TLLibrary;
+import org.opentravel.schemacompiler.model.TLModel;
+import org.opentravel.schemacompiler.model.XSDLibrary;
+import org.opentravel.schemacompiler.util.SchemaCompilerException;
+import org.opentravel.schemacompiler.validate.ValidationFindings;
+
+/**
+ * Verifies the concurrent execution of compiler task workers.
+ */
+public class TestCompilerWorkers {
+
+    private static final int COMPILER_THREADS = 3;
+
+    @Test
+    public void testNestedWorkersShareThreads() throws Exception {
+        final AtomicInteger activeCount = new AtomicInteger();
+        final AtomicInteger maxActiveCount = new AtomicInteger();
+        final Set<String> threadNames = Collections.synchronizedSet(new HashSet<String>());
+        WorkerTestTask parentTask = new WorkerTestTask();
+        List<Callable<Integer>> outerWorkers = new ArrayList<>();
+
+        parentTask.setCompilerThreads(COMPILER_THREADS);
+
+        for (int i = 0; i < 5; i++) {
+            final WorkerTestTask subtask = new WorkerTestTask();
+            final int outerIndex = i;
+
+            subtask.applyTaskOptions(parentTask);
+            subtask.setParentTask(parentTask);
+
+            outerWorkers.add(new Callable<Integer>() {
+                public Integer call() throws Exception {
+                    List<Callable<Integer>> innerWorkers = new ArrayList<>();
+                    int total = 0;
+
+                    for (int j = 0; j < 4; j++) {
+                        final int value = (outerIndex * 10) + j;
+
+                        innerWorkers.add(new Callable<Integer>() {
+                            public Integer call() throws Exception {
+                                int count = activeCount.incrementAndGet();
+
+                                try {
+                                    maxActiveCount.accumulateAndGet(count, Math::max);
+                                    threadNames.add(Thread.currentThread().getName());
+                                    Thread.sleep(20);
+                                    return value;
+
+                                } finally {
+                                    activeCount.decrementAndGet();
+                                }
+                            }
+                        });
+                    }
+                    for (Integer result : subtask.executeWorkers(innerWorkers)) {
+                        total += result;
+                    }
+                    return total;
+                }
+            });
+        }
+        List<Integer> results = parentTask.executeWorkers(outerWorkers);
+
+        // Results are returned in worker order, and the number of threads is not multiplied by
+        // the number of sub-tasks
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals((i * 40) + 6, results.get(i).intValue());
+        }
+        assertTrue(maxActiveCount.get() <= COMPILER_THREADS);
+        assertTrue(threadNames.size() <= COMPILER_THREADS);
+    }
+
+    @Test
+    public void testWorkerRuntimeException() throws Exception {
+        final IllegalStateException workerError = new IllegalStateException("Worker failure");
+        WorkerTestTask task = new WorkerTestTask();
+        List<Callable<Void>> workers = new ArrayList<>();
+
+        task.setCompilerThreads(COMPILER_THREADS);
+        workers.add(new Callable<Void>() {
+            public Void call() throws Exception {
+                return null;
+            }
+        });
+        workers.add(new Callable<Void>() {
+            public Void call() throws Exception {
+                throw workerError;
+            }
+        });
+
+        try {
+            task.executeWorkers(workers);
+            fail("Expected exception not thrown.");
+
+        } catch (SchemaCompilerException e) {
+            assertSame(workerError, e.getCause());
+        }
+
+        // Serial execution must report the error in the same way
+        task.setCompilerThreads(1);
+
+        try {
+            task.executeWorkers(workers);
+            fail("Expected exception not thrown.");
+
+        } catch (SchemaCompilerException e) {
+            assertSame(workerError, e.getCause());
+        }
+    }
+
+    @Test
+    public void testModelReadOnlyDuringGeneration() throws Exception {
+        TLModel model = new TLModel();
+        TLLibrary library = new TLLibrary();
+        final boolean[] readOnly = new boolean[1];
+        WorkerTestTask task = new WorkerTestTask() {
+            @Override
+            protected void generateOutput(Collection<TLLibrary> userDefinedLibraries,
+                    Collection<XSDLibrary> legacySchemas) throws SchemaCompilerException {
+                TLModel owningModel = userDefinedLibraries.iterator().next().getOwningModel();
+
+                readOnly[0] = owningModel.isReadOnly();
+
+                try {
+                    owningModel.addLibrary(new TLLibrary());
+                    fail("Expected exception not thrown.");
+
+                } catch (IllegalStateException e) {
+                    // Expected - libraries cannot be added during code generation
+                }
+            }
+        };
+
+        library.setNamespace("http://www.OpenTravel.org/ns/OTA2/workers-test/v01");
+        library.setName("Workers_Test");
+        model.addLibrary(library);
+        task.compileOutput(Collections.singletonList(library), Collections.<XSDLibrary> emptyList());
+
+        assertTrue(readOnly[0]);
+        assertFalse(model.isReadOnly());
+    }
+
+    /**
+     * Compiler task that performs no validation or code generation of its own.
+     */
+    private static class WorkerTestTask extends AbstractCompilerTask {
+
+        /**
+         * @see org.opentravel.schemacompiler.task.AbstractCompilerTask#validateLibraries(java.util.Collection)
+         */
+        @Override
+        protected ValidationFindings validateLibraries(Collection<TLLibrary> userDefinedLibraries) {
+            return new ValidationFindings();
+        }
+
+        /**
+         * @see org.opentravel.schemacompiler.task.AbstractCompilerTask#generateOutput(java.util.Collection,
+         *      java.util.Collection)
+         */
+        @Override
+        protected void generateOutput(Collection<TLLibrary> userDefinedLibraries,
+                Collection<XSDLibrary> legacySchemas) throws SchemaCompilerException {
+        }
+
+    }
+
+}
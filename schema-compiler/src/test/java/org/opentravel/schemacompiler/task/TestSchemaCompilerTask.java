@@ -15,9 +15,13 @@
  */
 package org.opentravel.schemacompiler.task;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 
 import java.io.File;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.Test;
 import org.opentravel.schemacompiler.codegen.CodeGeneratorTestAssertions;
@@ -63,6 +67,58 @@ public class TestSchemaCompilerTask {
         CodeGeneratorTestAssertions.validateGeneratedFiles( compilerTask.getGeneratedFiles() );
     }
 
+    @Test
+    public void testParallelSchemaCompilerTask() throws Exception {
+        File catalogFile = new File(SchemaCompilerTestUtils.getBaseLibraryLocation()
+                + "/library-catalog.xml");
+        File sourceFile = new File(SchemaCompilerTestUtils.getBaseLibraryLocation()
+                + "/test-package_v2/library_1_p2.xml");
+        File serialFolder = new File(System.getProperty("user.dir")
+                + "/target/codegen-output/testParallelSchemaCompilerTask/serial");
+        File parallelFolder = new File(System.getProperty("user.dir")
+                + "/target/codegen-output/testParallelSchemaCompilerTask/parallel");
+        CompileAllCompilerTask serialTask = newCompileAllTask(catalogFile, serialFolder);
+        CompileAllCompilerTask parallelTask = newCompileAllTask(catalogFile, parallelFolder);
+
+        parallelTask.setCompilerThreads(5);
+
+        ValidationFindings serialFindings = serialTask.compileOutput(sourceFile);
+        ValidationFindings parallelFindings = parallelTask.compileOutput(sourceFile);
+
+        SchemaCompilerTestUtils.printFindings(parallelFindings);
+        assertFalse(serialFindings.hasFinding(FindingType.ERROR));
+        assertFalse(parallelFindings.hasFinding(FindingType.ERROR));
+        assertEquals(getRelativePaths(serialTask.getGeneratedFiles(), serialFolder),
+                getRelativePaths(parallelTask.getGeneratedFiles(), parallelFolder));
+        CodeGeneratorTestAssertions.validateGeneratedFiles( parallelTask.getGeneratedFiles() );
+    }
+
+    private CompileAllCompilerTask newCompileAllTask(File catalogFile, File targetFolder) {
+        CompileAllCompilerTask compilerTask = TaskFactory.getTask(CompileAllCompilerTask.class);
+
+        compilerTask.setCatalogLocation(catalogFile.getAbsolutePath());
+        compilerTask.setOutputFolder(targetFolder.getAbsolutePath());
+        compilerTask.setCompileSchemas(true);
+        compilerTask.setCompileJsonSchemas(true);
+        compilerTask.setCompileServices(true);
+        compilerTask.setCompileSwagger(true);
+        compilerTask.setCompileHtml(true);
+        compilerTask.setGenerateExamples(true);
+        compilerTask.setServiceEndpointUrl("http://www.OpenTravel.org/services");
+        compilerTask.setResourceBaseUrl("http://www.OpenTravel.org/resources");
+        return compilerTask;
+    }
+
+    private List<String> getRelativePaths(List<File> files, File baseFolder) {
+        URI baseUri = baseFolder.toURI();
+        List<String> paths = new ArrayList<>();
+
+        for (File file : files) {
+            paths.add(baseUri.relativize(file.toURI()).getPath());
+        }
+        return paths;
+    }
+
     @Test
     public void testSchemaGenerationForInheritance() throws Exception {
         File sourceFile = new File(SchemaCompilerTestUtils.getBaseLibraryLocation()
@@ -0,0 +1,308 @@
+/**
+ * Copyright (C) 2014 OpenTravel Alliance (info@opentravel.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opentravel.schemacompiler.xml;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import javax.xml.XMLConstants;
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.junit.Test;
+import org.opentravel.schemacompiler.codegen.xsd.AbstractXsdCodeGenerator;
+import org.opentravel.schemacompiler.task.CompileAllCompilerTask;
+import org.opentravel.schemacompiler.task.TaskFactory;
+import org.opentravel.schemacompiler.validate.FindingType;
+import org.opentravel.schemacompiler.validate.ValidationFindings;
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+
+/**
+ * Verifies that XML content streamed through the <code>XMLPrettyPrinter</code> is formatted
+ * byte-for-byte identically to the same content formatted from a DOM document.
+ */
+public class TestXMLPrettyPrinter {
+
+    private static final String LIBRARY_CONTEXT = ":org.w3._2001.xmlschema:org.opentravel.ns.ota2.librarymodel_v01_06";
+    private static final String WSDL_CONTEXT = ":org.xmlsoap.schemas.wsdl:org.w3._2001.xmlschema:org.opentravel.ns.ota2.appinfo_v01_00";
+    private static final String LIBRARY_SCHEMA_LOCATION = "http://www.OpenTravel.org/ns/OTA2/LibraryModel_v01_06 OTA2_LibraryModel_v1.6.0.xsd";
+    private static final String TEST_NAMESPACE = "http://www.OpenTravel.org/ns/OTA2/pretty-print-test";
+
+    @Test
+    public void testLibraryFormatting() throws Exception {
+        File libraryFolder = new File(System.getProperty("user.dir") + "/src/test/resources/libraries_1_6");
+        JAXBContext jaxbContext = JAXBContext.newInstance(LIBRARY_CONTEXT);
+        int libraryCount = 0;
+
+        for (File libraryFile : findFiles(libraryFolder, ".xml", new ArrayList<File>())) {
+            Object libraryContent = unmarshal(jaxbContext, libraryFile);
+
+            if (libraryContent != null) {
+                Marshaller marshaller = jaxbContext.createMarshaller();
+
+                marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
+                marshaller.setProperty(Marshaller.JAXB_SCHEMA_LOCATION, LIBRARY_SCHEMA_LOCATION);
+                assertFormattingMatches(libraryFile.getName(), marshaller, libraryContent,
+                        LibraryLineBreakProcessor::new);
+                libraryCount++;
+            }
+        }
+        assertTrue(libraryCount > 0);
+    }
+
+    @Test
+    public void testSchemaAndWsdlFormatting() throws Exception {
+        File catalogFile = new File(System.getProperty("user.dir")
+                + "/src/test/resources/libraries_1_6/library-catalog.xml");
+        File sourceFile = new File(System.getProperty("user.dir")
+                + "/src/test/resources/libraries_1_6/test-package-service/SimpleService.xml");
+        File targetFolder = new File(System.getProperty("user.dir")
+                + "/target/codegen-output/testXMLPrettyPrinter");
+        CompileAllCompilerTask compilerTask = TaskFactory.getTask(CompileAllCompilerTask.class);
+        JAXBContext schemaContext = JAXBContext.newInstance(AbstractXsdCodeGenerator.SCHEMA_CONTEXT);
+        JAXBContext wsdlContext = JAXBContext.newInstance(WSDL_CONTEXT);
+        int schemaCount = 0;
+        int wsdlCount = 0;
+
+        compilerTask.setCatalogLocation(catalogFile.getAbsolutePath());
+        compilerTask.setOutputFolder(targetFolder.getAbsolutePath());
+        compilerTask.setCompileSchemas(true);
+        compilerTask.setCompileJsonSchemas(false);
+        compilerTask.setCompileServices(true);
+        compilerTask.setCompileSwagger(false);
+        compilerTask.setCompileHtml(false);
+        compilerTask.setGenerateExamples(false);
+        compilerTask.setServiceEndpointUrl("http://www.OpenTravel.org/services");
+
+        ValidationFindings findings = compilerTask.compileOutput(sourceFile);
+
+        assertFalse(findings.hasFinding(FindingType.ERROR));
+
+        for (File outputFile : compilerTask.getGeneratedFiles()) {
+            if (outputFile.getName().endsWith(".xsd")) {
+                Object schemaContent = unmarshal(schemaContext, outputFile);
+
+                assertFormattingMatches(outputFile.getName(), schemaContext.createMarshaller(),
+                        schemaContent, XMLSchemaLineBreakProcessor::new);
+                schemaCount++;
+
+            } else if (outputFile.getName().endsWith(".wsdl")) {
+                Object wsdlContent = unmarshal(wsdlContext, outputFile);
+
+                assertFormattingMatches(outputFile.getName(), wsdlContext.createMarshaller(),
+                        wsdlContent, WSDLLineBreakProcessor::new);
+                wsdlCount++;
+            }
+        }
+        assertTrue(schemaCount > 0);
+        assertTrue(wsdlCount > 0);
+    }
+
+    @Test
+    public void testFormattingRules() throws Exception {
+        Document document = XMLPrettyPrinter.newDocument();
+        Element root = document.createElementNS(TEST_NAMESPACE, "Library");
+        Element element = root;
+
+        document.appendChild(root);
+        root.setAttributeNS(XMLConstants.XMLNS_ATTRIBUTE_NS_URI, "xmlns", TEST_NAMESPACE);
+        root.setAttributeNS(XMLConstants.XMLNS_ATTRIBUTE_NS_URI, "xmlns:xsi",
+                XMLConstants.W3C_XML_SCHEMA_INSTANCE_NS_URI);
+        root.setAttributeNS(XMLConstants.W3C_XML_SCHEMA_INSTANCE_NS_URI, "xsi:schemaLocation",
+                TEST_NAMESPACE + " PrettyPrintTest.xsd");
+        root.setAttributeNS(null, "version", "1.0.0");
+        root.setAttributeNS(null, "name", "PrettyPrintTest");
+
+        // Start tags that exceed the maximum line width are wrapped between attributes
+        Element simple = appendElement(root, "Simple", null);
+
+        for (int i = 0; i < 8; i++) {
+            simple.setAttributeNS(null, "attribute" + (7 - i), "LongAttributeValue_" + i);
+        }
+
+        // Markup and whitespace characters are escaped in attributes and content
+        appendElement(root, "Simple", "Text & <markup> with\ttabs\rand\nnew lines \uD83D\uDE00")
+                .setAttributeNS(null, "pattern", "[A-Z]\t\"quoted\" <&>\n\u00e9\uD83D\uDE00");
+        appendElement(root, "Documentation", "  \n  ");
+        appendElement(root, "Documentation", "");
+
+        // Spaces and line breaks are preserved within xml:space="preserve" elements
+        Element preserved = appendElement(root, "Example", "  preserved  ");
+
+        preserved.setAttributeNS(XMLConstants.XML_NS_URI, "xml:space", "preserve");
+        appendElement(preserved, "Value", "  text  ");
+        preserved.appendChild(document.createTextNode("\n  "));
+
+        // Mixed content and comments
+        Element mixed = appendElement(root, "CoreObject", "Leading text");
+
+        appendElement(mixed, "Value", "value");
+        mixed.appendChild(document.createComment("A comment -- with dashes"));
+        appendElement(mixed, "Value", null);
+
+        // Indentation is limited for deeply-nested elements
+        for (int i = 0; i < 12; i++) {
+            element = appendElement(element, "BusinessObject", null);
+            element.setAttributeNS(null, "name", "NestedElement_" + i);
+        }
+        appendElement(element, "Value", "Deeply-nested content");
+        assertFormattingMatches(document);
+    }
+
+    /**
+     * Formats the given JAXB content as a DOM document and as streamed content, and asserts that
+     * both results are identical.
+     */
+    private void assertFormattingMatches(String name, Marshaller marshaller, Object jaxbContent,
+            Supplier<PrettyPrintLineBreakProcessor> lineBreakProcessor) throws JAXBException {
+        Document document = XMLPrettyPrinter.newDocument();
+        ByteArrayOutputStream domOutput = new ByteArrayOutputStream();
+        ByteArrayOutputStream streamOutput = new ByteArrayOutputStream();
+
+        marshaller.marshal(jaxbContent, document);
+        new XMLPrettyPrinter(lineBreakProcessor.get()).formatDocument(document, domOutput);
+        new XMLPrettyPrinter(lineBreakProcessor.get()).formatJaxbContent(marshaller, jaxbContent,
+                streamOutput);
+
+        assertTrue(domOutput.size() > 0);
+        assertEquals(name, new String(domOutput.toByteArray(), StandardCharsets.UTF_8),
+                new String(streamOutput.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Formats the given DOM document directly and by streaming each of its nodes to the
+     * formatting stream writer, and asserts that both results are identical.
+     */
+    private void assertFormattingMatches(Document document) throws Exception {
+        ByteArrayOutputStream domOutput = new ByteArrayOutputStream();
+        ByteArrayOutputStream streamOutput = new ByteArrayOutputStream();
+        Writer writer = new OutputStreamWriter(streamOutput, StandardCharsets.UTF_8);
+        XMLStreamWriter streamWriter = new PrettyPrintXMLStreamWriter(writer,
+                new LibraryLineBreakProcessor());
+
+        // Stream the content first, since the DOM formatter inserts line break comments
+        streamWriter.writeStartDocument();
+        writeNode(document.getDocumentElement(), streamWriter);
+        streamWriter.writeEndDocument();
+        streamWriter.flush();
+        new XMLPrettyPrinter(new LibraryLineBreakProcessor()).formatDocument(document, domOutput);
+
+        assertEquals(new String(domOutput.toByteArray(), StandardCharsets.UTF_8),
+                new String(streamOutput.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Writes the given DOM node and its children to the stream writer. Attributes are written in
+     * the reverse of their DOM order, so that the sorting of attributes is also verified.
+     */
+    private void writeNode(Node node, XMLStreamWriter writer) throws XMLStreamException {
+        if (node.getNodeType() == Node.ELEMENT_NODE) {
+            NamedNodeMap attributes = node.getAttributes();
+
+            writer.writeStartElement((node.getPrefix() == null) ? "" : node.getPrefix(),
+                    node.getLocalName(), node.getNamespaceURI());
+
+            for (int i = attributes.getLength() - 1; i >= 0; i--) {
+                Attr attribute = (Attr) attributes.item(i);
+
+                if (XMLConstants.XMLNS_ATTRIBUTE_NS_URI.equals(attribute.getNamespaceURI())) {
+                    if (attribute.getPrefix() == null) {
+                        writer.writeDefaultNamespace(attribute.getValue());
+                    } else {
+                        writer.writeNamespace(attribute.getLocalName(), attribute.getValue());
+                    }
+                } else {
+                    writer.writeAttribute((attribute.getPrefix() == null) ? "" : attribute.getPrefix(),
+                            attribute.getNamespaceURI(), attribute.getLocalName(), attribute.getValue());
+                }
+            }
+            for (Node child = node.getFirstChild(); child != null; child = child.getNextSibling()) {
+                writeNode(child, writer);
+            }
+            writer.writeEndElement();
+
+        } else if (node.getNodeType() == Node.TEXT_NODE) {
+            writer.writeCharacters(node.getNodeValue());
+
+        } else if (node.getNodeType() == Node.COMMENT_NODE) {
+            writer.writeComment(node.getNodeValue());
+        }
+    }
+
+    /**
+     * Appends a new child element (with optional text content) to the given parent element.
+     */
+    private Element appendElement(Element parent, String localName, String text) {
+        Document document = parent.getOwnerDocument();
+        Element element = document.createElementNS(TEST_NAMESPACE, localName);
+
+        if (text != null) {
+            element.appendChild(document.createTextNode(text));
+        }
+        parent.appendChild(element);
+        return element;
+    }
+
+    /**
+     * Returns the given file as JAXB content, or null if the file's content is not valid for the
+     * JAXB context.
+     */
+    private Object unmarshal(JAXBContext jaxbContext, File file) {
+        try {
+            return jaxbContext.createUnmarshaller().unmarshal(file);
+
+        } catch (JAXBException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Recursively collects all files with the given extension from the specified folder.
+     */
+    private List<File> findFiles(File folder, String extension, List<File> files) {
+        File[] folderFiles = folder.listFiles();
+
+        if (folderFiles != null) {
+            for (File file : folderFiles) {
+                if (file.isDirectory()) {
+                    findFiles(file, extension, files);
+
+                } else if (file.getName().endsWith(extension)) {
+                    files.add(file);
+                }
+            }
+        }
+        return files;
+    }
+
+}